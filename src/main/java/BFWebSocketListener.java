@@ -1,18 +1,88 @@
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import org.jfree.data.time.*;
 import org.jfree.data.time.ohlc.*;
+import com.fx.jfree.chart.feed.BitfinexCandleDecoder;
+import com.fx.jfree.chart.feed.IngestHandler;
+import com.fx.jfree.chart.feed.IngestQueue;
+import com.fx.jfree.chart.feed.OverflowPolicy;
 import okhttp3.*;
 
 public class BFWebSocketListener extends WebSocketListener {
 	private OHLCSeriesCollection collection;
 
-	private org.json.JSONArray	arr = null,
-								arr2 = null,
-								arr3 = null;
+	// candles are pulled from the messages without building JSON arrays,
+	// oldest first
+	private final BitfinexCandleDecoder decoder = new BitfinexCandleDecoder();
+
+	private final IngestHandler queueHandler = new IngestHandler() {
+		@Override
+		public void onTrade(int symbol, long time, double price, double size) {
+		}
+
+		@Override
+		public void onCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
+			ingestQueue.offerCandle(0, time, open, high, low, close, volume);
+		}
+	};
+
+	// candles are parsed on the socket thread and applied to the collection
+	// on the EDT, once per frame
+	private final IngestQueue ingestQueue = new IngestQueue(1 << 15, 1, OverflowPolicy.CONFLATE);
+	private final Timer drainTimer;
 
 	public BFWebSocketListener(OHLCSeriesCollection collection) {
 		this.collection = collection;
+
+		drainTimer = new Timer(16, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				drain();
+			}
+		});
+		drainTimer.start();
+	}
+
+	public IngestQueue getIngestQueue() {
+		return ingestQueue;
 	}
 
+	private void drain() {
+		collection.beginUpdate();
+		try {
+			ingestQueue.drain(candleHandler);
+		}
+		finally {
+			collection.commitUpdate();
+		}
+	}
+
+	private final IngestHandler candleHandler = new IngestHandler() {
+		@Override
+		public void onTrade(int symbol, long time, double price, double size) {
+		}
+
+		@Override
+		public void onCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
+			if(collection.getSeriesCount() == 0) collection.addSeries(new OHLCSeries(""));
+
+			OHLCSeries series = collection.getSeries(0);
+			long lastOhlcTime = series.getItemCount() > 0 ?
+									series.getPeriod(series.getItemCount()-1).getFirstMillisecond() :
+									Long.MIN_VALUE;
+
+			if(time > lastOhlcTime) {//add new candle data
+				series.add(new OHLCItem(new FixedMillisecond(time), open, high, low, close, volume));
+			}
+			else if(time == lastOhlcTime) {//update last candle
+				series.reviseLast(high, low, close, volume);
+			}
+			// older candles (e.g. a snapshot re-sent on resubscribe) are already on the chart
+		}
+	};
+
 	@Override
 	public void onOpen(WebSocket socket, Response response) {
 		System.out.println("BF_ON_OPEN");
@@ -23,6 +93,8 @@ public class BFWebSocketListener extends WebSocketListener {
 	@Override
 	public void onFailure(WebSocket webSocket, Throwable t, Response response) {
 		t.printStackTrace();
+
+		stopDraining();
 	}
 
 	@Override
@@ -33,101 +105,28 @@ public class BFWebSocketListener extends WebSocketListener {
 	@Override
 	public void onClosed(WebSocket webSocket, int code, String reason) {
 		System.out.println("BF_SOCKET_CLOSED. CODE: "+code+" "+reason);
-	}
-
-	@Override
-	public void onMessage(WebSocket socket, String text) {
-		System.out.println("BF_ON_MESSAGE. "+text);
-
-		if(text.contains("event") || text.contains("hb")) return;
-		
-		arr = new org.json.JSONArray(text);
-
-		if(arr.get(1) == null) return;
-
-		arr2 = new org.json.JSONArray(arr.get(1).toString().trim());
-
-		//System.out.println(	arr2.length()	);
-
-		if(arr2.length() > 6) {//add first data
-			//OHLCSeriesCollection col = new OHLCSeriesCollection();
-			OHLCSeries ser = new OHLCSeries("");
-			//col.addSeries(ser);
-
-			for(int i=0; i<arr2.length(); i++) {
-				arr3 = new org.json.JSONArray(arr2.get(i).toString().trim());
 
-				OHLCItem ohlcItem = new OHLCItem(
-					new FixedMillisecond(Long.parseLong(arr3.get(0).toString().trim())),
-					Double.parseDouble(arr3.get(1).toString().trim()),	//open,
-					Double.parseDouble(arr3.get(3).toString().trim()),	//high,
-					Double.parseDouble(arr3.get(4).toString().trim()),	//low,
-					Double.parseDouble(arr3.get(2).toString().trim()),	//close
-					Double.parseDouble(arr3.get(5).toString().trim())	//volume
-				);
+		stopDraining();
+	}
 
-				//collection.getSeries(0).add(ohlcItem);
-				
-				ser.add(ohlcItem);
-			}
-			
-			
-			if(ser.getItemCount() > 0) {
-				collection.removeAllSeries();
-				collection.addSeries(ser);
-			}
-			
-		}
-		else {//update last data
-			//System.out.println("6_items: "+	arr2.toString().trim()	);
-			
-			arr3 = new org.json.JSONArray(arr2.toString().trim());
-			
-			long newTime 		= Long.parseLong(arr3.get(0).toString().trim());
-			long lastOhlcTime 	= ((OHLCItem)collection.getSeries(0).getDataItem(collection.getSeries(0).getItemCount()-1)).getPeriod().getFirstMillisecond();
-			
-			if(newTime > lastOhlcTime) {//add new candle data
-				OHLCItem ohlcItem = new OHLCItem(
-					new FixedMillisecond(newTime),
-					Double.parseDouble(arr3.get(1).toString().trim()),	//open,
-					Double.parseDouble(arr3.get(3).toString().trim()),	//high,
-					Double.parseDouble(arr3.get(4).toString().trim()),	//low,
-					Double.parseDouble(arr3.get(2).toString().trim()),	//close
-					Double.parseDouble(arr3.get(5).toString().trim())	//volume
-				);
-
-				collection.getSeries(0).add(ohlcItem);
-			}
-			else {//update last candle
-				double newPrice = Double.parseDouble(arr3.get(2).toString().trim());
-
-				//System.out.println("STOCK_NEW_PR: "+newPrice);
-
-				if(collection.getSeriesCount() > 0) {
-					collection.getSeries(0).updatePrice(newPrice);
-				}
-
-				/*
-				collection.getSeries(0).remove(
-					collection.getSeries(0).getItemCount()-1
-				);
-
-				OHLCItem ohlcItem = new OHLCItem(
-					new FixedMillisecond(newTime),
-					Double.parseDouble(arr3.get(1).toString().trim()),	//open,
-					Double.parseDouble(arr3.get(3).toString().trim()),	//high,
-					Double.parseDouble(arr3.get(4).toString().trim()),	//low,
-					Double.parseDouble(arr3.get(2).toString().trim()),	//close
-					Double.parseDouble(arr3.get(5).toString().trim())	//volume
-				);
-
-				collection.getSeries(0).add(ohlcItem);
-				*/
+	/**
+	 * Stops the drain timer once the socket is gone, so that a reconnect
+	 * (with a new listener) doesn't leave a timer behind, and applies the
+	 * candles still queued.
+	 */
+	private void stopDraining() {
+		drainTimer.stop();
+
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				drain();
 			}
+		});
+	}
 
-			//System.out.println(	"ITEMS_IN_SERIES: "		);
-		}
-
-		System.out.println("");		
+	@Override
+	public void onMessage(WebSocket socket, String text) {
+		decoder.decode(text, queueHandler);
 	}
 }
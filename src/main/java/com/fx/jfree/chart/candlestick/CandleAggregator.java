@@ -0,0 +1,172 @@
+package com.fx.jfree.chart.candlestick;
+
+import javax.swing.event.EventListenerList;
+
+/**
+ * Builds open/high/low/close/volume candles from a stream of trades for one
+ * or more intervals at once.  Ticks are passed in as primitives and the
+ * running state for each interval is kept in primitive arrays, so feeding a
+ * tick allocates nothing.  Candle boundaries are aligned to multiples of the
+ * interval since the epoch (UTC).
+ * <P>
+ * A tick that falls in a later interval than the current candle completes
+ * that candle and opens the next one.  A tick that is older than the current
+ * candle is merged into the current candle.
+ * <P>
+ * Instances are not thread safe; feed each aggregator from a single thread.
+ */
+public class CandleAggregator {
+	public static final long SECOND 		= 1000L;
+	public static final long MINUTE 		= 60 * SECOND;
+	public static final long FIVE_MINUTES 	= 5 * MINUTE;
+	public static final long HOUR 			= 60 * MINUTE;
+	public static final long DAY 			= 24 * HOUR;
+
+	/** The candle intervals in milliseconds. */
+	private final long[] intervals;
+
+	/** Start time of the current candle for each interval. */
+	private final long[] time;
+
+	private final double[] open;
+	private final double[] high;
+	private final double[] low;
+	private final double[] close;
+	private final double[] volume;
+
+	/** Whether a candle is in progress for each interval. */
+	private final boolean[] active;
+
+	/** Storage for registered listeners. */
+	private final EventListenerList listeners;
+
+	/**
+	 * Creates a new aggregator.
+	 *
+	 * @param intervals  the candle intervals in milliseconds (at least one,
+	 *     each positive).
+	 */
+	public CandleAggregator(long... intervals) {
+		if(intervals == null || intervals.length == 0) throw new IllegalArgumentException("At least one interval is required.");
+
+		for(long interval : intervals) {
+			if(interval <= 0) throw new IllegalArgumentException("Requires 'interval' > 0.");
+		}
+
+		this.intervals 	= intervals.clone();
+		time 			= new long[intervals.length];
+		open 			= new double[intervals.length];
+		high 			= new double[intervals.length];
+		low 			= new double[intervals.length];
+		close 			= new double[intervals.length];
+		volume 			= new double[intervals.length];
+		active 			= new boolean[intervals.length];
+		listeners 		= new EventListenerList();
+	}
+
+	/**
+	 * Returns the number of intervals this aggregator builds candles for.
+	 *
+	 * @return The interval count.
+	 */
+	public int getIntervalCount() {
+		return intervals.length;
+	}
+
+	/**
+	 * Returns an interval.
+	 *
+	 * @param index  the interval index.
+	 *
+	 * @return The interval in milliseconds.
+	 */
+	public long getInterval(int index) {
+		return intervals[index];
+	}
+
+	public void addCandleListener(CandleListener listener) {
+		listeners.add(CandleListener.class, listener);
+	}
+
+	public void removeCandleListener(CandleListener listener) {
+		listeners.remove(CandleListener.class, listener);
+	}
+
+	/**
+	 * Adds a trade to the candles for every interval.
+	 *
+	 * @param time  the trade time in milliseconds.
+	 * @param price  the trade price.
+	 * @param size  the trade size.
+	 */
+	public void onTick(long time, double price, double size) {
+		for(int i = 0; i < intervals.length; i++) {
+			long start = time - Math.floorMod(time, intervals[i]);
+
+			if(active[i] && start > this.time[i]) {
+				fireCandleUpdated(i, true);
+
+				active[i] = false;
+			}
+
+			if(!active[i]) {
+				this.time[i] 	= start;
+				open[i] 		= price;
+				high[i] 		= price;
+				low[i] 			= price;
+				volume[i] 		= 0;
+				active[i] 		= true;
+			}
+			else {
+				if(price > high[i]) high[i] = price;
+				if(price < low[i]) low[i] = price;
+			}
+
+			close[i] = price;
+			volume[i] += size;
+
+			fireCandleUpdated(i, false);
+		}
+	}
+
+	/**
+	 * Completes the candles that are in progress, if any.  Call this when the
+	 * feed has ended.
+	 */
+	public void flush() {
+		for(int i = 0; i < intervals.length; i++) {
+			if(active[i]) {
+				fireCandleUpdated(i, true);
+
+				active[i] = false;
+			}
+		}
+	}
+
+	/**
+	 * Clears the candles that are in progress without reporting them.
+	 */
+	public void reset() {
+		for(int i = 0; i < intervals.length; i++) {
+			active[i] = false;
+		}
+	}
+
+	private void fireCandleUpdated(int i, boolean complete) {
+		Object[] listenerList = listeners.getListenerList();
+		for(int j = listenerList.length - 2; j >= 0; j -= 2) {
+			if(listenerList[j] == CandleListener.class) {
+				((CandleListener) listenerList[j + 1]).candleUpdated(
+					intervals[i],
+					time[i],
+					open[i],
+					high[i],
+					low[i],
+					close[i],
+					volume[i],
+					complete
+				);
+			}
+		}
+	}
+}
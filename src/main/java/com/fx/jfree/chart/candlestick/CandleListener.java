@@ -0,0 +1,25 @@
+package com.fx.jfree.chart.candlestick;
+
+import java.util.EventListener;
+
+/**
+ * Receives candles built by a {@link CandleAggregator}.
+ */
+public interface CandleListener extends EventListener {
+	/**
+	 * Called whenever a candle changes.  In-progress candles are reported
+	 * after every tick that updates them, with {@code complete} set to
+	 * {@code false}; each candle is reported exactly once more with
+	 * {@code complete} set to {@code true} when its interval has ended.
+	 *
+	 * @param interval  the candle interval in milliseconds.
+	 * @param time  the candle start time in milliseconds.
+	 * @param open  the open price.
+	 * @param high  the high price.
+	 * @param low  the low price.
+	 * @param close  the close price.
+	 * @param volume  the traded volume.
+	 * @param complete  {@code true} if the candle is finished.
+	 */
+	public void candleUpdated(long interval, long time, double open, double high, double low, double close, double volume, boolean complete);
+}
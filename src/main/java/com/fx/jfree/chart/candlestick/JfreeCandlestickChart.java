@@ -2,11 +2,14 @@ package com.fx.jfree.chart.candlestick;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.TimeZone;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.DateAxis;
@@ -17,18 +20,23 @@ import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.CandlestickRenderer;
 import org.jfree.chart.renderer.xy.XYBarRenderer;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.data.time.FixedMillisecond;
 import org.jfree.data.time.TimeSeries;
 import org.jfree.data.time.TimeSeriesCollection;
 import org.jfree.data.time.ohlc.OHLCSeries;
 import org.jfree.data.time.ohlc.OHLCSeriesCollection;
+import com.fx.jfree.chart.feed.IngestHandler;
+import com.fx.jfree.chart.feed.IngestQueue;
+import com.fx.jfree.chart.feed.OverflowPolicy;
+import com.fx.jfree.chart.indicator.IndicatorBinding;
+import com.fx.jfree.chart.indicator.RSIIndicator;
 import com.fx.jfree.chart.model.Trade;
-import com.fx.jfree.chart.utils.MathUtils;
-import com.fx.jfree.chart.utils.TimeUtils;
 
 @SuppressWarnings("serial")
 public class JfreeCandlestickChart extends JPanel {
-	private static final DateFormat READABLE_TIME_FORMAT = new SimpleDateFormat("kk:mm:ss");
+	// candle times are plotted as-is, so axis labels are formatted in UTC
+	private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("UTC");
 
 	private OHLCSeries ohlcSeries;
 	private TimeSeries volumeSeries;
@@ -36,16 +44,43 @@ public class JfreeCandlestickChart extends JPanel {
 	private static final int MIN = 60000;
 	// Every minute
 	private int timeInterval = 1;
-	private Trade candelChartIntervalFirstPrint = null;
-	private double open = 0.0;
-	private double close = 0.0;
-	private double low = 0.0;
-	private double high = 0.0;
-	private long volume = 0;
+	private static final int RSI_PERIOD = 14;
+	private final CandleAggregator candleAggregator;
+
+	// ticks are handed from feed threads to the EDT through this queue
+	private static final int QUEUE_CAPACITY = 1 << 16;
+	private static final int FRAME_MILLIS = 16;
+	private final IngestQueue ingestQueue;
+	private final Timer drainTimer;
+	// set by flush(), cleared by the drain timer that completes the candle
+	private volatile boolean flushRequested;
+	private final ChartPanel chartPanel;
 
 	public JfreeCandlestickChart(String title) {
+		this(title, OverflowPolicy.BLOCK);
+	}
+
+	/**
+	 * Creates a new chart panel.
+	 *
+	 * @param title  the chart title.
+	 * @param overflowPolicy  what to do with ticks that arrive while the
+	 *     ingest queue is full.
+	 */
+	public JfreeCandlestickChart(String title, OverflowPolicy overflowPolicy) {
+		ingestQueue = new IngestQueue(QUEUE_CAPACITY, 1, overflowPolicy, timeInterval * MIN);
+
+		candleAggregator = new CandleAggregator(timeInterval * MIN);
+		candleAggregator.addCandleListener(new CandleListener() {
+			@Override
+			public void candleUpdated(long interval, long time, double open, double high, double low, double close, double volume, boolean complete) {
+				// the candle in progress is shown and revised as ticks arrive
+				updateCandle(time, open, high, low, close, volume);
+			}
+		});
+
 		final JFreeChart candlestickChart = createChart(title);
-		final ChartPanel chartPanel = new ChartPanel(candlestickChart);
+		chartPanel = new ChartPanel(candlestickChart);
 
 		chartPanel.setPreferredSize(new java.awt.Dimension(1200, 500));
 
@@ -54,6 +89,29 @@ public class JfreeCandlestickChart extends JPanel {
 		chartPanel.setDoubleBuffered(true);
 
 		add(chartPanel, BorderLayout.CENTER);
+
+		drainTimer = new Timer(FRAME_MILLIS, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				// candles and volumes change together, so a frame pinning them
+				// is not interleaved; if one is, the ticks wait for the next timer
+				if(!chartPanel.getRenderLock().tryLock()) return;
+
+				try {
+					// read before draining, so every tick queued before the
+					// request is applied before the candle is completed
+					boolean flush = flushRequested;
+					flushRequested = false;
+
+					drain();
+					if(flush) candleAggregator.flush();
+				}
+				finally {
+					chartPanel.getRenderLock().unlock();
+				}
+			}
+		});
+		drainTimer.start();
 	}
 
 	private JFreeChart createChart(String chartTitle) {
@@ -76,6 +134,8 @@ public class JfreeCandlestickChart extends JPanel {
 			null
 			//new CustomHighLowItemLabelGenerator(new SimpleDateFormat("kk:mm"), new DecimalFormat("0.000"))
 		);
+		// merge bars that share a pixel column when zoomed far out
+		candlestickRenderer.setLevelOfDetail(true);
 		// Create candlestickSubplot
 		XYPlot candlestickSubplot = new XYPlot(candlestickDataset, null, priceAxis, candlestickRenderer);
 		candlestickSubplot.setBackgroundPaint(Color.WHITE);
@@ -102,7 +162,7 @@ public class JfreeCandlestickChart extends JPanel {
 		//timeRenderer.setMargin(-3);
 		timeRenderer.setShadowVisible(false);
 		timeRenderer.setDefaultToolTipGenerator(
-			new StandardXYToolTipGenerator("Volume--> Time={1} Size={2}", new SimpleDateFormat("kk:mm"), new DecimalFormat("0"))
+			new StandardXYToolTipGenerator("Volume--> Time={1} Size={2}", createTimeFormat("kk:mm"), new DecimalFormat("0"))
 		);
 
 
@@ -118,11 +178,24 @@ public class JfreeCandlestickChart extends JPanel {
 		volumeSubplot.setDomainCrosshairVisible(true);
 		volumeSubplot.setDomainCrosshairLockedOnData(false);
 		
+		/**
+		 * Creating RSI subplot, kept up to date from the candles
+		 */
+		RSIIndicator rsi = new RSIIndicator(RSI_PERIOD);
+		new IndicatorBinding(ohlcSeries, rsi, candlestickDataset.getXPosition());
+
+		NumberAxis rsiAxis = new NumberAxis("");
+		rsiAxis.setRange(0, 100);
+		rsiAxis.setAutoRange(false);
+
+		XYLineAndShapeRenderer rsiRenderer = new XYLineAndShapeRenderer(true, false);
+		rsiRenderer.setSeriesPaint(0, Color.BLUE);
+
 		XYPlot rsiSubPlot = new XYPlot(
+			rsi.getDataset(),
 			null,
-			null,
-			null,
-			null
+			rsiAxis,
+			rsiRenderer
 		);
 
 		/**
@@ -131,7 +204,8 @@ public class JfreeCandlestickChart extends JPanel {
 		 */
 		//Creating charts common dateAxis
 		DateAxis dateAxis = new DateAxis("");
-		dateAxis.setDateFormatOverride(new SimpleDateFormat("kk:mm"));
+		dateAxis.setTimeZone(TIME_ZONE);
+		dateAxis.setDateFormatOverride(createTimeFormat("kk:mm"));
 
 		// reduce the default left/right margin from 0.05 to 0.02
 		dateAxis.setLowerMargin(0.02);
@@ -163,69 +237,136 @@ public class JfreeCandlestickChart extends JPanel {
 		return chart;
 	}
 
-	public void addCandle(long time, double o, double h, double l, double c, long v) {
+	private static DateFormat createTimeFormat(String pattern) {
+		DateFormat format = new SimpleDateFormat(pattern);
+		format.setTimeZone(TIME_ZONE);
+
+		return format;
+	}
+
+	/**
+	 * Returns the panel that shows the chart, e.g. to switch on
+	 * {@link ChartPanel#setAsyncRendering(boolean) async rendering}.
+	 *
+	 * @return The chart panel.
+	 */
+	public ChartPanel getChartPanel() {
+		return chartPanel;
+	}
+
+	/**
+	 * Returns the queue that carries ticks from feed threads to the EDT, e.g.
+	 * to monitor its depth and drop counters.
+	 *
+	 * @return The queue.
+	 */
+	public IngestQueue getIngestQueue() {
+		return ingestQueue;
+	}
+
+	/**
+	 * Applies all queued ticks to the chart datasets as one batch, so the
+	 * chart redraws at most once per frame.  Must be called on the EDT,
+	 * holding the chart panel's render lock.
+	 */
+	private void drain() {
+		ohlcSeries.beginUpdate();
+		volumeSeries.beginUpdate();
 		try {
-			// Add bar to the data. Let's repeat the same bar
-			FixedMillisecond t = new FixedMillisecond(READABLE_TIME_FORMAT.parse(TimeUtils.convertToReadableTime(time)));
-			ohlcSeries.add(t, o, h, l, c);
-			volumeSeries.add(t, v);
+			ingestQueue.drain(tickHandler);
 		}
-		catch(ParseException e) {
-			e.printStackTrace();
+		finally {
+			volumeSeries.commitUpdate();
+			ohlcSeries.commitUpdate();
 		}
 	}
 
-	public void onTrade(Trade t) {
-		double price = t.getPrice();
-
-		if(candelChartIntervalFirstPrint != null) {
-			long time = t.getTime();
-
-			if(timeInterval == (int) ((time / MIN) - (candelChartIntervalFirstPrint.getTime() / MIN))) {
-				// Set the period close price
-				close = price;
-						//MathUtils.roundDouble(price, MathUtils.TWO_DEC_DOUBLE_FORMAT);
-				// Add new candle
-				addCandle(time, open, high, low, close, volume);
-				// Reset the intervalFirstPrint to null
-				candelChartIntervalFirstPrint = null;
-			}
-			else {
-				// Set the current low price
-				/*
-				if (MathUtils.roundDouble(price, MathUtils.TWO_DEC_DOUBLE_FORMAT) < low)
-					low = MathUtils.roundDouble(price, MathUtils.TWO_DEC_DOUBLE_FORMAT);
-				*/
-				
-				if(price < low) low = price;
-
-				// Set the current high price
-				/*
-				if (MathUtils.roundDouble(price, MathUtils.TWO_DEC_DOUBLE_FORMAT) > high)
-					high = MathUtils.roundDouble(price, MathUtils.TWO_DEC_DOUBLE_FORMAT);
-				*/
-				
-				if(price > high) high = price;
-
-				volume += t.getSize();
-			}
+	private final IngestHandler tickHandler = new IngestHandler() {
+		@Override
+		public void onTrade(int symbol, long time, double price, double size) {
+			candleAggregator.onTick(time, price, size);
 		}
-		else {
-			// Set intervalFirstPrint
-			candelChartIntervalFirstPrint = t;
-			// the first trade price in the day (day open price)
-			open = 	price;
-					//MathUtils.roundDouble(price, MathUtils.TWO_DEC_DOUBLE_FORMAT);
-
-			// the interval low
-			low =	price;
-					//MathUtils.roundDouble(price, MathUtils.TWO_DEC_DOUBLE_FORMAT);
-					
-			// the interval high
-			high =	price;
-					//MathUtils.roundDouble(price, MathUtils.TWO_DEC_DOUBLE_FORMAT);
-			// set the initial volume
-			volume = t.getSize();
+
+		@Override
+		public void onCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
+			// candles built elsewhere, e.g. by a FeedHub, completed or not
+			updateCandle(time, open, high, low, close, volume);
+		}
+	};
+
+	/**
+	 * Adds a candle to the chart.  Must be called on the EDT, holding the
+	 * chart panel's render lock if async rendering is on.
+	 */
+	public void addCandle(long time, double o, double h, double l, double c, double v) {
+		FixedMillisecond t = new FixedMillisecond(time);
+		ohlcSeries.add(t, o, h, l, c);
+		volumeSeries.add(t, v);
+	}
+
+	/**
+	 * Adds a candle, or revises the newest candle if it has the same time.
+	 * A revision changes a single item of each series, so the chart panel
+	 * only redraws the strip around the newest candle.  Must be called on
+	 * the EDT.
+	 */
+	private void updateCandle(long time, double o, double h, double l, double c, double v) {
+		int last = ohlcSeries.getItemCount() - 1;
+		if(last >= 0 && ohlcSeries.getPeriod(last).getFirstMillisecond() == time) {
+			ohlcSeries.reviseLast(h, l, c, v);
+			volumeSeries.update(volumeSeries.getItemCount() - 1, Double.valueOf(v));
 		}
+		else addCandle(time, o, h, l, c, v);
+	}
+
+	/**
+	 * Queues a trade for the candle builder.  May be called from any thread.
+	 *
+	 * @param time  the trade time in milliseconds.
+	 * @param price  the trade price.
+	 * @param size  the trade size.
+	 */
+	public void onTick(long time, double price, double size) {
+		ingestQueue.offerTrade(0, time, price, size);
+	}
+
+	public void onTrade(Trade t) {
+		onTick(t.getTime(), t.getPrice(), t.getSize());
+	}
+
+	/**
+	 * Queues a candle that was built outside the chart, e.g. by a
+	 * {@link com.fx.jfree.chart.feed.FeedHub}.  A candle with the same time
+	 * as the newest one, such as an update of the candle in progress,
+	 * revises it.  May be called from any thread.
+	 *
+	 * @param time  the candle start time in milliseconds.
+	 * @param open  the open price.
+	 * @param high  the high price.
+	 * @param low  the low price.
+	 * @param close  the close price.
+	 * @param volume  the volume.
+	 */
+	public void onCandle(long time, double open, double high, double low, double close, double volume) {
+		ingestQueue.offerCandle(0, time, open, high, low, close, volume);
+	}
+
+	/**
+	 * Returns the interval of the candles on this chart.
+	 *
+	 * @return The interval in milliseconds.
+	 */
+	public long getCandleInterval() {
+		return (long) timeInterval * MIN;
+	}
+
+	/**
+	 * Completes the candle in progress once every tick queued so far has
+	 * been applied, e.g. once a trade file has been read to the end.  May be
+	 * called from any thread; the drain timer does the work, so the event
+	 * dispatch thread never waits for a frame being drawn.
+	 */
+	public void flush() {
+		flushRequested = true;
 	}
-}
\ No newline at end of file
+}
@@ -1,64 +1,82 @@
 package com.fx.jfree.chart.common;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
+import java.io.File;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import com.fx.jfree.chart.candlestick.JfreeCandlestickChart;
-import com.fx.jfree.chart.model.Trade;
-import com.fx.jfree.chart.utils.TimeUtils;
+import com.fx.jfree.chart.feed.IngestHandler;
+import com.fx.jfree.chart.feed.ReplayScheduler;
+import com.fx.jfree.chart.feed.ReplayTape;
+import com.fx.jfree.chart.feed.TradeFileLoader;
 
 public class FxMarketPxFeeder {
 	private JfreeCandlestickChart jfreeCandlestickChart;
 	private String stockTradesFile; 
-	private int simulationTime;
+	private double speed;
 	private ExecutorService executorService;
+	private volatile ReplayScheduler replayScheduler;
 
-	public FxMarketPxFeeder(JfreeCandlestickChart jfreeCandlestickChart, String stockTradesFile, int simulationTime) {
+	/**
+	 * Creates a feeder that replays a trade file into a chart.
+	 *
+	 * @param jfreeCandlestickChart  the chart.
+	 * @param stockTradesFile  the trade file.
+	 * @param speed  the replay speed multiplier ({@link ReplayScheduler#REAL_TIME}
+	 *     replays at the recorded rate, 10 ten times faster);
+	 *     {@link ReplayScheduler#MAX_SPEED}, zero or less replays as fast as
+	 *     the chart accepts ticks.  This used to be the delay between ticks,
+	 *     which is why zero means no delay.
+	 */
+	public FxMarketPxFeeder(JfreeCandlestickChart jfreeCandlestickChart, String stockTradesFile, double speed) {
 		super();
 
 		this.executorService		=	Executors.newCachedThreadPool();
 		this.stockTradesFile		=	stockTradesFile;
 		this.jfreeCandlestickChart	=	jfreeCandlestickChart;
-		this.simulationTime 		=	simulationTime;
+		this.speed 					=	speed;
 	}
 
 	public void run() {
 		executorService.execute(() -> read());
 	}
 
+	/**
+	 * Returns the scheduler driving the replay, for pausing, seeking or
+	 * changing speed, or {@code null} if the file has not been loaded yet.
+	 *
+	 * @return The scheduler (possibly {@code null}).
+	 */
+	public ReplayScheduler getReplayScheduler() {
+		return replayScheduler;
+	}
+
 	private void read() {
 		try {
-			BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(this.stockTradesFile)));
-
-			while(true) {
-				//Thread.sleep(simulationTime);
-
-				String line = br.readLine();
-				if(line != null) {
-					String[] tradeElements = line.split(Constants.DELIMITER);
+			// the tape is parsed in place from the mapped file
+			ReplayTape tape = new ReplayTape();
+			new TradeFileLoader(new File(stockTradesFile)).load(tape);
 
-					Trade t = new Trade(
-						tradeElements[Constants.STOCK_POS_IDX],
-						TimeUtils.convertToMillisTime(tradeElements[Constants.TIME_IDX]),
-						Double.parseDouble(tradeElements[Constants.PRICE_POS_IDX]),
-						Long.parseLong(tradeElements[Constants.SIZE_IDX])
-					);
-
-					jfreeCandlestickChart.onTrade(t);
+			ReplayScheduler scheduler = new ReplayScheduler(tape, new IngestHandler() {
+				@Override
+				public void onTrade(int symbol, long time, double price, double size) {
+					jfreeCandlestickChart.onTick(time, price, size);
 				}
-				else {
-					executorService.shutdown();
 
-					break;
+				@Override
+				public void onCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
 				}
-			}
+			}, speed > 0 ? speed : ReplayScheduler.MAX_SPEED);
+
+			scheduler.setCompletionHandler(() -> jfreeCandlestickChart.flush());
 
-			br.close();
+			replayScheduler = scheduler;
+			scheduler.start();
 		}
 		catch(Exception e) {
 			e.printStackTrace();
 		}
+		finally {
+			executorService.shutdown();
+		}
 	}
 }
@@ -12,6 +12,7 @@ import org.eclipse.jetty.websocket.client.WebSocketClient;
 
 import com.fx.jfree.chart.candlestick.JfreeCandlestickChart;
 import com.fx.jfree.chart.common.FxMarketPxFeeder;
+import com.fx.jfree.chart.feed.ReplayScheduler;
 
 @SuppressWarnings("serial")
 public class JfreeCandlestickChartDemo extends JPanel {
@@ -27,7 +28,7 @@ public class JfreeCandlestickChartDemo extends JPanel {
         new FxMarketPxFeeder(
         	jfreeCandlestickChart,
         	"C:/Users/test/Desktop/jfreecandlestickchart-example-code/twtr.csv",
-        	0
+        	ReplayScheduler.MAX_SPEED
         ).run();
 
         //CBWebSocket socket = new CBWebSocket(jfreeCandlestickChart);
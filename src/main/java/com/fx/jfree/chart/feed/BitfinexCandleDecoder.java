@@ -0,0 +1,207 @@
+package com.fx.jfree.chart.feed;
+
+import java.util.Arrays;
+
+/**
+ * Decodes Bitfinex v2 websocket messages from the {@code candles} channel.
+ * Each candle ({@code [MTS, OPEN, CLOSE, HIGH, LOW, VOLUME]}) is delivered
+ * as a candle event; a snapshot is delivered oldest first (Bitfinex sends it
+ * newest first).  The symbol is the subscription key (for example
+ * {@code trade:1m:tETHUSD}), learnt from the {@code subscribed} event; data
+ * on a channel whose subscription was not seen is reported under the
+ * channel id.  Heartbeats and other events are ignored.
+ */
+public class BitfinexCandleDecoder implements MessageDecoder {
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final JsonTokenizer tokenizer = new JsonTokenizer();
+
+	private final SymbolTable symbols = new SymbolTable();
+
+	/** The subscribed channel ids and their symbol ids. */
+	private long[] channels = new long[4];
+	private int[] channelSymbols = new int[4];
+	private int channelCount;
+
+	// candles of the message being decoded, reused between messages
+	private long[] time = new long[INITIAL_CAPACITY];
+	private double[] open = new double[INITIAL_CAPACITY];
+	private double[] high = new double[INITIAL_CAPACITY];
+	private double[] low = new double[INITIAL_CAPACITY];
+	private double[] close = new double[INITIAL_CAPACITY];
+	private double[] volume = new double[INITIAL_CAPACITY];
+	private int count;
+
+	/**
+	 * Creates a new decoder.
+	 */
+	public BitfinexCandleDecoder() {
+		super();
+	}
+
+	@Override
+	public int decode(CharSequence message, IngestHandler handler) {
+		tokenizer.reset(message);
+
+		return decode(handler);
+	}
+
+	@Override
+	public int decode(byte[] message, int offset, int length, IngestHandler handler) {
+		tokenizer.reset(message, offset, length);
+
+		return decode(handler);
+	}
+
+	@Override
+	public String getSymbol(int id) {
+		return symbols.getSymbol(id);
+	}
+
+	@Override
+	public int getSymbolCount() {
+		return symbols.getSize();
+	}
+
+	private int decode(IngestHandler handler) {
+		JsonTokenizer t = tokenizer;
+
+		int token = t.next();
+		if(token == JsonTokenizer.BEGIN_OBJECT) {
+			decodeEvent();
+
+			return 0;
+		}
+		if(token != JsonTokenizer.BEGIN_ARRAY || t.next() != JsonTokenizer.NUMBER) return 0;
+
+		int symbol = channelSymbol(t);
+
+		// [chanId, "hb"], [chanId, [candle]] or [chanId, [[candle], ...]]
+		if(t.next() != JsonTokenizer.BEGIN_ARRAY) return 0;
+
+		count = 0;
+		token = t.next();
+		if(token == JsonTokenizer.BEGIN_ARRAY) {
+			do {
+				if(!readCandle()) return 0;
+			}
+			while(t.next() == JsonTokenizer.BEGIN_ARRAY);
+		}
+		else if(token == JsonTokenizer.NUMBER) {
+			if(!readFields()) return 0;
+		}
+
+		boolean descending = count > 1 && time[0] > time[count - 1];
+		for(int i = 0; i < count; i++) {
+			int c = descending ? count - 1 - i : i;
+			handler.onCandle(symbol, time[c], open[c], high[c], low[c], close[c], volume[c]);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Records the channel of a {@code subscribed} event.
+	 */
+	private void decodeEvent() {
+		JsonTokenizer t = tokenizer;
+
+		boolean subscribed = false;
+		long channel = -1;
+		int symbol = -1;
+		while(t.next() == JsonTokenizer.STRING) {
+			if(t.textEquals("event")) {
+				t.next();
+				subscribed = t.textEquals("subscribed");
+				if(!subscribed) return;
+			}
+			else if(t.textEquals("chanId")) {
+				t.next();
+				channel = t.getLong();
+			}
+			else if(t.textEquals("key")) {
+				if(t.next() == JsonTokenizer.STRING) symbol = symbols.lookup(t);
+			}
+			else {
+				t.next();
+				t.skipValue();
+			}
+		}
+
+		if(subscribed && channel >= 0 && symbol >= 0) {
+			for(int i = 0; i < channelCount; i++) {
+				if(channels[i] == channel) {
+					channelSymbols[i] = symbol;
+
+					return;
+				}
+			}
+
+			if(channelCount == channels.length) {
+				channels = Arrays.copyOf(channels, channelCount * 2);
+				channelSymbols = Arrays.copyOf(channelSymbols, channelCount * 2);
+			}
+			channels[channelCount] = channel;
+			channelSymbols[channelCount] = symbol;
+			channelCount++;
+		}
+	}
+
+	private int channelSymbol(JsonTokenizer t) {
+		long channel = t.getLong();
+		for(int i = 0; i < channelCount; i++) {
+			if(channels[i] == channel) return channelSymbols[i];
+		}
+
+		return symbols.lookup(t);
+	}
+
+	/**
+	 * Reads a candle array whose opening bracket has just been read.
+	 */
+	private boolean readCandle() {
+		if(tokenizer.next() != JsonTokenizer.NUMBER) return false;
+
+		return readFields();
+	}
+
+	/**
+	 * Reads the candle fields, the first of which is the current token, and
+	 * the closing bracket.
+	 */
+	private boolean readFields() {
+		JsonTokenizer t = tokenizer;
+
+		if(count == time.length) {
+			int capacity = count * 2;
+			time 	= Arrays.copyOf(time, capacity);
+			open 	= Arrays.copyOf(open, capacity);
+			high 	= Arrays.copyOf(high, capacity);
+			low 	= Arrays.copyOf(low, capacity);
+			close 	= Arrays.copyOf(close, capacity);
+			volume 	= Arrays.copyOf(volume, capacity);
+		}
+
+		time[count] = t.getLong();
+		if(t.next() != JsonTokenizer.NUMBER) return false;
+		open[count] = t.getDouble();
+		if(t.next() != JsonTokenizer.NUMBER) return false;
+		close[count] = t.getDouble();
+		if(t.next() != JsonTokenizer.NUMBER) return false;
+		high[count] = t.getDouble();
+		if(t.next() != JsonTokenizer.NUMBER) return false;
+		low[count] = t.getDouble();
+		if(t.next() != JsonTokenizer.NUMBER) return false;
+		volume[count] = t.getDouble();
+
+		// ignore any fields added after these
+		int depth = t.getDepth();
+		while(t.getDepth() >= depth) {
+			if(t.next() == JsonTokenizer.END) return false;
+		}
+
+		count++;
+
+		return true;
+	}
+}
@@ -0,0 +1,210 @@
+package com.fx.jfree.chart.feed;
+
+/**
+ * Decodes Coinbase Pro websocket messages.  The trades of one channel are
+ * delivered: {@code ticker} messages from the {@link #TICKER} channel, or
+ * {@code match} and {@code last_match} messages from the {@link #MATCHES}
+ * channel.  Every trade appears on both channels, so a client subscribed to
+ * both would count each trade twice if both were decoded; messages of the
+ * other channel, and all other messages, are ignored.  Only the
+ * {@code type}, {@code product_id}, {@code time}, {@code price} and
+ * {@code last_size} (or {@code size}) fields are read.  A message without a
+ * time is stamped with the current time.
+ */
+public class CoinbaseDecoder implements MessageDecoder {
+	/** The ticker channel, with one message per trade. */
+	public static final String TICKER = "ticker";
+
+	/** The matches channel, with one message per trade. */
+	public static final String MATCHES = "matches";
+
+	private static final long MILLIS_PER_DAY = 86400000L;
+
+	private final JsonTokenizer tokenizer = new JsonTokenizer();
+
+	private final SymbolTable symbols = new SymbolTable();
+
+	/** The message types delivered as trades. */
+	private final String[] tradeTypes;
+
+	/**
+	 * Creates a new decoder for the {@link #TICKER} channel.
+	 */
+	public CoinbaseDecoder() {
+		this(TICKER);
+	}
+
+	/**
+	 * Creates a new decoder for the trades of a channel.
+	 *
+	 * @param channel  {@link #TICKER} or {@link #MATCHES}.
+	 */
+	public CoinbaseDecoder(String channel) {
+		if(channel == null) throw new IllegalArgumentException("Null 'channel' argument.");
+
+		if(channel.equals(TICKER)) tradeTypes = new String[] {"ticker"};
+		else if(channel.equals(MATCHES)) tradeTypes = new String[] {"match", "last_match"};
+		else throw new IllegalArgumentException("Unsupported channel: " + channel);
+	}
+
+	@Override
+	public int decode(CharSequence message, IngestHandler handler) {
+		tokenizer.reset(message);
+
+		return decode(handler);
+	}
+
+	@Override
+	public int decode(byte[] message, int offset, int length, IngestHandler handler) {
+		tokenizer.reset(message, offset, length);
+
+		return decode(handler);
+	}
+
+	@Override
+	public String getSymbol(int id) {
+		return symbols.getSymbol(id);
+	}
+
+	@Override
+	public int getSymbolCount() {
+		return symbols.getSize();
+	}
+
+	private int decode(IngestHandler handler) {
+		JsonTokenizer t = tokenizer;
+		if(t.next() != JsonTokenizer.BEGIN_OBJECT) return 0;
+
+		boolean trade = false;
+		int symbol = -1;
+		long time = Long.MIN_VALUE;
+		double price = Double.NaN;
+		double size = 0;
+
+		while(true) {
+			int token = t.next();
+			if(token != JsonTokenizer.STRING) break;  // end of the object
+
+			// the field name decides how the value is read
+			if(t.textEquals("type")) {
+				t.next();
+				trade = isTradeType(t);
+				if(!trade) return 0;
+			}
+			else if(t.textEquals("product_id")) {
+				if(t.next() == JsonTokenizer.STRING) symbol = symbols.lookup(t);
+			}
+			else if(t.textEquals("time")) {
+				if(t.next() == JsonTokenizer.STRING) {
+					time = parseTime(t, t.getTextStart(), t.getTextEnd());
+					if(time == Long.MIN_VALUE) return 0;
+				}
+			}
+			else if(t.textEquals("price")) {
+				t.next();
+				price = t.getDouble();
+			}
+			else if(t.textEquals("last_size") || t.textEquals("size")) {
+				t.next();
+				double value = t.getDouble();
+				if(!Double.isNaN(value)) size = value;
+			}
+			else {
+				t.next();
+				t.skipValue();
+			}
+		}
+
+		if(!trade || symbol < 0 || Double.isNaN(price)) return 0;
+		if(time == Long.MIN_VALUE) time = System.currentTimeMillis();
+
+		handler.onTrade(symbol, time, price, size);
+
+		return 1;
+	}
+
+	private boolean isTradeType(JsonTokenizer t) {
+		for(String type : tradeTypes) {
+			if(t.textEquals(type)) return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Parses an ISO-8601 UTC time such as
+	 * {@code 2019-01-05T10:12:13.123456Z} (an offset such as {@code +02:00}
+	 * is also accepted) to milliseconds since the epoch, or returns
+	 * {@code Long.MIN_VALUE}.
+	 */
+	static long parseTime(JsonTokenizer t, int start, int end) {
+		if(end - start < 19 || t.charAt(start + 4) != '-' || t.charAt(start + 7) != '-' || t.charAt(start + 13) != ':' || t.charAt(start + 16) != ':') {
+			return Long.MIN_VALUE;
+		}
+
+		int year = digits(t, start, 4);
+		int month = digits(t, start + 5, 2);
+		int day = digits(t, start + 8, 2);
+		int hour = digits(t, start + 11, 2);
+		int minute = digits(t, start + 14, 2);
+		int second = digits(t, start + 17, 2);
+		if(year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+			return Long.MIN_VALUE;
+		}
+
+		int p = start + 19;
+		int millis = 0;
+		if(p < end && t.charAt(p) == '.') {
+			p++;
+			int count = 0;
+			for(; p < end; p++, count++) {
+				char c = t.charAt(p);
+				if(c < '0' || c > '9') break;
+				if(count < 3) millis = millis * 10 + (c - '0');
+			}
+			for(; count < 3; count++) millis *= 10;
+		}
+
+		long offset = 0;
+		if(p < end && (t.charAt(p) == '+' || t.charAt(p) == '-')) {
+			if(end - p < 6) return Long.MIN_VALUE;
+
+			int hours = digits(t, p + 1, 2);
+			int minutes = digits(t, p + 4, 2);
+			if(hours < 0 || minutes < 0) return Long.MIN_VALUE;
+
+			offset = (hours * 60L + minutes) * 60000L;
+			if(t.charAt(p) == '+') offset = -offset;
+		}
+		else if(p < end && t.charAt(p) != 'Z') return Long.MIN_VALUE;
+
+		return daysFromCivil(year, month, day) * MILLIS_PER_DAY
+			+ ((hour * 60L + minute) * 60 + second) * 1000 + millis + offset;
+	}
+
+	private static int digits(JsonTokenizer t, int start, int count) {
+		int result = 0;
+		for(int p = start; p < start + count; p++) {
+			char c = t.charAt(p);
+			if(c < '0' || c > '9') return -1;
+			result = result * 10 + (c - '0');
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the number of days from 1970-01-01 to the given date in the
+	 * proleptic Gregorian calendar (H. Hinnant's algorithm).
+	 */
+	private static long daysFromCivil(int year, int month, int day) {
+		if(month <= 2) year--;
+
+		long era = (year >= 0 ? year : year - 399) / 400;
+		long yearOfEra = year - era * 400;
+		long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+		return era * 146097 + dayOfEra - 719468;
+	}
+}
@@ -0,0 +1,531 @@
+package com.fx.jfree.chart.feed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fx.jfree.chart.candlestick.CandleAggregator;
+import com.fx.jfree.chart.candlestick.CandleListener;
+import com.fx.jfree.chart.candlestick.JfreeCandlestickChart;
+
+/**
+ * Routes market events from any number of sources (websockets, files,
+ * simulators) to candle builders, by symbol.  A symbol is identified by a
+ * venue and a venue-specific name, and gets a hub-wide id the first time it
+ * is seen.
+ * <P>
+ * Symbols are sharded over a fixed pool of worker threads ({@code id %
+ * workerCount}), and each worker owns the candle builders of its symbols:
+ * every symbol has a single writer, so building candles takes no locks.
+ * Sources hand events to a worker through its {@link IngestQueue}, which is
+ * lock-free for publishers.  Listeners subscribe to a symbol and interval and
+ * are called on the symbol's worker thread; subscription changes are passed
+ * to the worker as commands, so they never race with candle building.
+ * <P>
+ * Trades are aggregated into candles for every subscribed interval.
+ * Symbols fed with candles instead (for example by
+ * {@link BitfinexCandleDecoder}) are passed through to all subscribers of
+ * the symbol as they are; the previous candle is reported complete when a
+ * candle with a later time arrives.
+ */
+public class FeedHub {
+	/** The default ring capacity of each worker queue. */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+
+	/** The default maximum number of symbols. */
+	public static final int DEFAULT_MAXIMUM_SYMBOLS = 4096;
+
+	/** How long an idle worker parks before checking again. */
+	private static final long IDLE_PARK_NANOS = 1000000L;
+
+	/** How many empty polls a worker makes before parking. */
+	private static final int IDLE_SPINS = 100;
+
+	/** The workers. */
+	private final Worker[] workers;
+
+	/** The maximum number of symbols. */
+	private final int maximumSymbols;
+
+	/** The symbol ids, keyed by venue and symbol. */
+	private final Map<String, Integer> symbolIds = new HashMap<>();
+
+	/** The venue of each symbol. */
+	private final List<String> venues = new ArrayList<>();
+
+	/** The name of each symbol. */
+	private final List<String> symbols = new ArrayList<>();
+
+	/**
+	 * Creates a hub with one worker per available processor.
+	 */
+	public FeedHub() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, DEFAULT_MAXIMUM_SYMBOLS);
+	}
+
+	/**
+	 * Creates a hub and starts its workers.
+	 *
+	 * @param workerCount  the number of worker threads (at least 1).
+	 * @param queueCapacity  the ring capacity of each worker queue.
+	 * @param maximumSymbols  the most symbols the hub will accept.
+	 */
+	public FeedHub(int workerCount, int queueCapacity, int maximumSymbols) {
+		if(workerCount < 1) throw new IllegalArgumentException("Requires 'workerCount' >= 1.");
+		if(maximumSymbols < 1) throw new IllegalArgumentException("Requires 'maximumSymbols' >= 1.");
+
+		this.maximumSymbols = maximumSymbols;
+
+		workers = new Worker[workerCount];
+		for(int i = 0; i < workerCount; i++) {
+			// each worker sees only its own shard, so local ids are id / workerCount
+			workers[i] = new Worker(i, new IngestQueue(queueCapacity, (maximumSymbols + workerCount - 1) / workerCount, OverflowPolicy.BLOCK));
+			workers[i].start();
+		}
+	}
+
+	/**
+	 * Returns the number of worker threads.
+	 *
+	 * @return The worker count.
+	 */
+	public int getWorkerCount() {
+		return workers.length;
+	}
+
+	/**
+	 * Returns the hub-wide id of a symbol, assigning one if the symbol is
+	 * new.
+	 *
+	 * @param venue  the venue ({@code null} not permitted).
+	 * @param symbol  the symbol ({@code null} not permitted).
+	 *
+	 * @return The id.
+	 */
+	public synchronized int getSymbolId(String venue, String symbol) {
+		if(venue == null) throw new IllegalArgumentException("Null 'venue' argument.");
+		if(symbol == null) throw new IllegalArgumentException("Null 'symbol' argument.");
+
+		String key = venue + '\u0000' + symbol;
+		Integer id = symbolIds.get(key);
+		if(id == null) {
+			if(symbols.size() == maximumSymbols) throw new IllegalStateException("The hub already has " + maximumSymbols + " symbols.");
+
+			id = symbols.size();
+			symbolIds.put(key, id);
+			venues.add(venue);
+			symbols.add(symbol);
+		}
+
+		return id;
+	}
+
+	/**
+	 * Returns the venue of a symbol.
+	 *
+	 * @param id  the symbol id.
+	 *
+	 * @return The venue.
+	 */
+	public synchronized String getVenue(int id) {
+		return venues.get(id);
+	}
+
+	/**
+	 * Returns the name of a symbol.
+	 *
+	 * @param id  the symbol id.
+	 *
+	 * @return The symbol.
+	 */
+	public synchronized String getSymbol(int id) {
+		return symbols.get(id);
+	}
+
+	/**
+	 * Returns the number of symbols seen so far.
+	 *
+	 * @return The symbol count.
+	 */
+	public synchronized int getSymbolCount() {
+		return symbols.size();
+	}
+
+	/**
+	 * Publishes a trade.  May be called from any thread, but the trades of
+	 * one symbol should come from one source in time order.
+	 *
+	 * @param symbol  the symbol id.
+	 * @param time  the trade time in milliseconds.
+	 * @param price  the trade price.
+	 * @param size  the trade size.
+	 */
+	public void publishTrade(int symbol, long time, double price, double size) {
+		Worker worker = worker(symbol);
+		worker.queue.offerTrade(symbol / workers.length, time, price, size);
+		worker.wake();
+	}
+
+	/**
+	 * Publishes a candle snapshot.  May be called from any thread.
+	 *
+	 * @param symbol  the symbol id.
+	 * @param time  the candle start time in milliseconds.
+	 * @param open  the open price.
+	 * @param high  the high price.
+	 * @param low  the low price.
+	 * @param close  the close price.
+	 * @param volume  the volume.
+	 */
+	public void publishCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
+		Worker worker = worker(symbol);
+		worker.queue.offerCandle(symbol / workers.length, time, open, high, low, close, volume);
+		worker.wake();
+	}
+
+	/**
+	 * Returns a handler that publishes the events of a decoder to this hub,
+	 * translating the decoder's symbol ids to hub ids.  Intended for a
+	 * websocket listener: decode each message into the returned handler.
+	 * The handler must be used from one thread.
+	 *
+	 * @param venue  the venue of the decoder's symbols.
+	 * @param decoder  the decoder.
+	 *
+	 * @return The handler.
+	 */
+	public IngestHandler createPublisher(final String venue, final MessageDecoder decoder) {
+		if(venue == null) throw new IllegalArgumentException("Null 'venue' argument.");
+		if(decoder == null) throw new IllegalArgumentException("Null 'decoder' argument.");
+
+		return new IngestHandler() {
+			private int[] ids = new int[0];
+
+			@Override
+			public void onTrade(int symbol, long time, double price, double size) {
+				publishTrade(id(symbol), time, price, size);
+			}
+
+			@Override
+			public void onCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
+				publishCandle(id(symbol), time, open, high, low, close, volume);
+			}
+
+			private int id(int symbol) {
+				if(symbol >= ids.length) {
+					int length = ids.length;
+					ids = Arrays.copyOf(ids, Math.max(symbol + 1, length * 2));
+					Arrays.fill(ids, length, ids.length, -1);
+				}
+				if(ids[symbol] < 0) ids[symbol] = getSymbolId(venue, decoder.getSymbol(symbol));
+
+				return ids[symbol];
+			}
+		};
+	}
+
+	/**
+	 * Registers a listener for the candles of a symbol.  The listener is
+	 * called on the symbol's worker thread; candles already in progress when
+	 * it is added are reported from the next trade.
+	 *
+	 * @param venue  the venue.
+	 * @param symbol  the symbol.
+	 * @param interval  the candle interval in milliseconds.
+	 * @param listener  the listener ({@code null} not permitted).
+	 */
+	public void addCandleListener(String venue, String symbol, final long interval, final CandleListener listener) {
+		if(interval <= 0) throw new IllegalArgumentException("Requires 'interval' > 0.");
+		if(listener == null) throw new IllegalArgumentException("Null 'listener' argument.");
+
+		final int id = getSymbolId(venue, symbol);
+		final Worker worker = worker(id);
+		worker.post(new Runnable() {
+			@Override
+			public void run() {
+				worker.state(id).addListener(interval, listener);
+			}
+		});
+	}
+
+	/**
+	 * Removes a listener registered with
+	 * {@link #addCandleListener(String, String, long, CandleListener)}.
+	 *
+	 * @param venue  the venue.
+	 * @param symbol  the symbol.
+	 * @param interval  the candle interval in milliseconds.
+	 * @param listener  the listener.
+	 */
+	public void removeCandleListener(String venue, String symbol, final long interval, final CandleListener listener) {
+		final int id = getSymbolId(venue, symbol);
+		final Worker worker = worker(id);
+		worker.post(new Runnable() {
+			@Override
+			public void run() {
+				worker.state(id).removeListener(interval, listener);
+			}
+		});
+	}
+
+	/**
+	 * Feeds the candles of a symbol to a chart, at the chart's candle
+	 * interval.  The candle in progress is forwarded on every update, and
+	 * the chart revises its newest bar with it, so the chart does not lag a
+	 * whole interval behind the trades.
+	 *
+	 * @param venue  the venue.
+	 * @param symbol  the symbol.
+	 * @param chart  the chart ({@code null} not permitted).
+	 *
+	 * @return The listener that was registered, for removing it later.
+	 */
+	public CandleListener subscribe(String venue, String symbol, final JfreeCandlestickChart chart) {
+		if(chart == null) throw new IllegalArgumentException("Null 'chart' argument.");
+
+		CandleListener listener = new CandleListener() {
+			@Override
+			public void candleUpdated(long interval, long time, double open, double high, double low, double close, double volume, boolean complete) {
+				// updates of the candle in progress have the same time, so
+				// the chart revises its last bar with them
+				chart.onCandle(time, open, high, low, close, volume);
+			}
+		};
+		addCandleListener(venue, symbol, chart.getCandleInterval(), listener);
+
+		return listener;
+	}
+
+	/**
+	 * Completes the candles in progress for every symbol, once the events
+	 * published so far have been processed, and waits for that to happen.
+	 * Call this when the sources have ended.
+	 *
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public void flush() throws InterruptedException {
+		final CountDownLatch done = new CountDownLatch(workers.length);
+		for(final Worker worker : workers) {
+			worker.post(new Runnable() {
+				@Override
+				public void run() {
+					worker.flush();
+					done.countDown();
+				}
+			});
+		}
+
+		done.await();
+	}
+
+	/**
+	 * Stops the workers.  Events still queued are discarded.
+	 */
+	public void shutdown() {
+		for(Worker worker : workers) {
+			worker.running = false;
+			LockSupport.unpark(worker);
+		}
+	}
+
+	private Worker worker(int symbol) {
+		if(symbol < 0 || symbol >= maximumSymbols) throw new IllegalArgumentException("Symbol id out of range: " + symbol);
+
+		return workers[symbol % workers.length];
+	}
+
+	/**
+	 * A worker thread and the candle builders of its shard.
+	 */
+	private class Worker extends Thread implements IngestHandler {
+		private final IngestQueue queue;
+
+		/** Subscription changes and other work to run on this thread. */
+		private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+		/** The state of each symbol in the shard, indexed by local id. */
+		private SymbolState[] states = new SymbolState[16];
+
+		private volatile boolean running = true;
+
+		/** Set while the worker is parked or about to park. */
+		private volatile boolean idle;
+
+		Worker(int index, IngestQueue queue) {
+			super("FeedHub-worker-" + index);
+			setDaemon(true);
+
+			this.queue = queue;
+		}
+
+		void wake() {
+			if(idle) {
+				idle = false;
+				LockSupport.unpark(this);
+			}
+		}
+
+		void post(Runnable command) {
+			commands.add(command);
+			idle = false;
+			LockSupport.unpark(this);
+		}
+
+		@Override
+		public void run() {
+			int spins = 0;
+			while(running) {
+				int drained = queue.drain(this);
+
+				// drain again before each command, so that it follows every
+				// event published before it was posted
+				Runnable command;
+				while((command = commands.poll()) != null) {
+					drained += queue.drain(this);
+					command.run();
+				}
+
+				// a busy feed keeps the worker polling; parking and waking per
+				// event would cost more than the events themselves
+				if(drained > 0) spins = 0;
+				else if(++spins < IDLE_SPINS) Thread.yield();
+				else {
+					idle = true;
+					if(queue.getDepth() == 0 && commands.isEmpty()) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+					idle = false;
+					spins = 0;
+				}
+			}
+		}
+
+		SymbolState state(int id) {
+			int local = id / workers.length;
+			if(local >= states.length) states = Arrays.copyOf(states, Math.max(local + 1, states.length * 2));
+			if(states[local] == null) states[local] = new SymbolState();
+
+			return states[local];
+		}
+
+		void flush() {
+			for(SymbolState state : states) {
+				if(state != null) state.flush();
+			}
+		}
+
+		@Override
+		public void onTrade(int symbol, long time, double price, double size) {
+			SymbolState state = symbol < states.length ? states[symbol] : null;
+			if(state != null) {
+				for(int i = 0; i < state.aggregators.size(); i++) {
+					state.aggregators.get(i).onTick(time, price, size);
+				}
+			}
+		}
+
+		@Override
+		public void onCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
+			SymbolState state = symbol < states.length ? states[symbol] : null;
+			if(state != null) state.onCandle(time, open, high, low, close, volume);
+		}
+	}
+
+	/**
+	 * The subscribers and candle builder of one symbol.  Only touched by the
+	 * symbol's worker.
+	 */
+	private static class SymbolState implements CandleListener {
+		private final List<Long> intervals = new ArrayList<>();
+		private final List<CandleListener> listeners = new ArrayList<>();
+
+		/** Builds candles for each subscribed interval, one per interval. */
+		private final List<CandleAggregator> aggregators = new ArrayList<>();
+
+		// the last candle received from a candle-fed source
+		private boolean candleActive;
+		private long candleTime;
+		private double candleOpen, candleHigh, candleLow, candleClose, candleVolume;
+
+		/**
+		 * Adds a listener, and a candle builder for its interval if it is
+		 * the first listener for that interval.  The builders of other
+		 * intervals are left alone, so their candles in progress carry on.
+		 */
+		void addListener(long interval, CandleListener listener) {
+			if(!intervals.contains(interval)) {
+				CandleAggregator aggregator = new CandleAggregator(interval);
+				aggregator.addCandleListener(this);
+				aggregators.add(aggregator);
+			}
+
+			intervals.add(interval);
+			listeners.add(listener);
+		}
+
+		/**
+		 * Removes a listener, and the candle builder for its interval if it
+		 * was the last listener for that interval.
+		 */
+		void removeListener(long interval, CandleListener listener) {
+			for(int i = 0; i < listeners.size(); i++) {
+				if(intervals.get(i) == interval && listeners.get(i) == listener) {
+					intervals.remove(i);
+					listeners.remove(i);
+
+					if(!intervals.contains(interval)) {
+						for(int j = 0; j < aggregators.size(); j++) {
+							if(aggregators.get(j).getInterval(0) == interval) {
+								aggregators.remove(j);
+								break;
+							}
+						}
+					}
+
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void candleUpdated(long interval, long time, double open, double high, double low, double close, double volume, boolean complete) {
+			for(int i = 0; i < listeners.size(); i++) {
+				if(intervals.get(i) == interval) listeners.get(i).candleUpdated(interval, time, open, high, low, close, volume, complete);
+			}
+		}
+
+		void onCandle(long time, double open, double high, double low, double close, double volume) {
+			if(candleActive && time < candleTime) return;  // e.g. a snapshot re-sent on resubscribe
+			if(candleActive && time > candleTime) fireCandle(true);
+
+			candleActive 	= true;
+			candleTime 		= time;
+			candleOpen 		= open;
+			candleHigh 		= high;
+			candleLow 		= low;
+			candleClose 	= close;
+			candleVolume 	= volume;
+
+			fireCandle(false);
+		}
+
+		void flush() {
+			for(CandleAggregator aggregator : aggregators) {
+				aggregator.flush();
+			}
+			if(candleActive) {
+				fireCandle(true);
+				candleActive = false;
+			}
+		}
+
+		private void fireCandle(boolean complete) {
+			for(int i = 0; i < listeners.size(); i++) {
+				listeners.get(i).candleUpdated(intervals.get(i), candleTime, candleOpen, candleHigh, candleLow, candleClose, candleVolume, complete);
+			}
+		}
+	}
+}
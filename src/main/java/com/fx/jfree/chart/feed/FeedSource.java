@@ -0,0 +1,20 @@
+package com.fx.jfree.chart.feed;
+
+/**
+ * A source of market events for a {@link FeedHub}, such as a websocket
+ * connection, a recorded file or a simulator.
+ */
+public interface FeedSource {
+	/**
+	 * Starts publishing events to a hub.  Returns without waiting for the
+	 * source to finish.
+	 *
+	 * @param hub  the hub.
+	 */
+	public void start(FeedHub hub);
+
+	/**
+	 * Stops publishing events.
+	 */
+	public void stop();
+}
@@ -0,0 +1,30 @@
+package com.fx.jfree.chart.feed;
+
+/**
+ * Consumes the events drained from an {@link IngestQueue}.
+ */
+public interface IngestHandler {
+	/**
+	 * Called for a trade.
+	 *
+	 * @param symbol  the symbol id.
+	 * @param time  the trade time in milliseconds.
+	 * @param price  the trade price.
+	 * @param size  the trade size.
+	 */
+	public void onTrade(int symbol, long time, double price, double size);
+
+	/**
+	 * Called for a complete snapshot of a candle, as published by feeds that
+	 * send bars rather than trades.
+	 *
+	 * @param symbol  the symbol id.
+	 * @param time  the candle start time in milliseconds.
+	 * @param open  the open price.
+	 * @param high  the high price.
+	 * @param low  the low price.
+	 * @param close  the close price.
+	 * @param volume  the volume.
+	 */
+	public void onCandle(int symbol, long time, double open, double high, double low, double close, double volume);
+}
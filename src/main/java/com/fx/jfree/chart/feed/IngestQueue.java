@@ -0,0 +1,486 @@
+package com.fx.jfree.chart.feed;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded, lock-free queue that carries market events from feed threads
+ * to the thread that owns the chart datasets (normally the Swing event
+ * dispatch thread).  Any number of threads may publish; events are stored
+ * as primitives in preallocated slots, so publishing allocates nothing.
+ * <P>
+ * The ring follows the sequence-per-slot design of D. Vyukov's bounded
+ * queue: a producer claims a slot by advancing the enqueue position with a
+ * CAS, writes the fields and then publishes the slot by advancing its
+ * sequence number.  When the ring is full the configured
+ * {@link OverflowPolicy} decides what happens: {@code DROP_OLDEST} discards
+ * the oldest queued event, {@code CONFLATE} parks the event in a per-symbol
+ * slot (the only path that takes a lock) where later events for the same
+ * symbol are merged into it until the consumer drains it, and {@code BLOCK}
+ * makes the producer wait for space.
+ * <P>
+ * Conflated trades are merged into a run with the open, high, low and close
+ * of its prices and the sum of its sizes, which the consumer receives as
+ * trades at those prices with the whole size on the last one.  A run never
+ * spans two conflation intervals (normally the candle interval), and
+ * conflated candles only merge with later snapshots of the same candle; an
+ * event that cannot be merged waits for the consumer to drain the parked
+ * one, so that nothing carries over into the wrong candle.
+ */
+public class IngestQueue {
+	private static final byte TRADE 	= 0;
+	private static final byte CANDLE 	= 1;
+
+	/** How long a blocked producer waits before retrying. */
+	private static final long BLOCK_PARK_NANOS = 100000L;
+
+	/** The overflow policy. */
+	private final OverflowPolicy policy;
+
+	/** The interval that a run of conflated trades may not cross, or 0. */
+	private final long conflationInterval;
+
+	/** The ring capacity minus one (the capacity is a power of two). */
+	private final int mask;
+
+	/** The sequence number of each slot. */
+	private final AtomicLongArray sequence;
+
+	/** The next position to publish to. */
+	private final AtomicLong enqueuePosition;
+
+	/** The next position to consume from. */
+	private final AtomicLong dequeuePosition;
+
+	// slot contents; written before and read after the slot sequence
+	private final byte[] type;
+	private final int[] symbol;
+	private final long[] time;
+	private final double[] open;
+	private final double[] high;
+	private final double[] low;
+	private final double[] close;
+	private final double[] volume;
+
+	// per-symbol conflation slots, guarded by conflationLock[symbol]
+	private final Object[] conflationLock;
+	private final boolean[] conflated;
+	private final byte[] conflatedType;
+	private final long[] conflatedTime;
+	private final double[] conflatedOpen;
+	private final double[] conflatedHigh;
+	private final double[] conflatedLow;
+	private final double[] conflatedClose;
+	private final double[] conflatedVolume;
+
+	/**
+	 * The enqueue position when each conflation slot was filled; the slot is
+	 * held back until the ring has been consumed up to this point so that it
+	 * is never delivered ahead of older events for the same symbol.
+	 */
+	private final long[] conflatedPosition;
+
+	/** The number of symbols with a pending conflated event. */
+	private final AtomicInteger conflatedCount;
+
+	/** The number of events discarded by {@code DROP_OLDEST}. */
+	private final AtomicLong dropCount;
+
+	/** The number of events merged into a pending conflated event. */
+	private final AtomicLong conflationCount;
+
+	/** The number of times a producer waited for space under {@code BLOCK}. */
+	private final AtomicLong blockCount;
+
+	/**
+	 * Creates a new queue.
+	 *
+	 * @param capacity  the ring capacity (rounded up to a power of two).
+	 * @param symbolCount  the number of symbol ids that will be used (ids
+	 *     run from zero to {@code symbolCount - 1}).
+	 * @param policy  the overflow policy ({@code null} not permitted).
+	 */
+	public IngestQueue(int capacity, int symbolCount, OverflowPolicy policy) {
+		this(capacity, symbolCount, policy, 0);
+	}
+
+	/**
+	 * Creates a new queue whose conflated trades are kept apart per
+	 * interval.
+	 *
+	 * @param capacity  the ring capacity (rounded up to a power of two).
+	 * @param symbolCount  the number of symbol ids that will be used (ids
+	 *     run from zero to {@code symbolCount - 1}).
+	 * @param policy  the overflow policy ({@code null} not permitted).
+	 * @param conflationInterval  the interval in milliseconds that a run of
+	 *     conflated trades may not cross, normally the candle interval (0 if
+	 *     runs may span any time).
+	 */
+	public IngestQueue(int capacity, int symbolCount, OverflowPolicy policy, long conflationInterval) {
+		if(capacity < 2) throw new IllegalArgumentException("Requires 'capacity' >= 2.");
+		if(symbolCount < 1) throw new IllegalArgumentException("Requires 'symbolCount' >= 1.");
+		if(policy == null) throw new IllegalArgumentException("Null 'policy' argument.");
+		if(conflationInterval < 0) throw new IllegalArgumentException("Requires 'conflationInterval' >= 0.");
+
+		int size = Integer.highestOneBit(capacity - 1) << 1;
+
+		this.policy 	= policy;
+		this.conflationInterval = conflationInterval;
+		mask 			= size - 1;
+		sequence 		= new AtomicLongArray(size);
+		for(int i = 0; i < size; i++) {
+			sequence.set(i, i);
+		}
+		enqueuePosition = new AtomicLong();
+		dequeuePosition = new AtomicLong();
+
+		type 	= new byte[size];
+		symbol 	= new int[size];
+		time 	= new long[size];
+		open 	= new double[size];
+		high 	= new double[size];
+		low 	= new double[size];
+		close 	= new double[size];
+		volume 	= new double[size];
+
+		conflationLock 	= new Object[symbolCount];
+		for(int i = 0; i < symbolCount; i++) {
+			conflationLock[i] = new Object();
+		}
+		conflated 		= new boolean[symbolCount];
+		conflatedType 	= new byte[symbolCount];
+		conflatedTime 	= new long[symbolCount];
+		conflatedOpen 	= new double[symbolCount];
+		conflatedHigh 	= new double[symbolCount];
+		conflatedLow 	= new double[symbolCount];
+		conflatedClose 	= new double[symbolCount];
+		conflatedVolume = new double[symbolCount];
+		conflatedPosition = new long[symbolCount];
+
+		conflatedCount 	= new AtomicInteger();
+		dropCount 		= new AtomicLong();
+		conflationCount = new AtomicLong();
+		blockCount 		= new AtomicLong();
+	}
+
+	/**
+	 * Returns the overflow policy.
+	 *
+	 * @return The policy.
+	 */
+	public OverflowPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Returns the interval that a run of conflated trades may not cross.
+	 *
+	 * @return The interval in milliseconds (0 if runs may span any time).
+	 */
+	public long getConflationInterval() {
+		return conflationInterval;
+	}
+
+	/**
+	 * Returns the ring capacity.
+	 *
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * Returns the number of symbol ids the queue accepts.
+	 *
+	 * @return The symbol count.
+	 */
+	public int getSymbolCount() {
+		return conflationLock.length;
+	}
+
+	/**
+	 * Returns the approximate number of queued events, including pending
+	 * conflated events.
+	 *
+	 * @return The queue depth.
+	 */
+	public int getDepth() {
+		long depth = enqueuePosition.get() - dequeuePosition.get();
+
+		return (int) Math.max(0, Math.min(depth, mask + 1)) + conflatedCount.get();
+	}
+
+	/**
+	 * Returns the number of events discarded because the queue was full.
+	 *
+	 * @return The drop count.
+	 */
+	public long getDropCount() {
+		return dropCount.get();
+	}
+
+	/**
+	 * Returns the number of events merged into a pending conflated event.
+	 *
+	 * @return The conflation count.
+	 */
+	public long getConflationCount() {
+		return conflationCount.get();
+	}
+
+	/**
+	 * Returns the number of times a producer had to wait for space (only
+	 * incremented under {@link OverflowPolicy#BLOCK}).
+	 *
+	 * @return The block count.
+	 */
+	public long getBlockCount() {
+		return blockCount.get();
+	}
+
+	/**
+	 * Publishes a trade.  May be called from any thread.
+	 *
+	 * @param symbol  the symbol id.
+	 * @param time  the trade time in milliseconds.
+	 * @param price  the trade price.
+	 * @param size  the trade size.
+	 */
+	public void offerTrade(int symbol, long time, double price, double size) {
+		offer(TRADE, symbol, time, price, price, price, price, size);
+	}
+
+	/**
+	 * Publishes a candle snapshot.  May be called from any thread.
+	 *
+	 * @param symbol  the symbol id.
+	 * @param time  the candle start time in milliseconds.
+	 * @param open  the open price.
+	 * @param high  the high price.
+	 * @param low  the low price.
+	 * @param close  the close price.
+	 * @param volume  the volume.
+	 */
+	public void offerCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
+		offer(CANDLE, symbol, time, open, high, low, close, volume);
+	}
+
+	/**
+	 * Passes the queued events to the handler, oldest first, followed by
+	 * any pending conflated events whose predecessors have been delivered.
+	 * Events published while the drain is running are left for the next
+	 * call.  Intended to be called by one consumer thread, once per frame.
+	 *
+	 * @param handler  the handler ({@code null} not permitted).
+	 *
+	 * @return The number of events drained.
+	 */
+	public int drain(IngestHandler handler) {
+		int result = 0;
+
+		// stop at the events published so far, so that a busy feed can't keep
+		// the consumer here indefinitely
+		long end = enqueuePosition.get();
+		while(dequeuePosition.get() < end && poll(handler)) {
+			result++;
+		}
+
+		if(conflatedCount.get() > 0) {
+			for(int s = 0; s < conflationLock.length; s++) {
+				if(drainConflated(s, handler)) result++;
+			}
+		}
+
+		return result;
+	}
+
+	private void offer(byte type, int symbol, long time, double open, double high, double low, double close, double volume) {
+		if(symbol < 0 || symbol >= conflationLock.length) {
+			throw new IllegalArgumentException("Symbol id out of range: " + symbol);
+		}
+
+		if(policy == OverflowPolicy.CONFLATE) {
+			// once a symbol is conflating, keep merging until it is drained so
+			// that its events are never reordered; an event that can't be
+			// merged waits for the parked one to be drained
+			while(true) {
+				if(!conflated[symbol] && tryPublish(type, symbol, time, open, high, low, close, volume)) return;
+				if(conflate(type, symbol, time, open, high, low, close, volume)) return;
+
+				blockCount.incrementAndGet();
+				LockSupport.parkNanos(BLOCK_PARK_NANOS);
+			}
+		}
+		else if(policy == OverflowPolicy.DROP_OLDEST) {
+			while(!tryPublish(type, symbol, time, open, high, low, close, volume)) {
+				if(poll(null)) dropCount.incrementAndGet();
+			}
+		}
+		else {
+			while(!tryPublish(type, symbol, time, open, high, low, close, volume)) {
+				blockCount.incrementAndGet();
+				LockSupport.parkNanos(BLOCK_PARK_NANOS);
+			}
+		}
+	}
+
+	private boolean tryPublish(byte type, int symbol, long time, double open, double high, double low, double close, double volume) {
+		long position = enqueuePosition.get();
+
+		while(true) {
+			int index = (int) position & mask;
+			long difference = sequence.get(index) - position;
+
+			if(difference == 0) {
+				if(enqueuePosition.compareAndSet(position, position + 1)) {
+					this.type[index] 	= type;
+					this.symbol[index] 	= symbol;
+					this.time[index] 	= time;
+					this.open[index] 	= open;
+					this.high[index] 	= high;
+					this.low[index] 	= low;
+					this.close[index] 	= close;
+					this.volume[index] 	= volume;
+
+					sequence.lazySet(index, position + 1);
+
+					return true;
+				}
+			}
+			else if(difference < 0) return false;  // full
+
+			position = enqueuePosition.get();
+		}
+	}
+
+	/**
+	 * Removes the oldest event and passes it to the handler (or discards it
+	 * if the handler is {@code null}).
+	 */
+	private boolean poll(IngestHandler handler) {
+		long position = dequeuePosition.get();
+
+		while(true) {
+			int index = (int) position & mask;
+			long difference = sequence.get(index) - (position + 1);
+
+			if(difference == 0) {
+				if(dequeuePosition.compareAndSet(position, position + 1)) {
+					byte type 		= this.type[index];
+					int symbol 		= this.symbol[index];
+					long time 		= this.time[index];
+					double open 	= this.open[index];
+					double high 	= this.high[index];
+					double low 		= this.low[index];
+					double close 	= this.close[index];
+					double volume 	= this.volume[index];
+
+					// release the slot before calling out
+					sequence.lazySet(index, position + mask + 1);
+
+					if(handler != null) dispatch(handler, type, symbol, time, open, high, low, close, volume);
+
+					return true;
+				}
+			}
+			else if(difference < 0) return false;  // empty
+
+			position = dequeuePosition.get();
+		}
+	}
+
+	/**
+	 * Parks an event in the conflation slot for its symbol, merging it with
+	 * the event already there (if any).  Returns {@code false} if the slot
+	 * holds an event that the new one cannot be merged with: one of the
+	 * other type, a trade in another conflation interval or another candle.
+	 */
+	private boolean conflate(byte type, int symbol, long time, double open, double high, double low, double close, double volume) {
+		synchronized(conflationLock[symbol]) {
+			if(!conflated[symbol]) {
+				conflated[symbol] 		= true;
+				conflatedType[symbol] 	= type;
+				conflatedTime[symbol] 	= time;
+				conflatedOpen[symbol] 	= open;
+				conflatedHigh[symbol] 	= high;
+				conflatedLow[symbol] 	= low;
+				conflatedClose[symbol] 	= close;
+				conflatedVolume[symbol] = volume;
+				conflatedPosition[symbol] = enqueuePosition.get();
+
+				conflatedCount.incrementAndGet();
+
+				return true;
+			}
+
+			if(type != conflatedType[symbol]) return false;
+
+			if(type == TRADE) {
+				if(conflationInterval > 0 && Math.floorDiv(time, conflationInterval) != Math.floorDiv(conflatedTime[symbol], conflationInterval)) return false;
+
+				conflatedHigh[symbol] 	= Math.max(conflatedHigh[symbol], high);
+				conflatedLow[symbol] 	= Math.min(conflatedLow[symbol], low);
+				conflatedVolume[symbol] += volume;
+			}
+			else {
+				// a later candle would hide the final snapshot of this one
+				if(time != conflatedTime[symbol]) return false;
+
+				conflatedOpen[symbol] 	= open;
+				conflatedHigh[symbol] 	= high;
+				conflatedLow[symbol] 	= low;
+				conflatedVolume[symbol] = volume;
+			}
+
+			conflatedTime[symbol] 	= time;
+			conflatedClose[symbol] 	= close;
+
+			conflationCount.incrementAndGet();
+
+			return true;
+		}
+	}
+
+	private boolean drainConflated(int symbol, IngestHandler handler) {
+		byte type;
+		long time;
+		double open, high, low, close, volume;
+
+		synchronized(conflationLock[symbol]) {
+			if(!conflated[symbol]) return false;
+			if(dequeuePosition.get() < conflatedPosition[symbol]) return false;
+
+			type 	= conflatedType[symbol];
+			time 	= conflatedTime[symbol];
+			open 	= conflatedOpen[symbol];
+			high 	= conflatedHigh[symbol];
+			low 	= conflatedLow[symbol];
+			close 	= conflatedClose[symbol];
+			volume 	= conflatedVolume[symbol];
+
+			conflated[symbol] = false;
+			conflatedCount.decrementAndGet();
+		}
+
+		dispatch(handler, type, symbol, time, open, high, low, close, volume);
+
+		return true;
+	}
+
+	private static void dispatch(IngestHandler handler, byte type, int symbol, long time, double open, double high, double low, double close, double volume) {
+		if(type == TRADE) {
+			// a run of conflated trades; the extremes are passed on without size
+			if(high != low) {
+				handler.onTrade(symbol, time, open, 0.0);
+				if(high != open && high != close) handler.onTrade(symbol, time, high, 0.0);
+				if(low != open && low != close) handler.onTrade(symbol, time, low, 0.0);
+			}
+
+			handler.onTrade(symbol, time, close, volume);
+		}
+		else handler.onCandle(symbol, time, open, high, low, close, volume);
+	}
+}
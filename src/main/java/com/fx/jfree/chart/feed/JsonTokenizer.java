@@ -0,0 +1,448 @@
+package com.fx.jfree.chart.feed;
+
+/**
+ * A pull tokenizer for JSON text that allocates nothing per token.  Tokens
+ * are reported as types; the text of a string or number token is left in
+ * the input and can be compared or converted in place with
+ * {@link #textEquals(String)}, {@link #getDouble()} and {@link #getLong()}.
+ * <P>
+ * The tokenizer is lenient: commas and colons are treated as whitespace, so
+ * an object is read as an alternating sequence of name and value tokens, and
+ * it does not check that the input is well formed.  A tokenizer instance is
+ * meant to be reset and reused for each message, on one thread.
+ */
+public class JsonTokenizer {
+	/** No more tokens. */
+	public static final int END 			= 0;
+	public static final int BEGIN_OBJECT 	= 1;
+	public static final int END_OBJECT 		= 2;
+	public static final int BEGIN_ARRAY 	= 3;
+	public static final int END_ARRAY 		= 4;
+	/** A string; the token text excludes the quotes. */
+	public static final int STRING 			= 5;
+	public static final int NUMBER 			= 6;
+	public static final int TRUE 			= 7;
+	public static final int FALSE 			= 8;
+	public static final int NULL 			= 9;
+
+	/** Powers of ten that are exact as doubles. */
+	private static final double[] POW10 = new double[23];
+	static {
+		POW10[0] = 1;
+		for(int i = 1; i < POW10.length; i++) {
+			POW10[i] = POW10[i - 1] * 10;
+		}
+	}
+
+	/** The text input, or {@code null} if reading bytes. */
+	private CharSequence text;
+
+	/** The byte input (ASCII or UTF-8), or {@code null} if reading text. */
+	private byte[] bytes;
+
+	/** The current position. */
+	private int position;
+
+	/** The end of the input. */
+	private int limit;
+
+	/** The type of the current token. */
+	private int token;
+
+	/** The text range of the current token. */
+	private int start, end;
+
+	/** Whether the current string token contains escapes. */
+	private boolean escaped;
+
+	/** The nesting depth after the current token. */
+	private int depth;
+
+	/**
+	 * Starts reading a text message.
+	 *
+	 * @param text  the message ({@code null} not permitted).
+	 */
+	public void reset(CharSequence text) {
+		if(text == null) throw new IllegalArgumentException("Null 'text' argument.");
+
+		this.text 	= text;
+		bytes 		= null;
+		position 	= 0;
+		limit 		= text.length();
+		token 		= END;
+		depth 		= 0;
+	}
+
+	/**
+	 * Starts reading a message held as bytes.  Multi-byte UTF-8 sequences
+	 * can only appear inside strings, where they are passed over.
+	 *
+	 * @param bytes  the message ({@code null} not permitted).
+	 * @param offset  the offset of the first byte.
+	 * @param length  the number of bytes.
+	 */
+	public void reset(byte[] bytes, int offset, int length) {
+		if(bytes == null) throw new IllegalArgumentException("Null 'bytes' argument.");
+		if(offset < 0 || length < 0 || offset + length > bytes.length) throw new IllegalArgumentException("Invalid range.");
+
+		this.bytes 	= bytes;
+		text 		= null;
+		position 	= offset;
+		limit 		= offset + length;
+		token 		= END;
+		depth 		= 0;
+	}
+
+	/**
+	 * Reads the next token.
+	 *
+	 * @return The token type ({@link #END} at the end of the input, or if
+	 *     the input cannot be tokenized).
+	 */
+	public int next() {
+		while(position < limit) {
+			char c = charAt(position);
+			if(c == ' ' || c == ',' || c == ':' || c == '\n' || c == '\r' || c == '\t') position++;
+			else break;
+		}
+
+		if(position >= limit) return token = END;
+
+		char c = charAt(position);
+		start 	= position;
+		escaped = false;
+		switch(c) {
+			case '{':
+				position++;
+				depth++;
+				return token = BEGIN_OBJECT;
+			case '}':
+				position++;
+				depth--;
+				return token = END_OBJECT;
+			case '[':
+				position++;
+				depth++;
+				return token = BEGIN_ARRAY;
+			case ']':
+				position++;
+				depth--;
+				return token = END_ARRAY;
+			case '"':
+				return token = readString();
+			case 't':
+				return token = readLiteral("true", TRUE);
+			case 'f':
+				return token = readLiteral("false", FALSE);
+			case 'n':
+				return token = readLiteral("null", NULL);
+			default:
+				if(c == '-' || (c >= '0' && c <= '9')) {
+					position++;
+					while(position < limit && isNumberChar(charAt(position))) position++;
+					end = position;
+
+					return token = NUMBER;
+				}
+
+				position = limit;
+
+				return token = END;
+		}
+	}
+
+	/**
+	 * Returns the type of the current token.
+	 *
+	 * @return The token type.
+	 */
+	public int getToken() {
+		return token;
+	}
+
+	/**
+	 * Returns the nesting depth after the current token: 1 inside the
+	 * top-level object or array, and so on.
+	 *
+	 * @return The depth.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Skips the value that starts with the current token: if it is the start
+	 * of an object or array, everything up to and including its end.
+	 */
+	public void skipValue() {
+		if(token != BEGIN_OBJECT && token != BEGIN_ARRAY) return;
+
+		int target = depth - 1;
+		while(depth > target && next() != END);
+	}
+
+	/**
+	 * Returns {@code true} if the current token is a string or number whose
+	 * text is {@code s}.  Strings containing escapes never match.
+	 *
+	 * @param s  the text.
+	 *
+	 * @return A boolean.
+	 */
+	public boolean textEquals(String s) {
+		if((token != STRING && token != NUMBER) || escaped) return false;
+		if(end - start != s.length()) return false;
+
+		for(int i = 0; i < s.length(); i++) {
+			if(charAt(start + i) != s.charAt(i)) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns {@code true} if the current token is a string containing
+	 * escape sequences, so that its raw text differs from its value.
+	 *
+	 * @return A boolean.
+	 */
+	public boolean isEscaped() {
+		return escaped;
+	}
+
+	/**
+	 * Returns the start of the current token text in the input.
+	 *
+	 * @return The offset.
+	 */
+	public int getTextStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the end (exclusive) of the current token text in the input.
+	 *
+	 * @return The offset.
+	 */
+	public int getTextEnd() {
+		return end;
+	}
+
+	/**
+	 * Returns a character of the input.
+	 *
+	 * @param index  the offset.
+	 *
+	 * @return The character (bytes are widened without decoding).
+	 */
+	public char charAt(int index) {
+		return bytes != null ? (char) (bytes[index] & 0xFF) : text.charAt(index);
+	}
+
+	/**
+	 * Returns the current token text as a String.  This allocates, so it is
+	 * intended for values that are seen rarely.
+	 *
+	 * @return The text.
+	 */
+	public String getText() {
+		StringBuilder sb = new StringBuilder(end - start);
+		for(int p = start; p < end; p++) {
+			char c = charAt(p);
+			if(c == '\\' && p + 1 < end) {
+				c = charAt(++p);
+				switch(c) {
+					case 'b': c = '\b'; break;
+					case 'f': c = '\f'; break;
+					case 'n': c = '\n'; break;
+					case 'r': c = '\r'; break;
+					case 't': c = '\t'; break;
+					case 'u':
+						if(p + 4 < end) {
+							c = (char) Integer.parseInt(substring(p + 1, p + 5), 16);
+							p += 4;
+						}
+						break;
+				}
+			}
+			sb.append(c);
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Converts the current number token, or a string token holding a number
+	 * (as some exchanges send prices), to a double.
+	 *
+	 * @return The value, or NaN if the token is not a number.
+	 */
+	public double getDouble() {
+		if((token != NUMBER && token != STRING) || escaped || end == start) return Double.NaN;
+
+		int p = start;
+		boolean negative = charAt(p) == '-';
+		if(negative || charAt(p) == '+') p++;
+
+		long mantissa = 0;
+		int digits = 0;
+		int scale = 0;
+		boolean fraction = false;
+		boolean any = false;
+		for(; p < end; p++) {
+			char c = charAt(p);
+			if(c >= '0' && c <= '9') {
+				any = true;
+				if(mantissa == 0 && c == '0') {
+					if(fraction) scale--;
+					continue;
+				}
+				if(digits == 15) return slowParse();
+
+				mantissa = mantissa * 10 + (c - '0');
+				digits++;
+				if(fraction) scale--;
+			}
+			else if(c == '.' && !fraction) fraction = true;
+			else if(c == 'e' || c == 'E') {
+				int exponent = parseExponent(p + 1);
+				if(exponent == Integer.MIN_VALUE) return Double.NaN;
+
+				scale += exponent;
+				break;
+			}
+			else return Double.NaN;
+		}
+		if(!any) return Double.NaN;
+
+		// with at most 15 digits the mantissa and the power of ten are both
+		// exact, so one multiplication or division is correctly rounded
+		double result;
+		if(mantissa == 0) result = 0;
+		else if(scale == 0) result = mantissa;
+		else if(scale < 0 && scale >= -22) result = mantissa / POW10[-scale];
+		else if(scale > 0 && scale <= 22) result = mantissa * POW10[scale];
+		else return slowParse();
+
+		return negative ? -result : result;
+	}
+
+	/**
+	 * Converts the current number token, or a string token holding an
+	 * integer, to a long.
+	 *
+	 * @return The value.
+	 *
+	 * @throws NumberFormatException if the token is not an integer.
+	 */
+	public long getLong() {
+		if((token != NUMBER && token != STRING) || escaped || end == start) throw new NumberFormatException("Not a number.");
+
+		int p = start;
+		boolean negative = charAt(p) == '-';
+		if(negative || charAt(p) == '+') p++;
+		if(p == end || end - p > 18) return Long.parseLong(substring(start, end));
+
+		long result = 0;
+		for(; p < end; p++) {
+			char c = charAt(p);
+			if(c < '0' || c > '9') {
+				// e.g. a time sent as 1.5E12
+				double value = getDouble();
+				if(Double.isNaN(value) || value != Math.rint(value)) throw new NumberFormatException(substring(start, end));
+
+				return (long) value;
+			}
+			result = result * 10 + (c - '0');
+		}
+
+		return negative ? -result : result;
+	}
+
+	private int parseExponent(int p) {
+		if(p >= end) return Integer.MIN_VALUE;
+
+		boolean negative = charAt(p) == '-';
+		if(negative || charAt(p) == '+') p++;
+		if(p >= end) return Integer.MIN_VALUE;
+
+		int result = 0;
+		for(; p < end; p++) {
+			char c = charAt(p);
+			if(c < '0' || c > '9') return Integer.MIN_VALUE;
+			if(result < 10000) result = result * 10 + (c - '0');
+		}
+
+		return negative ? -result : result;
+	}
+
+	private double slowParse() {
+		try {
+			return Double.parseDouble(substring(start, end));
+		}
+		catch(NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	private String substring(int from, int to) {
+		if(text != null) return text.subSequence(from, to).toString();
+
+		char[] chars = new char[to - from];
+		for(int i = 0; i < chars.length; i++) {
+			chars[i] = (char) (bytes[from + i] & 0xFF);
+		}
+
+		return new String(chars);
+	}
+
+	private int readString() {
+		int p = position + 1;
+		escaped = false;
+		while(p < limit) {
+			char c = charAt(p);
+			if(c == '"') break;
+			if(c == '\\') {
+				escaped = true;
+				p++;
+			}
+			p++;
+		}
+		if(p >= limit) {
+			position = limit;
+
+			return END;
+		}
+
+		start 		= position + 1;
+		end 		= p;
+		position 	= p + 1;
+
+		return STRING;
+	}
+
+	private int readLiteral(String literal, int type) {
+		if(position + literal.length() > limit) {
+			position = limit;
+
+			return END;
+		}
+		for(int i = 0; i < literal.length(); i++) {
+			if(charAt(position + i) != literal.charAt(i)) {
+				position = limit;
+
+				return END;
+			}
+		}
+
+		end = position + literal.length();
+		position = end;
+
+		return type;
+	}
+
+	private static boolean isNumberChar(char c) {
+		return (c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+' || c == 'e' || c == 'E';
+	}
+}
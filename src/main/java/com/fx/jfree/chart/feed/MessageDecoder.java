@@ -0,0 +1,50 @@
+package com.fx.jfree.chart.feed;
+
+/**
+ * Turns exchange messages into {@link IngestHandler} events.  Decoders pull
+ * only the fields they need from the raw message and report symbols as ids,
+ * so decoding a message allocates nothing in the common case.  A decoder
+ * keeps reusable parsing state and is not thread-safe; use one per
+ * connection.
+ */
+public interface MessageDecoder {
+	/**
+	 * Decodes a text message.
+	 *
+	 * @param message  the message.
+	 * @param handler  receives the events.
+	 *
+	 * @return The number of events delivered (zero for messages that carry
+	 *     no market data, such as heartbeats).
+	 */
+	public int decode(CharSequence message, IngestHandler handler);
+
+	/**
+	 * Decodes a message held as UTF-8 bytes.
+	 *
+	 * @param message  the message.
+	 * @param offset  the offset of the first byte.
+	 * @param length  the number of bytes.
+	 * @param handler  receives the events.
+	 *
+	 * @return The number of events delivered.
+	 */
+	public int decode(byte[] message, int offset, int length, IngestHandler handler);
+
+	/**
+	 * Returns the symbol with the given id.
+	 *
+	 * @param id  the symbol id.
+	 *
+	 * @return The symbol.
+	 */
+	public String getSymbol(int id);
+
+	/**
+	 * Returns the number of symbols seen so far; ids run from zero to one
+	 * less than this.
+	 *
+	 * @return The symbol count.
+	 */
+	public int getSymbolCount();
+}
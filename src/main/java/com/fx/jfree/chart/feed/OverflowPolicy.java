@@ -0,0 +1,23 @@
+package com.fx.jfree.chart.feed;
+
+/**
+ * What an {@link IngestQueue} does with a new event when it is full.
+ */
+public enum OverflowPolicy {
+	/** Discard the oldest queued event to make room for the new one. */
+	DROP_OLDEST,
+
+	/**
+	 * Keep only the latest event per symbol until the consumer catches up.
+	 * Conflated trades keep the open, high, low and close of their prices
+	 * and accumulate the size, within one conflation interval; conflated
+	 * candles keep the latest snapshot of the same candle.
+	 */
+	CONFLATE,
+
+	/**
+	 * Make the producer wait until the consumer frees a slot.  Nothing is
+	 * lost, so this suits replaying recorded data into a candle builder.
+	 */
+	BLOCK
+}
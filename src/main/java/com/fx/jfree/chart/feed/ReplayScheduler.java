@@ -0,0 +1,328 @@
+package com.fx.jfree.chart.feed;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a {@link ReplayTape} to a handler, spacing the trades by their
+ * recorded times divided by a speed multiplier.
+ * <P>
+ * All delivery happens on one timer thread.  Rather than sleeping between
+ * trades, each wakeup delivers every trade that is due within the next
+ * {@link #getResolution() resolution} of wall-clock time and then schedules
+ * a single wakeup for the next trade, so bursts of trades cost one wakeup.
+ * At {@link #MAX_SPEED} the trades are delivered back to back, in batches
+ * so that {@link #pause()}, {@link #seek(long)} and speed changes still take
+ * effect promptly.
+ * <P>
+ * The handler is called without the scheduler's lock held, so it may block
+ * (for example on a full {@link IngestQueue}) while another thread pauses,
+ * seeks or changes the speed.  Those calls take effect after the trades of
+ * the current wakeup have been delivered.
+ * <P>
+ * The scheduler only moves its own cursor: after seeking backwards the
+ * receiver sees trades older than ones it has already seen, and is
+ * responsible for resetting its own state if that matters.
+ */
+public class ReplayScheduler {
+	/** Replays at the recorded rate. */
+	public static final double REAL_TIME = 1.0;
+
+	/** Replays as fast as the handler accepts trades. */
+	public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+	/** The most trades delivered per wakeup. */
+	private static final int BATCH_SIZE = 4096;
+
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	/** The tape. */
+	private final ReplayTape tape;
+
+	/** The receiver. */
+	private final IngestHandler handler;
+
+	/** The timer thread. */
+	private final ScheduledExecutorService timer;
+
+	/** Called once when the end of the tape is reached (may be null). */
+	private Runnable completionHandler;
+
+	/** The speed multiplier. */
+	private double speed;
+
+	/** The coalescing window, in wall-clock milliseconds. */
+	private long resolution;
+
+	/** The index of the next trade to deliver. */
+	private int position;
+
+	/** Whether the replay is running. */
+	private boolean running;
+
+	/** The replay time at {@code anchorNanos}. */
+	private double anchorTime;
+
+	/** The wall-clock time the replay clock was last set. */
+	private long anchorNanos;
+
+	/** The pending wakeup, if any. */
+	private ScheduledFuture<?> wakeup;
+
+	/** Incremented whenever the pending wakeup is superseded. */
+	private long generation;
+
+	/**
+	 * Creates a new scheduler, paused at the start of the tape.
+	 *
+	 * @param tape  the trades ({@code null} not permitted).
+	 * @param handler  receives the trades, on the timer thread
+	 *     ({@code null} not permitted).
+	 * @param speed  the speed multiplier (for example {@code 1.0},
+	 *     {@code 10.0} or {@link #MAX_SPEED}).
+	 */
+	public ReplayScheduler(ReplayTape tape, IngestHandler handler, double speed) {
+		if(tape == null) throw new IllegalArgumentException("Null 'tape' argument.");
+		if(handler == null) throw new IllegalArgumentException("Null 'handler' argument.");
+		checkSpeed(speed);
+
+		this.tape 		= tape;
+		this.handler 	= handler;
+		this.speed 		= speed;
+		resolution 		= 1;
+		anchorTime 		= tape.getCount() > 0 ? tape.getTime(0) : 0;
+		timer 			= Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "ReplayScheduler");
+				thread.setDaemon(true);
+
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Sets a callback that is run on the timer thread when the last trade on
+	 * the tape has been delivered.
+	 *
+	 * @param completionHandler  the callback ({@code null} permitted).
+	 */
+	public synchronized void setCompletionHandler(Runnable completionHandler) {
+		this.completionHandler = completionHandler;
+	}
+
+	/**
+	 * Returns the speed multiplier.
+	 *
+	 * @return The speed.
+	 */
+	public synchronized double getSpeed() {
+		return speed;
+	}
+
+	/**
+	 * Sets the speed multiplier.  The replay continues from the current
+	 * replay time at the new speed.
+	 *
+	 * @param speed  the speed (greater than zero; {@link #MAX_SPEED}
+	 *     permitted).
+	 */
+	public synchronized void setSpeed(double speed) {
+		checkSpeed(speed);
+
+		anchor(getReplayTime());
+		this.speed = speed;
+		reschedule(0);
+	}
+
+	/**
+	 * Returns the coalescing window: each wakeup delivers the trades due
+	 * within this many milliseconds of wall-clock time.  The default is 1.
+	 *
+	 * @return The resolution in milliseconds.
+	 */
+	public synchronized long getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * Sets the coalescing window.  Larger values mean fewer, larger bursts.
+	 *
+	 * @param resolution  the resolution in milliseconds (at least 1).
+	 */
+	public synchronized void setResolution(long resolution) {
+		if(resolution < 1) throw new IllegalArgumentException("Requires 'resolution' >= 1.");
+
+		this.resolution = resolution;
+	}
+
+	/**
+	 * Returns {@code true} if the replay is running.
+	 *
+	 * @return A boolean.
+	 */
+	public synchronized boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Returns the index of the next trade to be delivered.
+	 *
+	 * @return The position (equal to the tape count once the replay is done).
+	 */
+	public synchronized int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Returns the current replay time: the recorded time that corresponds to
+	 * now.  While paused this does not advance.
+	 *
+	 * @return The replay time in milliseconds.
+	 */
+	public synchronized long getReplayTime() {
+		if(!running || speed == MAX_SPEED) return (long) anchorTime;
+
+		return (long) replayTime(System.nanoTime());
+	}
+
+	/**
+	 * Starts or resumes the replay from the current position.
+	 */
+	public synchronized void start() {
+		if(running || timer.isShutdown() || position == tape.getCount()) return;
+
+		running = true;
+		anchor(anchorTime);
+		reschedule(0);
+	}
+
+	/**
+	 * Pauses the replay.  Trades not yet delivered stay on the tape.
+	 */
+	public synchronized void pause() {
+		if(!running) return;
+
+		anchor(getReplayTime());
+		running = false;
+		cancel();
+	}
+
+	/**
+	 * Moves the replay to the first trade at or after {@code time}.  If the
+	 * replay is running it continues from there.
+	 *
+	 * @param time  the replay time in milliseconds.
+	 */
+	public synchronized void seek(long time) {
+		position = tape.indexOf(time);
+		anchor(time);
+		if(running) reschedule(0);
+	}
+
+	/**
+	 * Stops the replay and the timer thread.  The scheduler cannot be
+	 * restarted.
+	 */
+	public synchronized void shutdown() {
+		running = false;
+		cancel();
+		timer.shutdown();
+	}
+
+	private void tick(long generation) {
+		int count = tape.getCount();
+		int from, to, end;
+
+		// take the trades that are due; they are delivered outside the lock
+		synchronized(this) {
+			if(!running || generation != this.generation) return;
+
+			from 	= position;
+			to 		= position;
+			end 	= Math.min(count, position + BATCH_SIZE);
+
+			if(speed == MAX_SPEED) {
+				to = end;
+			}
+			else {
+				double limit = replayTime(System.nanoTime()) + resolution * speed;
+
+				while(to < end && tape.getTime(to) <= limit) to++;
+			}
+
+			position = to;
+		}
+
+		for(int i = from; i < to; i++) {
+			tape.deliver(i, handler);
+		}
+
+		Runnable completed = null;
+
+		synchronized(this) {
+			if(to == count && position == count && (generation == this.generation || !running)) {
+				// the last trade has been delivered (perhaps after a pause)
+				running = false;
+				if(generation == this.generation) wakeup = null;
+				completed = completionHandler;
+			}
+			else if(generation == this.generation) {
+				// not paused, moved or sped up in the meantime
+				if(speed == MAX_SPEED) {
+					anchor(tape.getTime(position));
+					reschedule(0);
+				}
+				else {
+					// a full batch means the handler is behind; carry on at once
+					double delay = (tape.getTime(position) - replayTime(System.nanoTime())) / speed;
+					reschedule(to == end ? 0 : Math.max(0, (long) (delay * NANOS_PER_MILLI)));
+				}
+			}
+		}
+
+		if(completed != null) completed.run();
+	}
+
+	private double replayTime(long nanos) {
+		return anchorTime + (nanos - anchorNanos) / NANOS_PER_MILLI * speed;
+	}
+
+	private void anchor(double time) {
+		anchorTime 	= time;
+		anchorNanos = System.nanoTime();
+	}
+
+	/**
+	 * Replaces the pending wakeup (if any) with one after {@code delay}
+	 * nanoseconds.
+	 */
+	private void reschedule(long delay) {
+		cancel();
+		if(!running) return;
+
+		final long current = generation;
+		wakeup = timer.schedule(new Runnable() {
+			@Override
+			public void run() {
+				tick(current);
+			}
+		}, delay, TimeUnit.NANOSECONDS);
+	}
+
+	private void cancel() {
+		generation++;
+		if(wakeup != null) {
+			wakeup.cancel(false);
+			wakeup = null;
+		}
+	}
+
+	private static void checkSpeed(double speed) {
+		if(!(speed > 0)) throw new IllegalArgumentException("Requires 'speed' > 0.");
+	}
+}
@@ -0,0 +1,121 @@
+package com.fx.jfree.chart.feed;
+
+import java.util.Arrays;
+
+/**
+ * A recorded sequence of trades held in primitive arrays, for replay by a
+ * {@link ReplayScheduler}.  The tape is an {@link IngestHandler}, so it can
+ * be filled directly by a {@link TradeFileLoader}; candle events are
+ * ignored.  Trades must be added in ascending time order.
+ */
+public class ReplayTape implements IngestHandler {
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private int[] symbol;
+	private long[] time;
+	private double[] price;
+	private double[] size;
+
+	/** The number of trades. */
+	private int count;
+
+	/**
+	 * Creates a new empty tape.
+	 */
+	public ReplayTape() {
+		symbol 	= new int[INITIAL_CAPACITY];
+		time 	= new long[INITIAL_CAPACITY];
+		price 	= new double[INITIAL_CAPACITY];
+		size 	= new double[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Appends a trade.
+	 *
+	 * @param symbol  the symbol id.
+	 * @param time  the trade time in milliseconds (must not be before the
+	 *     last trade).
+	 * @param price  the trade price.
+	 * @param size  the trade size.
+	 */
+	@Override
+	public void onTrade(int symbol, long time, double price, double size) {
+		if(count > 0 && time < this.time[count - 1]) throw new IllegalArgumentException("Trades must be added in ascending time order.");
+
+		if(count == this.time.length) {
+			int capacity = count + (count >> 1) + 1;
+			this.symbol = Arrays.copyOf(this.symbol, capacity);
+			this.time 	= Arrays.copyOf(this.time, capacity);
+			this.price 	= Arrays.copyOf(this.price, capacity);
+			this.size 	= Arrays.copyOf(this.size, capacity);
+		}
+
+		this.symbol[count] 	= symbol;
+		this.time[count] 	= time;
+		this.price[count] 	= price;
+		this.size[count] 	= size;
+		count++;
+	}
+
+	@Override
+	public void onCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
+	}
+
+	/**
+	 * Returns the number of trades.
+	 *
+	 * @return The trade count.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the time of a trade.
+	 *
+	 * @param index  the trade index.
+	 *
+	 * @return The time in milliseconds.
+	 */
+	public long getTime(int index) {
+		return time[checkIndex(index)];
+	}
+
+	/**
+	 * Returns the index of the first trade at or after {@code time}, or the
+	 * trade count if there is none.
+	 *
+	 * @param time  the time in milliseconds.
+	 *
+	 * @return The index.
+	 */
+	public int indexOf(long time) {
+		int low = 0;
+		int high = count;
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+			if(this.time[mid] < time) low = mid + 1;
+			else high = mid;
+		}
+
+		return low;
+	}
+
+	/**
+	 * Passes a trade to a handler.
+	 *
+	 * @param index  the trade index.
+	 * @param handler  the handler.
+	 */
+	public void deliver(int index, IngestHandler handler) {
+		checkIndex(index);
+
+		handler.onTrade(symbol[index], time[index], price[index], size[index]);
+	}
+
+	private int checkIndex(int index) {
+		if(index < 0 || index >= count) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+
+		return index;
+	}
+}
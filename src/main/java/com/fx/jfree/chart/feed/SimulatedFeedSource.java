@@ -0,0 +1,120 @@
+package com.fx.jfree.chart.feed;
+
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An in-process stand-in for an exchange feed, for tests and load tests.
+ * Publishes random-walk trades for a set of symbols, round robin, from its
+ * own thread.  Trade times start at a given time and advance by a fixed
+ * step per trade, so the output for a given seed is reproducible however
+ * fast it is published.
+ */
+public class SimulatedFeedSource implements FeedSource {
+	/** How many trades are published between pacing checks. */
+	private static final int PACING_BATCH = 64;
+
+	private final String venue;
+	private final String[] symbols;
+	private final long tradeCount;
+	private final long startTime;
+	private final long timeStep;
+	private final double tradesPerSecond;
+	private final long seed;
+
+	private volatile boolean running;
+	private Thread thread;
+
+	/**
+	 * Creates a new source.
+	 *
+	 * @param venue  the venue ({@code null} not permitted).
+	 * @param symbols  the symbols (at least one).
+	 * @param tradeCount  the number of trades to publish before stopping
+	 *     ({@code Long.MAX_VALUE} for no limit).
+	 * @param startTime  the time of the first trade in milliseconds.
+	 * @param timeStep  the time between consecutive trades in milliseconds.
+	 * @param tradesPerSecond  the publishing rate (zero or less publishes as
+	 *     fast as the hub accepts trades).
+	 * @param seed  the random seed.
+	 */
+	public SimulatedFeedSource(String venue, String[] symbols, long tradeCount, long startTime, long timeStep, double tradesPerSecond, long seed) {
+		if(venue == null) throw new IllegalArgumentException("Null 'venue' argument.");
+		if(symbols == null || symbols.length == 0) throw new IllegalArgumentException("At least one symbol is required.");
+		if(timeStep < 0) throw new IllegalArgumentException("Requires 'timeStep' >= 0.");
+
+		this.venue 				= venue;
+		this.symbols 			= symbols.clone();
+		this.tradeCount 		= tradeCount;
+		this.startTime 			= startTime;
+		this.timeStep 			= timeStep;
+		this.tradesPerSecond 	= tradesPerSecond;
+		this.seed 				= seed;
+	}
+
+	@Override
+	public synchronized void start(final FeedHub hub) {
+		if(hub == null) throw new IllegalArgumentException("Null 'hub' argument.");
+		if(thread != null) throw new IllegalStateException("The source has already been started.");
+
+		final int[] ids = new int[symbols.length];
+		for(int i = 0; i < symbols.length; i++) {
+			ids[i] = hub.getSymbolId(venue, symbols[i]);
+		}
+
+		running = true;
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				publish(hub, ids);
+			}
+		}, "SimulatedFeedSource-" + venue);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+	}
+
+	/**
+	 * Waits for the source to finish publishing.
+	 *
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public void join() throws InterruptedException {
+		Thread t;
+		synchronized(this) {
+			t = thread;
+		}
+		if(t != null) t.join();
+	}
+
+	private void publish(FeedHub hub, int[] ids) {
+		Random random = new Random(seed);
+
+		double[] prices = new double[ids.length];
+		for(int i = 0; i < ids.length; i++) {
+			prices[i] = 10 + random.nextInt(1000);
+		}
+
+		long begin = System.nanoTime();
+		for(long n = 0; n < tradeCount && running; n++) {
+			int s = (int) (n % ids.length);
+
+			// a multiplicative random walk on a 0.01 tick grid
+			prices[s] = Math.max(0.01, Math.round(prices[s] * (1 + random.nextGaussian() * 0.0005) * 100) / 100.0);
+
+			hub.publishTrade(ids[s], startTime + n * timeStep, prices[s], 1 + random.nextInt(500));
+
+			if(tradesPerSecond > 0 && n % PACING_BATCH == PACING_BATCH - 1) {
+				long due = begin + (long) ((n + 1) / tradesPerSecond * 1e9);
+				long wait = due - System.nanoTime();
+				if(wait > 0) LockSupport.parkNanos(wait);
+			}
+		}
+
+		running = false;
+	}
+}
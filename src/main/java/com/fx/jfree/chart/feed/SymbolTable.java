@@ -0,0 +1,115 @@
+package com.fx.jfree.chart.feed;
+
+import java.util.Arrays;
+
+/**
+ * Assigns ids to symbols read by a {@link JsonTokenizer}, comparing the
+ * token text in place so that only the first sighting of a symbol creates
+ * a String.  Ids are assigned from zero in order of first sighting.
+ */
+public class SymbolTable {
+	private String[] keys = new String[16];
+	private int[] ids = new int[16];
+	private String[] symbols = new String[16];
+	private int size;
+
+	/**
+	 * Returns the id for the current token text, adding it if it is new.
+	 *
+	 * @param tokenizer  the tokenizer, positioned on a string token.
+	 *
+	 * @return The id.
+	 */
+	public int lookup(JsonTokenizer tokenizer) {
+		if(tokenizer.isEscaped()) return lookup(tokenizer.getText());
+
+		int start = tokenizer.getTextStart();
+		int end = tokenizer.getTextEnd();
+
+		int hash = 0;
+		for(int p = start; p < end; p++) {
+			hash = 31 * hash + tokenizer.charAt(p);
+		}
+
+		// same hash as String.hashCode(), so keys can be found either way
+		int mask = keys.length - 1;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while(keys[slot] != null) {
+			if(tokenizer.textEquals(keys[slot])) return ids[slot];
+			slot = (slot + 1) & mask;
+		}
+
+		return add(tokenizer.getText());
+	}
+
+	/**
+	 * Returns the id for a symbol, adding it if it is new.
+	 *
+	 * @param symbol  the symbol ({@code null} not permitted).
+	 *
+	 * @return The id.
+	 */
+	public int lookup(String symbol) {
+		if(symbol == null) throw new IllegalArgumentException("Null 'symbol' argument.");
+
+		int hash = symbol.hashCode();
+		int mask = keys.length - 1;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while(keys[slot] != null) {
+			if(keys[slot].equals(symbol)) return ids[slot];
+			slot = (slot + 1) & mask;
+		}
+
+		return add(symbol);
+	}
+
+	/**
+	 * Returns the symbol with the given id.
+	 *
+	 * @param id  the id.
+	 *
+	 * @return The symbol.
+	 */
+	public String getSymbol(int id) {
+		if(id < 0 || id >= size) throw new IndexOutOfBoundsException("Index: " + id + ", Size: " + size);
+
+		return symbols[id];
+	}
+
+	/**
+	 * Returns the number of symbols.
+	 *
+	 * @return The symbol count.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	private int add(String symbol) {
+		if((size + 1) * 2 > keys.length) {
+			String[] oldKeys = keys;
+			int[] oldIds = ids;
+			keys = new String[oldKeys.length * 2];
+			ids = new int[oldKeys.length * 2];
+			for(int i = 0; i < oldKeys.length; i++) {
+				if(oldKeys[i] != null) insert(oldKeys[i], oldIds[i]);
+			}
+		}
+		if(size == symbols.length) symbols = Arrays.copyOf(symbols, size * 2);
+
+		symbols[size] = symbol;
+		insert(symbol, size);
+
+		return size++;
+	}
+
+	private void insert(String key, int id) {
+		int hash = key.hashCode();
+		int mask = keys.length - 1;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while(keys[slot] != null) slot = (slot + 1) & mask;
+
+		keys[slot] = key;
+		ids[slot] = id;
+	}
+}
@@ -0,0 +1,477 @@
+package com.fx.jfree.chart.feed;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a pipe-delimited trade tape ({@code SYMBOL|HH:MM:SS.mmm|price|size},
+ * one trade per line) by scanning the memory-mapped bytes and parsing the
+ * fields in place.  No String or other object is created per line; each
+ * distinct symbol is interned once and reported by its id (see
+ * {@link #getSymbol(int)}).  Times are reported in milliseconds since
+ * midnight, as {@code TimeUtils.convertToMillisTime()} does.
+ * <P>
+ * A file can be split into chunks that are parsed in parallel.  Chunks are
+ * contiguous, cut at line boundaries and numbered in file order, and each is
+ * delivered to its own handler in file order, so per-chunk results can be
+ * merged by the caller in chunk order.
+ */
+public class TradeFileLoader {
+	private static final byte DELIMITER = '|';
+
+	/** Lines longer than this are not expected; used to find chunk boundaries. */
+	private static final int MAX_LINE = 4096;
+
+	/** Chunks are limited to what one mapping can hold. */
+	private static final long MAX_CHUNK = 1L << 30;
+
+	private static final double[] POW10 = new double[19];
+	static {
+		POW10[0] = 1;
+		for(int i = 1; i < POW10.length; i++) {
+			POW10[i] = POW10[i - 1] * 10;
+		}
+	}
+
+	/** The file. */
+	private final File file;
+
+	/** The symbol ids. */
+	private final Map<String, Integer> symbolIds = new HashMap<>();
+
+	/** The symbols, indexed by id. */
+	private final List<String> symbols = new ArrayList<>();
+
+	/** The number of lines skipped because they could not be parsed. */
+	private long malformedCount;
+
+	/**
+	 * Creates a loader for a file.
+	 *
+	 * @param file  the file.
+	 */
+	public TradeFileLoader(File file) {
+		if(file == null) throw new IllegalArgumentException("Null 'file' argument.");
+
+		this.file = file;
+	}
+
+	/**
+	 * Returns the symbol with the given id.
+	 *
+	 * @param id  the symbol id.
+	 *
+	 * @return The symbol.
+	 */
+	public synchronized String getSymbol(int id) {
+		return symbols.get(id);
+	}
+
+	/**
+	 * Returns the number of distinct symbols seen so far.
+	 *
+	 * @return The symbol count.
+	 */
+	public synchronized int getSymbolCount() {
+		return symbols.size();
+	}
+
+	/**
+	 * Returns the number of lines skipped because they could not be parsed.
+	 *
+	 * @return The count.
+	 */
+	public synchronized long getMalformedCount() {
+		return malformedCount;
+	}
+
+	/**
+	 * Parses the whole file on the calling thread.
+	 *
+	 * @param handler  receives the trades ({@link IngestHandler#onCandle} is
+	 *     not called).
+	 *
+	 * @return The number of trades delivered.
+	 *
+	 * @throws IOException if the file cannot be read.
+	 */
+	public long load(IngestHandler handler) throws IOException {
+		try(RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			FileChannel channel = raf.getChannel();
+			long[] bounds = split(channel, (int) ((channel.size() + MAX_CHUNK - 1) / MAX_CHUNK));
+
+			long result = 0;
+			for(int i = 0; i + 1 < bounds.length; i++) {
+				result += parse(channel, bounds[i], bounds[i + 1], handler);
+			}
+
+			return result;
+		}
+	}
+
+	/**
+	 * Splits the file into one chunk per handler and parses the chunks in
+	 * parallel, returning when all are done.
+	 *
+	 * @param handlers  one handler per chunk; chunk {@code i} goes to
+	 *     {@code handlers[i]}, on a single thread.
+	 * @param executor  runs the chunks.
+	 *
+	 * @return The number of trades delivered.
+	 *
+	 * @throws IOException if the file cannot be read.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public long load(IngestHandler[] handlers, ExecutorService executor) throws IOException, InterruptedException {
+		if(handlers == null || handlers.length == 0) throw new IllegalArgumentException("At least one handler is required.");
+
+		try(RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			final FileChannel channel = raf.getChannel();
+			if(channel.size() / handlers.length > MAX_CHUNK) throw new IllegalArgumentException("Too few handlers for a file of this size.");
+
+			final long[] bounds = split(channel, handlers.length);
+
+			List<Future<Long>> results = new ArrayList<>();
+			for(int i = 0; i < handlers.length; i++) {
+				final int chunk = i;
+				final IngestHandler handler = handlers[i];
+				results.add(executor.submit(() -> parse(channel, bounds[chunk], bounds[chunk + 1], handler)));
+			}
+
+			long result = 0;
+			for(Future<Long> future : results) {
+				try {
+					result += future.get();
+				}
+				catch(ExecutionException e) {
+					Throwable cause = e.getCause();
+					if(cause instanceof IOException) throw (IOException) cause;
+					if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+					if(cause instanceof Error) throw (Error) cause;
+
+					throw new IOException(cause);
+				}
+			}
+
+			return result;
+		}
+	}
+
+	/**
+	 * Returns {@code chunks + 1} file offsets, each (other than the first and
+	 * last) just after a line break.
+	 */
+	private static long[] split(FileChannel channel, int chunks) throws IOException {
+		long size = channel.size();
+		long[] bounds = new long[chunks + 1];
+		bounds[chunks] = size;
+
+		ByteBuffer probe = ByteBuffer.allocate(MAX_LINE);
+		for(int i = 1; i < chunks; i++) {
+			long position = Math.max(size / chunks * i, bounds[i - 1]);
+			bounds[i] = size;
+
+			while(position < size) {
+				probe.clear();
+				int read = channel.read(probe, position);
+				if(read <= 0) break;
+
+				int newline = -1;
+				for(int j = 0; j < read; j++) {
+					if(probe.get(j) == '\n') {
+						newline = j;
+						break;
+					}
+				}
+
+				if(newline >= 0) {
+					bounds[i] = position + newline + 1;
+					break;
+				}
+				position += read;
+			}
+		}
+
+		return bounds;
+	}
+
+	/**
+	 * Parses the lines in {@code [start, end)}.
+	 */
+	private long parse(FileChannel channel, long start, long end, IngestHandler handler) throws IOException {
+		if(end <= start) return 0;
+
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+		int limit = buffer.limit();
+
+		// symbols seen by this chunk; the last one is checked first, since
+		// tapes usually hold long runs of the same symbol
+		SymbolCache cache = new SymbolCache();
+		long count = 0;
+		long malformed = 0;
+
+		int position = 0;
+		while(position < limit) {
+			int lineEnd = position;
+			while(lineEnd < limit && buffer.get(lineEnd) != '\n') lineEnd++;
+
+			int next = lineEnd + 1;
+			if(lineEnd > position && buffer.get(lineEnd - 1) == '\r') lineEnd--;
+
+			if(lineEnd > position) {
+				if(parseLine(buffer, position, lineEnd, cache, handler)) count++;
+				else malformed++;
+			}
+
+			position = next;
+		}
+
+		if(malformed > 0) {
+			synchronized(this) {
+				malformedCount += malformed;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Parses one line and delivers it.  Returns {@code false} if the line is
+	 * malformed.
+	 */
+	private boolean parseLine(MappedByteBuffer buffer, int start, int end, SymbolCache cache, IngestHandler handler) {
+		// symbol
+		int p = start;
+		while(p < end && buffer.get(p) != DELIMITER) p++;
+		if(p == end || p == start) return false;
+
+		int symbol = cache.lookup(buffer, start, p);
+
+		// time: HH:MM:SS[.mmm]
+		int timeStart = p + 1;
+		p = timeStart;
+		while(p < end && buffer.get(p) != DELIMITER) p++;
+		if(p == end) return false;
+
+		long time = parseTime(buffer, timeStart, p);
+		if(time < 0) return false;
+
+		// price
+		int priceStart = p + 1;
+		p = priceStart;
+		while(p < end && buffer.get(p) != DELIMITER) p++;
+		if(p == end) return false;
+
+		double price = parseDecimal(buffer, priceStart, p);
+		if(Double.isNaN(price)) return false;
+
+		// size (the rest of the line)
+		double size = parseDecimal(buffer, p + 1, end);
+		if(Double.isNaN(size)) return false;
+
+		handler.onTrade(symbol, time, price, size);
+
+		return true;
+	}
+
+	/**
+	 * Parses {@code HH:MM:SS} with an optional {@code .mmm} (or
+	 * {@code :mmm}) suffix, or returns -1.  The separators and the ranges of
+	 * the hours, minutes and seconds are checked; digits of the fraction
+	 * beyond milliseconds are checked and dropped.
+	 */
+	private static long parseTime(MappedByteBuffer buffer, int start, int end) {
+		if(end - start < 8 || end - start == 9) return -1;
+		if(buffer.get(start + 2) != ':' || buffer.get(start + 5) != ':') return -1;
+
+		int hours = twoDigits(buffer, start);
+		int minutes = twoDigits(buffer, start + 3);
+		int seconds = twoDigits(buffer, start + 6);
+		if(hours < 0 || hours > 23 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59) return -1;
+
+		long millis = 0;
+		if(end - start > 9) {
+			byte separator = buffer.get(start + 8);
+			if(separator != '.' && separator != ':') return -1;
+
+			int digits = 0;
+			for(int p = start + 9; p < end; p++, digits++) {
+				int digit = buffer.get(p) - '0';
+				if(digit < 0 || digit > 9) return -1;
+				if(digits < 3) millis = millis * 10 + digit;
+			}
+			for(; digits < 3; digits++) millis *= 10;
+		}
+
+		return ((hours * 60L + minutes) * 60 + seconds) * 1000 + millis;
+	}
+
+	private static int twoDigits(MappedByteBuffer buffer, int p) {
+		int tens = buffer.get(p) - '0';
+		int units = buffer.get(p + 1) - '0';
+		if(tens < 0 || tens > 9 || units < 0 || units > 9) return -1;
+
+		return tens * 10 + units;
+	}
+
+	/**
+	 * Parses a plain decimal number (optional sign, digits, optional
+	 * fraction), or returns NaN.  With up to 15 digits both the digits and
+	 * the power of ten are exact doubles, so the one division rounds
+	 * correctly and the result is the same as from
+	 * {@link Double#parseDouble(String)}; longer numbers are passed to it.
+	 */
+	private static double parseDecimal(MappedByteBuffer buffer, int start, int end) {
+		int p = start;
+		boolean negative = false;
+		if(p < end && (buffer.get(p) == '-' || buffer.get(p) == '+')) {
+			negative = buffer.get(p) == '-';
+			p++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int fraction = -1;
+		for(; p < end; p++) {
+			byte b = buffer.get(p);
+			if(b >= '0' && b <= '9') {
+				if(digits == 15) return slowParse(buffer, start, end);
+
+				mantissa = mantissa * 10 + (b - '0');
+				digits++;
+				if(fraction >= 0) fraction++;
+			}
+			else if(b == '.' && fraction < 0) fraction = 0;
+			else return Double.NaN;
+		}
+		if(digits == 0) return Double.NaN;
+
+		double result = fraction > 0 ? mantissa / POW10[fraction] : mantissa;
+
+		return negative ? -result : result;
+	}
+
+	private static double slowParse(MappedByteBuffer buffer, int start, int end) {
+		byte[] bytes = new byte[end - start];
+		for(int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(start + i);
+		}
+
+		try {
+			return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+		}
+		catch(NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Returns the id for a symbol, adding it to the shared table if it is new.
+	 */
+	private synchronized int intern(byte[] symbol) {
+		String name = new String(symbol, StandardCharsets.US_ASCII);
+
+		Integer id = symbolIds.get(name);
+		if(id == null) {
+			id = symbols.size();
+			symbols.add(name);
+			symbolIds.put(name, id);
+		}
+
+		return id;
+	}
+
+	/**
+	 * A per-chunk symbol table, so the shared table is only consulted the
+	 * first time a chunk sees each symbol.
+	 */
+	private class SymbolCache {
+		private byte[][] keys = new byte[64][];
+		private int[] ids = new int[64];
+		private int size;
+
+		private byte[] lastKey;
+		private int lastId;
+
+		int lookup(MappedByteBuffer buffer, int start, int end) {
+			if(lastKey != null && matches(lastKey, buffer, start, end)) return lastId;
+
+			int hash = 1;
+			for(int p = start; p < end; p++) {
+				hash = 31 * hash + buffer.get(p);
+			}
+
+			int mask = keys.length - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while(keys[slot] != null) {
+				if(matches(keys[slot], buffer, start, end)) {
+					lastKey = keys[slot];
+					lastId = ids[slot];
+
+					return lastId;
+				}
+				slot = (slot + 1) & mask;
+			}
+
+			byte[] key = new byte[end - start];
+			for(int i = 0; i < key.length; i++) {
+				key[i] = buffer.get(start + i);
+			}
+
+			int id = intern(key);
+			keys[slot] = key;
+			ids[slot] = id;
+			if(++size * 2 > keys.length) grow();
+
+			lastKey = key;
+			lastId = id;
+
+			return id;
+		}
+
+		private boolean matches(byte[] key, MappedByteBuffer buffer, int start, int end) {
+			if(key.length != end - start) return false;
+
+			for(int i = 0; i < key.length; i++) {
+				if(key[i] != buffer.get(start + i)) return false;
+			}
+
+			return true;
+		}
+
+		private void grow() {
+			byte[][] oldKeys = keys;
+			int[] oldIds = ids;
+			keys = new byte[oldKeys.length * 2][];
+			ids = new int[oldKeys.length * 2];
+
+			int mask = keys.length - 1;
+			for(int i = 0; i < oldKeys.length; i++) {
+				if(oldKeys[i] == null) continue;
+
+				int hash = 1;
+				for(byte b : oldKeys[i]) {
+					hash = 31 * hash + b;
+				}
+
+				int slot = (hash ^ (hash >>> 16)) & mask;
+				while(keys[slot] != null) slot = (slot + 1) & mask;
+
+				keys[slot] = oldKeys[i];
+				ids[slot] = oldIds[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.fx.jfree.chart.feed;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Replays a trade file (see {@link TradeFileLoader}) into a
+ * {@link FeedHub}.  The file is loaded when the source is started and then
+ * replayed by a {@link ReplayScheduler}.
+ */
+public class TradeFileSource implements FeedSource {
+	private final File file;
+	private final String venue;
+	private final double speed;
+
+	private ReplayScheduler scheduler;
+
+	/**
+	 * Creates a new source.
+	 *
+	 * @param file  the trade file ({@code null} not permitted).
+	 * @param venue  the venue of the symbols in the file ({@code null} not
+	 *     permitted).
+	 * @param speed  the replay speed multiplier
+	 *     ({@link ReplayScheduler#MAX_SPEED} permitted).
+	 */
+	public TradeFileSource(File file, String venue, double speed) {
+		if(file == null) throw new IllegalArgumentException("Null 'file' argument.");
+		if(venue == null) throw new IllegalArgumentException("Null 'venue' argument.");
+
+		this.file 	= file;
+		this.venue 	= venue;
+		this.speed 	= speed;
+	}
+
+	/**
+	 * Loads the file and starts the replay.
+	 *
+	 * @param hub  the hub.
+	 *
+	 * @throws IllegalStateException if the file cannot be read.
+	 */
+	@Override
+	public synchronized void start(final FeedHub hub) {
+		if(hub == null) throw new IllegalArgumentException("Null 'hub' argument.");
+		if(scheduler != null) throw new IllegalStateException("The source has already been started.");
+
+		TradeFileLoader loader = new TradeFileLoader(file);
+		ReplayTape tape = new ReplayTape();
+		try {
+			loader.load(tape);
+		}
+		catch(IOException e) {
+			throw new IllegalStateException("Cannot read " + file, e);
+		}
+
+		final int[] ids = new int[loader.getSymbolCount()];
+		for(int i = 0; i < ids.length; i++) {
+			ids[i] = hub.getSymbolId(venue, loader.getSymbol(i));
+		}
+
+		scheduler = new ReplayScheduler(tape, new IngestHandler() {
+			@Override
+			public void onTrade(int symbol, long time, double price, double size) {
+				hub.publishTrade(ids[symbol], time, price, size);
+			}
+
+			@Override
+			public void onCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
+			}
+		}, speed);
+		scheduler.start();
+	}
+
+	/**
+	 * Returns the scheduler driving the replay, or {@code null} if the
+	 * source has not been started.
+	 *
+	 * @return The scheduler (possibly {@code null}).
+	 */
+	public synchronized ReplayScheduler getScheduler() {
+		return scheduler;
+	}
+
+	@Override
+	public synchronized void stop() {
+		if(scheduler != null) scheduler.shutdown();
+	}
+}
@@ -0,0 +1,51 @@
+package com.fx.jfree.chart.indicator;
+
+/**
+ * Awesome oscillator: the 5-bar simple average of the median price
+ * {@code (high + low) / 2} minus its 34-bar simple average.
+ */
+public class AOIndicator extends StreamingIndicator {
+	private final RollingMean fast;
+	private final RollingMean slow;
+
+	/**
+	 * Creates a new indicator with the standard 5 and 34 bar periods.
+	 */
+	public AOIndicator() {
+		this(5, 34);
+	}
+
+	/**
+	 * Creates a new indicator.
+	 *
+	 * @param fastPeriod  the period of the fast average.
+	 * @param slowPeriod  the period of the slow average.
+	 */
+	public AOIndicator(int fastPeriod, int slowPeriod) {
+		super("AO(" + fastPeriod + "," + slowPeriod + ")");
+
+		fast = new RollingMean(fastPeriod);
+		slow = new RollingMean(slowPeriod);
+	}
+
+	@Override
+	protected void evaluate(double open, double high, double low, double close, double volume, double[] result) {
+		double median = (high + low) / 2;
+
+		result[0] = fast.evaluate(median) - slow.evaluate(median);
+	}
+
+	@Override
+	protected void commit(double open, double high, double low, double close, double volume) {
+		double median = (high + low) / 2;
+
+		fast.commit(median);
+		slow.commit(median);
+	}
+
+	@Override
+	protected void resetState() {
+		fast.reset();
+		slow.reset();
+	}
+}
@@ -0,0 +1,47 @@
+package com.fx.jfree.chart.indicator;
+
+/**
+ * Average true range with Wilder's smoothing.  The true range of the first
+ * bar is its high-low range, since there is no previous close.
+ */
+public class ATRIndicator extends StreamingIndicator {
+	private final SmoothedMean mean;
+
+	/** The close of the last committed bar, or NaN before the first. */
+	private double previousClose = Double.NaN;
+
+	/**
+	 * Creates a new indicator.
+	 *
+	 * @param period  the period.
+	 */
+	public ATRIndicator(int period) {
+		super("ATR(" + period + ")");
+
+		mean = new SmoothedMean(period, 1.0 / period);
+	}
+
+	@Override
+	protected void evaluate(double open, double high, double low, double close, double volume, double[] result) {
+		result[0] = mean.evaluate(trueRange(high, low));
+	}
+
+	@Override
+	protected void commit(double open, double high, double low, double close, double volume) {
+		mean.commit(trueRange(high, low));
+
+		previousClose = close;
+	}
+
+	@Override
+	protected void resetState() {
+		mean.reset();
+		previousClose = Double.NaN;
+	}
+
+	private double trueRange(double high, double low) {
+		if(Double.isNaN(previousClose)) return high - low;
+
+		return Math.max(high - low, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+	}
+}
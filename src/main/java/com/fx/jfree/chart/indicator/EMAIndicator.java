@@ -0,0 +1,36 @@
+package com.fx.jfree.chart.indicator;
+
+/**
+ * Exponential moving average of the close, seeded with the simple average of
+ * the first {@code period} bars.
+ */
+public class EMAIndicator extends StreamingIndicator {
+	private final SmoothedMean mean;
+
+	/**
+	 * Creates a new indicator.
+	 *
+	 * @param period  the period (the smoothing factor is
+	 *     {@code 2 / (period + 1)}).
+	 */
+	public EMAIndicator(int period) {
+		super("EMA(" + period + ")");
+
+		mean = new SmoothedMean(period, 2.0 / (period + 1));
+	}
+
+	@Override
+	protected void evaluate(double open, double high, double low, double close, double volume, double[] result) {
+		result[0] = mean.evaluate(close);
+	}
+
+	@Override
+	protected void commit(double open, double high, double low, double close, double volume) {
+		mean.commit(close);
+	}
+
+	@Override
+	protected void resetState() {
+		mean.reset();
+	}
+}
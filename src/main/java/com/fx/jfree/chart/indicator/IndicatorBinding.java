@@ -0,0 +1,156 @@
+package com.fx.jfree.chart.indicator;
+
+import org.jfree.chart.util.Args;
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesChangeListener;
+import org.jfree.data.general.SeriesItemChangeEvent;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimePeriodAnchor;
+import org.jfree.data.time.ohlc.OHLCItem;
+import org.jfree.data.time.ohlc.OHLCSeries;
+
+/**
+ * Keeps a {@link StreamingIndicator} in step with an {@link OHLCSeries}.
+ * <P>
+ * On each change to the series, the last bar already passed to the indicator
+ * is located again; it and any bars after it are passed on, so appending a bar
+ * or revising the last one costs O(1).  If that bar has been removed, or a
+ * {@link SeriesItemChangeEvent} reports a revision of an older bar, the
+ * indicator is reset and the whole series is replayed.  Other changes to
+ * older bars are not detected; call {@link #refresh()} after editing
+ * history.
+ */
+public class IndicatorBinding implements SeriesChangeListener {
+	/** The source series. */
+	private final OHLCSeries series;
+
+	/** The indicator. */
+	private final StreamingIndicator indicator;
+
+	/** The point in each period used for the x-value. */
+	private final TimePeriodAnchor anchor;
+
+	/** The last period passed to the indicator, or {@code null}. */
+	private RegularTimePeriod lastPeriod;
+
+	/** The index {@code lastPeriod} had in the series. */
+	private int lastIndex;
+
+	/**
+	 * Creates a binding that uses the middle of each period for the x-value
+	 * (the same as the default for {@code OHLCSeriesCollection}), and
+	 * processes the bars already in the series.
+	 *
+	 * @param series  the series ({@code null} not permitted).
+	 * @param indicator  the indicator ({@code null} not permitted).
+	 */
+	public IndicatorBinding(OHLCSeries series, StreamingIndicator indicator) {
+		this(series, indicator, TimePeriodAnchor.MIDDLE);
+	}
+
+	/**
+	 * Creates a binding and processes the bars already in the series.
+	 *
+	 * @param series  the series ({@code null} not permitted).
+	 * @param indicator  the indicator ({@code null} not permitted).
+	 * @param anchor  the point in each period used for the x-value
+	 *     ({@code null} not permitted).
+	 */
+	public IndicatorBinding(OHLCSeries series, StreamingIndicator indicator, TimePeriodAnchor anchor) {
+		Args.nullNotPermitted(series, "series");
+		Args.nullNotPermitted(indicator, "indicator");
+		Args.nullNotPermitted(anchor, "anchor");
+
+		this.series 	= series;
+		this.indicator 	= indicator;
+		this.anchor 	= anchor;
+
+		refresh();
+		series.addChangeListener(this);
+	}
+
+	/**
+	 * Returns the indicator.
+	 *
+	 * @return The indicator.
+	 */
+	public StreamingIndicator getIndicator() {
+		return indicator;
+	}
+
+	/**
+	 * Resets the indicator and replays the whole series.
+	 */
+	public void refresh() {
+		indicator.reset();
+		lastPeriod = null;
+
+		process(0);
+	}
+
+	/**
+	 * Stops listening to the series.
+	 */
+	public void dispose() {
+		series.removeChangeListener(this);
+	}
+
+	@Override
+	public void seriesChanged(SeriesChangeEvent event) {
+		if(lastPeriod == null) {
+			process(0);
+			return;
+		}
+
+		// bars before the last have been folded into the indicator state
+		if(event instanceof SeriesItemChangeEvent && ((SeriesItemChangeEvent) event).getItem() < lastIndex) {
+			refresh();
+			return;
+		}
+
+		int index = lastIndex;
+		if(index >= series.getItemCount() || !lastPeriod.equals(series.getPeriod(index))) {
+			index = series.indexOf(lastPeriod);
+		}
+
+		if(index < 0) refresh();
+		else process(index);
+	}
+
+	/**
+	 * Passes the bars from {@code from} onwards to the indicator.
+	 */
+	private void process(int from) {
+		int count = series.getItemCount();
+		if(from >= count) return;
+
+		indicator.getDataset().beginUpdate();
+		try {
+			for(int i = from; i < count; i++) {
+				OHLCItem item = (OHLCItem) series.getDataItem(i);
+
+				indicator.update(
+					x(item.getPeriod()),
+					item.getOpenValue(),
+					item.getHighValue(),
+					item.getLowValue(),
+					item.getCloseValue(),
+					item.getVolume()
+				);
+			}
+		}
+		finally {
+			indicator.getDataset().commitUpdate();
+		}
+
+		lastIndex 	= count - 1;
+		lastPeriod 	= series.getPeriod(lastIndex);
+	}
+
+	private long x(RegularTimePeriod period) {
+		if(anchor == TimePeriodAnchor.START) return period.getFirstMillisecond();
+		else if(anchor == TimePeriodAnchor.END) return period.getLastMillisecond();
+
+		return period.getMiddleMillisecond();
+	}
+}
@@ -0,0 +1,173 @@
+package com.fx.jfree.chart.indicator;
+
+import java.util.Arrays;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.general.DatasetItemChangeEvent;
+import org.jfree.data.xy.AbstractXYDataset;
+
+/**
+ * The output of a {@link StreamingIndicator}: one or more lines sharing the
+ * same x-values, held in primitive arrays.  A line with no value for an item
+ * holds {@code Double.NaN} there.
+ */
+public class IndicatorDataset extends AbstractXYDataset {
+	private static final long serialVersionUID = 3046121383418523127L;
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** The line keys. */
+	private final Comparable[] keys;
+
+	/** The x-values. */
+	private long[] x;
+
+	/** The y-values, indexed by line then item. */
+	private double[][] y;
+
+	/** The number of items. */
+	private int count;
+
+	/**
+	 * Creates a new empty dataset.
+	 *
+	 * @param keys  the line keys (at least one).
+	 */
+	public IndicatorDataset(Comparable... keys) {
+		if(keys == null || keys.length == 0) throw new IllegalArgumentException("At least one key is required.");
+
+		this.keys 	= keys.clone();
+		x 			= new long[INITIAL_CAPACITY];
+		y 			= new double[keys.length][INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Appends an item and sends a change event to all registered listeners.
+	 *
+	 * @param time  the x-value (must not be before the last item).
+	 * @param values  one value per line.
+	 */
+	public void add(long time, double[] values) {
+		if(count > 0 && time < x[count - 1]) throw new IllegalArgumentException("Items must be added in ascending order.");
+
+		if(count == x.length) {
+			int capacity = count + (count >> 1) + 1;
+			x = Arrays.copyOf(x, capacity);
+			for(int line = 0; line < y.length; line++) {
+				y[line] = Arrays.copyOf(y[line], capacity);
+			}
+		}
+
+		x[count] = time;
+		for(int line = 0; line < y.length; line++) {
+			y[line][count] = values[line];
+		}
+		count++;
+
+		fireDatasetChanged();
+	}
+
+	/**
+	 * Replaces the values of the last item and sends a
+	 * {@link DatasetItemChangeEvent} to all registered listeners.
+	 *
+	 * @param values  one value per line.
+	 */
+	public void updateLast(double[] values) {
+		if(count == 0) throw new IllegalStateException("The dataset is empty.");
+
+		int item = count - 1;
+		double oldMin = Double.NaN, oldMax = Double.NaN;
+		double newMin = Double.NaN, newMax = Double.NaN;
+		for(int line = 0; line < y.length; line++) {
+			double old = y[line][item];
+			oldMin = minIgnoreNaN(oldMin, old);
+			oldMax = maxIgnoreNaN(oldMax, old);
+			newMin = minIgnoreNaN(newMin, values[line]);
+			newMax = maxIgnoreNaN(newMax, values[line]);
+
+			y[line][item] = values[line];
+		}
+
+		if(getNotify()) notifyListeners(new DatasetItemChangeEvent(this, this, y.length == 1 ? 0 : -1, item, oldMin, oldMax, newMin, newMax));
+	}
+
+	/**
+	 * Returns the x-value of the last item.
+	 *
+	 * @return The x-value.
+	 */
+	public long getLastTime() {
+		if(count == 0) throw new IllegalStateException("The dataset is empty.");
+
+		return x[count - 1];
+	}
+
+	/**
+	 * Removes all items and, unless the dataset is already empty, sends a
+	 * change event to all registered listeners.
+	 */
+	public void clear() {
+		if(count > 0) {
+			count = 0;
+
+			fireDatasetChanged();
+		}
+	}
+
+	@Override
+	public int getSeriesCount() {
+		return keys.length;
+	}
+
+	@Override
+	public Comparable getSeriesKey(int series) {
+		return keys[series];
+	}
+
+	@Override
+	public int getItemCount(int series) {
+		return count;
+	}
+
+	@Override
+	public DomainOrder getDomainOrder() {
+		return DomainOrder.ASCENDING;
+	}
+
+	@Override
+	public double getXValue(int series, int item) {
+		return x[checkItem(item)];
+	}
+
+	@Override
+	public Number getX(int series, int item) {
+		return new Double(getXValue(series, item));
+	}
+
+	@Override
+	public double getYValue(int series, int item) {
+		return y[series][checkItem(item)];
+	}
+
+	@Override
+	public Number getY(int series, int item) {
+		double value = getYValue(series, item);
+
+		return Double.isNaN(value) ? null : new Double(value);
+	}
+
+	private static double minIgnoreNaN(double a, double b) {
+		return Double.isNaN(a) || b < a ? b : a;
+	}
+
+	private static double maxIgnoreNaN(double a, double b) {
+		return Double.isNaN(a) || b > a ? b : a;
+	}
+
+	private int checkItem(int item) {
+		if(item < 0 || item >= count) throw new IndexOutOfBoundsException("Index: " + item + ", Size: " + count);
+
+		return item;
+	}
+}
@@ -0,0 +1,61 @@
+package com.fx.jfree.chart.indicator;
+
+/**
+ * Relative strength index, using simple averages of the gains and losses
+ * over the last {@code period} close-to-close changes (the same definition
+ * as {@code RSI.run()}).
+ */
+public class RSIIndicator extends StreamingIndicator {
+	private final RollingMean gains;
+	private final RollingMean losses;
+
+	/** The close of the last committed bar, or NaN before the first. */
+	private double previousClose = Double.NaN;
+
+	/**
+	 * Creates a new indicator.
+	 *
+	 * @param period  the number of changes averaged.
+	 */
+	public RSIIndicator(int period) {
+		super("RSI(" + period + ")");
+
+		gains 	= new RollingMean(period);
+		losses 	= new RollingMean(period);
+	}
+
+	@Override
+	protected void evaluate(double open, double high, double low, double close, double volume, double[] result) {
+		if(Double.isNaN(previousClose)) {
+			result[0] = Double.NaN;
+			return;
+		}
+
+		double change 	= close - previousClose;
+		double avgGain 	= gains.evaluate(Math.max(change, 0));
+		double avgLoss 	= losses.evaluate(Math.max(-change, 0));
+
+		if(Double.isNaN(avgGain)) result[0] = Double.NaN;
+		else if(avgLoss == 0) result[0] = 100;
+		else result[0] = 100 - (100 / (1 + (avgGain / avgLoss)));
+	}
+
+	@Override
+	protected void commit(double open, double high, double low, double close, double volume) {
+		if(!Double.isNaN(previousClose)) {
+			double change = close - previousClose;
+
+			gains.commit(Math.max(change, 0));
+			losses.commit(Math.max(-change, 0));
+		}
+
+		previousClose = close;
+	}
+
+	@Override
+	protected void resetState() {
+		gains.reset();
+		losses.reset();
+		previousClose = Double.NaN;
+	}
+}
@@ -0,0 +1,82 @@
+package com.fx.jfree.chart.indicator;
+
+/**
+ * The highest (or lowest) of the last {@code period} values, where the newest
+ * value is still provisional.  Committed values are kept in a monotonic
+ * deque, so each operation is amortized O(1).
+ */
+class RollingExtreme {
+	/** The number of values the extreme is taken over. */
+	private final int period;
+
+	/** {@code true} for a rolling maximum, {@code false} for a minimum. */
+	private final boolean maximum;
+
+	/** Deque of (sequence number, value) pairs, held in a ring. */
+	private final long[] index;
+	private final double[] value;
+	private int head;
+	private int size;
+
+	/** The number of committed values. */
+	private long count;
+
+	RollingExtreme(int period, boolean maximum) {
+		if(period < 1) throw new IllegalArgumentException("Requires 'period' >= 1.");
+
+		this.period 	= period;
+		this.maximum 	= maximum;
+		index 			= new long[period];
+		value 			= new double[period];
+	}
+
+	/**
+	 * Returns the extreme of the committed window and {@code x}, or
+	 * {@code Double.NaN} if fewer than {@code period - 1} values have been
+	 * committed.
+	 */
+	double evaluate(double x) {
+		if(count < period - 1) return Double.NaN;
+		if(size == 0) return x;
+
+		double front = value[head];
+
+		return maximum ? Math.max(front, x) : Math.min(front, x);
+	}
+
+	void commit(double x) {
+		if(period > 1) {
+			// drop values that can never be the extreme again
+			while(size > 0 && !beats(value[slot(size - 1)], x)) {
+				size--;
+			}
+
+			int tail = slot(size);
+			index[tail] = count;
+			value[tail] = x;
+			size++;
+
+			// drop values that have left the window of the next evaluation
+			while(index[head] <= count - (period - 1)) {
+				head = slot(1);
+				size--;
+			}
+		}
+
+		count++;
+	}
+
+	void reset() {
+		head 	= 0;
+		size 	= 0;
+		count 	= 0;
+	}
+
+	private boolean beats(double a, double b) {
+		return maximum ? a > b : a < b;
+	}
+
+	private int slot(int offset) {
+		return (head + offset) % index.length;
+	}
+}
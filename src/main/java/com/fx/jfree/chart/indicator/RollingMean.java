@@ -0,0 +1,77 @@
+package com.fx.jfree.chart.indicator;
+
+/**
+ * The simple moving average of the last {@code period} values, where the
+ * newest value is still provisional.  Committed values are kept in a ring
+ * buffer with a running sum, so both operations are O(1).
+ */
+class RollingMean {
+	/** The number of values averaged. */
+	private final int period;
+
+	/** The last {@code period - 1} committed values. */
+	private final double[] window;
+
+	/** The slot the next committed value goes into. */
+	private int next;
+
+	/** The number of committed values in the window. */
+	private int size;
+
+	/** The sum of the committed values in the window. */
+	private double sum;
+
+	/** Evictions since the sum was last recalculated from scratch. */
+	private int evictions;
+
+	RollingMean(int period) {
+		if(period < 1) throw new IllegalArgumentException("Requires 'period' >= 1.");
+
+		this.period = period;
+		window 		= new double[period - 1];
+	}
+
+	/**
+	 * Returns the mean of the committed window and {@code value}, or
+	 * {@code Double.NaN} if fewer than {@code period - 1} values have been
+	 * committed.
+	 */
+	double evaluate(double value) {
+		if(size < window.length) return Double.NaN;
+
+		return (sum + value) / period;
+	}
+
+	/**
+	 * Adds a value to the window, evicting the oldest one if necessary.
+	 */
+	void commit(double value) {
+		if(window.length == 0) return;
+
+		if(size == window.length) {
+			sum -= window[next];
+			evictions++;
+		}
+		else size++;
+
+		window[next] = value;
+		sum += value;
+		next = (next + 1) % window.length;
+
+		// stop rounding error from accumulating in the running sum
+		if(evictions >= window.length) {
+			sum = 0;
+			for(int i = 0; i < size; i++) {
+				sum += window[i];
+			}
+			evictions = 0;
+		}
+	}
+
+	void reset() {
+		next 		= 0;
+		size 		= 0;
+		sum 		= 0;
+		evictions 	= 0;
+	}
+}
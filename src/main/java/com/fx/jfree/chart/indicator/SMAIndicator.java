@@ -0,0 +1,34 @@
+package com.fx.jfree.chart.indicator;
+
+/**
+ * Simple moving average of the close.
+ */
+public class SMAIndicator extends StreamingIndicator {
+	private final RollingMean mean;
+
+	/**
+	 * Creates a new indicator.
+	 *
+	 * @param period  the number of bars averaged.
+	 */
+	public SMAIndicator(int period) {
+		super("SMA(" + period + ")");
+
+		mean = new RollingMean(period);
+	}
+
+	@Override
+	protected void evaluate(double open, double high, double low, double close, double volume, double[] result) {
+		result[0] = mean.evaluate(close);
+	}
+
+	@Override
+	protected void commit(double open, double high, double low, double close, double volume) {
+		mean.commit(close);
+	}
+
+	@Override
+	protected void resetState() {
+		mean.reset();
+	}
+}
@@ -0,0 +1,55 @@
+package com.fx.jfree.chart.indicator;
+
+/**
+ * An exponentially smoothed average, seeded with the simple average of the
+ * first {@code period} values.  With a smoothing factor of
+ * {@code 2 / (period + 1)} this is the usual EMA, with {@code 1 / period} it
+ * is Wilder's smoothing (as used by ATR).
+ */
+class SmoothedMean {
+	/** The number of values in the seed average. */
+	private final int period;
+
+	/** The weight given to each new value. */
+	private final double alpha;
+
+	/** The number of committed values. */
+	private int count;
+
+	/** The sum of the committed values, while seeding. */
+	private double seedSum;
+
+	/** The committed average. */
+	private double mean;
+
+	SmoothedMean(int period, double alpha) {
+		if(period < 1) throw new IllegalArgumentException("Requires 'period' >= 1.");
+
+		this.period = period;
+		this.alpha 	= alpha;
+	}
+
+	/**
+	 * Returns the average after {@code value}, without committing it, or
+	 * {@code Double.NaN} if fewer than {@code period} values are available.
+	 */
+	double evaluate(double value) {
+		if(count < period - 1) return Double.NaN;
+		if(count == period - 1) return (seedSum + value) / period;
+
+		return mean + alpha * (value - mean);
+	}
+
+	void commit(double value) {
+		if(count < period - 1) seedSum += value;
+		else mean = evaluate(value);
+
+		count++;
+	}
+
+	void reset() {
+		count 	= 0;
+		seedSum = 0;
+		mean 	= 0;
+	}
+}
@@ -0,0 +1,60 @@
+package com.fx.jfree.chart.indicator;
+
+/**
+ * Stochastic oscillator: the %K line is the position of the close within the
+ * high-low range of the last {@code period} bars, and the %D line is a simple
+ * average of %K.  Where the range is empty %K is 50.
+ */
+public class StochasticIndicator extends StreamingIndicator {
+	private final RollingExtreme highest;
+	private final RollingExtreme lowest;
+	private final RollingMean kMean;
+
+	/**
+	 * Creates a new indicator.
+	 *
+	 * @param period  the number of bars in the high-low range.
+	 * @param smoothing  the number of %K values averaged for %D.
+	 */
+	public StochasticIndicator(int period, int smoothing) {
+		super("%K(" + period + ")", "%D(" + smoothing + ")");
+
+		highest = new RollingExtreme(period, true);
+		lowest 	= new RollingExtreme(period, false);
+		kMean 	= new RollingMean(smoothing);
+	}
+
+	@Override
+	protected void evaluate(double open, double high, double low, double close, double volume, double[] result) {
+		double k = k(high, low, close);
+
+		result[0] = k;
+		result[1] = Double.isNaN(k) ? Double.NaN : kMean.evaluate(k);
+	}
+
+	@Override
+	protected void commit(double open, double high, double low, double close, double volume) {
+		double k = k(high, low, close);
+		if(!Double.isNaN(k)) kMean.commit(k);
+
+		highest.commit(high);
+		lowest.commit(low);
+	}
+
+	@Override
+	protected void resetState() {
+		highest.reset();
+		lowest.reset();
+		kMean.reset();
+	}
+
+	private double k(double high, double low, double close) {
+		double h = highest.evaluate(high);
+		double l = lowest.evaluate(low);
+
+		if(Double.isNaN(h)) return Double.NaN;
+		if(h == l) return 50;
+
+		return (close - l) / (h - l) * 100;
+	}
+}
@@ -0,0 +1,128 @@
+package com.fx.jfree.chart.indicator;
+
+/**
+ * Base class for indicators that are updated one bar at a time.
+ * <P>
+ * The newest bar is treated as provisional: repeated calls to
+ * {@link #update(long, double, double, double, double, double)} with the same
+ * time revise it, and it is only folded into the indicator state (committed)
+ * once a bar with a later time arrives.  Subclasses therefore implement two
+ * O(1) operations: {@link #evaluate} computes the output for the provisional
+ * bar from the committed state without changing it, and {@link #commit}
+ * folds a finished bar into the state.
+ */
+public abstract class StreamingIndicator {
+	/** The output lines. */
+	private final IndicatorDataset dataset;
+
+	/** Scratch space for the output values. */
+	private final double[] values;
+
+	/** Whether there is a provisional bar. */
+	private boolean pending;
+
+	/** The provisional bar. */
+	private long pendingTime;
+	private double pendingOpen, pendingHigh, pendingLow, pendingClose, pendingVolume;
+
+	/**
+	 * Creates a new indicator.
+	 *
+	 * @param lineKeys  the keys for the output lines.
+	 */
+	protected StreamingIndicator(Comparable... lineKeys) {
+		dataset = new IndicatorDataset(lineKeys);
+		values 	= new double[lineKeys.length];
+	}
+
+	/**
+	 * Returns the dataset that receives the indicator values.
+	 *
+	 * @return The dataset.
+	 */
+	public IndicatorDataset getDataset() {
+		return dataset;
+	}
+
+	/**
+	 * Adds a bar, or revises the newest bar if {@code time} is the same as
+	 * the last call.
+	 *
+	 * @param time  the bar time (must not be before the previous bar).
+	 * @param open  the open value.
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 */
+	public void update(long time, double open, double high, double low, double close, double volume) {
+		if(!pending || time != pendingTime) {
+			if(pending) {
+				if(time < pendingTime) throw new IllegalArgumentException("Bars must be added in ascending time order.");
+
+				commit(pendingOpen, pendingHigh, pendingLow, pendingClose, pendingVolume);
+			}
+
+			pending 	= true;
+			pendingTime = time;
+		}
+
+		pendingOpen 	= open;
+		pendingHigh 	= high;
+		pendingLow 		= low;
+		pendingClose 	= close;
+		pendingVolume 	= volume;
+
+		evaluate(open, high, low, close, volume, values);
+
+		boolean defined = false;
+		for(double value : values) {
+			if(!Double.isNaN(value)) defined = true;
+		}
+
+		if(defined) {
+			int count = dataset.getItemCount(0);
+			if(count > 0 && dataset.getLastTime() == time) dataset.updateLast(values);
+			else dataset.add(time, values);
+		}
+	}
+
+	/**
+	 * Discards all state and output.
+	 */
+	public void reset() {
+		pending = false;
+		resetState();
+		dataset.clear();
+	}
+
+	/**
+	 * Computes the output for the provisional bar from the committed state,
+	 * without modifying the state.
+	 *
+	 * @param open  the open value.
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 * @param result  receives one value per output line ({@code Double.NaN}
+	 *     where there is not yet enough data).
+	 */
+	protected abstract void evaluate(double open, double high, double low, double close, double volume, double[] result);
+
+	/**
+	 * Folds a finished bar into the indicator state.
+	 *
+	 * @param open  the open value.
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 */
+	protected abstract void commit(double open, double high, double low, double close, double volume);
+
+	/**
+	 * Discards the indicator state.
+	 */
+	protected abstract void resetState();
+}
@@ -1,6 +1,8 @@
 package org.jfree.chart;
 
+import java.awt.image.BufferedImage;
 import java.util.Map;
+import org.jfree.chart.ui.Layer;
 
 /**
  * Special rendering hints that can be used internally by JFreeChart or by
@@ -26,6 +28,30 @@ public final class ChartHints {
      * The key for a hint that ends an element.
      */
     public static final Key KEY_END_ELEMENT = new ChartHints.Key(1);
+
+    /**
+     * The key for a hint that restricts drawing to one layer of the chart,
+     * so that the layers can be cached separately.  With
+     * {@link Layer#BACKGROUND} only the parts that do not depend on the data
+     * values are drawn (backgrounds, titles, axes, gridlines, background
+     * markers and annotations); with {@link Layer#FOREGROUND} only the rest
+     * (the data items, crosshairs, foreground markers and annotations and
+     * the plot outlines).  A plot with a shadow generator draws its
+     * background markers and annotations with the data, so that they cast
+     * shadows as before.  Drawing the foreground over the background gives
+     * the same picture as drawing without the hint.  Only the XY plots
+     * support this hint.
+     */
+    public static final Key KEY_LAYER = new ChartHints.Key(2);
+
+    /**
+     * The key for a hint that names the {@code BufferedImage} a graphics
+     * device draws onto, so that renderers that support it can set the
+     * pixels of simple shapes directly instead of filling them through the
+     * device.  Code that draws onto another image with a copy of the hints
+     * must change or remove this hint.
+     */
+    public static final Key KEY_RASTER_TARGET = new ChartHints.Key(3);
     
     /**
      * A key for rendering hints that can be used with JFreeChart (in 
@@ -58,6 +84,10 @@ public final class ChartHints {
                             || val instanceof Map;
                 case 1:
                     return val == null || val instanceof Object;
+                case 2:
+                    return val == null || val instanceof Layer;
+                case 3:
+                    return val == null || val instanceof BufferedImage;
                 default:
                     throw new RuntimeException("Not possible!");
             }
@@ -23,6 +23,7 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.print.PageFormat;
@@ -39,9 +40,13 @@ import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EventListener;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.swing.JFileChooser;
 import javax.swing.JMenu;
@@ -50,6 +55,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.ToolTipManager;
 import javax.swing.event.EventListenerList;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -62,10 +68,13 @@ import org.jfree.chart.entity.AxisEntity;
 import org.jfree.chart.entity.ChartEntity;
 import org.jfree.chart.entity.EntityCollection;
 import org.jfree.chart.entity.PlotEntity;
+import org.jfree.chart.entity.StandardEntityCollection;
+import org.jfree.chart.entity.XYItemEntity;
 import org.jfree.chart.event.ChartChangeEvent;
 import org.jfree.chart.event.ChartChangeListener;
 import org.jfree.chart.event.ChartProgressEvent;
 import org.jfree.chart.event.ChartProgressListener;
+import org.jfree.chart.event.PlotChangeEvent;
 import org.jfree.chart.panel.Overlay;
 import org.jfree.chart.event.OverlayChangeEvent;
 import org.jfree.chart.event.OverlayChangeListener;
@@ -76,9 +85,18 @@ import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.plot.Zoomable;
+import org.jfree.chart.renderer.xy.CandlestickRenderer;
+import org.jfree.chart.renderer.xy.XYItemRenderer;
+import org.jfree.chart.ui.Layer;
+import org.jfree.chart.ui.RectangleEdge;
 import org.jfree.chart.util.Args;
 import org.jfree.chart.util.ResourceBundleWrapper;
 import org.jfree.chart.util.SerialUtils;
+import org.jfree.data.Range;
+import org.jfree.data.SnapshotList;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetItemChangeEvent;
+import org.jfree.data.xy.XYDataset;
 
 import javafx.scene.chart.NumberAxis;
 
@@ -130,6 +148,12 @@ public class ChartPanel extends JPanel implements
     /** The minimum size required to perform a zoom on a rectangle */
     public static final int DEFAULT_ZOOM_TRIGGER_DISTANCE = 10;
 
+    /**
+     * The margin, in Java2D units, added to each side of a dirty strip for
+     * stroke widths, line joins and antialiasing.
+     */
+    private static final int DIRTY_STRIP_MARGIN = 8;
+
     /** Properties action command. */
     public static final String PROPERTIES_COMMAND = "PROPERTIES";
 
@@ -203,6 +227,76 @@ public class ChartPanel extends JPanel implements
     /** The width of the chart buffer. */
     private int chartBufferWidth;
 
+    /**
+     * A flag that controls whether a change to a single data item redraws
+     * only the affected strip of the buffer.
+     */
+    private boolean partialRepaint;
+
+    /** The part of the buffer to redraw on the next paint (may be null). */
+    private transient Rectangle dirtyRegion;
+
+    /** The axis ranges the buffer was last fully drawn with. */
+    private transient List<Range> bufferRanges;
+
+    /** The scale factors the buffer was last fully drawn with. */
+    private double bufferScaleX, bufferScaleY;
+
+    /**
+     * The chart background, titles, axes, gridlines and background markers
+     * and annotations of an XY plot, cached apart from the data so that it
+     * survives data changes and crosshair moves ({@code null} for other
+     * plots).
+     */
+    private transient Image backgroundLayer;
+
+    /**
+     * The data items, crosshairs, foreground markers and annotations and
+     * outline of an XY plot, drawn over the background layer into the chart
+     * buffer ({@code null} for other plots).
+     */
+    private transient Image dataLayer;
+
+    /** A flag that indicates that only the data layer should be redrawn. */
+    private boolean refreshData;
+
+    /**
+     * A flag that indicates that the buffer has been redrawn without
+     * collecting entities since the last full redraw.
+     */
+    private boolean staleInfo;
+
+    /**
+     * A flag that controls whether the chart is drawn on a background
+     * thread, with the event dispatch thread only showing finished frames.
+     */
+    private boolean asyncRendering;
+
+    /** Draws the frames when async rendering is on (otherwise null). */
+    private transient FrameRenderer frameRenderer;
+
+    /** The last frame finished by the render thread (may be null). */
+    private transient Image frontBuffer;
+
+    /** The size of the last frame requested from the render thread. */
+    private int frameWidth, frameHeight;
+
+    /**
+     * Held by the render thread while it pins the datasets and draws the
+     * chart, and by the event dispatch thread while it changes the axes.
+     */
+    private final ReentrantLock renderLock = new ReentrantLock();
+
+    /**
+     * Changes to the axes or plot that were made while the render lock was
+     * busy, in the order they were made (event dispatch thread only, null
+     * until the first one).
+     */
+    private transient List<Runnable> pendingChanges;
+
+    /** Retries the pending changes while the render lock is busy. */
+    private transient Timer pendingChangeTimer;
+
     /**
      * The minimum width for drawing a chart (uses scaling for smaller widths).
      */
@@ -587,6 +681,7 @@ public class ChartPanel extends JPanel implements
         
         this.useBuffer = useBuffer;
         refreshBuffer = false;
+        partialRepaint = true;
         this.minimumDrawWidth 	= minimumDrawWidth;
         this.minimumDrawHeight 	= minimumDrawHeight;
         this.maximumDrawWidth 	= maximumDrawWidth;
@@ -679,7 +774,7 @@ public class ChartPanel extends JPanel implements
         	rangeZoomable = false;
         }
         
-        if(useBuffer) refreshBuffer = true;
+        if(useBuffer || asyncRendering) refreshBuffer = true;
         
         repaint();
     }
@@ -1324,6 +1419,172 @@ public class ChartPanel extends JPanel implements
 		refreshBuffer = flag;
 	}
 
+    /**
+     * Returns the flag that controls whether a change to a single data item
+     * (reported as a {@link DatasetItemChangeEvent}, for example a revision
+     * of the newest candle) redraws only the affected strip of the off-screen
+     * buffer.  The whole chart is still redrawn whenever an axis range, the
+     * layout or anything other than the item changes.
+     *
+     * @return A boolean.
+     */
+    public boolean isPartialRepaint() {
+    	return partialRepaint;
+    }
+
+    /**
+     * Sets the flag that controls whether a change to a single data item
+     * redraws only the affected strip of the off-screen buffer.
+     *
+     * @param flag  the new flag value.
+     */
+    public void setPartialRepaint(boolean flag) {
+    	partialRepaint = flag;
+    }
+
+    /**
+     * Returns the flag that controls whether the chart is drawn on a
+     * background thread.
+     *
+     * @return A boolean.
+     *
+     * @see #setAsyncRendering(boolean)
+     */
+    public boolean isAsyncRendering() {
+    	return asyncRendering;
+    }
+
+    /**
+     * Sets the flag that controls whether the chart is drawn on a background
+     * thread.  When it is on, {@link #paintComponent(Graphics)} only copies
+     * the last finished frame to the screen and asks for a new one, so mouse
+     * interaction stays responsive however long the chart takes to draw.
+     * Requests made while a frame is being drawn are merged, so frames are
+     * skipped when drawing falls behind.  Each frame is drawn whole, without
+     * the partial and layered redraws of the off-screen buffer.
+     * <P>
+     * Each frame is drawn while holding the {@link #getRenderLock() render
+     * lock}, and reads the series of the chart's XY datasets from snapshots
+     * (see {@link SnapshotList}) pinned at the start of the frame.  The
+     * panel never waits for the lock: panning, zooming and auto-range
+     * changes made while a frame is drawn are queued and applied, in order,
+     * as soon as it is done, before the next frame starts (see
+     * {@link #changeChart(Runnable)}).  Other code that changes the chart's
+     * axes or plot, or datasets other than XY datasets, must do the same or
+     * hold the lock while doing so.
+     *
+     * @param flag  the new flag value.
+     */
+    public void setAsyncRendering(boolean flag) {
+    	if(flag == asyncRendering) return;
+
+    	asyncRendering = flag;
+    	if(flag) frameRenderer = new FrameRenderer();
+    	else {
+    		frameRenderer.stop();
+    		frameRenderer = null;
+    		frontBuffer = null;
+    		frameWidth = 0;
+    		frameHeight = 0;
+    	}
+    	refreshBuffer = true;
+
+    	repaint();
+    }
+
+    /**
+     * Returns the lock that the render thread holds while it draws a frame
+     * (see {@link #setAsyncRendering(boolean)}).  A thread that changes
+     * several series that have to be seen together, such as candles and
+     * their volumes, should hold it while doing so.  Since a frame holds the
+     * lock while it is drawn, the event dispatch thread must never wait for
+     * it: use {@link Lock#tryLock()} and try again later, or
+     * {@link #changeChart(Runnable)}.
+     *
+     * @return The lock.
+     */
+    public Lock getRenderLock() {
+    	return renderLock;
+    }
+
+    /**
+     * Changes the chart's axes or plot from the event dispatch thread
+     * without waiting for the render thread.  The change runs at once,
+     * holding the {@link #getRenderLock() render lock}, unless a frame is
+     * being drawn or earlier changes are still waiting; then it is queued,
+     * and the queued changes run in order once the frame is done and before
+     * the next one starts.
+     *
+     * @param change  the change ({@code null} not permitted).
+     */
+    public void changeChart(Runnable change) {
+    	Args.nullNotPermitted(change, "change");
+    	if(!lockForChange(change)) return;
+
+    	try {
+    		change.run();
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
+    }
+
+    /**
+     * Takes the render lock for a change made on the event dispatch thread,
+     * if that can be done without waiting and no earlier change is still
+     * queued.  Otherwise {@code retry} is queued to make the change later.
+     *
+     * @param retry  makes the change again, holding the lock.
+     *
+     * @return Whether the lock was taken (the caller must then release it).
+     */
+    private boolean lockForChange(Runnable retry) {
+    	// a change made by a queued change runs with it
+    	if(renderLock.isHeldByCurrentThread() && renderLock.tryLock()) return true;
+
+    	if(pendingChanges == null) pendingChanges = new ArrayList<>();
+    	if(pendingChanges.isEmpty() && renderLock.tryLock()) return true;
+
+    	pendingChanges.add(retry);
+    	// no new frame may start until the queue is empty, or a stream of
+    	// frames could keep the changes waiting
+    	if(frameRenderer != null) frameRenderer.hold();
+    	if(pendingChangeTimer == null) {
+    		pendingChangeTimer = new Timer(5, new ActionListener() {
+    			@Override
+    			public void actionPerformed(ActionEvent e) {
+    				applyPendingChanges();
+    			}
+    		});
+    		pendingChangeTimer.setRepeats(false);
+    	}
+    	pendingChangeTimer.restart();
+
+    	return false;
+    }
+
+    /**
+     * Runs the changes queued by {@link #lockForChange(Runnable)}, or tries
+     * again shortly if the render lock is still busy.
+     */
+    private void applyPendingChanges() {
+    	if(pendingChanges == null || pendingChanges.isEmpty()) return;
+    	if(!renderLock.tryLock()) {
+    		pendingChangeTimer.restart();
+    		return;
+    	}
+
+    	try {
+    		List<Runnable> changes = new ArrayList<>(pendingChanges);
+    		pendingChanges.clear();
+    		for(Runnable change : changes) change.run();
+    	}
+    	finally {
+    		renderLock.unlock();
+    		if(frameRenderer != null) frameRenderer.release();
+    	}
+    }
+
     /**
      * Paints the component by drawing the chart to fill the entire component,
      * but allowing for the insets (which will be non-zero if a border has been
@@ -1377,42 +1638,86 @@ public class ChartPanel extends JPanel implements
 
         Rectangle2D chartArea = new Rectangle2D.Double(0.0, 0.0, drawWidth, drawHeight);
 
+        if(asyncRendering) {
+        	// show the last finished frame, and ask for a new one if it is
+        	// out of date
+        	int width = (int) available.getWidth();
+        	int height = (int) available.getHeight();
+        	if(refreshBuffer || anchor != null || width != frameWidth || height != frameHeight) {
+        		refreshBuffer = false;
+        		frameWidth = width;
+        		frameHeight = height;
+        		frameRenderer.request(new FrameRequest(chart, width, height, scale ? chartArea : null, scaleX, scaleY, anchor));
+        	}
+
+        	if(frontBuffer != null) g2.drawImage(frontBuffer, insets.left, insets.top, this);
+        }
         // are we using the chart buffer?
-        if(useBuffer) {
+        else if(useBuffer) {
+            // XY plots are cached in two layers, so that the background,
+            // axes and gridlines are not redrawn for data or crosshair changes
+            boolean layered = chart.getPlot() instanceof XYPlot;
+
             // do we need to resize the buffer?
-            if((chartBuffer == null) || (chartBufferWidth != available.getWidth()) || (chartBufferHeight != available.getHeight())) {
+            if((chartBuffer == null) || (chartBufferWidth != available.getWidth()) || (chartBufferHeight != available.getHeight()) || (layered != (dataLayer != null))) {
             	chartBufferWidth = (int) available.getWidth();
             	chartBufferHeight = (int) available.getHeight();
                 GraphicsConfiguration gc = g2.getDeviceConfiguration();
 
                 chartBuffer = gc.createCompatibleImage(chartBufferWidth, chartBufferHeight, Transparency.TRANSLUCENT);
+                if(layered) {
+                	backgroundLayer = gc.createCompatibleImage(chartBufferWidth, chartBufferHeight, Transparency.TRANSLUCENT);
+                	dataLayer = gc.createCompatibleImage(chartBufferWidth, chartBufferHeight, Transparency.TRANSLUCENT);
+                }
+                else {
+                	backgroundLayer = null;
+                	dataLayer = null;
+                }
                 refreshBuffer = true;
             }
 
+            // a new anchor moves the crosshairs, so it needs the data layer
+            // (or the whole buffer) redrawn
+            if(anchor != null && !refreshData) refreshBuffer = true;
+            if(refreshData && !layered) refreshBuffer = true;
+            if((dirtyRegion != null || refreshData) && (scaleX != bufferScaleX || scaleY != bufferScaleY)) refreshBuffer = true;
+
             // do we need to redraw the buffer?
             if(refreshBuffer) {
             	refreshBuffer = false; // clear the flag
+            	refreshData = false;
+            	dirtyRegion = null;
+            	staleInfo = false;
+
+            	if(layered) {
+            		// both passes collect entities into the same info
+            		drawBuffer(backgroundLayer, Layer.BACKGROUND, null, chartArea, scale, anchor, info);
+            		drawBuffer(dataLayer, Layer.FOREGROUND, null, chartArea, scale, anchor, info);
+            		compositeLayers(null);
+            	}
+            	else drawBuffer(chartBuffer, null, null, chartArea, scale, anchor, info);
+
+                bufferScaleX = scaleX;
+                bufferScaleY = scaleY;
+                bufferRanges = getAxisRanges(chart.getPlot());
+            }
+            else if(refreshData) {
+            	refreshData = false;
+            	dirtyRegion = null;
 
-                Rectangle2D bufferArea = new Rectangle2D.Double(0, 0, chartBufferWidth, chartBufferHeight);
-
-                // make the background of the buffer clear and transparent
-                Graphics2D bufferG2 = (Graphics2D)chartBuffer.getGraphics();
-                Composite savedComposite = bufferG2.getComposite();
-                bufferG2.setComposite(AlphaComposite.getInstance(AlphaComposite.CLEAR, 0.0f));
-                Rectangle r = new Rectangle(0, 0, chartBufferWidth, chartBufferHeight);
-                bufferG2.fill(r);
-                bufferG2.setComposite(savedComposite);
-                
-                if(scale) {
-                    AffineTransform saved = bufferG2.getTransform();
-                    AffineTransform st = AffineTransform.getScaleInstance(scaleX, scaleY);
-                    bufferG2.transform(st);
-                    chart.draw(bufferG2, chartArea, anchor, info);
-                    bufferG2.setTransform(saved);
-                }
-                else chart.draw(bufferG2, bufferArea, anchor, info);
-                
-                bufferG2.dispose();
+            	drawBuffer(dataLayer, Layer.FOREGROUND, null, chartArea, scale, anchor, null);
+            	compositeLayers(null);
+            }
+            else if(dirtyRegion != null) {
+                // redraw the strip that changed; everything outside it still
+                // applies
+            	if(layered) {
+            		drawBuffer(dataLayer, Layer.FOREGROUND, dirtyRegion, chartArea, scale, null, null);
+            		compositeLayers(dirtyRegion);
+            	}
+            	else drawBuffer(chartBuffer, null, dirtyRegion, chartArea, scale, null, null);
+
+                dirtyRegion = null;
             }
 
             // zap the buffer onto the panel...
@@ -1438,7 +1743,7 @@ public class ChartPanel extends JPanel implements
         // redraw the zoom rectangle (if present) - if useBuffer is false,
         // we use XOR so we can XOR the rectangle away again without redrawing
         // the chart
-        drawZoomRectangle(g2, !useBuffer);
+        drawZoomRectangle(g2, !useBuffer && !asyncRendering);
 
         g2.dispose();
 
@@ -1452,8 +1757,6 @@ public class ChartPanel extends JPanel implements
      */
     @Override
     public void chartChanged(ChartChangeEvent event) {
-    	refreshBuffer = true;
-    	
     	Plot plot = chart.getPlot();
     	
     	if(plot instanceof Zoomable) {
@@ -1461,9 +1764,314 @@ public class ChartPanel extends JPanel implements
             orientation = z.getOrientation();
     	}
 
+    	// frames from the render thread are always drawn whole
+    	if(asyncRendering) {
+    		refreshBuffer = true;
+    		repaint();
+
+    		return;
+    	}
+
+    	Rectangle strip = refreshBuffer ? null : findDirtyStrip(event);
+    	if(strip != null) {
+    		dirtyRegion = dirtyRegion == null ? strip : dirtyRegion.union(strip);
+    		staleInfo = true;
+
+    		Insets insets = getInsets();
+    		repaint(strip.x + insets.left, strip.y + insets.top, strip.width, strip.height);
+
+    		return;
+    	}
+
+    	if(!refreshBuffer && isDataChange(event)) {
+    		refreshData = true;
+    		staleInfo = true;
+    		dirtyRegion = null;
+
+    		repaint();
+
+    		return;
+    	}
+
+    	refreshBuffer = true;
+    	dirtyRegion = null;
+
     	repaint();
 	}
 
+    /**
+     * Returns {@code true} if a chart change only affects the data layer:
+     * a dataset change that leaves every axis range as it was at the last
+     * full redraw.  A change that may add or remove series also needs the
+     * legend redrawn, so it only qualifies if the chart has no legend.
+     *
+     * @param event  the chart change event.
+     *
+     * @return A boolean.
+     */
+    private boolean isDataChange(ChartChangeEvent event) {
+    	if(dataLayer == null || ownToolTipDelaysActive || !(event instanceof PlotChangeEvent)) return false;
+
+    	DatasetChangeEvent cause = ((PlotChangeEvent) event).getDatasetChangeEvent();
+    	if(cause == null) return false;
+    	if(!(cause instanceof DatasetItemChangeEvent) && chart.getLegend() != null) return false;
+
+    	List<Range> ranges = getAxisRanges(chart.getPlot());
+
+    	return ranges != null && ranges.equals(bufferRanges);
+    }
+
+    /**
+     * Clears an image, or part of it, and draws the chart (or one layer of
+     * the chart) onto it.
+     *
+     * @param image  the image.
+     * @param layer  the layer ({@code null} for the whole chart).
+     * @param clip  the part to redraw in image coordinates ({@code null} for
+     *     all of it).
+     * @param chartArea  the chart area when scaling.
+     * @param scale  whether to scale by {@code scaleX} and {@code scaleY}.
+     * @param anchor  the anchor point ({@code null} permitted).
+     * @param info  collects the entities ({@code null} permitted).
+     */
+    private void drawBuffer(Image image, Layer layer, Rectangle clip, Rectangle2D chartArea, boolean scale, Point2D anchor, ChartRenderingInfo info) {
+    	Graphics2D bufferG2 = (Graphics2D) image.getGraphics();
+    	Rectangle r = clip != null ? clip : new Rectangle(0, 0, chartBufferWidth, chartBufferHeight);
+    	if(clip != null) bufferG2.clip(clip);
+
+    	// make the background of the buffer clear and transparent
+    	Composite savedComposite = bufferG2.getComposite();
+    	bufferG2.setComposite(AlphaComposite.getInstance(AlphaComposite.CLEAR, 0.0f));
+    	bufferG2.fill(r);
+    	bufferG2.setComposite(savedComposite);
+
+    	if(layer != null) bufferG2.setRenderingHint(ChartHints.KEY_LAYER, layer);
+    	if(image instanceof BufferedImage) bufferG2.setRenderingHint(ChartHints.KEY_RASTER_TARGET, image);
+
+    	if(scale) {
+    		bufferG2.transform(AffineTransform.getScaleInstance(scaleX, scaleY));
+    		chart.draw(bufferG2, chartArea, anchor, info);
+    	}
+    	else chart.draw(bufferG2, new Rectangle2D.Double(0, 0, chartBufferWidth, chartBufferHeight), anchor, info);
+
+    	bufferG2.dispose();
+    }
+
+    /**
+     * Shows a frame finished by the render thread.  Called on the event
+     * dispatch thread.
+     *
+     * @param source  the renderer that drew the frame.
+     * @param frame  the frame.
+     * @param frameInfo  the entities collected while drawing the frame.
+     */
+    private void showFrame(FrameRenderer source, BufferedImage frame, ChartRenderingInfo frameInfo) {
+    	// a frame from a renderer that has since been stopped
+    	if(source != frameRenderer) return;
+
+    	Image old = frontBuffer;
+    	frontBuffer = frame;
+    	info = frameInfo;
+    	if(old instanceof BufferedImage) source.recycle((BufferedImage) old);
+
+    	applyPendingChanges();
+    	repaint();
+    }
+
+    /**
+     * Copies the data layer over the background layer into the chart buffer.
+     *
+     * @param clip  the part to copy ({@code null} for all of it).
+     */
+    private void compositeLayers(Rectangle clip) {
+    	Graphics2D bufferG2 = (Graphics2D) chartBuffer.getGraphics();
+    	if(clip != null) bufferG2.clip(clip);
+
+    	bufferG2.setComposite(AlphaComposite.Src);
+    	bufferG2.drawImage(backgroundLayer, 0, 0, null);
+    	bufferG2.setComposite(AlphaComposite.SrcOver);
+    	bufferG2.drawImage(dataLayer, 0, 0, null);
+
+    	bufferG2.dispose();
+    }
+
+    /**
+     * Returns the part of the buffer that has to be redrawn for a chart
+     * change, or {@code null} if the whole chart has to be redrawn.  Only a
+     * change to a single item of an XY dataset, with all axis ranges as they
+     * were at the last full redraw, can be confined to a strip: the strip
+     * spans the item and its neighbours (or the data area edge, for the last
+     * item) across the data area of each plot that shows the dataset.
+     *
+     * @param event  the chart change event.
+     *
+     * @return The strip in buffer coordinates, or {@code null}.
+     */
+    private Rectangle findDirtyStrip(ChartChangeEvent event) {
+    	if(!partialRepaint || !useBuffer || chartBuffer == null || info == null) return null;
+
+    	// while the mouse is over the panel the entities have to stay
+    	// current for tool tips and chart mouse events
+    	if(ownToolTipDelaysActive) return null;
+
+    	if(!(event instanceof PlotChangeEvent)) return null;
+
+    	DatasetChangeEvent cause = ((PlotChangeEvent) event).getDatasetChangeEvent();
+    	if(!(cause instanceof DatasetItemChangeEvent) || !(cause.getDataset() instanceof XYDataset)) return null;
+
+    	Plot plot = chart.getPlot();
+    	List<Range> ranges = getAxisRanges(plot);
+    	if(ranges == null || !ranges.equals(bufferRanges)) return null;
+
+    	DatasetItemChangeEvent itemEvent = (DatasetItemChangeEvent) cause;
+    	XYDataset dataset = (XYDataset) cause.getDataset();
+    	PlotRenderingInfo plotInfo = info.getPlotInfo();
+    	Rectangle2D result = null;
+
+    	if(plot instanceof CombinedDomainXYPlot) {
+    		List subplots = ((CombinedDomainXYPlot) plot).getSubplots();
+    		if(subplots.size() != plotInfo.getSubplotCount()) return null;
+
+    		for(int i = 0; i < subplots.size(); i++) {
+    			XYPlot subplot = (XYPlot) subplots.get(i);
+    			if(subplot.indexOf(dataset) < 0) continue;
+
+    			Rectangle2D strip = findDirtyStrip(subplot, plotInfo.getSubplotInfo(i), dataset, itemEvent);
+    			if(strip == null) return null;
+
+    			result = result == null ? strip : result.createUnion(strip);
+    		}
+    	}
+    	else if(plot instanceof XYPlot && ((XYPlot) plot).indexOf(dataset) >= 0) {
+    		result = findDirtyStrip((XYPlot) plot, plotInfo, dataset, itemEvent);
+    	}
+    	if(result == null) return null;
+
+    	// from chart to buffer coordinates
+    	int x1 = (int) Math.floor(result.getMinX() * bufferScaleX);
+    	int y1 = (int) Math.floor(result.getMinY() * bufferScaleY);
+    	int x2 = (int) Math.ceil(result.getMaxX() * bufferScaleX);
+    	int y2 = (int) Math.ceil(result.getMaxY() * bufferScaleY);
+
+    	return new Rectangle(x1, y1, x2 - x1, y2 - y1);
+    }
+
+    /**
+     * Returns the strip of one plot's data area (in chart coordinates) that a
+     * change to a single item can affect, or {@code null} if the plot has to
+     * be redrawn in full.
+     */
+    private Rectangle2D findDirtyStrip(XYPlot plot, PlotRenderingInfo plotInfo, XYDataset dataset, DatasetItemChangeEvent event) {
+    	Rectangle2D dataArea = plotInfo.getDataArea();
+    	if(dataArea == null || dataArea.isEmpty() || plot.getShadowGenerator() != null) return null;
+
+    	XYItemRenderer renderer = plot.getRendererForDataset(dataset);
+    	if(renderer == null) return null;
+
+    	// the volume bars are scaled to the largest volume in the dataset
+    	if(renderer instanceof CandlestickRenderer && ((CandlestickRenderer) renderer).getDrawVolume()) return null;
+
+    	int series = Math.max(event.getSeries(), 0);
+    	int item = event.getItem();
+    	if(series >= dataset.getSeriesCount() || item < 0 || item >= dataset.getItemCount(series)) return null;
+
+    	boolean horizontal = plot.getOrientation() == PlotOrientation.HORIZONTAL;
+    	double areaMin = horizontal ? dataArea.getMinY() : dataArea.getMinX();
+    	double areaMax = horizontal ? dataArea.getMaxY() : dataArea.getMaxX();
+
+    	ValueAxis domainAxis = plot.getDomainAxisForDataset(plot.indexOf(dataset));
+    	RectangleEdge edge = plot.getDomainAxisEdge();
+    	double x = domainAxis.valueToJava2D(dataset.getXValue(series, item), dataArea, edge);
+    	double min = x;
+    	double max = x;
+
+    	// lines join an item to its neighbours; without a neighbour on one
+    	// side the strip runs to the edge of the data area
+    	if(item > 0) {
+    		double previous = domainAxis.valueToJava2D(dataset.getXValue(series, item - 1), dataArea, edge);
+    		min = Math.min(min, previous);
+    		max = Math.max(max, previous);
+    	}
+    	if(item < dataset.getItemCount(series) - 1) {
+    		double next = domainAxis.valueToJava2D(dataset.getXValue(series, item + 1), dataArea, edge);
+    		min = Math.min(min, next);
+    		max = Math.max(max, next);
+    	}
+    	if(item == 0 || item == dataset.getItemCount(series) - 1) {
+    		boolean ascending = domainAxis.isInverted() == RectangleEdge.isLeftOrRight(edge);
+    		if(item == 0 && item == dataset.getItemCount(series) - 1) {
+    			min = areaMin;
+    			max = areaMax;
+    		}
+    		else if((item == 0) == ascending) min = areaMin;
+    		else max = areaMax;
+    	}
+
+    	// bars and candles can be wider than the gap to their neighbours;
+    	// the item's entity reaches into the strip around its x value
+    	EntityCollection entities = info.getEntityCollection();
+    	if(entities != null) {
+    		Collection candidates;
+    		if(entities instanceof StandardEntityCollection) {
+    			Rectangle2D strip = horizontal ? new Rectangle2D.Double(dataArea.getMinX(), min - 1, dataArea.getWidth(), max - min + 2)
+    					: new Rectangle2D.Double(min - 1, dataArea.getMinY(), max - min + 2, dataArea.getHeight());
+    			candidates = ((StandardEntityCollection) entities).getEntities(strip);
+    		}
+    		else candidates = entities.getEntities();
+
+    		for(Object entity : candidates) {
+    			if(entity instanceof XYItemEntity) {
+    				XYItemEntity e = (XYItemEntity) entity;
+    				if(e.getDataset() == dataset && e.getItem() == item && (event.getSeries() < 0 || e.getSeriesIndex() == series)) {
+    					Rectangle2D bounds = e.getArea().getBounds2D();
+    					min = Math.min(min, horizontal ? bounds.getMinY() : bounds.getMinX());
+    					max = Math.max(max, horizontal ? bounds.getMaxY() : bounds.getMaxX());
+    				}
+    			}
+    		}
+    	}
+
+    	// allow for stroke widths and antialiasing, but nothing is drawn
+    	// outside the data area
+    	min = Math.max(min - DIRTY_STRIP_MARGIN, areaMin);
+    	max = Math.min(max + DIRTY_STRIP_MARGIN, areaMax);
+    	if(max <= min) return null;
+
+    	if(horizontal) return new Rectangle2D.Double(dataArea.getMinX(), min, dataArea.getWidth(), max - min);
+    	else return new Rectangle2D.Double(min, dataArea.getMinY(), max - min, dataArea.getHeight());
+    }
+
+    /**
+     * Returns the ranges of all the axes of an XY plot (for a combined domain
+     * plot, including those of its subplots), or {@code null} for any other
+     * plot.
+     */
+    private static List<Range> getAxisRanges(Plot plot) {
+    	if(!(plot instanceof XYPlot)) return null;
+
+    	List<Range> ranges = new ArrayList<>();
+    	addAxisRanges((XYPlot) plot, ranges);
+
+    	if(plot instanceof CombinedDomainXYPlot) {
+    		for(Object subplot : ((CombinedDomainXYPlot) plot).getSubplots()) {
+    			addAxisRanges((XYPlot) subplot, ranges);
+    		}
+    	}
+
+    	return ranges;
+    }
+
+    private static void addAxisRanges(XYPlot plot, List<Range> ranges) {
+    	for(int i = 0; i < plot.getDomainAxisCount(); i++) {
+    		ValueAxis axis = plot.getDomainAxis(i);
+    		ranges.add(axis != null ? axis.getRange() : null);
+    	}
+    	for(int i = 0; i < plot.getRangeAxisCount(); i++) {
+    		ValueAxis axis = plot.getRangeAxis(i);
+    		ranges.add(axis != null ? axis.getRange() : null);
+    	}
+    }
+
     /**
      * Receives notification of a chart progress event.
      *
@@ -1570,6 +2178,13 @@ public class ChartPanel extends JPanel implements
 
             ownToolTipDelaysActive = true;
         }
+
+        // tool tips and chart mouse events need the entities for the data
+        // as it is drawn now
+        if(staleInfo && useBuffer) {
+        	refreshBuffer = true;
+        	repaint();
+        }
     }
 
     /**
@@ -1781,6 +2396,110 @@ public class ChartPanel extends JPanel implements
 		return new Point2D.Double(xx, yy);
 	}
 
+    /**
+     * Pans the plot's axes for a mouse drag.
+     *
+     * @param wPercent  the distance dragged across, as a fraction of the
+     *     data area's width.
+     * @param hPercent  the distance dragged up, as a fraction of the data
+     *     area's height.
+     * @param source  the point the drag moved from.
+     */
+    private void panAxes(final double wPercent, final double hPercent, final Point2D source) {
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			panAxes(wPercent, hPercent, source);
+    		}
+    	})) return;
+
+    	try {
+    		boolean old = chart.getPlot().isNotify();
+    		chart.getPlot().setNotify(false);
+
+    		Pannable p = (Pannable) chart.getPlot();
+    		if(p.getOrientation() == PlotOrientation.VERTICAL) {
+    			//System.out.println("VERT_ORIENT. H_PERC: "+hPercent);
+
+    			System.out.println("PAN_LAST: "+source.getX());
+
+    			p.panDomainAxes(wPercent, info.getPlotInfo(), source);
+    			p.panRangeAxes(hPercent, info.getPlotInfo(), source);
+    		}
+    		else {
+    			p.panDomainAxes(hPercent, info.getPlotInfo(), source);
+    			p.panRangeAxes(wPercent, info.getPlotInfo(), source);
+    		}
+
+    		chart.getPlot().setNotify(old);
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
+    }
+
+    /**
+     * Zooms the plot's domain or range axes for a drag along an axis.
+     *
+     * @param domain  zoom the domain axes (otherwise the range axes).
+     * @param factor  the zoom factor.
+     * @param source  the point the drag moved from.
+     */
+    private void zoomAxes(final boolean domain, final double factor, final Point2D source) {
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			zoomAxes(domain, factor, source);
+    		}
+    	})) return;
+
+    	try {
+    		Zoomable zoomable = (Zoomable) chart.getPlot();
+    		if(domain) zoomable.zoomDomainAxes(factor, info.getPlotInfo(), source, false);
+    		else zoomable.zoomRangeAxes(factor, info.getPlotInfo(), source, false);
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
+    }
+
+    /**
+     * Turns on the auto-range of an axis that was clicked.
+     *
+     * @param plot  the plot.
+     * @param axs  the axis.
+     */
+    private void autoRangeAxis(final XYPlot plot, final Axis axs) {
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			autoRangeAxis(plot, axs);
+    		}
+    	})) return;
+
+    	try {
+    		ValueAxis vax = plot.getRangeAxis();
+
+    		if(vax != null && vax.equals(axs)) {
+    			plot.getRangeAxis().setAutoRange(true);
+
+    			plot.setRangePannable(false);
+    		}
+    		else {
+    			ValueAxis dax = plot.getDomainAxis();
+
+    			System.out.println("DAX: "+dax);
+
+    			if(dax != null && dax.equals(axs)) {
+    				dax.setAutoRange(true);
+    			}
+    		}
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
+    }
+
     /**
      * Handles a 'mouse dragged' event.
      *
@@ -1806,35 +2525,15 @@ public class ChartPanel extends JPanel implements
 
     		double wPercent	=	-dx / panW;
     		double hPercent	=	dy / panH;
-    		boolean old		=	chart.getPlot().isNotify();
-
-            chart.getPlot().setNotify(false);
-
-            Pannable p = (Pannable) chart.getPlot();
-            if(p.getOrientation() == PlotOrientation.VERTICAL) {
-            	//System.out.println("VERT_ORIENT. H_PERC: "+hPercent);
-
-            	System.out.println("PAN_LAST: "+panLast.getX());
-
-            	p.panDomainAxes(wPercent, info.getPlotInfo(), panLast);
-            	p.panRangeAxes(hPercent, info.getPlotInfo(), panLast);
-            }
-            else {
-            	p.panDomainAxes(hPercent, info.getPlotInfo(), panLast);
-            	p.panRangeAxes(wPercent, info.getPlotInfo(), panLast);
-            }
 
-            panLast = e.getPoint();
-            chart.getPlot().setNotify(old);
+    		panAxes(wPercent, hPercent, panLast);
+    		panLast = e.getPoint();
 
             return;
     	}
     	else if(panRangeAxisLast != null || panDomainAxisLast != null) {
     		System.out.println("PAN AXES");
 
-    		Zoomable zoomable = (Zoomable)getChart().getPlot();
-			PlotRenderingInfo plotRenderingInfo = getChartRenderingInfo().getPlotInfo();
-
     		if(panRangeAxisLast != null) {
     			System.out.println("PAN RANGE AXIS");
     			
@@ -1850,12 +2549,7 @@ public class ChartPanel extends JPanel implements
     			if(dy > 0) factor = 1.05;
     			else factor = 0.95;
     			
-    			zoomable.zoomRangeAxes(
-					factor,
-    				plotRenderingInfo,
-    				panRangeAxisLast,
-    				false
-        		);
+    			zoomAxes(false, factor, panRangeAxisLast);
     			
     			Plot pl	= getChart().getPlot();
     			if(pl instanceof XYPlot) {
@@ -1877,12 +2571,7 @@ public class ChartPanel extends JPanel implements
     			if(dx > 0) factor = 1.05;
     			else factor = 0.95;
     			
-    			zoomable.zoomDomainAxes(
-					factor,
-					plotRenderingInfo,
-					panDomainAxisLast,
-					false
-				);
+    			zoomAxes(true, factor, panDomainAxisLast);
 
     			panDomainAxisLast = e.getPoint();
     		}
@@ -1899,7 +2588,7 @@ public class ChartPanel extends JPanel implements
         // this is we are using XOR mode, which we do when we're not using
         // the buffer (if there is a buffer, then at the end of this method we
         // just trigger a repaint)
-    	if(!useBuffer) drawZoomRectangle(g2, true);
+    	if(!useBuffer && !asyncRendering) drawZoomRectangle(g2, true);
 
     	boolean hZoom, vZoom;
     	if(orientation == PlotOrientation.HORIZONTAL) {
@@ -1946,7 +2635,7 @@ public class ChartPanel extends JPanel implements
         }
 
         //Draw the new zoom rectangle...
-    	if(useBuffer) repaint();
+    	if(useBuffer || asyncRendering) repaint();
     	else {
             // with no buffer, we use XOR to draw the rectangle "over" the
             // chart...
@@ -2041,7 +2730,7 @@ public class ChartPanel extends JPanel implements
             else {
                 // erase the zoom rectangle
                 Graphics2D g2 = (Graphics2D) getGraphics();
-                if(useBuffer) repaint();
+                if(useBuffer || asyncRendering) repaint();
                 else drawZoomRectangle(g2, true);
  
                 g2.dispose();
@@ -2111,23 +2800,7 @@ public class ChartPanel extends JPanel implements
 					Plot pl = axs.getPlot();
 					
 					if(pl instanceof XYPlot) {
-						ValueAxis vax = ((XYPlot)pl).getRangeAxis();
-
-						if(vax != null && vax.equals(axs)) {
-							((XYPlot)pl).getRangeAxis().setAutoRange(true);
-							
-							((XYPlot)pl).setRangePannable(false);
-						}
-						else {
-							ValueAxis dax = ((XYPlot)pl).getDomainAxis();
-							
-							System.out.println("DAX: "+dax);
-							
-							if(dax != null && dax.equals(axs)) {
-								dax.setAutoRange(true);
-							}
-						}
-						
+						autoRangeAxis((XYPlot)pl, axs);
 					}
 				}
 			}
@@ -2140,7 +2813,13 @@ public class ChartPanel extends JPanel implements
         anchor = new Point2D.Double(x, y);
         if(chart == null) return;
 
-        chart.setNotify(true);  // force a redraw
+        // force a redraw; if notification is on, nothing but the crosshairs
+        // can have changed
+        if(dataLayer != null && chart.isNotify()) {
+        	refreshData = true;
+        	repaint();
+        }
+        else chart.setNotify(true);
         // new entity code...
         Object[] listeners = chartMouseListeners.getListeners(ChartMouseListener.class);
         if(listeners.length == 0) return;
@@ -2196,21 +2875,32 @@ public class ChartPanel extends JPanel implements
      * @param x  the x value (in screen coordinates).
      * @param y  the y value (in screen coordinates).
      */
-    public void zoomInBoth(double x, double y) {
-    	Plot plot = chart.getPlot();
-    	if(plot == null) return;
-
-        // here we tweak the notify flag on the plot so that only
-        // one notification happens even though we update multiple
-        // axes...
-        boolean savedNotify = plot.isNotify();
+    public void zoomInBoth(final double x, final double y) {
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			zoomInBoth(x, y);
+    		}
+    	})) return;
+    	try {
+    		Plot plot = chart.getPlot();
+    		if(plot == null) return;
+
+    		// here we tweak the notify flag on the plot so that only
+    		// one notification happens even though we update multiple
+    		// axes...
+    		boolean savedNotify = plot.isNotify();
         
-        plot.setNotify(false);
+    		plot.setNotify(false);
         
-        zoomInDomain(x, y);
-        zoomInRange(x, y);
+    		zoomInDomain(x, y);
+    		zoomInRange(x, y);
         
-        plot.setNotify(savedNotify);
+    		plot.setNotify(savedNotify);
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
 	}
 
     /**
@@ -2221,24 +2911,35 @@ public class ChartPanel extends JPanel implements
      * @param x  the x coordinate (in screen coordinates).
      * @param y  the y-coordinate (in screen coordinates).
      */
-    public void zoomInDomain(double x, double y) {
-    	Plot plot = chart.getPlot();
-
-        if(plot instanceof Zoomable) {
-            // here we tweak the notify flag on the plot so that only
-            // one notification happens even though we update multiple
-            // axes...
-            boolean savedNotify = plot.isNotify();
-            plot.setNotify(false);
-            Zoomable z = (Zoomable) plot;
-            z.zoomDomainAxes(
-            	zoomInFactor,
-            	info.getPlotInfo(),
-            	translateScreenToJava2D(new Point((int)x, (int)y)),
-            	zoomAroundAnchor
-            );
-            plot.setNotify(savedNotify);
-        }
+    public void zoomInDomain(final double x, final double y) {
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			zoomInDomain(x, y);
+    		}
+    	})) return;
+    	try {
+    		Plot plot = chart.getPlot();
+
+    		if(plot instanceof Zoomable) {
+    			// here we tweak the notify flag on the plot so that only
+    			// one notification happens even though we update multiple
+    			// axes...
+    			boolean savedNotify = plot.isNotify();
+    			plot.setNotify(false);
+    			Zoomable z = (Zoomable) plot;
+    			z.zoomDomainAxes(
+    				zoomInFactor,
+    				info.getPlotInfo(),
+    				translateScreenToJava2D(new Point((int)x, (int)y)),
+    				zoomAroundAnchor
+    			);
+    			plot.setNotify(savedNotify);
+    		}
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
 	}
 
     /**
@@ -2249,26 +2950,37 @@ public class ChartPanel extends JPanel implements
      * @param x  the x-coordinate (in screen coordinates).
      * @param y  the y coordinate (in screen coordinates).
      */
-    public void zoomInRange(double x, double y) {
-    	Plot plot = chart.getPlot();
-
-    	if(plot instanceof Zoomable) {
-            // here we tweak the notify flag on the plot so that only
-            // one notification happens even though we update multiple
-            // axes...
-
-    		boolean savedNotify = plot.isNotify();
-    		plot.setNotify(false);
-
-            ((Zoomable)plot).zoomRangeAxes(
-            	zoomInFactor,
-            	info.getPlotInfo(),
-            	translateScreenToJava2D(new Point((int)x, (int)y)),
-            	zoomAroundAnchor
-            );
+    public void zoomInRange(final double x, final double y) {
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			zoomInRange(x, y);
+    		}
+    	})) return;
+    	try {
+    		Plot plot = chart.getPlot();
+
+    		if(plot instanceof Zoomable) {
+    			// here we tweak the notify flag on the plot so that only
+    			// one notification happens even though we update multiple
+    			// axes...
+
+    			boolean savedNotify = plot.isNotify();
+    			plot.setNotify(false);
+
+    			((Zoomable)plot).zoomRangeAxes(
+    				zoomInFactor,
+    				info.getPlotInfo(),
+    				translateScreenToJava2D(new Point((int)x, (int)y)),
+    				zoomAroundAnchor
+    			);
             
-            plot.setNotify(savedNotify);
-        }
+    			plot.setNotify(savedNotify);
+    		}
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
     }
 
     /**
@@ -2277,20 +2989,31 @@ public class ChartPanel extends JPanel implements
      * @param x  the x value (in screen coordinates).
      * @param y  the y value (in screen coordinates).
      */
-    public void zoomOutBoth(double x, double y) {
-        Plot plot = chart.getPlot();
-        if(plot == null) return;
-
-        // here we tweak the notify flag on the plot so that only
-        // one notification happens even though we update multiple
-        // axes...
-        boolean savedNotify = plot.isNotify();
-        plot.setNotify(false);
+    public void zoomOutBoth(final double x, final double y) {
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			zoomOutBoth(x, y);
+    		}
+    	})) return;
+    	try {
+    		Plot plot = chart.getPlot();
+    		if(plot == null) return;
+
+    		// here we tweak the notify flag on the plot so that only
+    		// one notification happens even though we update multiple
+    		// axes...
+    		boolean savedNotify = plot.isNotify();
+    		plot.setNotify(false);
         
-        zoomOutDomain(x, y);
-        zoomOutRange(x, y);
+    		zoomOutDomain(x, y);
+    		zoomOutRange(x, y);
         
-        plot.setNotify(savedNotify);
+    		plot.setNotify(savedNotify);
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
     }
 
     /**
@@ -2301,21 +3024,32 @@ public class ChartPanel extends JPanel implements
      * @param x  the x coordinate (in screen coordinates).
      * @param y  the y-coordinate (in screen coordinates).
      */
-    public void zoomOutDomain(double x, double y) {
-        Plot plot = chart.getPlot();
+    public void zoomOutDomain(final double x, final double y) {
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			zoomOutDomain(x, y);
+    		}
+    	})) return;
+    	try {
+    		Plot plot = chart.getPlot();
         
-        if(plot != null && plot instanceof Zoomable) {
-            // here we tweak the notify flag on the plot so that only
-            // one notification happens even though we update multiple
-            // axes...
-            boolean savedNotify = plot.isNotify();
-            plot.setNotify(false);
+    		if(plot != null && plot instanceof Zoomable) {
+    			// here we tweak the notify flag on the plot so that only
+    			// one notification happens even though we update multiple
+    			// axes...
+    			boolean savedNotify = plot.isNotify();
+    			plot.setNotify(false);
             
-            Zoomable z = (Zoomable) plot;
-            z.zoomDomainAxes(zoomOutFactor, info.getPlotInfo(), translateScreenToJava2D(new Point((int)x, (int)y)), zoomAroundAnchor);
+    			Zoomable z = (Zoomable) plot;
+    			z.zoomDomainAxes(zoomOutFactor, info.getPlotInfo(), translateScreenToJava2D(new Point((int)x, (int)y)), zoomAroundAnchor);
             
-            plot.setNotify(savedNotify);
-        }
+    			plot.setNotify(savedNotify);
+    		}
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
 	}
 
     /**
@@ -2326,26 +3060,37 @@ public class ChartPanel extends JPanel implements
      * @param x  the x coordinate (in screen coordinates).
      * @param y  the y-coordinate (in screen coordinates).
      */
-    public void zoomOutRange(double x, double y) {
-        Plot plot = chart.getPlot();
+    public void zoomOutRange(final double x, final double y) {
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			zoomOutRange(x, y);
+    		}
+    	})) return;
+    	try {
+    		Plot plot = chart.getPlot();
         
-        if(plot instanceof Zoomable) {
-            // here we tweak the notify flag on the plot so that only
-            // one notification happens even though we update multiple
-            // axes...
-            boolean savedNotify = plot.isNotify();
-            plot.setNotify(false);
+    		if(plot instanceof Zoomable) {
+    			// here we tweak the notify flag on the plot so that only
+    			// one notification happens even though we update multiple
+    			// axes...
+    			boolean savedNotify = plot.isNotify();
+    			plot.setNotify(false);
             
-            Zoomable z = (Zoomable) plot;
-            z.zoomRangeAxes(
-            	zoomOutFactor,
-            	info.getPlotInfo(),
-            	translateScreenToJava2D(new Point((int) x, (int) y)),
-            	zoomAroundAnchor
-            );
+    			Zoomable z = (Zoomable) plot;
+    			z.zoomRangeAxes(
+    				zoomOutFactor,
+    				info.getPlotInfo(),
+    				translateScreenToJava2D(new Point((int) x, (int) y)),
+    				zoomAroundAnchor
+    			);
             
-            plot.setNotify(savedNotify);
-        }
+    			plot.setNotify(savedNotify);
+    		}
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
     }
 
     /**
@@ -2353,107 +3098,151 @@ public class ChartPanel extends JPanel implements
      *
      * @param selection  the selected region.
      */
-    public void zoom(Rectangle2D selection) {
-        // get the origin of the zoom selection in the Java2D space used for
-        // drawing the chart (that is, before any scaling to fit the panel)
-        Point2D selectOrigin = translateScreenToJava2D(new Point(
-        	(int) Math.ceil(selection.getX()),
-        	(int) Math.ceil(selection.getY()))
-        );
-        PlotRenderingInfo plotInfo = info.getPlotInfo();
-        Rectangle2D scaledDataArea = getScreenDataArea((int) selection.getCenterX(), (int) selection.getCenterY());
-
-        if((selection.getHeight() > 0) && (selection.getWidth() > 0)) {
-            double hLower = (selection.getMinX() - scaledDataArea.getMinX()) / scaledDataArea.getWidth();
-            double hUpper = (selection.getMaxX() - scaledDataArea.getMinX()) / scaledDataArea.getWidth();
-            double vLower = (scaledDataArea.getMaxY() - selection.getMaxY()) / scaledDataArea.getHeight();
-            double vUpper = (scaledDataArea.getMaxY() - selection.getMinY()) / scaledDataArea.getHeight();
-
-            Plot p = chart.getPlot();
-            if(p instanceof Zoomable) {
-                // here we tweak the notify flag on the plot so that only
-                // one notification happens even though we update multiple
-                // axes...
-                boolean savedNotify = p.isNotify();
-                p.setNotify(false);
-                Zoomable z = (Zoomable) p;
-                if(z.getOrientation() == PlotOrientation.HORIZONTAL) {
-                    z.zoomDomainAxes(vLower, vUpper, plotInfo, selectOrigin);
-                    z.zoomRangeAxes(hLower, hUpper, plotInfo, selectOrigin);
-                }
-                else {
-                    z.zoomDomainAxes(hLower, hUpper, plotInfo, selectOrigin);
-                    z.zoomRangeAxes(vLower, vUpper, plotInfo, selectOrigin);
-                }
+    public void zoom(final Rectangle2D selection) {
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			zoom(selection);
+    		}
+    	})) return;
+    	try {
+    		// get the origin of the zoom selection in the Java2D space used for
+    		// drawing the chart (that is, before any scaling to fit the panel)
+    		Point2D selectOrigin = translateScreenToJava2D(new Point(
+    			(int) Math.ceil(selection.getX()),
+    			(int) Math.ceil(selection.getY()))
+    		);
+    		PlotRenderingInfo plotInfo = info.getPlotInfo();
+    		Rectangle2D scaledDataArea = getScreenDataArea((int) selection.getCenterX(), (int) selection.getCenterY());
+
+    		if((selection.getHeight() > 0) && (selection.getWidth() > 0)) {
+    			double hLower = (selection.getMinX() - scaledDataArea.getMinX()) / scaledDataArea.getWidth();
+    			double hUpper = (selection.getMaxX() - scaledDataArea.getMinX()) / scaledDataArea.getWidth();
+    			double vLower = (scaledDataArea.getMaxY() - selection.getMaxY()) / scaledDataArea.getHeight();
+    			double vUpper = (scaledDataArea.getMaxY() - selection.getMinY()) / scaledDataArea.getHeight();
+
+    			Plot p = chart.getPlot();
+    			if(p instanceof Zoomable) {
+    				// here we tweak the notify flag on the plot so that only
+    				// one notification happens even though we update multiple
+    				// axes...
+    				boolean savedNotify = p.isNotify();
+    				p.setNotify(false);
+    				Zoomable z = (Zoomable) p;
+    				if(z.getOrientation() == PlotOrientation.HORIZONTAL) {
+    					z.zoomDomainAxes(vLower, vUpper, plotInfo, selectOrigin);
+    					z.zoomRangeAxes(hLower, hUpper, plotInfo, selectOrigin);
+    				}
+    				else {
+    					z.zoomDomainAxes(hLower, hUpper, plotInfo, selectOrigin);
+    					z.zoomRangeAxes(vLower, vUpper, plotInfo, selectOrigin);
+    				}
                 
-                p.setNotify(savedNotify);
-            }
-        }
+    				p.setNotify(savedNotify);
+    			}
+    		}
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
     }
 
     /**
      * Restores the auto-range calculation on both axes.
      */
     public void restoreAutoBounds() {
-        Plot plot = chart.getPlot();
-        if(plot == null) return;
-
-        // here we tweak the notify flag on the plot so that only
-        // one notification happens even though we update multiple
-        // axes...
-        boolean savedNotify = plot.isNotify();
-        plot.setNotify(false);
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			restoreAutoBounds();
+    		}
+    	})) return;
+    	try {
+    		Plot plot = chart.getPlot();
+    		if(plot == null) return;
+
+    		// here we tweak the notify flag on the plot so that only
+    		// one notification happens even though we update multiple
+    		// axes...
+    		boolean savedNotify = plot.isNotify();
+    		plot.setNotify(false);
         
-        restoreAutoDomainBounds();
-        restoreAutoRangeBounds();
+    		restoreAutoDomainBounds();
+    		restoreAutoRangeBounds();
         
-        plot.setNotify(savedNotify);
+    		plot.setNotify(savedNotify);
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
     }
 
     /**
      * Restores the auto-range calculation on the domain axis.
      */
     public void restoreAutoDomainBounds() {
-        Plot plot = chart.getPlot();
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			restoreAutoDomainBounds();
+    		}
+    	})) return;
+    	try {
+    		Plot plot = chart.getPlot();
         
-        if(plot instanceof Zoomable) {
-            Zoomable z = (Zoomable) plot;
+    		if(plot instanceof Zoomable) {
+    			Zoomable z = (Zoomable) plot;
             
-            // here we tweak the notify flag on the plot so that only
-            // one notification happens even though we update multiple
-            // axes...
-            boolean savedNotify = plot.isNotify();
-            plot.setNotify(false);
+    			// here we tweak the notify flag on the plot so that only
+    			// one notification happens even though we update multiple
+    			// axes...
+    			boolean savedNotify = plot.isNotify();
+    			plot.setNotify(false);
             
-            // we need to guard against this.zoomPoint being null
-            Point2D zp = (zoomPoint != null ? zoomPoint : new Point());
-            z.zoomDomainAxes(0.0, info.getPlotInfo(), zp);
+    			// we need to guard against this.zoomPoint being null
+    			Point2D zp = (zoomPoint != null ? zoomPoint : new Point());
+    			z.zoomDomainAxes(0.0, info.getPlotInfo(), zp);
             
-            plot.setNotify(savedNotify);
-        }
+    			plot.setNotify(savedNotify);
+    		}
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
     }
 
     /**
      * Restores the auto-range calculation on the range axis.
      */
 	public void restoreAutoRangeBounds() {
-		Plot plot = chart.getPlot();
-
-		if(plot != null && plot instanceof Zoomable) {
-			Zoomable z = (Zoomable) plot;
-            // here we tweak the notify flag on the plot so that only
-            // one notification happens even though we update multiple
-            // axes...
-
-            boolean savedNotify = plot.isNotify();
-            plot.setNotify(false);
-
-            // we need to guard against this.zoomPoint being null
-            Point2D zp = (zoomPoint != null ? zoomPoint : new Point());
-            z.zoomRangeAxes(0.0, info.getPlotInfo(), zp);
+    	if(!lockForChange(new Runnable() {
+    		@Override
+    		public void run() {
+    			restoreAutoRangeBounds();
+    		}
+    	})) return;
+    	try {
+    		Plot plot = chart.getPlot();
+
+    		if(plot != null && plot instanceof Zoomable) {
+    			Zoomable z = (Zoomable) plot;
+    			// here we tweak the notify flag on the plot so that only
+    			// one notification happens even though we update multiple
+    			// axes...
+
+    			boolean savedNotify = plot.isNotify();
+    			plot.setNotify(false);
+
+    			// we need to guard against this.zoomPoint being null
+    			Point2D zp = (zoomPoint != null ? zoomPoint : new Point());
+    			z.zoomRangeAxes(0.0, info.getPlotInfo(), zp);
             
-            plot.setNotify(savedNotify);
-        }
+    			plot.setNotify(savedNotify);
+    		}
+    	}
+    	finally {
+    		renderLock.unlock();
+    	}
     }
 
     /**
@@ -3302,5 +4091,157 @@ public class ChartPanel extends JPanel implements
 
         // register as a listener with sub-components...
         if(chart != null) chart.addChangeListener(this);
+
+        if(asyncRendering) frameRenderer = new FrameRenderer();
 	}
+
+    /**
+     * The chart, size and anchor of a frame to be drawn by the render thread.
+     */
+    private static class FrameRequest {
+    	final JFreeChart chart;
+    	final int width, height;
+    	/** The area to draw the chart in before scaling (null if not scaled). */
+    	final Rectangle2D chartArea;
+    	final double scaleX, scaleY;
+    	final Point2D anchor;
+
+    	FrameRequest(JFreeChart chart, int width, int height, Rectangle2D chartArea, double scaleX, double scaleY, Point2D anchor) {
+    		this.chart 		= chart;
+    		this.width 		= width;
+    		this.height 	= height;
+    		this.chartArea 	= chartArea;
+    		this.scaleX 	= scaleX;
+    		this.scaleY 	= scaleY;
+    		this.anchor 	= anchor;
+    	}
+    }
+
+    /**
+     * Draws frames on a background thread into spare images, and hands each
+     * finished frame to the event dispatch thread.  Only the newest request
+     * is kept: a request made while a frame is being drawn replaces any
+     * earlier one that has not been started.
+     */
+    private class FrameRenderer implements Runnable {
+    	private final Thread thread;
+
+    	/** The next frame to draw (null if there is none). */
+    	private FrameRequest request;
+
+    	/** An image that is no longer shown, for the next frame (may be null). */
+    	private BufferedImage spare;
+
+    	/** Set while changes wait for the lock, to keep new frames from starting. */
+    	private boolean held;
+
+    	private boolean stopped;
+
+    	FrameRenderer() {
+    		thread = new Thread(this, "ChartPanel-render");
+    		thread.setDaemon(true);
+    		thread.start();
+    	}
+
+    	synchronized void request(FrameRequest request) {
+    		this.request = request;
+    		notifyAll();
+    	}
+
+    	synchronized void recycle(BufferedImage image) {
+    		spare = image;
+    	}
+
+    	synchronized void hold() {
+    		held = true;
+    	}
+
+    	synchronized void release() {
+    		held = false;
+    		notifyAll();
+    	}
+
+    	synchronized void stop() {
+    		stopped = true;
+    		notifyAll();
+    	}
+
+    	@Override
+    	public void run() {
+    		while(true) {
+    			FrameRequest r;
+    			BufferedImage frame;
+    			synchronized(this) {
+    				while((request == null || held) && !stopped) {
+    					try {
+    						wait();
+    					}
+    					catch(InterruptedException e) {
+    						return;
+    					}
+    				}
+    				if(stopped) return;
+
+    				r = request;
+    				request = null;
+    				frame = spare;
+    				spare = null;
+    			}
+
+    			if(frame == null || frame.getWidth() != r.width || frame.getHeight() != r.height) {
+    				frame = new BufferedImage(r.width, r.height, BufferedImage.TYPE_INT_ARGB);
+    			}
+
+    			final ChartRenderingInfo frameInfo = new ChartRenderingInfo();
+    			Graphics2D g2 = frame.createGraphics();
+    			g2.setComposite(AlphaComposite.Clear);
+    			g2.fillRect(0, 0, r.width, r.height);
+    			g2.setComposite(AlphaComposite.SrcOver);
+    			g2.setRenderingHint(ChartHints.KEY_RASTER_TARGET, frame);
+
+    			boolean drawn = false;
+    			SnapshotList.beginRead();
+    			// writers that change several series together, and the panning
+    			// and zooming on the event dispatch thread, hold the lock, so the
+    			// frame sees all of their changes or none; the plot's crosshair
+    			// values are also set under it.  The event dispatch thread never
+    			// waits for it, but queues its changes until the frame is done
+    			renderLock.lock();
+    			try {
+    				r.chart.pinDatasets();
+
+    				if(r.chartArea != null) {
+    					g2.transform(AffineTransform.getScaleInstance(r.scaleX, r.scaleY));
+    					r.chart.draw(g2, r.chartArea, r.anchor, frameInfo);
+    				}
+    				else r.chart.draw(g2, new Rectangle2D.Double(0, 0, r.width, r.height), r.anchor, frameInfo);
+
+    				drawn = true;
+    			}
+    			catch(RuntimeException e) {
+    				// the frame is dropped and the next change draws another, but
+    				// the failure is reported like any uncaught exception
+    				thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    			}
+    			finally {
+    				renderLock.unlock();
+    				SnapshotList.endRead();
+    				g2.dispose();
+    			}
+
+    			if(!drawn) {
+    				recycle(frame);
+    				continue;
+    			}
+
+    			final BufferedImage finished = frame;
+    			SwingUtilities.invokeLater(new Runnable() {
+    				@Override
+    				public void run() {
+    					showFrame(FrameRenderer.this, finished, frameInfo);
+    				}
+    			});
+    		}
+    	}
+    }
 }
@@ -41,6 +41,8 @@ import org.jfree.chart.event.PlotChangeListener;
 import org.jfree.chart.event.TitleChangeEvent;
 import org.jfree.chart.event.TitleChangeListener;
 import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.CombinedDomainXYPlot;
+import org.jfree.chart.plot.CombinedRangeXYPlot;
 import org.jfree.chart.plot.Plot;
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.XYPlot;
@@ -50,6 +52,7 @@ import org.jfree.chart.title.Title;
 import org.jfree.chart.ui.Align;
 import org.jfree.chart.ui.Drawable;
 import org.jfree.chart.ui.HorizontalAlignment;
+import org.jfree.chart.ui.Layer;
 import org.jfree.chart.ui.RectangleEdge;
 import org.jfree.chart.ui.RectangleInsets;
 import org.jfree.chart.ui.Size2D;
@@ -59,6 +62,8 @@ import org.jfree.chart.util.PaintUtils;
 import org.jfree.chart.util.Args;
 import org.jfree.chart.util.SerialUtils;
 import org.jfree.data.Range;
+import org.jfree.data.SnapshotList;
+import org.jfree.data.xy.XYDataset;
 
 /**
  * A chart class implemented using the Java 2D APIs.  The current version
@@ -1013,6 +1018,61 @@ public class JFreeChart implements Drawable, TitleChangeListener, PlotChangeList
      * @param info  records info about the drawing (null means collect no info).
      */
     public void draw(Graphics2D g2, Rectangle2D chartArea, Point2D anchor, ChartRenderingInfo info) {
+    	// the series are read as they are now, even if another thread changes
+    	// them while the chart is drawn
+    	SnapshotList.beginRead();
+    	try {
+    		pinDatasets();
+    		drawChart(g2, chartArea, anchor, info);
+    	}
+    	finally {
+    		SnapshotList.endRead();
+    	}
+    }
+
+    /**
+     * Pins the current items of the series in the chart's XY datasets for
+     * the snapshot read in progress on the calling thread (see
+     * {@link SnapshotList#beginRead()}), so that all of them are read as
+     * they are at this moment.  Series that are not reached through the
+     * plot's datasets are pinned the first time they are read.
+     *
+     * @throws IllegalStateException if the thread is not in a snapshot read.
+     */
+    public void pinDatasets() {
+    	if(!SnapshotList.isReading()) throw new IllegalStateException("No snapshot read in progress.");
+
+    	pinDatasets(plot);
+    }
+
+    private static void pinDatasets(Plot plot) {
+    	List subplots = null;
+    	if(plot instanceof CombinedDomainXYPlot) subplots = ((CombinedDomainXYPlot) plot).getSubplots();
+    	else if(plot instanceof CombinedRangeXYPlot) subplots = ((CombinedRangeXYPlot) plot).getSubplots();
+    	if(subplots != null) {
+    		for(Object subplot : subplots) {
+    			pinDatasets((Plot) subplot);
+    		}
+    	}
+
+    	if(plot instanceof XYPlot) {
+    		XYPlot xyPlot = (XYPlot) plot;
+    		for(int i = 0; i < xyPlot.getDatasetCount(); i++) {
+    			XYDataset dataset = xyPlot.getDataset(i);
+    			if(dataset == null) continue;
+
+    			// reading the item count pins a series
+    			for(int series = 0; series < dataset.getSeriesCount(); series++) {
+    				dataset.getItemCount(series);
+    			}
+    		}
+    	}
+    }
+
+    /**
+     * Draws the chart inside a snapshot read.
+     */
+    private void drawChart(Graphics2D g2, Rectangle2D chartArea, Point2D anchor, ChartRenderingInfo info) {
     	notifyListeners(new ChartProgressEvent(this, this, ChartProgressEvent.DRAWING_STARTED, 0));
 
     	if(elementHinting) {
@@ -1023,9 +1083,14 @@ public class JFreeChart implements Drawable, TitleChangeListener, PlotChangeList
             g2.setRenderingHint(ChartHints.KEY_BEGIN_ELEMENT, m);            
     	}
 
+    	// the foreground of a layered drawing adds to the info collected
+    	// for the background
+    	Object layer = g2.getRenderingHint(ChartHints.KEY_LAYER);
+    	boolean background = layer != Layer.FOREGROUND;
+
     	EntityCollection entities = null;
         // record the chart area, if info is requested...
-        if(info != null) {
+        if(info != null && background) {
             info.clear();
             info.setChartArea(chartArea);
             entities = info.getEntityCollection();
@@ -1040,12 +1105,12 @@ public class JFreeChart implements Drawable, TitleChangeListener, PlotChangeList
         g2.addRenderingHints(renderingHints);
 
         // draw the chart background...
-        if(backgroundPaint != null) {
+        if(backgroundPaint != null && background) {
             g2.setPaint(this.backgroundPaint);
             g2.fill(chartArea);
         }
 
-        if(backgroundImage != null) {
+        if(backgroundImage != null && background) {
         	Composite originalComposite = g2.getComposite();
             g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, backgroundImageAlpha));
             Rectangle2D dest = new Rectangle2D.Double(0.0, 0.0, backgroundImage.getWidth(null), backgroundImage.getHeight(null));
@@ -1061,7 +1126,7 @@ public class JFreeChart implements Drawable, TitleChangeListener, PlotChangeList
             g2.setComposite(originalComposite);
         }
 
-        if(isBorderVisible()) {
+        if(isBorderVisible() && background) {
             Paint paint = getBorderPaint();
             Stroke stroke = getBorderStroke();
             
@@ -1159,28 +1224,31 @@ public class JFreeChart implements Drawable, TitleChangeListener, PlotChangeList
         BlockParams p = new BlockParams();
         p.setGenerateEntities(entities);
 
+        // the foreground layer only needs the space taken by the title
+        boolean draw = g2.getRenderingHint(ChartHints.KEY_LAYER) != Layer.FOREGROUND;
+
         if(position == RectangleEdge.TOP) {
             Size2D size = t.arrange(g2, constraint);
             titleArea = createAlignedRectangle2D(size, area, t.getHorizontalAlignment(), VerticalAlignment.TOP);
-            retValue = t.draw(g2, titleArea, p);
+            if(draw) retValue = t.draw(g2, titleArea, p);
             area.setRect(area.getX(), Math.min(area.getY() + size.height, area.getMaxY()), area.getWidth(), Math.max(area.getHeight() - size.height, 0));
         }
         else if(position == RectangleEdge.BOTTOM) {
             Size2D size = t.arrange(g2, constraint);
             titleArea = createAlignedRectangle2D(size, area, t.getHorizontalAlignment(), VerticalAlignment.BOTTOM);
-            retValue = t.draw(g2, titleArea, p);
+            if(draw) retValue = t.draw(g2, titleArea, p);
             area.setRect(area.getX(), area.getY(), area.getWidth(), area.getHeight() - size.height);
         }
         else if(position == RectangleEdge.RIGHT) {
             Size2D size = t.arrange(g2, constraint);
             titleArea = createAlignedRectangle2D(size, area, HorizontalAlignment.RIGHT, t.getVerticalAlignment());
-            retValue = t.draw(g2, titleArea, p);
+            if(draw) retValue = t.draw(g2, titleArea, p);
             area.setRect(area.getX(), area.getY(), area.getWidth() - size.width, area.getHeight());
         }
         else if(position == RectangleEdge.LEFT) {
             Size2D size = t.arrange(g2, constraint);
             titleArea = createAlignedRectangle2D(size, area, HorizontalAlignment.LEFT, t.getVerticalAlignment());
-            retValue = t.draw(g2, titleArea, p);
+            if(draw) retValue = t.draw(g2, titleArea, p);
             area.setRect(area.getX() + size.width, area.getY(), area.getWidth() - size.width, area.getHeight());
         }
         else throw new RuntimeException("Unrecognised title position.");
@@ -95,26 +95,34 @@ class MouseWheelHandler implements MouseWheelListener, Serializable {
      * @param e  the mouse wheel event.
 	*/
     // don't zoom unless the mouse pointer is in the plot's data area
-	private void handleZoomable(Zoomable zoomable, MouseWheelEvent e) {
+	private void handleZoomable(final Zoomable zoomable, MouseWheelEvent e) {
 		ChartRenderingInfo info = chartPanel.getChartRenderingInfo();
-		PlotRenderingInfo plotRenderingInfo = info.getPlotInfo();
-		Point2D p = chartPanel.translateScreenToJava2D(e.getPoint());
+		final PlotRenderingInfo plotRenderingInfo = info.getPlotInfo();
+		final Point2D p = chartPanel.translateScreenToJava2D(e.getPoint());
 
         if(!plotRenderingInfo.getDataArea().contains(p)) return;
 
-        Plot plot = (Plot)zoomable;
-
-        // do not notify while zooming each axis
-        boolean notifyState = plot.isNotify();
-        plot.setNotify(false);
+        final Plot plot = (Plot)zoomable;
 
         int rotationDir = e.getWheelRotation();
         double zf = 1.0 + zoomFactor;
         if(rotationDir < 0) zf = 1.0 / zf;
 
-        if(chartPanel.isDomainZoomable()) zoomable.zoomDomainAxes(zf, plotRenderingInfo, p, true);
-        if(chartPanel.isRangeZoomable()) zoomable.zoomRangeAxes(zf, plotRenderingInfo, p, true);
-
-        plot.setNotify(notifyState);  // this generates the change event too
+        // the render thread must not see the axes half zoomed, but the wheel
+        // must not wait for a frame either
+        final double factor = zf;
+        chartPanel.changeChart(new Runnable() {
+        	@Override
+        	public void run() {
+        		// do not notify while zooming each axis
+        		boolean notifyState = plot.isNotify();
+        		plot.setNotify(false);
+
+        		if(chartPanel.isDomainZoomable()) zoomable.zoomDomainAxes(factor, plotRenderingInfo, p, true);
+        		if(chartPanel.isRangeZoomable()) zoomable.zoomRangeAxes(factor, plotRenderingInfo, p, true);
+
+        		plot.setNotify(notifyState);  // this generates the change event too
+        	}
+        });
 	}
 }
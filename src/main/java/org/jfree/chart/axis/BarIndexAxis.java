@@ -0,0 +1,321 @@
+package org.jfree.chart.axis;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.text.DateFormat;
+import java.text.FieldPosition;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.chart.util.Args;
+import org.jfree.data.Range;
+import org.jfree.data.xy.BarIndexDataset;
+
+/**
+ * A domain axis for a {@link BarIndexDataset}, on which the bars are evenly
+ * spaced by their index and labelled with their times.
+ * <P>
+ * The axis is a {@link NumberAxis} over the bar indices, so a value is mapped
+ * to Java2D space with a single multiply-add, with no timeline to consult.
+ * The ticks fall on whole bars, and their labels are resolved from the bar
+ * times only for the ticks that are drawn.  Unless a date format is set, the
+ * format is chosen from the time covered by one tick unit.  A number format
+ * override, if set, takes precedence over the bar times.
+ */
+public class BarIndexAxis extends NumberAxis {
+	private static final long serialVersionUID = 4175027723413329148L;
+
+	private static final long MINUTE = 60000L;
+	private static final long DAY = 24 * 60 * MINUTE;
+
+	/** The automatic date patterns, for tick units covering up to each span. */
+	private static final String[] PATTERNS = {"HH:mm:ss", "HH:mm", "d-MMM", "MMM-yyyy", "yyyy"};
+	private static final long[] SPANS = {MINUTE, DAY, 28 * DAY, 365 * DAY, Long.MAX_VALUE};
+
+	/** The dataset that supplies the bar times. */
+	private BarIndexDataset dataset;
+
+	/** The time zone for the automatic date formats. */
+	private TimeZone timeZone;
+
+	/** The locale for the automatic date formats. */
+	private Locale locale;
+
+	/** A date format for the tick labels ({@code null} to choose one). */
+	private DateFormat dateFormatOverride;
+
+	/** The automatic date formats, one for each pattern. */
+	private DateFormat[] autoFormats;
+
+	/** The date format for the current tick unit. */
+	private DateFormat tickLabelDateFormat;
+
+	/** Formats a bar index as the time of the bar. */
+	private BarTimeFormat barTimeFormat;
+
+	/**
+	 * Creates a new axis using the default time zone and locale.
+	 *
+	 * @param label  the axis label ({@code null} permitted).
+	 * @param dataset  the dataset that supplies the bar times ({@code null}
+	 *     not permitted).
+	 */
+	public BarIndexAxis(String label, BarIndexDataset dataset) {
+		this(label, dataset, TimeZone.getDefault(), Locale.getDefault());
+	}
+
+	/**
+	 * Creates a new axis.
+	 *
+	 * @param label  the axis label ({@code null} permitted).
+	 * @param dataset  the dataset that supplies the bar times ({@code null}
+	 *     not permitted).
+	 * @param zone  the time zone for the tick labels ({@code null} not
+	 *     permitted).
+	 * @param locale  the locale for the tick labels ({@code null} not
+	 *     permitted).
+	 */
+	public BarIndexAxis(String label, BarIndexDataset dataset, TimeZone zone, Locale locale) {
+		super(label);
+		Args.nullNotPermitted(dataset, "dataset");
+		Args.nullNotPermitted(zone, "zone");
+		Args.nullNotPermitted(locale, "locale");
+
+		this.dataset 	= dataset;
+		this.timeZone 	= zone;
+		this.locale 	= locale;
+		barTimeFormat 	= new BarTimeFormat();
+		createAutoFormats();
+
+		setStandardTickUnits(createIntegerTickUnits(locale));
+		setAutoRangeIncludesZero(false);
+	}
+
+	/**
+	 * Returns the dataset that supplies the bar times.
+	 *
+	 * @return The dataset (never {@code null}).
+	 */
+	public BarIndexDataset getDataset() {
+		return dataset;
+	}
+
+	/**
+	 * Sets the dataset that supplies the bar times and sends an
+	 * {@link org.jfree.chart.event.AxisChangeEvent} to all registered
+	 * listeners.
+	 *
+	 * @param dataset  the dataset ({@code null} not permitted).
+	 */
+	public void setDataset(BarIndexDataset dataset) {
+		Args.nullNotPermitted(dataset, "dataset");
+
+		this.dataset = dataset;
+		fireChangeEvent();
+	}
+
+	/**
+	 * Returns the time zone for the tick labels.
+	 *
+	 * @return The time zone (never {@code null}).
+	 */
+	public TimeZone getTimeZone() {
+		return timeZone;
+	}
+
+	/**
+	 * Sets the time zone for the automatic tick label formats and sends an
+	 * {@link org.jfree.chart.event.AxisChangeEvent} to all registered
+	 * listeners.  A date format override keeps its own time zone.
+	 *
+	 * @param zone  the time zone ({@code null} not permitted).
+	 */
+	public void setTimeZone(TimeZone zone) {
+		Args.nullNotPermitted(zone, "zone");
+
+		timeZone = zone;
+		createAutoFormats();
+		fireChangeEvent();
+	}
+
+	/**
+	 * Returns the date format for the tick labels, if one has been set.
+	 *
+	 * @return The date format (possibly {@code null}).
+	 */
+	public DateFormat getDateFormatOverride() {
+		return dateFormatOverride;
+	}
+
+	/**
+	 * Sets the date format for the tick labels and sends an
+	 * {@link org.jfree.chart.event.AxisChangeEvent} to all registered
+	 * listeners.
+	 *
+	 * @param formatter  the date format ({@code null} to choose a format
+	 *     from the tick unit).
+	 */
+	public void setDateFormatOverride(DateFormat formatter) {
+		dateFormatOverride = formatter;
+		fireChangeEvent();
+	}
+
+	/**
+	 * Returns the number format override if one has been set, otherwise a
+	 * format that shows the time of the bar at each tick.
+	 *
+	 * @return The number format (never {@code null}).
+	 */
+	@Override
+	public NumberFormat getNumberFormatOverride() {
+		NumberFormat override = super.getNumberFormatOverride();
+
+		return override != null ? override : barTimeFormat;
+	}
+
+	@Override
+	public List refreshTicks(Graphics2D g2, AxisState state, Rectangle2D dataArea, RectangleEdge edge) {
+		if(updateTickLabelDateFormat()) clearTickCache();
+
+		return super.refreshTicks(g2, state, dataArea, edge);
+	}
+
+	/**
+	 * Selects a tick unit and the date format that goes with it.  If the
+	 * format changes, the labels change width, so the unit is selected again.
+	 *
+	 * @param g2  the graphics device.
+	 * @param dataArea  the area defined by the axes.
+	 * @param edge  the axis location.
+	 */
+	@Override
+	protected void selectAutoTickUnit(Graphics2D g2, Rectangle2D dataArea, RectangleEdge edge) {
+		super.selectAutoTickUnit(g2, dataArea, edge);
+		if(updateTickLabelDateFormat()) {
+			clearTickCache();
+			super.selectAutoTickUnit(g2, dataArea, edge);
+		}
+	}
+
+	/**
+	 * Chooses the date format for the current tick unit.
+	 *
+	 * @return {@code true} if the format changed.
+	 */
+	private boolean updateTickLabelDateFormat() {
+		DateFormat format = dateFormatOverride;
+		if(format == null) {
+			double span = getTickUnit().getSize() * getBarSpacing();
+			int i = 0;
+			while(span >= SPANS[i]) i++;
+			format = autoFormats[i];
+		}
+
+		boolean changed = format != tickLabelDateFormat;
+		tickLabelDateFormat = format;
+
+		return changed;
+	}
+
+	/**
+	 * Returns the average time between the visible bars.
+	 */
+	private double getBarSpacing() {
+		int count = dataset.getBarCount();
+		if(count < 2) return 0.0;
+
+		Range range = getRange();
+		int first = (int) Math.max(Math.floor(range.getLowerBound()), 0);
+		int last = (int) Math.min(Math.ceil(range.getUpperBound()), count - 1);
+		if(last <= first) {
+			first = 0;
+			last = count - 1;
+		}
+
+		return (dataset.getBarTime(last) - dataset.getBarTime(first)) / (last - first);
+	}
+
+	private void createAutoFormats() {
+		autoFormats = new DateFormat[PATTERNS.length];
+		for(int i = 0; i < PATTERNS.length; i++) {
+			autoFormats[i] = new SimpleDateFormat(PATTERNS[i], locale);
+			autoFormats[i].setTimeZone(timeZone);
+		}
+		tickLabelDateFormat = null;
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		BarIndexAxis clone = (BarIndexAxis) super.clone();
+		clone.barTimeFormat = clone.new BarTimeFormat();
+		clone.createAutoFormats();
+
+		return clone;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(obj == this) return true;
+
+		if(!(obj instanceof BarIndexAxis)) return false;
+
+		BarIndexAxis that = (BarIndexAxis) obj;
+		if(!timeZone.equals(that.timeZone) || !locale.equals(that.locale)) return false;
+		if(dateFormatOverride == null ? that.dateFormatOverride != null : !dateFormatOverride.equals(that.dateFormatOverride)) return false;
+
+		return super.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	/**
+	 * Formats a bar index as the time of the nearest bar, in the date format
+	 * for the current tick unit.
+	 */
+	private class BarTimeFormat extends NumberFormat {
+		private static final long serialVersionUID = -6185417384101349373L;
+
+		@Override
+		public StringBuffer format(double number, StringBuffer toAppendTo, FieldPosition pos) {
+			double time = dataset.getBarTime((int) Math.round(number));
+			if(Double.isNaN(time)) return toAppendTo;
+
+			if(tickLabelDateFormat == null) updateTickLabelDateFormat();
+
+			return toAppendTo.append(tickLabelDateFormat.format(new Date((long) time)));
+		}
+
+		@Override
+		public StringBuffer format(long number, StringBuffer toAppendTo, FieldPosition pos) {
+			return format((double) number, toAppendTo, pos);
+		}
+
+		/**
+		 * This class cannot be used for parsing.
+		 *
+		 * @return {@code null}.
+		 */
+		@Override
+		public Number parse(String source, ParsePosition parsePosition) {
+			return null;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof BarTimeFormat;
+		}
+
+		@Override
+		public int hashCode() {
+			return BarTimeFormat.class.hashCode();
+		}
+	}
+}
@@ -9,6 +9,7 @@ import java.awt.geom.Rectangle2D;
 import java.io.Serializable;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -202,6 +203,9 @@ public class DateAxis extends ValueAxis implements Cloneable, Serializable {
     /** Our underlying timeline. */
     private Timeline timeline;
 
+    /** The ticks and tick unit of earlier refreshes (never shared by clones). */
+    private transient TickCache tickCache;
+
     /**
      * Creates a date axis with no label.
      */
@@ -1118,8 +1122,23 @@ public class DateAxis extends ValueAxis implements Cloneable, Serializable {
      * @param edge  the axis location.
      */
     protected void selectAutoTickUnit(Graphics2D g2, Rectangle2D dataArea, RectangleEdge edge) {
+        // while the range only shifts (as during a pan), keep the unit
+        // rather than estimating the label sizes again, once the selection
+        // has settled on it
+        TickCache cache = getTickCache();
+        double length = RectangleEdge.isTopOrBottom(edge) ? dataArea.getWidth() : dataArea.getHeight();
+        Object[] key = {(float) getRange().getLength(), length, edge, g2.getFontRenderContext()};
+        TickUnit unit = cache.getUnit(key);
+        if(unit != null) {
+            setTickUnit((DateTickUnit) unit, false, false);
+
+            return;
+        }
+
+        DateTickUnit start = getTickUnit();
         if(RectangleEdge.isTopOrBottom(edge)) selectHorizontalAutoTickUnit(g2, dataArea, edge);
         else if(RectangleEdge.isLeftOrRight(edge)) selectVerticalAutoTickUnit(g2, dataArea, edge);
+        if(getTickUnit().equals(start)) cache.putUnit(start, key);
 	}
 
     /**
@@ -1343,210 +1362,187 @@ public class DateAxis extends ValueAxis implements Cloneable, Serializable {
      * @return A list of ticks.
      */
     protected List refreshTicksHorizontal(Graphics2D g2, Rectangle2D dataArea, RectangleEdge edge) {
-        List result = new java.util.ArrayList();
+        return createTicks(g2, dataArea, edge);
+    }
+
+    /**
+     * Recalculates the ticks for the date axis.
+     *
+     * @param g2  the graphics device.
+     * @param dataArea  the area in which the plot should be drawn.
+     * @param edge  the location of the axis.
+     *
+     * @return A list of ticks.
+     */
+    protected List refreshTicksVertical(Graphics2D g2, Rectangle2D dataArea, RectangleEdge edge) {
+        return createTicks(g2, dataArea, edge);
+    }
 
+    /**
+     * Creates the ticks for the axis.  The ticks of the last refresh are
+     * reused if neither the range nor the tick unit changed, and when the
+     * range only shifted, each step from one tick to the next (the date
+     * arithmetic and the label) is looked up in the tick cache, so that
+     * only the ticks new to the axis are worked out.
+     *
+     * @param g2  the graphics device.
+     * @param dataArea  the area in which the data is to be drawn.
+     * @param edge  the location of the axis.
+     *
+     * @return A list of ticks.
+     */
+    private List createTicks(Graphics2D g2, Rectangle2D dataArea, RectangleEdge edge) {
         Font tickLabelFont = getTickLabelFont();
         g2.setFont(tickLabelFont);
 
+        TickCache cache = getTickCache();
+        cache.setContext(
+            edge, isVerticalTickLabels(), tickLabelFont, getTickLabelInsets(), getStandardTickUnits(),
+            timeZone, locale, timeline, tickMarkPosition, getDateFormatOverride(), getMinorTickCount()
+        );
+
         if(isAutoTickUnitSelection()) selectAutoTickUnit(g2, dataArea, edge);
 
         DateTickUnit unit = getTickUnit();
-        Date tickDate = calculateLowestVisibleTickValue(unit);
-        Date upperDate = getMaximumDate();
+        Range range = getRange();
+        long upper = getMaximumDate().getTime();
 
-        boolean hasRolled = false;
-        while(tickDate.before(upperDate)) {
-            // could add a flag to make the following correction optional...
-            if(!hasRolled) tickDate = correctTickDateForPosition(tickDate, unit, tickMarkPosition);
+        List result = cache.getTicks(range.getLowerBound(), range.getUpperBound(), unit);
+        if(result != null) return result;
 
-            long lowestTickTime = tickDate.getTime();
-            long distance = unit.addToDate(tickDate, timeZone).getTime()- lowestTickTime;
-            int minorTickSpaces = getMinorTickCount();
-            if(minorTickSpaces <= 0) minorTickSpaces = unit.getMinorTickCount();
+        result = new ArrayList();
+        int minorTickSpaces = getMinorTickCount();
+        if(minorTickSpaces <= 0) minorTickSpaces = unit.getMinorTickCount();
 
-            for(int minorTick = 1; minorTick < minorTickSpaces; minorTick++) {
-                long minorTickTime = lowestTickTime - distance * minorTick / minorTickSpaces;
-                if(minorTickTime > 0 && getRange().contains(minorTickTime) && (!isHiddenValue(minorTickTime))) {
-                    result.add(
-                    	new DateTick(
-                    		TickType.MINOR,
-                            new Date(minorTickTime), "", TextAnchor.TOP_CENTER,
-                            TextAnchor.CENTER, 0.0
-        				)
-                    );
-                }
+        long time = calculateLowestVisibleTickValue(unit).getTime();
+        boolean hasRolled = false;
+        while(time < upper) {
+            long key = time * 2 + (hasRolled ? 1 : 0);
+            TickStep step = (TickStep) cache.getEntry(unit, key);
+            if(step == null) {
+                step = createTickStep(time, hasRolled, unit, edge);
+                cache.putEntry(unit, key, step);
             }
 
-            if(!isHiddenValue(tickDate.getTime())) {
-                // work out the value, label and position
-                String tickLabel;
-                DateFormat formatter = getDateFormatOverride();
-                if(formatter != null) tickLabel = formatter.format(tickDate);
-                else tickLabel = tickUnit.dateToString(tickDate);
-
-                TextAnchor anchor, rotationAnchor;
-                double angle = 0.0;
-                if (isVerticalTickLabels()) {
-                    anchor = TextAnchor.CENTER_RIGHT;
-                    rotationAnchor = TextAnchor.CENTER_RIGHT;
-                    if(edge == RectangleEdge.TOP) angle = Math.PI / 2.0;
-                    else angle = -Math.PI / 2.0;
-                }
-                else {
-                    if(edge == RectangleEdge.TOP) {
-                    	anchor = TextAnchor.BOTTOM_CENTER;
-                    	rotationAnchor = TextAnchor.BOTTOM_CENTER;
-                    }
-                    else {
-                        anchor = TextAnchor.TOP_CENTER;
-                        rotationAnchor = TextAnchor.TOP_CENTER;
-                    }
+            for(int minorTick = 1; minorTick < minorTickSpaces; minorTick++) {
+                long minorTickTime = step.time - step.distance * minorTick / minorTickSpaces;
+                if(minorTickTime > 0 && range.contains(minorTickTime) && (!isHiddenValue(minorTickTime))) {
+                    result.add(createMinorTick(minorTickTime));
                 }
+            }
 
-                Tick tick = new DateTick(tickDate, tickLabel, anchor, rotationAnchor, angle);
-                result.add(tick);
-                hasRolled = false;
+            if(step.tick != null) {
+                result.add(step.tick);
 
-                long currentTickTime = tickDate.getTime();
-                tickDate = unit.addToDate(tickDate, this.timeZone);
-                long nextTickTime = tickDate.getTime();
                 for(int minorTick = 1; minorTick < minorTickSpaces; minorTick++) {
-                    long minorTickTime = currentTickTime + (nextTickTime - currentTickTime) * minorTick / minorTickSpaces;
-                    if (getRange().contains(minorTickTime) && (!isHiddenValue(minorTickTime))) {
-                        result.add(
-                        	new DateTick(
-                        		TickType.MINOR,
-                                new Date(minorTickTime), "",
-                                TextAnchor.TOP_CENTER, TextAnchor.CENTER,
-                                0.0
-                               ));
+                    long minorTickTime = step.time + (step.next - step.time) * minorTick / minorTickSpaces;
+                    if(range.contains(minorTickTime) && (!isHiddenValue(minorTickTime))) {
+                        result.add(createMinorTick(minorTickTime));
                     }
                 }
             }
-            else {
-                tickDate = unit.rollDate(tickDate, timeZone);
-                hasRolled = true;
-                
-                continue;
-            }
 
+            time = step.next;
+            hasRolled = step.tick == null;
         }
-        
+
+        cache.putTicks(result, range.getLowerBound(), range.getUpperBound(), unit);
+
         return result;
     }
 
     /**
-     * Recalculates the ticks for the date axis.
-     *
-     * @param g2  the graphics device.
-     * @param dataArea  the area in which the plot should be drawn.
-     * @param edge  the location of the axis.
-     *
-     * @return A list of ticks.
+     * Works out one step of the tick walk: the tick at (or, unless the date
+     * was rolled past a hidden tick, corrected from) the given time, and the
+     * time of the next step.
      */
-    protected List refreshTicksVertical(Graphics2D g2,
-            Rectangle2D dataArea, RectangleEdge edge) {
-
-        List result = new java.util.ArrayList();
-
-        Font tickLabelFont = getTickLabelFont();
-        g2.setFont(tickLabelFont);
-
-        if (isAutoTickUnitSelection()) {
-            selectAutoTickUnit(g2, dataArea, edge);
+    private TickStep createTickStep(long time, boolean hasRolled, DateTickUnit unit, RectangleEdge edge) {
+        Date tickDate = new Date(time);
+        // could add a flag to make the following correction optional...
+        if(!hasRolled) tickDate = correctTickDateForPosition(tickDate, unit, tickMarkPosition);
+
+        long tickTime = tickDate.getTime();
+        Date nextDate = unit.addToDate(tickDate, timeZone);
+        if(isHiddenValue(tickTime)) {
+            return new TickStep(tickTime, nextDate.getTime() - tickTime, unit.rollDate(tickDate, timeZone).getTime(), null);
         }
-        DateTickUnit unit = getTickUnit();
-        Date tickDate = calculateLowestVisibleTickValue(unit);
-        Date upperDate = getMaximumDate();
 
-        boolean hasRolled = false;
-        while (tickDate.before(upperDate)) {
+        // work out the value, label and position
+        String tickLabel;
+        DateFormat formatter = getDateFormatOverride();
+        if(formatter != null) tickLabel = formatter.format(tickDate);
+        else tickLabel = unit.dateToString(tickDate);
 
-            // could add a flag to make the following correction optional...
-            if (!hasRolled) {
-                tickDate = correctTickDateForPosition(tickDate, unit,
-                    this.tickMarkPosition);
+        TextAnchor anchor, rotationAnchor;
+        double angle = 0.0;
+        if(RectangleEdge.isTopOrBottom(edge)) {
+            if(isVerticalTickLabels()) {
+                anchor = TextAnchor.CENTER_RIGHT;
+                rotationAnchor = TextAnchor.CENTER_RIGHT;
+                if(edge == RectangleEdge.TOP) angle = Math.PI / 2.0;
+                else angle = -Math.PI / 2.0;
             }
-
-            long lowestTickTime = tickDate.getTime();
-            long distance = unit.addToDate(tickDate, this.timeZone).getTime()
-                    - lowestTickTime;
-            int minorTickSpaces = getMinorTickCount();
-            if (minorTickSpaces <= 0) {
-                minorTickSpaces = unit.getMinorTickCount();
+            else if(edge == RectangleEdge.TOP) {
+                anchor = TextAnchor.BOTTOM_CENTER;
+                rotationAnchor = TextAnchor.BOTTOM_CENTER;
             }
-            for (int minorTick = 1; minorTick < minorTickSpaces; minorTick++) {
-                long minorTickTime = lowestTickTime - distance
-                        * minorTick / minorTickSpaces;
-                if (minorTickTime > 0 && getRange().contains(minorTickTime)
-                        && (!isHiddenValue(minorTickTime))) {
-                    result.add(new DateTick(TickType.MINOR,
-                            new Date(minorTickTime), "", TextAnchor.TOP_CENTER,
-                            TextAnchor.CENTER, 0.0));
-                }
+            else {
+                anchor = TextAnchor.TOP_CENTER;
+                rotationAnchor = TextAnchor.TOP_CENTER;
             }
-            if (!isHiddenValue(tickDate.getTime())) {
-                // work out the value, label and position
-                String tickLabel;
-                DateFormat formatter = getDateFormatOverride();
-                if (formatter != null) {
-                    tickLabel = formatter.format(tickDate);
-                }
-                else {
-                    tickLabel = this.tickUnit.dateToString(tickDate);
-                }
-                TextAnchor anchor, rotationAnchor;
-                double angle = 0.0;
-                if (isVerticalTickLabels()) {
-                    anchor = TextAnchor.BOTTOM_CENTER;
-                    rotationAnchor = TextAnchor.BOTTOM_CENTER;
-                    if (edge == RectangleEdge.LEFT) {
-                        angle = -Math.PI / 2.0;
-                    }
-                    else {
-                        angle = Math.PI / 2.0;
-                    }
-                }
-                else {
-                    if (edge == RectangleEdge.LEFT) {
-                        anchor = TextAnchor.CENTER_RIGHT;
-                        rotationAnchor = TextAnchor.CENTER_RIGHT;
-                    }
-                    else {
-                        anchor = TextAnchor.CENTER_LEFT;
-                        rotationAnchor = TextAnchor.CENTER_LEFT;
-                    }
-                }
-
-                Tick tick = new DateTick(tickDate, tickLabel, anchor,
-                        rotationAnchor, angle);
-                result.add(tick);
-                hasRolled = false;
-
-                long currentTickTime = tickDate.getTime();
-                tickDate = unit.addToDate(tickDate, this.timeZone);
-                long nextTickTime = tickDate.getTime();
-                for (int minorTick = 1; minorTick < minorTickSpaces;
-                        minorTick++) {
-                    long minorTickTime = currentTickTime
-                            + (nextTickTime - currentTickTime)
-                            * minorTick / minorTickSpaces;
-                    if (getRange().contains(minorTickTime)
-                            && (!isHiddenValue(minorTickTime))) {
-                        result.add(new DateTick(TickType.MINOR,
-                                new Date(minorTickTime), "",
-                                TextAnchor.TOP_CENTER, TextAnchor.CENTER,
-                                0.0));
-                    }
-                }
+        }
+        else {
+            if(isVerticalTickLabels()) {
+                anchor = TextAnchor.BOTTOM_CENTER;
+                rotationAnchor = TextAnchor.BOTTOM_CENTER;
+                if(edge == RectangleEdge.LEFT) angle = -Math.PI / 2.0;
+                else angle = Math.PI / 2.0;
+            }
+            else if(edge == RectangleEdge.LEFT) {
+                anchor = TextAnchor.CENTER_RIGHT;
+                rotationAnchor = TextAnchor.CENTER_RIGHT;
             }
             else {
-                tickDate = unit.rollDate(tickDate, this.timeZone);
-                hasRolled = true;
+                anchor = TextAnchor.CENTER_LEFT;
+                rotationAnchor = TextAnchor.CENTER_LEFT;
             }
         }
-        
-        return result;
+
+        Tick tick = new DateTick(tickDate, tickLabel, anchor, rotationAnchor, angle);
+
+        return new TickStep(tickTime, nextDate.getTime() - tickTime, nextDate.getTime(), tick);
+    }
+
+    private static Tick createMinorTick(long time) {
+        return new DateTick(TickType.MINOR, new Date(time), "", TextAnchor.TOP_CENTER, TextAnchor.CENTER, 0.0);
+    }
+
+    /**
+     * Returns the tick cache, creating it if need be.
+     */
+    private TickCache getTickCache() {
+        if(tickCache == null) tickCache = new TickCache();
+
+        return tickCache;
+    }
+
+    /**
+     * One step of the tick walk.  The tick is {@code null} if the tick time
+     * is hidden by the timeline, in which case {@code next} is the rolled
+     * date.
+     */
+    private static final class TickStep {
+        final long time;
+        final long distance;
+        final long next;
+        final Tick tick;
+
+        TickStep(long time, long distance, long next, Tick tick) {
+            this.time 		= time;
+            this.distance 	= distance;
+            this.next 		= next;
+            this.tick 		= tick;
+        }
     }
 
     /**
@@ -1718,6 +1714,7 @@ public class DateAxis extends ValueAxis implements Cloneable, Serializable {
             clone.dateFormatOverride = (DateFormat) this.dateFormatOverride.clone();
         }
         // 'tickMarkPosition' is immutable : no need to clone
+        clone.tickCache = null;
         
         return clone;
 	}
@@ -78,6 +78,9 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
     /** An optional band for marking regions on the axis. */
     private MarkerAxisBand markerBand;
 
+    /** The ticks, labels and tick unit of earlier refreshes. */
+    private transient TickCache tickCache;
+
     /**
      * Default constructor.
      */
@@ -711,7 +714,24 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
      * @param edge  the axis location.
      */
     protected void selectHorizontalAutoTickUnit(Graphics2D g2, Rectangle2D dataArea, RectangleEdge edge) {
-        TickUnit unit = getTickUnit();
+        // the label widths depend on the magnitude and sign of the bounds,
+        // so the unit is kept while the range shifts within those, once the
+        // selection has settled on it
+        TickCache cache = getTickCache(edge);
+        Range range = getRange();
+        Object[] key = {
+            (float) range.getLength(), dataArea.getWidth(), g2.getFontRenderContext(),
+            getMagnitude(range.getLowerBound()), getMagnitude(range.getUpperBound())
+        };
+        TickUnit cached = cache.getUnit(key);
+        if(cached != null) {
+            setTickUnit((NumberTickUnit) cached, false, false);
+
+            return;
+        }
+
+        TickUnit start = getTickUnit();
+        TickUnit unit = start;
         TickUnitSource tickUnitSource = getStandardTickUnits();
         // we should use the current tick unit if it gives a count in the range
         // 2 to 40 otherwise just estimate one that will give a count <= 20
@@ -734,6 +754,7 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
         if(tickLabelWidth > unit2Width) unit2 = (NumberTickUnit) tickUnitSource.getLargerTickUnit(unit2);
 
         setTickUnit(unit2, false, false);
+        if(unit2.equals(start)) cache.putUnit(unit2, key);
     }
 
     /**
@@ -746,11 +767,23 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
      * @param edge  the axis location.
      */
     protected void selectVerticalAutoTickUnit(Graphics2D g2, Rectangle2D dataArea, RectangleEdge edge) {
+        // the label height does not depend on the range, so the unit is kept
+        // while the range shifts, once the selection has settled on it
+        TickCache cache = getTickCache(edge);
+        Object[] key = {(float) getRange().getLength(), dataArea.getHeight(), g2.getFontRenderContext()};
+        TickUnit cached = cache.getUnit(key);
+        if(cached != null) {
+            setTickUnit((NumberTickUnit) cached, false, false);
+
+            return;
+        }
+
+        TickUnit start = getTickUnit();
         double tickLabelHeight = estimateMaximumTickLabelHeight(g2);
 
         // start with the current tick unit...
         TickUnitSource tickUnits = getStandardTickUnits();
-        TickUnit unit1 = tickUnits.getCeilingTickUnit(getTickUnit());
+        TickUnit unit1 = tickUnits.getCeilingTickUnit(start);
         double unitHeight = lengthToJava2D(unit1.getSize(), dataArea, edge);
         double guess;
         if(unitHeight > 0) { // then extrapolate...
@@ -765,6 +798,7 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
         if(tickLabelHeight > unit2Height) unit2 = (NumberTickUnit) tickUnits.getLargerTickUnit(unit2);
 
         setTickUnit(unit2, false, false);
+        if(unit2.equals(start)) cache.putUnit(unit2, key);
     }
 
     /**
@@ -802,14 +836,19 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
      * @return A list of ticks.
      */
     protected List refreshTicksHorizontal(Graphics2D g2, Rectangle2D dataArea, RectangleEdge edge) {
-        List result = new java.util.ArrayList();
-
         Font tickLabelFont = getTickLabelFont();
         g2.setFont(tickLabelFont);
 
+        TickCache cache = getTickCache(edge);
         if(isAutoTickUnitSelection()) selectAutoTickUnit(g2, dataArea, edge);
 
         TickUnit tu = getTickUnit();
+        Range range = getRange();
+        boolean cacheable = isTickLabelCacheable();
+        List result = cacheable ? cache.getTicks(range.getLowerBound(), range.getUpperBound(), tu) : null;
+        if(result != null) return result;
+
+        result = new java.util.ArrayList();
         double size = tu.getSize();
         int count = calculateVisibleTickCount();
         double lowestTickValue = calculateLowestVisibleTickValue();
@@ -829,14 +868,7 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
             
             for(int i = 0; i < count; i++) {
                 double currentTickValue = lowestTickValue + (i * size);
-                String tickLabel;
-                NumberFormat formatter = getNumberFormatOverride();
-                if (formatter != null) {
-                    tickLabel = formatter.format(currentTickValue);
-                }
-                else {
-                    tickLabel = getTickUnit().valueToString(currentTickValue);
-                }
+                String tickLabel = createTickLabel(cache, tu, currentTickValue, cacheable);
                 TextAnchor anchor, rotationAnchor;
                 double angle = 0.0;
                 if (isVerticalTickLabels()) {
@@ -877,6 +909,7 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
                 }
             }
         }
+        if(cacheable) cache.putTicks(result, range.getLowerBound(), range.getUpperBound(), tu);
         
         return result;
     }
@@ -892,14 +925,19 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
      * @return A list of ticks.
      */
     protected List refreshTicksVertical(Graphics2D g2, Rectangle2D dataArea, RectangleEdge edge) {
-        List result = new java.util.ArrayList();
-        result.clear();
-
         Font tickLabelFont = getTickLabelFont();
         g2.setFont(tickLabelFont);
+
+        TickCache cache = getTickCache(edge);
         if(isAutoTickUnitSelection()) selectAutoTickUnit(g2, dataArea, edge);
 
         TickUnit tu = getTickUnit();
+        Range range = getRange();
+        boolean cacheable = isTickLabelCacheable();
+        List result = cacheable ? cache.getTicks(range.getLowerBound(), range.getUpperBound(), tu) : null;
+        if(result != null) return result;
+
+        result = new java.util.ArrayList();
         double size = tu.getSize();
         int count = calculateVisibleTickCount();
         double lowestTickValue = calculateLowestVisibleTickValue();
@@ -919,14 +957,7 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
 
             for(int i = 0; i < count; i++) {
                 double currentTickValue = lowestTickValue + (i * size);
-                String tickLabel;
-                NumberFormat formatter = getNumberFormatOverride();
-                if(formatter != null) {
-                    tickLabel = formatter.format(currentTickValue);
-                }
-                else {
-                    tickLabel = getTickUnit().valueToString(currentTickValue);
-                }
+                String tickLabel = createTickLabel(cache, tu, currentTickValue, cacheable);
 
                 TextAnchor anchor;
                 TextAnchor rotationAnchor;
@@ -972,10 +1003,85 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
                 }
             }
         }
+        if(cacheable) cache.putTicks(result, range.getLowerBound(), range.getUpperBound(), tu);
 
         return result;
     }
 
+    /**
+     * Returns the label for a tick, from the tick cache if the labels depend
+     * on the tick value alone.
+     *
+     * @param cache  the tick cache.
+     * @param unit  the tick unit.
+     * @param value  the tick value.
+     * @param cacheable  whether the label may be cached.
+     *
+     * @return The label.
+     */
+    private String createTickLabel(TickCache cache, TickUnit unit, double value, boolean cacheable) {
+        long key = Double.doubleToLongBits(value);
+        String result = cacheable ? (String) cache.getEntry(unit, key) : null;
+        if(result != null) return result;
+
+        NumberFormat formatter = getNumberFormatOverride();
+        if(formatter != null) result = formatter.format(value);
+        else result = unit.valueToString(value);
+
+        if(cacheable) cache.putEntry(unit, key, result);
+
+        return result;
+    }
+
+    /**
+     * Returns {@code true} if the tick labels depend on the tick values
+     * alone, which is known for the tick unit formats and for a plain
+     * {@link DecimalFormat} override.
+     */
+    private boolean isTickLabelCacheable() {
+        NumberFormat formatter = getNumberFormatOverride();
+
+        return formatter == null || formatter.getClass() == DecimalFormat.class;
+    }
+
+    /**
+     * Returns the power of ten of a value, negated for negative values.
+     */
+    private static int getMagnitude(double value) {
+        if(value == 0.0) return 0;
+
+        int result = (int) Math.floor(Math.log10(Math.abs(value)));
+
+        return value < 0.0 ? -result - 1000 : result;
+    }
+
+    /**
+     * Returns the tick cache, dropping its contents if the axis settings
+     * they depend on have changed.
+     *
+     * @param edge  the location of the axis.
+     *
+     * @return The tick cache.
+     */
+    private TickCache getTickCache(RectangleEdge edge) {
+        if(tickCache == null) tickCache = new TickCache();
+        tickCache.setContext(
+            edge, isVerticalTickLabels(), getTickLabelFont(), getTickLabelInsets(),
+            getStandardTickUnits(), getNumberFormatOverride(), getMinorTickCount()
+        );
+
+        return tickCache;
+    }
+
+    /**
+     * Clears the tick units, ticks and labels remembered from earlier
+     * refreshes.  Subclasses whose tick labels or label sizes depend on
+     * state of their own call this when that state changes.
+     */
+    protected void clearTickCache() {
+        if(tickCache != null) tickCache.clear();
+    }
+
     
     
     
@@ -1007,6 +1113,7 @@ public class NumberAxis extends ValueAxis implements Cloneable, Serializable {
             clone.numberFormatOverride
                 = (NumberFormat) this.numberFormatOverride.clone();
         }
+        clone.tickCache = null;
         
         return clone;
     }
@@ -0,0 +1,129 @@
+package org.jfree.chart.axis;
+
+import java.text.Format;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the tick computations of an axis from one refresh to the next,
+ * so that redrawing an axis whose range only shifted (as during a pan) does
+ * not repeat the work for the ticks that are still visible.
+ * <P>
+ * Three things are cached, all dropped when the context changes (the axis
+ * settings that ticks and labels depend on):
+ * <ul>
+ * <li>the auto-selected tick unit, keyed by what the selection depends on;</li>
+ * <li>the ticks of the last refresh, keyed by range and unit;</li>
+ * <li>a small LRU of per-tick entries (labels or whole ticks) for one tick
+ * unit, keyed by tick value.</li>
+ * </ul>
+ * An axis holds its cache in a transient field, so copies of the axis start
+ * with an empty cache.
+ */
+final class TickCache {
+	/** The most per-tick entries kept. */
+	static final int MAX_ENTRIES = 256;
+
+	/** The settings the cached values depend on. */
+	private Object[] context;
+
+	/** The tick unit of the per-tick entries. */
+	private TickUnit entryUnit;
+
+	/** The per-tick entries, least recently used first. */
+	private final Map<Long, Object> entries = new LinkedHashMap<Long, Object>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/** The key and result of the last tick unit selection. */
+	private Object[] unitKey;
+	private TickUnit unit;
+
+	/** The key and result of the last refresh. */
+	private Object[] ticksKey;
+	private List<Tick> ticks;
+
+	/**
+	 * Sets the context, clearing the cache if it differs from the last one.
+	 * Formats in the context are copied, so that a format changed in place
+	 * is seen as a new context.
+	 *
+	 * @param context  the settings the cached values depend on.
+	 */
+	void setContext(Object... context) {
+		if(Arrays.equals(this.context, context)) return;
+
+		for(int i = 0; i < context.length; i++) {
+			if(context[i] instanceof Format) context[i] = ((Format) context[i]).clone();
+		}
+		this.context = context;
+		clear();
+	}
+
+	/**
+	 * Clears the cache, keeping the context.
+	 */
+	void clear() {
+		entries.clear();
+		entryUnit 	= null;
+		unitKey 	= null;
+		unit 		= null;
+		ticksKey 	= null;
+		ticks 		= null;
+	}
+
+	/**
+	 * Returns the tick unit selected for the same key last time, or
+	 * {@code null}.
+	 */
+	TickUnit getUnit(Object... key) {
+		return Arrays.equals(unitKey, key) ? unit : null;
+	}
+
+	void putUnit(TickUnit unit, Object... key) {
+		this.unit 	= unit;
+		unitKey 	= key;
+	}
+
+	/**
+	 * Returns a copy of the ticks of the last refresh if it had the same key,
+	 * or {@code null}.
+	 */
+	List<Tick> getTicks(Object... key) {
+		return Arrays.equals(ticksKey, key) ? new ArrayList<>(ticks) : null;
+	}
+
+	void putTicks(List<? extends Tick> ticks, Object... key) {
+		this.ticks 	= new ArrayList<>(ticks);
+		ticksKey 	= key;
+	}
+
+	/**
+	 * Returns the entry for a tick value, or {@code null}.  Entries for
+	 * another tick unit are dropped.
+	 */
+	Object getEntry(TickUnit unit, long key) {
+		if(!unit.equals(entryUnit)) {
+			entries.clear();
+			entryUnit = unit;
+
+			return null;
+		}
+
+		return entries.get(key);
+	}
+
+	void putEntry(TickUnit unit, long key, Object value) {
+		if(!unit.equals(entryUnit)) {
+			entries.clear();
+			entryUnit = unit;
+		}
+		entries.put(key, value);
+	}
+}
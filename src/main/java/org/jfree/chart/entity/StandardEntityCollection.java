@@ -50,17 +50,31 @@
 
 package org.jfree.chart.entity;
 
+import java.awt.geom.Rectangle2D;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import org.jfree.chart.util.ObjectUtils;
 import org.jfree.chart.util.Args;
 import org.jfree.chart.util.PublicCloneable;
 
 /**
  * A standard implementation of the {@link EntityCollection} interface.
+ * <P>
+ * The entities are indexed by their bounds in a uniform grid as they are
+ * added, so that {@link #getEntity(double, double)} and
+ * {@link #getEntities(Rectangle2D)} only test the entities near the point
+ * or rectangle rather than every entity in the collection.  Entities that
+ * cover a large part of the chart (the chart and plot backgrounds, for
+ * example) are kept in a short separate list and always tested.  The area
+ * of an entity should not be changed after it has been added.
  */
 public class StandardEntityCollection implements EntityCollection,
         Cloneable, PublicCloneable, Serializable {
@@ -68,9 +82,27 @@ public class StandardEntityCollection implements EntityCollection,
     /** For serialization. */
     private static final long serialVersionUID = 5384773031184897047L;
 
+    /** The width and height of a grid cell, in Java2D units. */
+    private static final double CELL_SIZE = 32.0;
+
+    /** Entities whose bounds span more cells than this are not gridded. */
+    private static final int MAX_CELLS = 64;
+
     /** Storage for the entities. */
     private List entities;
 
+    /**
+     * The indices of the entities whose bounds touch each grid cell, in
+     * ascending order, keyed by the packed cell coordinates.
+     */
+    private transient Map<Long, IndexList> cells;
+
+    /** The indices of the entities too large for the grid. */
+    private transient IndexList large;
+
+    /** The number of entities (from the start of the list) indexed so far. */
+    private transient int indexed;
+
     /**
      * Constructs a new entity collection (initially empty).
      */
@@ -108,6 +140,9 @@ public class StandardEntityCollection implements EntityCollection,
     @Override
     public void clear() {
         this.entities.clear();
+        this.cells = null;
+        this.large = null;
+        this.indexed = 0;
     }
 
     /**
@@ -119,6 +154,7 @@ public class StandardEntityCollection implements EntityCollection,
     public void add(ChartEntity entity) {
         Args.nullNotPermitted(entity, "entity");
         this.entities.add(entity);
+        updateIndex();
     }
 
     /**
@@ -130,6 +166,7 @@ public class StandardEntityCollection implements EntityCollection,
     @Override
     public void addAll(EntityCollection collection) {
         this.entities.addAll(collection.getEntities());
+        updateIndex();
     }
 
     /**
@@ -143,14 +180,66 @@ public class StandardEntityCollection implements EntityCollection,
      */
     @Override
     public ChartEntity getEntity(double x, double y) {
-        int entityCount = this.entities.size();
-        for (int i = entityCount - 1; i >= 0; i--) {
+        updateIndex();
+        int best = -1;
+        IndexList cell = this.cells.get(cellKey(cellOf(x), cellOf(y)));
+        if (cell != null) {
+            best = lastContaining(cell, -1, x, y);
+        }
+        best = lastContaining(this.large, best, x, y);
+        return best >= 0 ? (ChartEntity) this.entities.get(best) : null;
+    }
+
+    /**
+     * Returns the entities with an area that intersects the specified
+     * rectangle, in the order they were added.
+     *
+     * @param area  the rectangle in Java2D space ({@code null} not
+     *     permitted).
+     *
+     * @return A new list of the entities (possibly empty).
+     */
+    public List<ChartEntity> getEntities(Rectangle2D area) {
+        Args.nullNotPermitted(area, "area");
+        updateIndex();
+        List<ChartEntity> result = new ArrayList<>();
+        if (area.isEmpty()) {
+            return result;
+        }
+        BitSet candidates = new BitSet(this.entities.size());
+        this.large.addTo(candidates);
+        int x0 = cellOf(area.getMinX());
+        int x1 = cellOf(area.getMaxX());
+        int y0 = cellOf(area.getMinY());
+        int y1 = cellOf(area.getMaxY());
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) <= this.cells.size()) {
+            for (int cx = x0; cx <= x1; cx++) {
+                for (int cy = y0; cy <= y1; cy++) {
+                    IndexList cell = this.cells.get(cellKey(cx, cy));
+                    if (cell != null) {
+                        cell.addTo(candidates);
+                    }
+                }
+            }
+        } else {
+            // the rectangle covers more cells than are occupied
+            for (Map.Entry<Long, IndexList> entry : this.cells.entrySet()) {
+                long key = entry.getKey();
+                int cx = (int) (key >> 32);
+                int cy = (int) key;
+                if (cx >= x0 && cx <= x1 && cy >= y0 && cy <= y1) {
+                    entry.getValue().addTo(candidates);
+                }
+            }
+        }
+        for (int i = candidates.nextSetBit(0); i >= 0;
+                i = candidates.nextSetBit(i + 1)) {
             ChartEntity entity = (ChartEntity) this.entities.get(i);
-            if (entity.getArea().contains(x, y)) {
-                return entity;
+            if (entity.getArea().intersects(area)) {
+                result.add(entity);
             }
         }
-        return null;
+        return result;
     }
 
     /**
@@ -164,13 +253,104 @@ public class StandardEntityCollection implements EntityCollection,
     }
 
     /**
-     * Returns an iterator for the entities in the collection.
+     * Returns an iterator for the entities in the collection.  Removing an
+     * entity through the iterator discards the grid index, which is rebuilt
+     * by the next query.
      *
      * @return An iterator.
      */
     @Override
     public Iterator iterator() {
-        return this.entities.iterator();
+        final Iterator iterator = this.entities.iterator();
+        return new Iterator() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Object next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                // the indices of the later entities have moved down
+                StandardEntityCollection.this.cells = null;
+            }
+        };
+    }
+
+    /**
+     * Indexes the entities added since the last call.
+     */
+    private void updateIndex() {
+        if (this.cells == null) {
+            this.cells = new HashMap<Long, IndexList>();
+            this.large = new IndexList();
+            this.indexed = 0;
+        }
+        int count = this.entities.size();
+        for (; this.indexed < count; this.indexed++) {
+            ChartEntity entity = (ChartEntity) this.entities.get(this.indexed);
+            Rectangle2D bounds = entity.getArea().getBounds2D();
+            double minX = bounds.getMinX();
+            double maxX = bounds.getMaxX();
+            double minY = bounds.getMinY();
+            double maxY = bounds.getMaxY();
+            if (!(maxX - minX <= CELL_SIZE * MAX_CELLS
+                    && maxY - minY <= CELL_SIZE * MAX_CELLS)) {
+                // also catches NaN and infinite bounds
+                this.large.add(this.indexed);
+                continue;
+            }
+            int x0 = cellOf(minX);
+            int x1 = cellOf(maxX);
+            int y0 = cellOf(minY);
+            int y1 = cellOf(maxY);
+            if ((x1 - x0 + 1) * (y1 - y0 + 1) > MAX_CELLS) {
+                this.large.add(this.indexed);
+                continue;
+            }
+            for (int cx = x0; cx <= x1; cx++) {
+                for (int cy = y0; cy <= y1; cy++) {
+                    Long key = cellKey(cx, cy);
+                    IndexList cell = this.cells.get(key);
+                    if (cell == null) {
+                        cell = new IndexList();
+                        this.cells.put(key, cell);
+                    }
+                    cell.add(this.indexed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the highest entity index in {@code list} above {@code best}
+     * whose area contains the point, or {@code best} if there is none.
+     */
+    private int lastContaining(IndexList list, int best, double x, double y) {
+        for (int i = list.size - 1; i >= 0; i--) {
+            int index = list.indices[i];
+            if (index <= best) {
+                break;
+            }
+            ChartEntity entity = (ChartEntity) this.entities.get(index);
+            if (entity.getArea().contains(x, y)) {
+                return index;
+            }
+        }
+        return best;
+    }
+
+    private static int cellOf(double v) {
+        return (int) Math.floor(v / CELL_SIZE);
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
     }
 
     /**
@@ -208,7 +388,35 @@ public class StandardEntityCollection implements EntityCollection,
             ChartEntity entity = (ChartEntity) this.entities.get(i);
             clone.entities.add(entity.clone());
         }
+        // the clone indexes its own entities when first queried
+        clone.cells = null;
+        clone.large = null;
+        clone.indexed = 0;
         return clone;
     }
 
+    /**
+     * A growable list of entity indices.
+     */
+    private static final class IndexList {
+
+        int[] indices = new int[4];
+
+        int size;
+
+        void add(int index) {
+            if (this.size == this.indices.length) {
+                this.indices = Arrays.copyOf(this.indices,
+                        this.size * 2);
+            }
+            this.indices[this.size++] = index;
+        }
+
+        void addTo(BitSet set) {
+            for (int i = 0; i < this.size; i++) {
+                set.set(this.indices[i]);
+            }
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 package org.jfree.chart.event;
 
 import org.jfree.chart.plot.Plot;
+import org.jfree.data.general.DatasetChangeEvent;
 
 /**
  * An event that can be forwarded to any
@@ -13,6 +14,9 @@ public class PlotChangeEvent extends ChartChangeEvent {
 	/** The plot that generated the event. */
     private Plot plot;
 
+    /** The dataset change that caused this event (may be null). */
+    private DatasetChangeEvent datasetChangeEvent;
+
     /**
      * Creates a new PlotChangeEvent.
      *
@@ -24,6 +28,21 @@ public class PlotChangeEvent extends ChartChangeEvent {
     	this.plot = plot;
     }
 
+    /**
+     * Creates a new PlotChangeEvent for a change to one of the plot's
+     * datasets.  The event type is
+     * {@link ChartChangeEventType#DATASET_UPDATED}.
+     *
+     * @param plot  the plot that generated the event.
+     * @param datasetChangeEvent  the dataset change ({@code null} permitted).
+     */
+    public PlotChangeEvent(Plot plot, DatasetChangeEvent datasetChangeEvent) {
+    	this(plot);
+
+    	this.datasetChangeEvent = datasetChangeEvent;
+    	setType(ChartChangeEventType.DATASET_UPDATED);
+    }
+
     /**
      * Returns the plot that generated the event.
      *
@@ -32,4 +51,16 @@ public class PlotChangeEvent extends ChartChangeEvent {
 	public Plot getPlot() {
         return plot;
 	}
+
+    /**
+     * Returns the dataset change that caused this event, if any.  Listeners
+     * can use it to tell a change to a single item (a
+     * {@link org.jfree.data.general.DatasetItemChangeEvent}) from other
+     * changes.
+     *
+     * @return The dataset change (possibly {@code null}).
+     */
+    public DatasetChangeEvent getDatasetChangeEvent() {
+        return datasetChangeEvent;
+    }
 }
@@ -3,6 +3,7 @@ package org.jfree.chart.plot;
 import java.awt.Graphics2D;
 import java.awt.geom.*;
 import java.util.*;
+import org.jfree.chart.ChartHints;
 import org.jfree.chart.LegendItemCollection;
 import org.jfree.chart.axis.*;
 import org.jfree.chart.event.*;
@@ -364,14 +365,17 @@ public class CombinedDomainXYPlot extends XYPlot implements PlotChangeListener {
         // set the width and height of non-shared axis of all sub-plots
         setFixedRangeAxisSpaceForSubplots(space);
 
-        // draw the shared axis
-        ValueAxis axis = getDomainAxis();
-        RectangleEdge edge = getDomainAxisEdge();
-        double cursor = RectangleEdge.coordinate(dataArea, edge);
-        AxisState axisState = axis.draw(g2, cursor, area, dataArea, edge, info);
-        if(parentState == null) parentState = new PlotState();
+        // the shared axis belongs to the background layer
+        boolean background = g2.getRenderingHint(ChartHints.KEY_LAYER) != Layer.FOREGROUND;
+        if(background) {
+            ValueAxis axis = getDomainAxis();
+            RectangleEdge edge = getDomainAxisEdge();
+            double cursor = RectangleEdge.coordinate(dataArea, edge);
+            AxisState axisState = axis.draw(g2, cursor, area, dataArea, edge, info);
+            if(parentState == null) parentState = new PlotState();
 
-        parentState.getSharedAxisStates().put(axis, axisState);
+            parentState.getSharedAxisStates().put(axis, axisState);
+        }
 
         // draw all the subplots
         for(int i = 0; i < subplots.size(); i++) {
@@ -379,8 +383,12 @@ public class CombinedDomainXYPlot extends XYPlot implements PlotChangeListener {
         	
         	PlotRenderingInfo subplotInfo = null;
             if(info != null) {
-                subplotInfo = new PlotRenderingInfo(info.getOwner());
-                info.addSubplotInfo(subplotInfo);
+                // a foreground pass adds to the info from the background pass
+                if(i < info.getSubplotCount()) subplotInfo = info.getSubplotInfo(i);
+                else {
+                    subplotInfo = new PlotRenderingInfo(info.getOwner());
+                    info.addSubplotInfo(subplotInfo);
+                }
             }
             
             plot.draw(g2, subplotAreas[i], anchor, parentState, subplotInfo);
@@ -108,6 +108,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import org.jfree.chart.ChartHints;
 import org.jfree.chart.LegendItemCollection;
 import org.jfree.chart.axis.AxisSpace;
 import org.jfree.chart.axis.AxisState;
@@ -116,6 +117,7 @@ import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.event.PlotChangeEvent;
 import org.jfree.chart.event.PlotChangeListener;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
+import org.jfree.chart.ui.Layer;
 import org.jfree.chart.ui.RectangleEdge;
 import org.jfree.chart.ui.RectangleInsets;
 import org.jfree.chart.util.ObjectUtils;
@@ -409,24 +411,32 @@ public class CombinedRangeXYPlot extends XYPlot implements PlotChangeListener {
         // set the width and height of non-shared axis of all sub-plots
         setFixedDomainAxisSpaceForSubplots(space);
 
-        // draw the shared axis
-        ValueAxis axis = getRangeAxis();
-        RectangleEdge edge = getRangeAxisEdge();
-        double cursor = RectangleEdge.coordinate(dataArea, edge);
-        AxisState axisState = axis.draw(g2, cursor, area, dataArea, edge, info);
+        // the shared axis belongs to the background layer
+        boolean background = g2.getRenderingHint(ChartHints.KEY_LAYER) != Layer.FOREGROUND;
+        if (background) {
+            ValueAxis axis = getRangeAxis();
+            RectangleEdge edge = getRangeAxisEdge();
+            double cursor = RectangleEdge.coordinate(dataArea, edge);
+            AxisState axisState = axis.draw(g2, cursor, area, dataArea, edge, info);
 
-        if (parentState == null) {
-            parentState = new PlotState();
+            if (parentState == null) {
+                parentState = new PlotState();
+            }
+            parentState.getSharedAxisStates().put(axis, axisState);
         }
-        parentState.getSharedAxisStates().put(axis, axisState);
 
         // draw all the charts
         for (int i = 0; i < this.subplots.size(); i++) {
             XYPlot plot = (XYPlot) this.subplots.get(i);
             PlotRenderingInfo subplotInfo = null;
             if (info != null) {
-                subplotInfo = new PlotRenderingInfo(info.getOwner());
-                info.addSubplotInfo(subplotInfo);
+                // a foreground pass adds to the info from the background pass
+                if (i < info.getSubplotCount()) {
+                    subplotInfo = info.getSubplotInfo(i);
+                } else {
+                    subplotInfo = new PlotRenderingInfo(info.getOwner());
+                    info.addSubplotInfo(subplotInfo);
+                }
             }
             plot.draw(g2, this.subplotAreas[i], anchor, parentState,
                     subplotInfo);
@@ -33,7 +33,6 @@ import org.jfree.chart.event.AnnotationChangeEvent;
 import org.jfree.chart.event.AnnotationChangeListener;
 import org.jfree.chart.event.AxisChangeEvent;
 import org.jfree.chart.event.AxisChangeListener;
-import org.jfree.chart.event.ChartChangeEventType;
 import org.jfree.chart.event.MarkerChangeEvent;
 import org.jfree.chart.event.MarkerChangeListener;
 import org.jfree.chart.event.PlotChangeEvent;
@@ -1132,11 +1131,7 @@ public abstract class Plot implements AxisChangeListener, DatasetChangeListener,
      */
     @Override
     public void datasetChanged(DatasetChangeEvent event) {
-        PlotChangeEvent newEvent = new PlotChangeEvent(this);
-        
-        newEvent.setType(ChartChangeEventType.DATASET_UPDATED);
-        
-        notifyListeners(newEvent);
+        notifyListeners(new PlotChangeEvent(this, event));
     }
 
     /**
@@ -30,6 +30,7 @@ import java.util.Map.Entry;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.TreeMap;
+import org.jfree.chart.ChartHints;
 import org.jfree.chart.JFreeChart;
 
 import org.jfree.chart.LegendItem;
@@ -46,7 +47,6 @@ import org.jfree.chart.axis.TickType;
 import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.axis.ValueTick;
 import org.jfree.chart.event.AnnotationChangeEvent;
-import org.jfree.chart.event.ChartChangeEventType;
 import org.jfree.chart.event.PlotChangeEvent;
 import org.jfree.chart.event.RendererChangeEvent;
 import org.jfree.chart.event.RendererChangeListener;
@@ -2849,6 +2849,13 @@ public class XYPlot extends Plot implements
         boolean b2 = (area.getHeight() <= MINIMUM_HEIGHT_TO_DRAW);
         if(b1 || b2) return;
 
+        // when only part of a chart is redrawn (without collecting rendering
+        // info), a plot that lies wholly outside the clip is skipped
+        if(info == null) {
+            Shape clip = g2.getClip();
+            if(clip != null && !clip.intersects(area)) return;
+        }
+
         // record the plot area...
         if(info != null) info.setPlotArea(area);
 
@@ -2863,12 +2870,20 @@ public class XYPlot extends Plot implements
         dataArea = integerise(dataArea);
         if(dataArea.isEmpty()) return;
 
-        createAndAddEntity((Rectangle2D) dataArea.clone(), info, null, null);
+        // with a layer hint, only the background or the foreground is drawn
+        Object layer = g2.getRenderingHint(ChartHints.KEY_LAYER);
+        boolean background = layer != Layer.FOREGROUND;
+        boolean foreground = layer != Layer.BACKGROUND;
+
+        if(background) createAndAddEntity((Rectangle2D) dataArea.clone(), info, null, null);
         if(info != null) info.setDataArea(dataArea);
 
         // draw the plot background and axes...
-        drawBackground(g2, dataArea);
-        Map axisStateMap = drawAxes(g2, area, dataArea, info);
+        Map axisStateMap = null;
+        if(background) {
+            drawBackground(g2, dataArea);
+            axisStateMap = drawAxes(g2, area, dataArea, info);
+        }
 
         PlotOrientation orient = getOrientation();
 
@@ -2919,71 +2934,68 @@ public class XYPlot extends Plot implements
         g2.clip(dataArea);
         g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, getForegroundAlpha()));
 
-        AxisState domainAxisState = (AxisState) axisStateMap.get(getDomainAxis());
-        if(domainAxisState == null) {
-            if(parentState != null) {
-                domainAxisState = (AxisState) parentState.getSharedAxisStates().get(getDomainAxis());
+        // with a shadow generator, the background markers and annotations
+        // are drawn with the data so that they cast shadows too
+        boolean suppressShadow = Boolean.TRUE.equals(g2.getRenderingHint(JFreeChart.KEY_SUPPRESS_SHADOW_GENERATION));
+        boolean shadows = shadowGenerator != null && !suppressShadow;
+
+        DatasetRenderingOrder order = getDatasetRenderingOrder();
+        List<Integer> rendererIndices = getRendererIndices(order);
+
+        if(background) {
+            AxisState domainAxisState = (AxisState) axisStateMap.get(getDomainAxis());
+            if(domainAxisState == null) {
+                if(parentState != null) {
+                    domainAxisState = (AxisState) parentState.getSharedAxisStates().get(getDomainAxis());
+                }
             }
-        }
 
-        AxisState rangeAxisState = (AxisState) axisStateMap.get(getRangeAxis());
-        if(rangeAxisState == null) {
-            if(parentState != null) {
-                rangeAxisState = (AxisState) parentState.getSharedAxisStates().get(getRangeAxis());
+            AxisState rangeAxisState = (AxisState) axisStateMap.get(getRangeAxis());
+            if(rangeAxisState == null) {
+                if(parentState != null) {
+                    rangeAxisState = (AxisState) parentState.getSharedAxisStates().get(getRangeAxis());
+                }
             }
+            if(domainAxisState != null) {
+                drawDomainTickBands(g2, dataArea, domainAxisState.getTicks());
+            }
+            if(rangeAxisState != null) {
+                drawRangeTickBands(g2, dataArea, rangeAxisState.getTicks());
+            }
+            if(domainAxisState != null) {
+                drawDomainGridlines(g2, dataArea, domainAxisState.getTicks());
+                drawZeroDomainBaseline(g2, dataArea);
+            }
+            if(rangeAxisState != null) {
+                drawRangeGridlines(g2, dataArea, rangeAxisState.getTicks());
+                drawZeroRangeBaseline(g2, dataArea);
+            }
+
+            if(!shadows) drawBackgroundMarkersAndAnnotations(g2, dataArea, rendererIndices, info);
         }
-        if(domainAxisState != null) {
-            drawDomainTickBands(g2, dataArea, domainAxisState.getTicks());
-        }
-        if(rangeAxisState != null) {
-            drawRangeTickBands(g2, dataArea, rangeAxisState.getTicks());
-        }
-        if(domainAxisState != null) {
-            drawDomainGridlines(g2, dataArea, domainAxisState.getTicks());
-            drawZeroDomainBaseline(g2, dataArea);
-        }
-        if(rangeAxisState != null) {
-            drawRangeGridlines(g2, dataArea, rangeAxisState.getTicks());
-            drawZeroRangeBaseline(g2, dataArea);
+
+        if(!foreground) {
+            g2.setClip(originalClip);
+            g2.setComposite(originalComposite);
+
+            return;
         }
 
         Graphics2D savedG2 = g2;
         BufferedImage dataImage = null;
-        boolean suppressShadow = Boolean.TRUE.equals(g2.getRenderingHint(JFreeChart.KEY_SUPPRESS_SHADOW_GENERATION));
-        if(shadowGenerator != null && !suppressShadow) {
+        if(shadows) {
             dataImage = new BufferedImage((int) dataArea.getWidth(), (int)dataArea.getHeight(), BufferedImage.TYPE_INT_ARGB);
             g2 = dataImage.createGraphics();
             g2.translate(-dataArea.getX(), -dataArea.getY());
             g2.setRenderingHints(savedG2.getRenderingHints());
+            if(g2.getRenderingHint(ChartHints.KEY_RASTER_TARGET) != null) g2.setRenderingHint(ChartHints.KEY_RASTER_TARGET, dataImage);
         }
 
-        // draw the markers that are associated with a specific dataset...
-        for(XYDataset dataset: datasets.values()) {
-            int datasetIndex = indexOf(dataset);
-            drawDomainMarkers(g2, dataArea, datasetIndex, Layer.BACKGROUND);
-        }
-        
-        for(XYDataset dataset: datasets.values()) {
-            int datasetIndex = indexOf(dataset);
-            drawRangeMarkers(g2, dataArea, datasetIndex, Layer.BACKGROUND);
-        }
+        if(shadows) drawBackgroundMarkersAndAnnotations(g2, dataArea, rendererIndices, info);
 
-        // now draw annotations and render data items...
         boolean foundData = false;
-        DatasetRenderingOrder order = getDatasetRenderingOrder();
-        List<Integer> rendererIndices = getRendererIndices(order);
         List<Integer> datasetIndices = getDatasetIndices(order);
 
-        // draw background annotations
-        for(int i : rendererIndices) {
-            XYItemRenderer renderer = getRenderer(i);
-            if(renderer != null) {
-                ValueAxis domainAxis = getDomainAxisForDataset(i);
-                ValueAxis rangeAxis = getRangeAxisForDataset(i);
-                renderer.drawAnnotations(g2, dataArea, domainAxis, rangeAxis, Layer.BACKGROUND, info);
-            }
-        }
-
         // render data items...
         for(int datasetIndex : datasetIndices) {
             XYDataset dataset = this.getDataset(datasetIndex);
@@ -3226,6 +3238,39 @@ public class XYPlot extends Plot implements
         }
     }
 
+    /**
+     * Draws the markers and annotations that belong in the background layer
+     * of the data area.
+     *
+     * @param g2  the graphics device.
+     * @param dataArea  the data area.
+     * @param rendererIndices  the renderer indices, in rendering order.
+     * @param info  collects chart drawing information ({@code null}
+     *              permitted).
+     */
+    private void drawBackgroundMarkersAndAnnotations(Graphics2D g2, Rectangle2D dataArea, List<Integer> rendererIndices, PlotRenderingInfo info) {
+        // draw the markers that are associated with a specific dataset...
+        for(XYDataset dataset: datasets.values()) {
+            int datasetIndex = indexOf(dataset);
+            drawDomainMarkers(g2, dataArea, datasetIndex, Layer.BACKGROUND);
+        }
+        
+        for(XYDataset dataset: datasets.values()) {
+            int datasetIndex = indexOf(dataset);
+            drawRangeMarkers(g2, dataArea, datasetIndex, Layer.BACKGROUND);
+        }
+
+        // draw background annotations
+        for(int i : rendererIndices) {
+            XYItemRenderer renderer = getRenderer(i);
+            if(renderer != null) {
+                ValueAxis domainAxis = getDomainAxisForDataset(i);
+                ValueAxis rangeAxis = getRangeAxisForDataset(i);
+                renderer.drawAnnotations(g2, dataArea, domainAxis, rangeAxis, Layer.BACKGROUND, info);
+            }
+        }
+    }
+
     /**
      * Draws the domain tick bands, if any.
      *
@@ -4146,11 +4191,7 @@ public class XYPlot extends Plot implements
         configureRangeAxes();
         
         if(getParent() != null) getParent().datasetChanged(event);
-        else {
-            PlotChangeEvent e = new PlotChangeEvent(this);
-            e.setType(ChartChangeEventType.DATASET_UPDATED);
-            notifyListeners(e);
-        }
+        else notifyListeners(new PlotChangeEvent(this, event));
     }
 
     /**
@@ -46,10 +46,13 @@ package org.jfree.chart.renderer;
 
 import org.jfree.chart.util.Args;
 import org.jfree.data.DomainOrder;
+import org.jfree.data.xy.BarIndexDataset;
 import org.jfree.data.xy.XYDataset;
 
 /**
- * Utility methods related to the rendering process.
+ * Utility methods related to the rendering process.  For a
+ * {@link BarIndexDataset} the live items are found directly from the x-range
+ * rather than by searching.
  *
  * @since 1.0.6
  */
@@ -83,6 +86,10 @@ public class RendererUtils {
         if (itemCount <= 1) {
             return 0;
         }
+        if (dataset instanceof BarIndexDataset) {
+            // the x-value of each item is its index
+            return (int) Math.min(Math.max(Math.ceil(xLow), 0), itemCount - 1);
+        }
 
         if (dataset.getDomainOrder() == DomainOrder.ASCENDING) {
             // for data in ascending order by x-value, we are (broadly) looking
@@ -178,6 +185,9 @@ public class RendererUtils {
         if (itemCount <= 1) {
             return 0;
         }
+        if (dataset instanceof BarIndexDataset) {
+            return (int) Math.min(Math.max(Math.floor(xHigh), 0), itemCount - 1);
+        }
         if (dataset.getDomainOrder() == DomainOrder.ASCENDING) {
             int low = 0;
             int high = itemCount - 1;
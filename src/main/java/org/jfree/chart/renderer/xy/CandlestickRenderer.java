@@ -1,10 +1,12 @@
 package org.jfree.chart.renderer.xy;
 
 import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Composite;
 import java.awt.Graphics2D;
 import java.awt.Paint;
+import java.awt.Rectangle;
 import java.awt.Stroke;
 import java.awt.geom.Line2D;
 import java.awt.geom.Rectangle2D;
@@ -12,6 +14,9 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.entity.EntityCollection;
@@ -22,6 +27,7 @@ import org.jfree.chart.plot.CrosshairState;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.RendererUtils;
 import org.jfree.chart.ui.RectangleEdge;
 import org.jfree.chart.util.PaintUtils;
 import org.jfree.chart.util.Args;
@@ -29,6 +35,7 @@ import org.jfree.chart.util.PublicCloneable;
 import org.jfree.chart.util.SerialUtils;
 import org.jfree.data.Range;
 import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.data.xy.MultiResolutionOHLCDataset;
 import org.jfree.data.xy.OHLCDataset;
 import org.jfree.data.xy.XYDataset;
 
@@ -75,9 +82,6 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
     /** The maximum candlewidth in milliseconds. */
     private double maxCandleWidthInMilliseconds = 1000.0 * 60.0 * 60.0 * 20.0;
 
-    /** Temporary storage for the maximum candle width. */
-    private double maxCandleWidth;
-
     /**
      * The paint used to fill the candle when the price moved up from open to
      * close.
@@ -93,6 +97,31 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
     /** A flag controlling whether or not volume bars are drawn on the chart. */
     private boolean drawVolume;
 
+    /**
+     * A flag that controls whether the volume bars are scaled to the highest
+     * visible volume instead of the highest volume in the dataset.
+     */
+    private boolean volumeScaledToVisible;
+
+    /**
+     * A flag that controls whether bars falling into the same pixel column
+     * are merged into one candle before drawing.
+     */
+    private boolean levelOfDetail;
+
+    /**
+     * A flag that controls whether the candles of a series pass are
+     * collected into batches, one for each paint and stroke, and drawn at
+     * the end of the pass.
+     */
+    private boolean batchDrawing;
+
+    /**
+     * A flag that controls whether candles are drawn by setting the pixels
+     * of the chart image directly, where the graphics device permits it.
+     */
+    private boolean rasterDrawing;
+
     /**
      * The paint used to fill the volume bars (if they are visible).  Once
      * initialised, this field should never be set to {@code null}.
@@ -101,9 +130,6 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
      */
     private transient Paint volumePaint;
 
-    /** Temporary storage for the maximum volume. */
-    private transient double maxVolume;
-
     /**
      * A flag that controls whether or not the renderer's outline paint is
      * used to draw the outline of the candlestick.  The default value is
@@ -400,6 +426,11 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
      * Sets a flag that controls whether or not volume bars are drawn in the
      * background and sends a {@link RendererChangeEvent} to all registered
      * listeners.
+     * <P>
+     * By default the volume bars are scaled to the highest volume in the
+     * dataset, so their heights stay put while the chart is panned; this
+     * scans the whole dataset for every frame.  To scale them to the highest
+     * visible volume instead, see {@link #setVolumeScaledToVisible(boolean)}.
      *
      * @param flag  the flag.
      *
@@ -413,6 +444,148 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
     	}
     }
 
+    /**
+     * Returns the flag that controls whether the volume bars are scaled to
+     * the highest visible volume.  The default value is {@code false}.
+     *
+     * @return A boolean.
+     *
+     * @see #setVolumeScaledToVisible(boolean)
+     */
+    public boolean isVolumeScaledToVisible() {
+        return volumeScaledToVisible;
+    }
+
+    /**
+     * Sets the flag that controls whether the volume bars are scaled to the
+     * highest volume of the bars drawn in each series pass, instead of the
+     * highest volume in the dataset, and sends a {@link RendererChangeEvent}
+     * to all registered listeners.  Only the visible bars are scanned, so
+     * the cost of a frame does not grow with the length of the series, but
+     * the heights of the volume bars change as the chart is panned.
+     *
+     * @param flag  the flag.
+     *
+     * @see #isVolumeScaledToVisible()
+     * @see #setDrawVolume(boolean)
+     */
+    public void setVolumeScaledToVisible(boolean flag) {
+    	if(volumeScaledToVisible != flag) {
+    		volumeScaledToVisible = flag;
+
+            fireChangeEvent();
+    	}
+    }
+
+    /**
+     * Returns the flag that controls whether bars falling into the same pixel
+     * column are merged into a single candle (first open, highest high,
+     * lowest low, last close and total volume) before they are drawn.  The
+     * default value is {@code false}.
+     *
+     * @return A boolean.
+     *
+     * @see #setLevelOfDetail(boolean)
+     */
+    public boolean getLevelOfDetail() {
+        return levelOfDetail;
+    }
+
+    /**
+     * Sets the flag that controls whether bars falling into the same pixel
+     * column are merged into a single candle, and sends a
+     * {@link RendererChangeEvent} to all registered listeners.  Merging only
+     * happens when a series pass has more items than the data area has
+     * pixels.  If the dataset is a {@link MultiResolutionOHLCDataset}, the
+     * coarsest level with at least one bar per pixel is drawn instead of the
+     * base items.
+     *
+     * @param flag  the flag.
+     *
+     * @see #getLevelOfDetail()
+     */
+    public void setLevelOfDetail(boolean flag) {
+    	if(levelOfDetail != flag) {
+    		levelOfDetail = flag;
+
+            fireChangeEvent();
+    	}
+    }
+
+    /**
+     * Returns the flag that controls whether candles are drawn in batches.
+     *
+     * @return A boolean.
+     *
+     * @see #setBatchDrawing(boolean)
+     */
+    public boolean getBatchDrawing() {
+        return batchDrawing;
+    }
+
+    /**
+     * Sets the flag that controls whether candles are drawn in batches, and
+     * sends a {@link RendererChangeEvent} to all registered listeners.  When
+     * set, the volume bars, shadows, bodies and body outlines of a series
+     * pass are collected into one batch for each paint and stroke, without
+     * allocating shapes, and each batch is drawn at the end of the pass
+     * after a single paint and stroke change, so the graphics state changes
+     * a few times per series rather than several times per candle.  The
+     * batches are drawn layer by layer (volume bars, shadows, bodies, then
+     * outlines), so where candles overlap, a body may cover the shadow of
+     * a neighbouring candle.
+     *
+     * @param flag  the flag.
+     *
+     * @see #getBatchDrawing()
+     */
+    public void setBatchDrawing(boolean flag) {
+    	if(batchDrawing != flag) {
+    		batchDrawing = flag;
+
+            fireChangeEvent();
+    	}
+    }
+
+    /**
+     * Returns the flag that controls whether candles are drawn by setting
+     * the pixels of the chart image directly.
+     *
+     * @return A boolean.
+     *
+     * @see #setRasterDrawing(boolean)
+     */
+    public boolean getRasterDrawing() {
+        return rasterDrawing;
+    }
+
+    /**
+     * Sets the flag that controls whether candles are drawn by setting the
+     * pixels of the chart image directly, and sends a
+     * {@link RendererChangeEvent} to all registered listeners.  When set,
+     * and the chart is drawn onto an image named by the
+     * {@link org.jfree.chart.ChartHints#KEY_RASTER_TARGET} hint (as
+     * {@link org.jfree.chart.ChartPanel} does) with anti-aliasing off, the
+     * volume bars, shadows, bodies and body outlines are written straight
+     * into the pixels of the image, covering the same pixels that the
+     * graphics device would.  Shapes with a paint other than an opaque
+     * color, or a stroke other than a solid one without round caps, and
+     * wicks drawn with butt caps one pixel wide or less, are drawn through
+     * the graphics device as usual.  The flag can be
+     * combined with batch drawing.
+     *
+     * @param flag  the flag.
+     *
+     * @see #getRasterDrawing()
+     */
+    public void setRasterDrawing(boolean flag) {
+    	if(rasterDrawing != flag) {
+    		rasterDrawing = flag;
+
+            fireChangeEvent();
+    	}
+    }
+
     /**
      * Returns the paint that is used to fill the volume bars if they are
      * visible.
@@ -518,6 +691,8 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
     	XYDataset dataset,
     	PlotRenderingInfo info)
     {
+    	State state = new State(info);
+
         // calculate the maximum allowed candle width from the axis...
         ValueAxis axis 		=	plot.getDomainAxis();
         double x1 			=	axis.getLowerBound();
@@ -525,23 +700,235 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
         RectangleEdge edge 	=	plot.getDomainAxisEdge();
         double xx1 			=	axis.valueToJava2D(x1, dataArea, edge);
         double xx2 			=	axis.valueToJava2D(x2, dataArea, edge);
-        maxCandleWidth 		=	Math.abs(xx2 - xx1);
+        state.maxCandleWidth =	Math.abs(xx2 - xx1);
             					// Absolute value, since the relative x
             					// positions are reversed for horizontal orientation
 
         // calculate the highest volume in the dataset...
+        if(drawVolume && !volumeScaledToVisible) state.datasetMaxVolume = findMaxVolume((OHLCDataset) dataset);
+
+        return state;
+    }
+
+    /**
+     * Calculates the candle and volume bar widths for a series pass and
+     * stores them in the state.  The widths depend only on the items in the
+     * pass (the visible window, when the plot passes visible items only), so
+     * they are calculated once per pass rather than once per item.
+     *
+     * @param g2  the graphics device.
+     * @param state  the renderer state.
+     * @param dataArea  the area within which the plot is being drawn.
+     * @param plot  the plot.
+     * @param domainAxis  the domain axis.
+     * @param dataset  the dataset.
+     * @param series  the series index (zero-based).
+     */
+    private void calculateSeriesWidths(
+    	Graphics2D g2,
+    	State state,
+    	Rectangle2D dataArea,
+    	XYPlot plot,
+    	ValueAxis domainAxis,
+    	XYDataset dataset,
+    	int series)
+    {
+    	state.widthsValid = true;
+    	state.widthsPerItem = false;
+    	state.barPending = false;
+    	state.batching = batchDrawing;
+    	state.raster = rasterDrawing ? RasterTarget.getInstance(g2) : null;
+    	state.passGraphics = batchDrawing || state.raster != null ? g2 : null;
+
+        boolean horiz = plot.getOrientation() == PlotOrientation.HORIZONTAL;
+        double available = horiz ? dataArea.getHeight() : dataArea.getWidth();
+        int firstItem = state.getFirstItemIndex();
+        int lastItem = Math.min(state.getLastItemIndex(), dataset.getItemCount(series) - 1);
+
+        // more bars than pixels?
+        state.decimating = levelOfDetail && lastItem - firstItem + 1 > available;
+        state.levelData = null;
+        if(state.decimating && dataset instanceof MultiResolutionOHLCDataset) {
+        	MultiResolutionOHLCDataset levels = (MultiResolutionOHLCDataset) dataset;
+        	double pixelSpan = domainAxis.getRange().getLength() / Math.max(available, 1);
+
+        	// the coarsest level that still has at least one bar per pixel
+        	for(int level = levels.getLevelCount() - 1; level > 0; level--) {
+        		if(levels.getLevelInterval(level) <= pixelSpan) {
+        			state.levelData = levels.getLevel(level);
+        			break;
+        		}
+        	}
+        }
+
         if(drawVolume) {
-        	OHLCDataset highLowDataset = (OHLCDataset) dataset;
-        	maxVolume = 0.0;
-        	for(int series = 0; series < highLowDataset.getSeriesCount(); series++) {
-                for(int item = 0; item < highLowDataset.getItemCount(series); item++) {
-                    double volume = highLowDataset.getVolumeValue(series, item);
-                    if(volume > maxVolume) maxVolume = volume;
-                }
-            }
+        	if(volumeScaledToVisible) state.maxVolume = findMaxVolume(state, dataArea, plot, domainAxis, (OHLCDataset) dataset, series, firstItem, lastItem);
+        	// merged bars add up the volumes of their pixel column, so they
+        	// must not be scaled to less than the highest merged volume
+        	else if(state.decimating) state.maxVolume = Math.max(state.datasetMaxVolume, findMaxVolume(state, dataArea, plot, domainAxis, (OHLCDataset) dataset, series, firstItem, lastItem));
+        	else state.maxVolume = state.datasetMaxVolume;
+        }
+
+        if(candleWidth > 0) {
+            // These are deliberately not bounded to minimums/maxCandleWidth to
+            //  retain old behaviour.
+            state.volumeWidth 	=	candleWidth;
+            state.stickWidth 	=	candleWidth;
+
+            return;
         }
 
-        return new XYItemRendererState(info);
+        if(state.decimating) {
+        	// one merged candle per pixel column
+        	setAutoWidths(state, 1.0);
+
+        	return;
+        }
+
+        double xxWidth = 0;
+
+        switch(autoWidthMethod) {
+            case WIDTHMETHOD_AVERAGE:	xxWidth = available / Math.max(lastItem - firstItem + 1, 1);
+
+            							break;
+
+            case WIDTHMETHOD_SMALLEST:	RectangleEdge domainEdge = plot.getDomainAxisEdge();
+					                    double lastPos = -1;
+					                    xxWidth = available;
+
+					                    for(int i = firstItem; i <= lastItem; i++) {
+					                        double pos = domainAxis.valueToJava2D(
+					                        							dataset.getXValue(series, i),
+					                        							dataArea,
+					                        							domainEdge
+					                        						);
+					                        if(lastPos != -1) xxWidth = Math.min(xxWidth, Math.abs(pos - lastPos));
+
+					                        lastPos = pos;
+					                    }
+
+					                    break;
+
+            case WIDTHMETHOD_INTERVALDATA:	// depends on each item's interval
+            								state.widthsPerItem = true;
+
+            								return;
+        }
+
+        setAutoWidths(state, xxWidth);
+    }
+
+    /**
+     * Returns the highest volume of all the items in a dataset.
+     *
+     * @param dataset  the dataset.
+     *
+     * @return The highest volume.
+     */
+    private double findMaxVolume(OHLCDataset dataset) {
+    	double maxVolume = 0.0;
+    	for(int series = 0; series < dataset.getSeriesCount(); series++) {
+    		for(int item = 0; item < dataset.getItemCount(series); item++) {
+    			double volume = dataset.getVolumeValue(series, item);
+    			if(volume > maxVolume) maxVolume = volume;
+    		}
+    	}
+
+    	return maxVolume;
+    }
+
+    /**
+     * Returns the highest volume of the bars drawn in a series pass.  Only
+     * the items passed to the renderer are scanned, so the cost of a frame
+     * does not grow with the length of the series.  When bars are merged per
+     * pixel column, the merged volumes are compared, so that a merged volume
+     * bar never rises above the plot.
+     *
+     * @param state  the renderer state.
+     * @param dataArea  the area within which the plot is being drawn.
+     * @param plot  the plot.
+     * @param domainAxis  the domain axis.
+     * @param dataset  the dataset.
+     * @param series  the series index (zero-based).
+     * @param firstItem  the index of the first item in the pass.
+     * @param lastItem  the index of the last item in the pass.
+     *
+     * @return The highest volume.
+     */
+    private double findMaxVolume(
+    	State state,
+    	Rectangle2D dataArea,
+    	XYPlot plot,
+    	ValueAxis domainAxis,
+    	OHLCDataset dataset,
+    	int series,
+    	int firstItem,
+    	int lastItem)
+    {
+    	OHLCDataset source = dataset;
+    	if(state.levelData != null) {
+    		source = state.levelData;
+    		int[] bounds = findLevelItems(source, series, domainAxis);
+    		firstItem = bounds[0];
+    		lastItem = bounds[1];
+    	}
+
+    	RectangleEdge edge = plot.getDomainAxisEdge();
+    	double maxVolume = 0.0;
+    	double column = Double.NaN;
+    	double volume = 0.0;
+
+    	for(int item = firstItem; item <= lastItem; item++) {
+    		double itemVolume = source.getVolumeValue(series, item);
+
+    		if(state.decimating) {
+    			double itemColumn = Math.floor(domainAxis.valueToJava2D(source.getXValue(series, item), dataArea, edge));
+    			if(itemColumn == column) {
+    				volume += itemVolume;
+    			}
+    			else {
+    				column = itemColumn;
+    				volume = itemVolume;
+    			}
+    		}
+    		else volume = itemVolume;
+
+    		if(volume > maxVolume) maxVolume = volume;
+    	}
+
+    	return maxVolume;
+    }
+
+    /**
+     * Returns the range of bars of a coarser level that are merged in a
+     * series pass: the bars within the domain axis range, plus one on each
+     * side.
+     *
+     * @param level  the level.
+     * @param series  the series index (zero-based).
+     * @param domainAxis  the domain axis.
+     *
+     * @return The indices of the first and last bar.
+     */
+    private int[] findLevelItems(OHLCDataset level, int series, ValueAxis domainAxis) {
+    	int[] bounds = RendererUtils.findLiveItems(level, series, domainAxis.getLowerBound(), domainAxis.getUpperBound());
+
+    	return new int[] {Math.max(bounds[0] - 1, 0), Math.min(bounds[1] + 1, level.getItemCount(series) - 1)};
+    }
+
+    /**
+     * Applies the gap, factor and limits to an automatically calculated
+     * width and stores the resulting candle and volume bar widths.
+     *
+     * @param state  the renderer state.
+     * @param xxWidth  the available width per item, in Java2D units.
+     */
+    private void setAutoWidths(State state, double xxWidth) {
+        xxWidth				-=	2 * autoWidthGap;
+        xxWidth				*=	autoWidthFactor;
+        xxWidth				=	Math.min(xxWidth, state.maxCandleWidth);
+        state.volumeWidth	=	Math.max(Math.min(1, state.maxCandleWidth), xxWidth);
+        state.stickWidth	=	Math.max(Math.min(3, state.maxCandleWidth), xxWidth);
     }
 
     /**
@@ -577,25 +964,203 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
     	CrosshairState crosshairState,
     	int pass)
     {
-    	boolean horiz;
-
     	PlotOrientation orientation = plot.getOrientation();
-    	
-    	if(orientation == PlotOrientation.HORIZONTAL) horiz = true;
-    	else if(orientation == PlotOrientation.VERTICAL) horiz = false;
-        else return;
+    	if(orientation != PlotOrientation.HORIZONTAL && orientation != PlotOrientation.VERTICAL) return;
 
-        // setup for collecting optional entity info...
-        EntityCollection entities = null;
-        if(info != null) entities = info.getOwner().getEntityCollection();
+        State candleState = (State) state;
+        if(!candleState.widthsValid) {
+        	calculateSeriesWidths(g2, candleState, dataArea, plot, domainAxis, dataset, series);
+
+        	// without entities to collect, candles outside the clip are skipped
+        	candleState.clipBounds = info == null ? g2.getClipBounds() : null;
+        }
 
         OHLCDataset highLowData = (OHLCDataset)dataset;
 
-        double x 		= highLowData.getXValue(series, item);
-        double yHigh 	= highLowData.getHighValue(series, item);
-        double yLow 	= highLowData.getLowValue(series, item);
-        double yOpen 	= highLowData.getOpenValue(series, item);
-        double yClose 	= highLowData.getCloseValue(series, item);
+        if(candleState.decimating) {
+        	decimateItem(g2, candleState, dataArea, info, plot, domainAxis, rangeAxis, highLowData, series, item);
+
+        	return;
+        }
+
+        drawCandle(
+        	g2, candleState, dataArea, info, plot, domainAxis, rangeAxis, dataset, series, item,
+        	highLowData.getXValue(series, item),
+        	highLowData.getOpenValue(series, item),
+        	highLowData.getHighValue(series, item),
+        	highLowData.getLowValue(series, item),
+        	highLowData.getCloseValue(series, item),
+        	highLowData.getVolumeValue(series, item)
+        );
+    }
+
+    /**
+     * Merges an item into the candle for its pixel column, drawing the
+     * previous candle when the column changes and the last candle at the end
+     * of the pass.  If the dataset supplies coarser levels, the bars of the
+     * most suitable level are merged instead, all on the first item of the
+     * pass.
+     */
+    private void decimateItem(
+    	Graphics2D g2,
+    	State state,
+    	Rectangle2D dataArea,
+    	PlotRenderingInfo info,
+    	XYPlot plot,
+    	ValueAxis domainAxis,
+    	ValueAxis rangeAxis,
+    	OHLCDataset dataset,
+    	int series,
+    	int item)
+    {
+    	if(state.levelData != null) {
+    		if(item == state.getFirstItemIndex()) {
+    			OHLCDataset level = state.levelData;
+    			int[] bounds = findLevelItems(level, series, domainAxis);
+
+    			for(int i = bounds[0]; i <= bounds[1]; i++) {
+    				mergeBar(
+    					g2, state, dataArea, info, plot, domainAxis, rangeAxis, dataset, series, -1,
+    					level.getXValue(series, i),
+    					level.getOpenValue(series, i),
+    					level.getHighValue(series, i),
+    					level.getLowValue(series, i),
+    					level.getCloseValue(series, i),
+    					level.getVolumeValue(series, i)
+    				);
+    			}
+    			flushBar(g2, state, dataArea, info, plot, domainAxis, rangeAxis, dataset, series);
+    		}
+
+    		return;
+    	}
+
+    	mergeBar(
+    		g2, state, dataArea, info, plot, domainAxis, rangeAxis, dataset, series, item,
+    		dataset.getXValue(series, item),
+    		dataset.getOpenValue(series, item),
+    		dataset.getHighValue(series, item),
+    		dataset.getLowValue(series, item),
+    		dataset.getCloseValue(series, item),
+    		dataset.getVolumeValue(series, item)
+    	);
+
+    	if(item >= state.getLastItemIndex()) {
+    		flushBar(g2, state, dataArea, info, plot, domainAxis, rangeAxis, dataset, series);
+    	}
+    }
+
+    /**
+     * Adds a bar to the pending merged candle, first drawing the pending
+     * candle if the bar falls into a different pixel column.
+     *
+     * @param item  the item index of the bar, or -1 if it does not come
+     *     directly from the dataset.
+     */
+    private void mergeBar(
+    	Graphics2D g2,
+    	State state,
+    	Rectangle2D dataArea,
+    	PlotRenderingInfo info,
+    	XYPlot plot,
+    	ValueAxis domainAxis,
+    	ValueAxis rangeAxis,
+    	OHLCDataset dataset,
+    	int series,
+    	int item,
+    	double x,
+    	double open,
+    	double high,
+    	double low,
+    	double close,
+    	double volume)
+    {
+    	double column = Math.floor(domainAxis.valueToJava2D(x, dataArea, plot.getDomainAxisEdge()));
+
+    	if(state.barPending && column != state.barColumn) {
+    		flushBar(g2, state, dataArea, info, plot, domainAxis, rangeAxis, dataset, series);
+    	}
+
+    	if(!state.barPending) {
+    		state.barPending 	= true;
+    		state.barColumn 	= column;
+    		state.barItem 		= item;
+    		state.barX 			= x;
+    		state.barOpen 		= open;
+    		state.barHigh 		= high;
+    		state.barLow 		= low;
+    		state.barClose 		= close;
+    		state.barVolume 	= volume;
+    	}
+    	else {
+    		if(high > state.barHigh) state.barHigh = high;
+    		if(low < state.barLow) state.barLow = low;
+    		state.barClose 		= close;
+    		state.barVolume 	+= volume;
+    	}
+    }
+
+    /**
+     * Draws the pending merged candle, if there is one.
+     */
+    private void flushBar(
+    	Graphics2D g2,
+    	State state,
+    	Rectangle2D dataArea,
+    	PlotRenderingInfo info,
+    	XYPlot plot,
+    	ValueAxis domainAxis,
+    	ValueAxis rangeAxis,
+    	OHLCDataset dataset,
+    	int series)
+    {
+    	if(!state.barPending) return;
+
+    	state.barPending = false;
+
+    	// paint and entity lookups need an item of the plot's dataset
+    	int item = state.barItem;
+    	if(item < 0) {
+    		item = Math.min(
+    			RendererUtils.findLiveItemsLowerBound(dataset, series, state.barX, Math.max(domainAxis.getUpperBound(), state.barX + 1)),
+    			dataset.getItemCount(series) - 1
+    		);
+    	}
+
+    	drawCandle(
+    		g2, state, dataArea, info, plot, domainAxis, rangeAxis, dataset, series, item,
+    		state.barX, state.barOpen, state.barHigh, state.barLow, state.barClose, state.barVolume
+    	);
+    }
+
+    /**
+     * Draws one candle (and its volume bar, if enabled).
+     *
+     * @param item  the item used for the paint, stroke and entity.
+     */
+    private void drawCandle(
+    	Graphics2D g2,
+    	State candleState,
+    	Rectangle2D dataArea,
+    	PlotRenderingInfo info,
+    	XYPlot plot,
+    	ValueAxis domainAxis,
+    	ValueAxis rangeAxis,
+    	XYDataset dataset,
+    	int series,
+    	int item,
+    	double x,
+    	double yOpen,
+    	double yHigh,
+    	double yLow,
+    	double yClose,
+    	double yVolume)
+    {
+        boolean horiz = plot.getOrientation() == PlotOrientation.HORIZONTAL;
+
+        // setup for collecting optional entity info...
+        EntityCollection entities = null;
+        if(info != null) entities = info.getOwner().getEntityCollection();
 
         RectangleEdge domainEdge = plot.getDomainAxisEdge();
         double xx = domainAxis.valueToJava2D(
@@ -610,66 +1175,23 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
         double yyOpen 	= rangeAxis.valueToJava2D(yOpen, dataArea, edge);
         double yyClose 	= rangeAxis.valueToJava2D(yClose, dataArea, edge);
 
-        double volumeWidth;
-        double stickWidth;
-
-        if(candleWidth > 0) {
-            // These are deliberately not bounded to minimums/maxCandleWidth to
-            //  retain old behaviour.
-            volumeWidth =	candleWidth;
-            stickWidth 	=	candleWidth;
+        if(candleState.widthsPerItem) {
+            IntervalXYDataset intervalXYData = (IntervalXYDataset) dataset;
+            double startPos =	domainAxis.valueToJava2D(
+            						intervalXYData.getStartXValue(series, item),
+            						dataArea,
+            						domainEdge
+            					);
+            double endPos = 	domainAxis.valueToJava2D(
+            						intervalXYData.getEndXValue(series, item),
+            						dataArea,
+            						domainEdge
+            					);
+            setAutoWidths(candleState, Math.abs(endPos - startPos));
         }
-        else {
-            double xxWidth = 0;
-            int itemCount;
-            
-            switch(autoWidthMethod) {
-                case WIDTHMETHOD_AVERAGE:	itemCount = highLowData.getItemCount(series);
-						                    if(horiz) xxWidth = dataArea.getHeight() / itemCount;
-						                    else xxWidth = dataArea.getWidth() / itemCount;
-
-						                    break;
-
-                case WIDTHMETHOD_SMALLEST:	// Note: It would be nice to pre-calculate this per series
-						                    itemCount = highLowData.getItemCount(series);
-						                    double lastPos = -1;
-						                    xxWidth = dataArea.getWidth();
-						                    
-						                    for(int i = 0; i < itemCount; i++) {
-						                        double pos = domainAxis.valueToJava2D(
-						                        							highLowData.getXValue(series, i),
-						                        							dataArea,
-						                        							domainEdge
-						                        						);
-						                        if(lastPos != -1) xxWidth = Math.min(xxWidth, Math.abs(pos - lastPos));
-						                        
-						                        lastPos = pos;
-						                    }
-						                    
-						                    break;
-
-                case WIDTHMETHOD_INTERVALDATA:	IntervalXYDataset intervalXYData = (IntervalXYDataset) dataset;
-							                    double startPos =	domainAxis.valueToJava2D(
-							                    						intervalXYData.getStartXValue(series, item),
-							                    						dataArea,
-							                    						plot.getDomainAxisEdge()
-							                    					);
-							                    double endPos = domainAxis.valueToJava2D(
-							                            						intervalXYData.getEndXValue(series, item),
-							                            						dataArea,
-							                            						plot.getDomainAxisEdge()
-							                            					);
-							                    xxWidth = Math.abs(endPos - startPos);
-
-							                    break;
-            }
 
-            xxWidth		-=	2 * autoWidthGap;
-            xxWidth		*=	autoWidthFactor;
-            xxWidth		=	Math.min(xxWidth, maxCandleWidth);
-            volumeWidth	=	Math.max(Math.min(1, maxCandleWidth), xxWidth);
-            stickWidth	=	Math.max(Math.min(3, maxCandleWidth), xxWidth);
-        }
+        double volumeWidth 	= candleState.volumeWidth;
+        double stickWidth 	= candleState.stickWidth;
 
         Paint p = getItemPaint(series, item);
         Paint outlinePaint = null;
@@ -677,11 +1199,23 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
 
         Stroke s = getItemStroke(series, item);
 
-        g2.setStroke(s);
+        Rectangle clip = candleState.clipBounds;
+        if(clip != null && s instanceof BasicStroke) {
+        	double extent = Math.max(stickWidth, volumeWidth) / 2 + ((BasicStroke) s).getLineWidth() + 1;
+        	double clipMin = horiz ? clip.getMinY() : clip.getMinX();
+        	double clipMax = horiz ? clip.getMaxY() : clip.getMaxX();
+
+        	if(xx + extent < clipMin || xx - extent > clipMax) return;
+        }
+
+        // the shapes go through the state to be batched or drawn into the
+        // raster
+        boolean collecting = candleState.passGraphics != null;
+        if(!collecting) g2.setStroke(s);
 
         if(drawVolume) {
-            int volume 			= (int) highLowData.getVolumeValue(series, item);
-            double volumeHeight = volume / maxVolume;
+            double volume 		= yVolume;
+            double volumeHeight = volume / candleState.maxVolume;
             
             double min, max;
             if(horiz) {
@@ -695,18 +1229,26 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
 
             double zzVolume = (volumeHeight * (max - min)) / 5;
 
-            g2.setPaint(getVolumePaint());
-            //Composite originalComposite = g2.getComposite();
-            //g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.3f));
+            if(collecting) {
+            	if(horiz) candleState.addRectangle(State.VOLUMES, getVolumePaint(), null, min, xx - volumeWidth / 2, zzVolume, volumeWidth);
+            	else candleState.addRectangle(State.VOLUMES, getVolumePaint(), null, xx - volumeWidth / 2, max - zzVolume, volumeWidth, zzVolume);
+            }
+            else {
+            	g2.setPaint(getVolumePaint());
+            	//Composite originalComposite = g2.getComposite();
+            	//g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.3f));
 
-            if(horiz) g2.fill(new Rectangle2D.Double(min, xx - volumeWidth / 2, zzVolume, volumeWidth));
-            else g2.fill(new Rectangle2D.Double(xx - volumeWidth / 2, max - zzVolume, volumeWidth, zzVolume));
+            	if(horiz) g2.fill(new Rectangle2D.Double(min, xx - volumeWidth / 2, zzVolume, volumeWidth));
+            	else g2.fill(new Rectangle2D.Double(xx - volumeWidth / 2, max - zzVolume, volumeWidth, zzVolume));
 
-            //g2.setComposite(originalComposite);
+            	//g2.setComposite(originalComposite);
+            }
         }
 
-        if(useOutlinePaint) g2.setPaint(outlinePaint);
-        else g2.setPaint(p);
+        if(!collecting) {
+        	if(useOutlinePaint) g2.setPaint(outlinePaint);
+        	else g2.setPaint(p);
+        }
 
         double yyMaxOpenClose 	= Math.max(yyOpen, yyClose);
         double yyMinOpenClose 	= Math.min(yyOpen, yyClose);
@@ -715,6 +1257,25 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
 
         //System.out.println("yOpen: "+yOpen+"; yClose: "+yClose+"; yHigh: "+yHigh+"; maxOpenClose: "+maxOpenClose);
 
+        if(collecting) {
+        	addCandle(
+        		candleState, horiz, p, outlinePaint, s, xx, stickWidth, yyHigh, yyLow, yyMaxOpenClose, yyMinOpenClose,
+        		yHigh > maxOpenClose, yLow < minOpenClose, yClose > yOpen
+        	);
+
+        	if(entities != null) {
+        		double length = Math.abs(yyHigh - yyLow);
+        		double base = Math.min(yyHigh, yyLow);
+        		Rectangle2D hotspot;
+        		if(horiz) hotspot = new Rectangle2D.Double(base, xx - stickWidth / 2, length, stickWidth);
+        		else hotspot = new Rectangle2D.Double(xx - stickWidth / 2, base, stickWidth, length);
+
+        		addEntity(entities, hotspot, dataset, series, item, 0.0, 0.0);
+        	}
+
+        	return;
+        }
+
         //draw the upper shadow
         if(yClose > yOpen) g2.setPaint(getUpPaint());
         else g2.setPaint(getDownPaint());
@@ -777,6 +1338,60 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
         }
     }
 
+    /**
+     * Adds the shadows, body and body outline of a candle to the batches of
+     * the series pass, or draws them into the raster, with the same
+     * geometry and paints that {@link #drawCandle} would draw them with.
+     */
+    private void addCandle(
+    	State state,
+    	boolean horiz,
+    	Paint itemPaint,
+    	Paint outlinePaint,
+    	Stroke stroke,
+    	double xx,
+    	double stickWidth,
+    	double yyHigh,
+    	double yyLow,
+    	double yyMaxOpenClose,
+    	double yyMinOpenClose,
+    	boolean upperShadow,
+    	boolean lowerShadow,
+    	boolean up)
+    {
+    	// drawCandle leaves the body or outline paint set if there is no
+    	// up or down paint
+    	Paint shadowPaint = up ? getUpPaint() : getDownPaint();
+    	if(shadowPaint == null) shadowPaint = useOutlinePaint ? outlinePaint : itemPaint;
+    	if(upperShadow) {
+    		if(horiz) state.addLine(State.SHADOWS, shadowPaint, stroke, yyHigh, xx, yyMaxOpenClose, xx);
+    		else state.addLine(State.SHADOWS, shadowPaint, stroke, xx, yyHigh, xx, yyMaxOpenClose);
+    	}
+    	if(lowerShadow) {
+    		if(horiz) state.addLine(State.SHADOWS, shadowPaint, stroke, yyLow, xx, yyMinOpenClose, xx);
+    		else state.addLine(State.SHADOWS, shadowPaint, stroke, xx, yyLow, xx, yyMinOpenClose);
+    	}
+
+    	Paint bodyPaint = up ? upPaint : downPaint;
+    	if(bodyPaint == null) bodyPaint = itemPaint;
+
+    	double x, y, w, h;
+    	if(horiz) {
+    		x = yyMinOpenClose;
+    		y = xx - stickWidth / 2;
+    		w = yyMaxOpenClose - yyMinOpenClose;
+    		h = stickWidth;
+    	}
+    	else {
+    		x = xx - stickWidth / 2;
+    		y = yyMinOpenClose;
+    		w = stickWidth;
+    		h = yyMaxOpenClose - yyMinOpenClose;
+    	}
+    	state.addRectangle(State.BODIES, bodyPaint, null, x, y, w, h);
+    	if(useOutlinePaint) state.addRectangle(State.OUTLINES, outlinePaint, stroke, x, y, w, h);
+    }
+
     
     
     
@@ -786,6 +1401,267 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
     
     
     
+    /**
+     * The state for a {@link CandlestickRenderer}.  It holds the candle
+     * geometry, which is calculated once per series pass instead of once
+     * per item.
+     */
+    public static class State extends XYItemRendererState {
+        /** The layers of the batches, in drawing order. */
+        static final int VOLUMES = 0, SHADOWS = 1, BODIES = 2, OUTLINES = 3;
+
+        /** The maximum candle width in Java2D units. */
+        private double maxCandleWidth;
+
+        /** The highest volume in the dataset (unless scaled to visible). */
+        private double datasetMaxVolume;
+
+        /** The volume of a full-height volume bar in the current series pass. */
+        private double maxVolume;
+
+        /** The width of the candle bodies for the current series pass. */
+        private double stickWidth;
+
+        /** The width of the volume bars for the current series pass. */
+        private double volumeWidth;
+
+        /** Have the widths been calculated for the current series pass? */
+        private boolean widthsValid;
+
+        /** Do the widths have to be calculated for each item? */
+        private boolean widthsPerItem;
+
+        /** Are bars being merged per pixel column in the current pass? */
+        private boolean decimating;
+
+        /** The coarser level being drawn instead of the items, if any. */
+        private OHLCDataset levelData;
+
+        /** The clip bounds when candles outside them can be skipped. */
+        private Rectangle clipBounds;
+
+        /** The merged candle waiting to be drawn. */
+        private boolean barPending;
+        private double barColumn;
+        private int barItem;
+        private double barX, barOpen, barHigh, barLow, barClose, barVolume;
+
+        /**
+         * The graphics device of the pass, when candles are batched or drawn
+         * into the raster.
+         */
+        private Graphics2D passGraphics;
+
+        /** Are candles batched in the current pass? */
+        private boolean batching;
+
+        /** The image pixels candles are drawn into, if any. */
+        private RasterTarget raster;
+
+        /** The batches of the pass, in layer order. */
+        private final List<Batch> batches = new ArrayList<Batch>();
+
+        /** The batch used last. */
+        private Batch lastBatch;
+
+        /** A rectangle reused to draw the batches. */
+        private final Rectangle2D.Double workingRectangle = new Rectangle2D.Double();
+
+        /**
+         * Creates a new state instance.
+         *
+         * @param info  the plot rendering info.
+         */
+        public State(PlotRenderingInfo info) {
+            super(info);
+        }
+
+        /**
+         * Returns the width of the candle bodies for the current series pass.
+         *
+         * @return The width in Java2D units.
+         */
+        public double getStickWidth() {
+            return stickWidth;
+        }
+
+        /**
+         * Returns the width of the volume bars for the current series pass.
+         *
+         * @return The width in Java2D units.
+         */
+        public double getVolumeWidth() {
+            return volumeWidth;
+        }
+
+        /**
+         * Records the item window and marks the candle widths for
+         * recalculation.
+         *
+         * @param dataset  the dataset.
+         * @param series  the series index.
+         * @param firstItem  the index of the first item in the series.
+         * @param lastItem  the index of the last item in the series.
+         * @param pass  the pass index.
+         * @param passCount  the number of passes.
+         */
+        @Override
+        public void startSeriesPass(XYDataset dataset, int series, int firstItem, int lastItem, int pass, int passCount) {
+            super.startSeriesPass(dataset, series, firstItem, lastItem, pass, passCount);
+
+            widthsValid = false;
+        }
+
+        /**
+         * Draws the batches collected during the pass, if any, into the
+         * raster where possible.
+         *
+         * @param dataset  the dataset.
+         * @param series  the series index.
+         * @param firstItem  the index of the first item in the series.
+         * @param lastItem  the index of the last item in the series.
+         * @param pass  the pass index.
+         * @param passCount  the number of passes.
+         */
+        @Override
+        public void endSeriesPass(XYDataset dataset, int series, int firstItem, int lastItem, int pass, int passCount) {
+            super.endSeriesPass(dataset, series, firstItem, lastItem, pass, passCount);
+
+            Graphics2D g2 = passGraphics;
+            RasterTarget target = raster;
+            passGraphics = null;
+            raster = null;
+            if(g2 == null || !batching) return;
+
+            for(Batch batch : batches) {
+            	if(batch.size == 0) continue;
+
+            	// one rectangle or line at a time, which Java2D draws faster
+            	// than a path holding them all
+            	boolean deviceReady = false;
+            	double[] c = batch.coords;
+            	for(int i = 0; i < batch.size; i += 4) {
+            		if(target != null && drawIntoRaster(target, batch.paint, batch.stroke, batch.lines, c[i], c[i + 1], c[i + 2], c[i + 3])) continue;
+
+            		if(!deviceReady) {
+            			g2.setPaint(batch.paint);
+            			if(batch.stroke != null) g2.setStroke(batch.stroke);
+            			deviceReady = true;
+            		}
+            		drawThroughDevice(g2, batch.stroke, batch.lines, c[i], c[i + 1], c[i + 2], c[i + 3]);
+            	}
+            	batch.size = 0;
+            }
+        }
+
+        /**
+         * Adds a rectangle to the batch for a layer, paint and stroke, or
+         * draws it at once if candles are not batched.
+         *
+         * @param stroke  the stroke, or {@code null} to fill the rectangle.
+         */
+        void addRectangle(int layer, Paint paint, Stroke stroke, double x, double y, double w, double h) {
+            if(batching) getBatch(layer, paint, stroke, false).add(x, y, w, h);
+            else draw(paint, stroke, false, x, y, w, h);
+        }
+
+        /**
+         * Adds a line to the batch for a layer, paint and stroke, or draws it
+         * at once if candles are not batched.
+         */
+        void addLine(int layer, Paint paint, Stroke stroke, double x1, double y1, double x2, double y2) {
+            if(workingLine == null) workingLine = new Line2D.Double();
+
+            if(batching) getBatch(layer, paint, stroke, true).add(x1, y1, x2, y2);
+            else draw(paint, stroke, true, x1, y1, x2, y2);
+        }
+
+        /**
+         * Draws a rectangle or line into the raster, or through the graphics
+         * device if the raster cannot draw it.
+         */
+        private void draw(Paint paint, Stroke stroke, boolean line, double a, double b, double c, double d) {
+            if(drawIntoRaster(raster, paint, stroke, line, a, b, c, d)) return;
+
+            passGraphics.setPaint(paint);
+            if(stroke != null) passGraphics.setStroke(stroke);
+            drawThroughDevice(passGraphics, stroke, line, a, b, c, d);
+        }
+
+        private static boolean drawIntoRaster(RasterTarget target, Paint paint, Stroke stroke, boolean line, double a, double b, double c, double d) {
+            if(line) return target.drawLine(paint, stroke, a, b, c, d);
+
+            return stroke == null ? target.fillRect(paint, a, b, c, d) : target.drawRect(paint, stroke, a, b, c, d);
+        }
+
+        private void drawThroughDevice(Graphics2D g2, Stroke stroke, boolean line, double a, double b, double c, double d) {
+            if(line) {
+            	workingLine.setLine(a, b, c, d);
+            	g2.draw(workingLine);
+            }
+            else {
+            	workingRectangle.setRect(a, b, c, d);
+            	if(stroke == null) g2.fill(workingRectangle);
+            	else g2.draw(workingRectangle);
+            }
+        }
+
+        private Batch getBatch(int layer, Paint paint, Stroke stroke, boolean lines) {
+            if(lastBatch != null && lastBatch.matches(layer, paint, stroke)) return lastBatch;
+
+            int index = 0;
+            for(Batch batch : batches) {
+            	if(batch.matches(layer, paint, stroke)) return lastBatch = batch;
+
+            	if(batch.layer <= layer) index++;
+            }
+
+            lastBatch = new Batch(layer, paint, stroke, lines);
+            batches.add(index, lastBatch);
+
+            return lastBatch;
+        }
+    }
+
+    /**
+     * The rectangles or lines of one layer of a series pass that are drawn
+     * with one paint and stroke.
+     */
+    private static final class Batch {
+        final int layer;
+        final Paint paint;
+
+        /** The stroke, or {@code null} if the shapes are filled. */
+        final Stroke stroke;
+
+        /** Whether the shapes are lines (x1, y1, x2, y2) or rectangles (x, y, w, h). */
+        final boolean lines;
+
+        /** The coordinates, four for each shape. */
+        double[] coords = new double[256];
+        int size;
+
+        Batch(int layer, Paint paint, Stroke stroke, boolean lines) {
+            this.layer 	= layer;
+            this.paint 	= paint;
+            this.stroke = stroke;
+            this.lines 	= lines;
+        }
+
+        boolean matches(int layer, Paint paint, Stroke stroke) {
+            return this.layer == layer && this.paint.equals(paint) && (this.stroke == null ? stroke == null : this.stroke.equals(stroke));
+        }
+
+        void add(double a, double b, double c, double d) {
+            if(size + 4 > coords.length) coords = Arrays.copyOf(coords, coords.length * 2);
+
+            coords[size++] = a;
+            coords[size++] = b;
+            coords[size++] = c;
+            coords[size++] = d;
+        }
+    }
+
     /**
      * Tests this renderer for equality with another object.
      *
@@ -814,6 +1690,9 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
         if (this.drawVolume != that.drawVolume) {
             return false;
         }
+        if (this.volumeScaledToVisible != that.volumeScaledToVisible) {
+            return false;
+        }
         if (this.maxCandleWidthInMilliseconds
                 != that.maxCandleWidthInMilliseconds) {
             return false;
@@ -833,6 +1712,15 @@ public class CandlestickRenderer extends AbstractXYItemRenderer implements XYIte
         if (!PaintUtils.equal(this.volumePaint, that.volumePaint)) {
             return false;
         }
+        if (this.levelOfDetail != that.levelOfDetail) {
+            return false;
+        }
+        if (this.batchDrawing != that.batchDrawing) {
+            return false;
+        }
+        if (this.rasterDrawing != that.rasterDrawing) {
+            return false;
+        }
         return super.equals(obj);
     }
 
@@ -0,0 +1,394 @@
+package org.jfree.chart.renderer.xy;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import org.jfree.chart.ChartHints;
+
+/**
+ * Draws axis-aligned rectangles and lines by writing their pixels straight
+ * into the pixel array of the image that a graphics device draws onto, for
+ * renderers that draw a great many small rectangles, such as candles and
+ * bars.
+ * <P>
+ * A target is only available when the image is named by the
+ * {@link ChartHints#KEY_RASTER_TARGET} hint and drawing onto it simply
+ * replaces pixels: an image of packed integer pixels, no anti-aliasing,
+ * pure stroke control, source-over compositing at full alpha, no transform
+ * other than a whole-pixel translation, and a rectangular clip.  The
+ * methods set the same pixels that the graphics device would for the same
+ * shape: a fill covers the pixels whose centres lie inside the rectangle,
+ * a square-capped line or an outline of width one or less covers the
+ * pixels that it passes through, and a wider line or outline covers the
+ * pixels whose centres lie inside the stroked outline.  A method that
+ * cannot draw a shape (for a paint other than an opaque color, a dashed
+ * stroke, round caps, butt caps on a line of width one or less, a
+ * non-mitred outline or a line that is not axis-aligned) draws nothing and
+ * returns {@code false}, and the caller draws the shape through the
+ * graphics device instead.
+ * <P>
+ * Taking the pixel array of an image stops Java2D from caching the image
+ * in video memory.
+ */
+final class RasterTarget {
+	/** The pixels, row by row. */
+	private final int[] pixels;
+
+	/** The index of pixel (0, 0) and the distance between rows. */
+	private final int offset;
+	private final int scanline;
+
+	/** The translation from user space to device space. */
+	private final int dx;
+	private final int dy;
+
+	/** The pixels that may be drawn (maximums exclusive). */
+	private final int clipX0;
+	private final int clipY0;
+	private final int clipX1;
+	private final int clipY1;
+
+	private RasterTarget(int[] pixels, int offset, int scanline, int dx, int dy, int clipX0, int clipY0, int clipX1, int clipY1) {
+		this.pixels 	= pixels;
+		this.offset 	= offset;
+		this.scanline 	= scanline;
+		this.dx 		= dx;
+		this.dy 		= dy;
+		this.clipX0 	= clipX0;
+		this.clipY0 	= clipY0;
+		this.clipX1 	= clipX1;
+		this.clipY1 	= clipY1;
+	}
+
+	/**
+	 * Returns a target for the image a graphics device draws onto, or
+	 * {@code null} if the device is not drawing onto an image named by the
+	 * {@link ChartHints#KEY_RASTER_TARGET} hint or its pixels cannot be set
+	 * directly in its current state.  The target reflects the state of the
+	 * device when this method is called.
+	 *
+	 * @param g2  the graphics device ({@code null} not permitted).
+	 *
+	 * @return The target (possibly {@code null}).
+	 */
+	static RasterTarget getInstance(Graphics2D g2) {
+		Object hint = g2.getRenderingHint(ChartHints.KEY_RASTER_TARGET);
+		if(!(hint instanceof BufferedImage)) return null;
+
+		BufferedImage image = (BufferedImage) hint;
+		int type = image.getType();
+		if(type != BufferedImage.TYPE_INT_RGB && type != BufferedImage.TYPE_INT_ARGB && type != BufferedImage.TYPE_INT_ARGB_PRE) return null;
+
+		if(g2.getRenderingHint(RenderingHints.KEY_ANTIALIASING) == RenderingHints.VALUE_ANTIALIAS_ON) return null;
+		if(g2.getRenderingHint(RenderingHints.KEY_STROKE_CONTROL) != RenderingHints.VALUE_STROKE_PURE) return null;
+
+		Composite composite = g2.getComposite();
+		if(!(composite instanceof AlphaComposite)) return null;
+
+		AlphaComposite alpha = (AlphaComposite) composite;
+		if(alpha.getRule() != AlphaComposite.SRC_OVER || alpha.getAlpha() != 1.0f) return null;
+
+		AffineTransform transform = g2.getTransform();
+		int transformType = transform.getType();
+		if(transformType != AffineTransform.TYPE_IDENTITY && transformType != AffineTransform.TYPE_TRANSLATION) return null;
+
+		double tx = transform.getTranslateX();
+		double ty = transform.getTranslateY();
+		if(tx != Math.rint(tx) || ty != Math.rint(ty)) return null;
+
+		int dx = (int) tx;
+		int dy = (int) ty;
+
+		int clipX0 = 0;
+		int clipY0 = 0;
+		int clipX1 = image.getWidth();
+		int clipY1 = image.getHeight();
+		Shape clip = g2.getClip();
+		if(clip != null) {
+			if(!(clip instanceof Rectangle2D)) return null;
+
+			// the graphics device rounds a rectangular clip to the pixels
+			// whose centres it holds
+			Rectangle2D r = (Rectangle2D) clip;
+			clipX0 = Math.max(clipX0, clipRound(r.getMinX() + dx));
+			clipY0 = Math.max(clipY0, clipRound(r.getMinY() + dy));
+			clipX1 = Math.min(clipX1, clipRound(r.getMaxX() + dx));
+			clipY1 = Math.min(clipY1, clipRound(r.getMaxY() + dy));
+		}
+
+		WritableRaster raster = image.getRaster();
+		DataBuffer buffer = raster.getDataBuffer();
+		if(!(buffer instanceof DataBufferInt) || !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel)) return null;
+
+		int scanline = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+		int offset = buffer.getOffset() - raster.getSampleModelTranslateY() * scanline - raster.getSampleModelTranslateX();
+
+		return new RasterTarget(((DataBufferInt) buffer).getData(), offset, scanline, dx, dy, clipX0, clipY0, clipX1, clipY1);
+	}
+
+	/**
+	 * Fills a rectangle.
+	 *
+	 * @param paint  the paint.
+	 * @param x  the x-coordinate of the rectangle.
+	 * @param y  the y-coordinate of the rectangle.
+	 * @param w  the width of the rectangle.
+	 * @param h  the height of the rectangle.
+	 *
+	 * @return {@code false} if the paint is not an opaque color, in which
+	 *     case nothing is drawn.
+	 */
+	boolean fillRect(Paint paint, double x, double y, double w, double h) {
+		int rgb = getRGB(paint);
+		if(rgb == 0) return false;
+
+		fillCentres(rgb, x, y, x + w, y + h);
+
+		return true;
+	}
+
+	/**
+	 * Draws a horizontal or vertical line.
+	 *
+	 * @param paint  the paint.
+	 * @param stroke  the stroke.
+	 * @param x1  the x-coordinate of the start point.
+	 * @param y1  the y-coordinate of the start point.
+	 * @param x2  the x-coordinate of the end point.
+	 * @param y2  the y-coordinate of the end point.
+	 *
+	 * @return {@code false} if the line, paint or stroke is not supported,
+	 *     in which case nothing is drawn.
+	 */
+	boolean drawLine(Paint paint, Stroke stroke, double x1, double y1, double x2, double y2) {
+		boolean vertical = x1 == x2;
+		if(!vertical && y1 != y2) return false;
+
+		int rgb = getRGB(paint);
+		float width = getLineWidth(stroke, false);
+		if(rgb == 0 || width < 0.0f) return false;
+
+		if(vertical) {
+			if(width <= 1.0f) drawThinVertical(rgb, x1, y1, y2);
+			else {
+				double cap = ((BasicStroke) stroke).getEndCap() == BasicStroke.CAP_SQUARE ? width / 2 : 0.0;
+				fillCentres(rgb, x1 - width / 2, Math.min(y1, y2) - cap, x1 + width / 2, Math.max(y1, y2) + cap);
+			}
+		}
+		else {
+			if(width <= 1.0f) drawThinHorizontal(rgb, y1, x1, x2);
+			else {
+				double cap = ((BasicStroke) stroke).getEndCap() == BasicStroke.CAP_SQUARE ? width / 2 : 0.0;
+				fillCentres(rgb, Math.min(x1, x2) - cap, y1 - width / 2, Math.max(x1, x2) + cap, y1 + width / 2);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Draws the outline of a rectangle.
+	 *
+	 * @param paint  the paint.
+	 * @param stroke  the stroke.
+	 * @param x  the x-coordinate of the rectangle.
+	 * @param y  the y-coordinate of the rectangle.
+	 * @param w  the width of the rectangle.
+	 * @param h  the height of the rectangle.
+	 *
+	 * @return {@code false} if the paint or stroke is not supported, in
+	 *     which case nothing is drawn.
+	 */
+	boolean drawRect(Paint paint, Stroke stroke, double x, double y, double w, double h) {
+		int rgb = getRGB(paint);
+		float width = getLineWidth(stroke, true);
+		if(rgb == 0 || width < 0.0f) return false;
+
+		// the graphics device draws nothing for a rectangle of negative size
+		if(w < 0.0 || h < 0.0) return true;
+
+		if(width <= 1.0f) {
+			// the graphics device draws a thin outline on the border of the
+			// pixels that hold its corners, except for narrow rectangles
+			if(w <= 1.0 || h <= 1.0) return false;
+
+			int x0 = (int) Math.floor(device(x, dx));
+			int y0 = (int) Math.floor(device(y, dy));
+			int x1 = (int) Math.floor(device(x + w, dx));
+			int y1 = (int) Math.floor(device(y + h, dy));
+			setPixels(rgb, x0, y0, x1 + 1, y0 + 1);
+			setPixels(rgb, x0, y1, x1 + 1, y1 + 1);
+			setPixels(rgb, x0, y0, x0 + 1, y1 + 1);
+			setPixels(rgb, x1, y0, x1 + 1, y1 + 1);
+
+			return true;
+		}
+
+		// the mitred outline is the outer rectangle less the inner one
+		double half = width / 2;
+		int ox0 = startCentre(device(x - half, dx));
+		int oy0 = startCentre(device(y - half, dy));
+		int ox1 = endCentreX(device(x + w + half, dx));
+		int oy1 = endCentreY(device(y + h + half, dy));
+		if(w <= width || h <= width) {
+			setPixels(rgb, ox0, oy0, ox1, oy1);
+
+			return true;
+		}
+
+		// a centre on the inner left edge is inside the inner rectangle
+		int ix0 = endCentreX(device(x + half, dx));
+		int iy0 = startCentre(device(y + half, dy));
+		int ix1 = endCentreX(device(x + w - half, dx));
+		int iy1 = endCentreY(device(y + h - half, dy));
+		setPixels(rgb, ox0, oy0, ox1, iy0);
+		setPixels(rgb, ox0, iy1, ox1, oy1);
+		setPixels(rgb, ox0, iy0, ix0, iy1);
+		setPixels(rgb, ix1, iy0, ox1, iy1);
+
+		return true;
+	}
+
+	/**
+	 * Returns the pixel value for a paint, or 0 if the paint is not an
+	 * opaque color.
+	 */
+	private static int getRGB(Paint paint) {
+		if(!(paint instanceof Color)) return 0;
+
+		int rgb = ((Color) paint).getRGB();
+
+		return (rgb >>> 24) == 0xFF ? rgb : 0;
+	}
+
+	/**
+	 * Returns the width of a stroke, or -1 if the stroke is not supported:
+	 * it must be a solid {@link BasicStroke} without round caps (and, for
+	 * outlines wider than one pixel, with mitred joins).  Strokes of width
+	 * one or less are drawn as thin lines.  Their joins do not matter, and
+	 * neither do the caps of an outline, which is closed, but a thin line
+	 * with butt caps leaves out its first pixel when it starts in the back
+	 * half of that pixel, so such lines are not supported.
+	 */
+	private static float getLineWidth(Stroke stroke, boolean outline) {
+		if(!(stroke instanceof BasicStroke)) return -1.0f;
+
+		BasicStroke bs = (BasicStroke) stroke;
+		if(bs.getDashArray() != null) return -1.0f;
+
+		float width = bs.getLineWidth();
+		if(width <= 1.0f) return outline || bs.getEndCap() != BasicStroke.CAP_BUTT ? width : -1.0f;
+
+		if(bs.getEndCap() == BasicStroke.CAP_ROUND) return -1.0f;
+		if(outline && (bs.getLineJoin() != BasicStroke.JOIN_MITER || bs.getMiterLimit() < Math.sqrt(2.0))) return -1.0f;
+
+		return width;
+	}
+
+	/**
+	 * Sets the pixels whose centres lie inside a rectangle given by its
+	 * corners in user space.
+	 */
+	private void fillCentres(int rgb, double x0, double y0, double x1, double y1) {
+		setPixels(rgb, startCentre(device(x0, dx)), startCentre(device(y0, dy)), endCentreX(device(x1, dx)), endCentreY(device(y1, dy)));
+	}
+
+	/**
+	 * Sets the pixels of a thin horizontal line: those the line passes
+	 * through, less the last one if the line ends on its edge.
+	 */
+	private void drawThinHorizontal(int rgb, double y, double x1, double x2) {
+		int row = (int) Math.floor(device(y, dy));
+		double xa = device(Math.min(x1, x2), dx);
+		double xb = device(Math.max(x1, x2), dx);
+		setPixels(rgb, (int) Math.floor(xa), row, (int) Math.ceil(xb), row + 1);
+	}
+
+	/**
+	 * Sets the pixels of a thin vertical line: those the line passes
+	 * through.  The graphics device draws nothing for a vertical line on
+	 * the edge between two pixel columns.
+	 */
+	private void drawThinVertical(int rgb, double x, double y1, double y2) {
+		double xd = device(x, dx);
+		if(xd == Math.floor(xd)) return;
+
+		int column = (int) Math.floor(xd);
+		double ya = device(Math.min(y1, y2), dy);
+		double yb = device(Math.max(y1, y2), dy);
+		setPixels(rgb, column, (int) Math.floor(ya), column + 1, (int) Math.floor(yb) + 1);
+	}
+
+	/**
+	 * Sets the pixels from (x0, y0) to (x1, y1), maximums exclusive, that
+	 * lie inside the clip.
+	 */
+	private void setPixels(int rgb, int x0, int y0, int x1, int y1) {
+		x0 = Math.max(x0, clipX0);
+		y0 = Math.max(y0, clipY0);
+		x1 = Math.min(x1, clipX1);
+		y1 = Math.min(y1, clipY1);
+		if(x0 >= x1) return;
+
+		int[] pixels = this.pixels;
+		for(int y = y0, row = offset + y0 * scanline; y < y1; y++, row += scanline) {
+			for(int i = row + x0, end = row + x1; i < end; i++) {
+				pixels[i] = rgb;
+			}
+		}
+	}
+
+	/**
+	 * Converts a coordinate to device space.
+	 */
+	private static double device(double v, int translate) {
+		return v + translate;
+	}
+
+	/**
+	 * Returns the first pixel whose centre lies beyond a leading edge.
+	 */
+	private static int startCentre(double v) {
+		return (int) Math.floor(v + 0.5);
+	}
+
+	/**
+	 * Returns the pixel after the last one whose centre lies before a
+	 * trailing horizontal edge.  A centre on the edge is outside.
+	 */
+	private static int endCentreX(double v) {
+		return (int) Math.ceil(v - 0.5);
+	}
+
+	/**
+	 * Returns the pixel after the last one whose centre lies before a
+	 * trailing vertical edge.  A centre on the edge is inside.
+	 */
+	private static int endCentreY(double v) {
+		return (int) Math.floor(v + 0.5);
+	}
+
+	/**
+	 * Rounds a clip coordinate the way the graphics device does.
+	 */
+	private static int clipRound(double v) {
+		double d = v - 0.5;
+		if(d < Integer.MIN_VALUE) return Integer.MIN_VALUE;
+		if(d > Integer.MAX_VALUE) return Integer.MAX_VALUE;
+
+		return (int) Math.ceil(d);
+	}
+}
@@ -118,6 +118,9 @@ public class XYBarRenderer extends AbstractXYItemRenderer implements XYItemRende
         /** Base for bars against the range axis, in Java 2D space. */
         private double g2Base;
 
+        /** The image pixels bars are drawn into, if any. */
+        private RasterTarget raster;
+
         /**
          * Creates a new state object.
          *
@@ -220,6 +223,12 @@ public class XYBarRenderer extends AbstractXYItemRenderer implements XYItemRende
      */
     private double barAlignmentFactor;
 
+    /**
+     * A flag that controls whether bars are drawn by setting the pixels of
+     * the chart image directly, where the graphics device permits it.
+     */
+    private boolean rasterDrawing;
+
     /**
      * The default constructor.
      */
@@ -597,6 +606,42 @@ public class XYBarRenderer extends AbstractXYItemRenderer implements XYItemRende
         fireChangeEvent();
     }
 
+    /**
+     * Returns the flag that controls whether bars are drawn by setting the
+     * pixels of the chart image directly.
+     *
+     * @return A boolean.
+     *
+     * @see #setRasterDrawing(boolean)
+     */
+    public boolean getRasterDrawing() {
+        return rasterDrawing;
+    }
+
+    /**
+     * Sets the flag that controls whether bars are drawn by setting the
+     * pixels of the chart image directly, and sends a
+     * {@link RendererChangeEvent} to all registered listeners.  When set,
+     * and the chart is drawn onto an image named by the
+     * {@link org.jfree.chart.ChartHints#KEY_RASTER_TARGET} hint (as
+     * {@link org.jfree.chart.ChartPanel} does) with anti-aliasing off, bars
+     * painted by a {@link StandardXYBarPainter} without shadows in an
+     * opaque color are written straight into the pixels of the image,
+     * covering the same pixels that the graphics device would.  Other bars
+     * are painted as usual.
+     *
+     * @param flag  the flag.
+     *
+     * @see #getRasterDrawing()
+     */
+    public void setRasterDrawing(boolean flag) {
+    	if(rasterDrawing != flag) {
+    		rasterDrawing = flag;
+
+            fireChangeEvent();
+    	}
+    }
+
     /**
      * Initialises the renderer and returns a state object that should be
      * passed to all subsequent calls to the drawItem() method.  Here we
@@ -623,6 +668,7 @@ public class XYBarRenderer extends AbstractXYItemRenderer implements XYItemRende
         XYBarRendererState state = new XYBarRendererState(info);
         ValueAxis rangeAxis = plot.getRangeAxisForDataset(plot.indexOf(dataset));
         state.setG2Base(rangeAxis.valueToJava2D(base, dataArea, plot.getRangeAxisEdge()));
+        if(rasterDrawing) state.raster = RasterTarget.getInstance(g2);
         
         return state;
     }
@@ -810,9 +856,11 @@ public class XYBarRenderer extends AbstractXYItemRenderer implements XYItemRende
 
         if(state.getElementHinting()) beginElementGroup(g2, dataset.getSeriesKey(series), item);
         
-        if(getShadowsVisible()) barPainter.paintBarShadow(g2, this, series, item, bar, barBase, !useYInterval);
+        if(!paintBarIntoRaster(g2, state, series, item, bar)) {
+        	if(getShadowsVisible()) barPainter.paintBarShadow(g2, this, series, item, bar, barBase, !useYInterval);
         
-        barPainter.paintBar(g2, this, series, item, bar, barBase);
+        	barPainter.paintBar(g2, this, series, item, bar, barBase);
+        }
         if(state.getElementHinting()) endElementGroup(g2);
 
         if(isItemLabelVisible(series, item)) {
@@ -832,6 +880,40 @@ public class XYBarRenderer extends AbstractXYItemRenderer implements XYItemRende
         if(entities != null) addEntity(entities, bar, dataset, series, item, 0.0, 0.0);
     }
 
+    /**
+     * Paints a bar by setting the pixels of the chart image, as a
+     * {@link StandardXYBarPainter} would paint it, if the state has a raster
+     * to draw into and the bar has no shadow and an opaque color.
+     *
+     * @param g2  the graphics device, for an outline the raster cannot draw.
+     * @param state  the renderer state.
+     * @param series  the series index.
+     * @param item  the item index.
+     * @param bar  the bar.
+     *
+     * @return {@code true} if the bar was painted.
+     */
+    private boolean paintBarIntoRaster(Graphics2D g2, XYItemRendererState state, int series, int item, Rectangle2D bar) {
+    	if(!(state instanceof XYBarRendererState)) return false;
+
+    	RasterTarget raster = ((XYBarRendererState) state).raster;
+    	if(raster == null || getShadowsVisible() || barPainter.getClass() != StandardXYBarPainter.class) return false;
+
+    	if(!raster.fillRect(getItemPaint(series, item), bar.getX(), bar.getY(), bar.getWidth(), bar.getHeight())) return false;
+
+    	if(drawBarOutline) {
+    		Stroke stroke = getItemOutlineStroke(series, item);
+    		Paint paint = getItemOutlinePaint(series, item);
+    		if(stroke != null && paint != null && !raster.drawRect(paint, stroke, bar.getX(), bar.getY(), bar.getWidth(), bar.getHeight())) {
+    			g2.setStroke(stroke);
+    			g2.setPaint(paint);
+    			g2.draw(bar);
+    		}
+    	}
+
+    	return true;
+    }
+
     /**
      * Draws an item label.  This method is provided as an alternative to
      * {@link #drawItemLabel(Graphics2D, PlotOrientation, XYDataset, int, int,
@@ -1146,6 +1228,9 @@ public class XYBarRenderer extends AbstractXYItemRenderer implements XYItemRende
         if (this.barAlignmentFactor != that.barAlignmentFactor) {
             return false;
         }
+        if (this.rasterDrawing != that.rasterDrawing) {
+            return false;
+        }
         return super.equals(obj);
     }
 
@@ -0,0 +1,307 @@
+package org.jfree.chart.text;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+import java.awt.font.TextLayout;
+import java.awt.geom.Rectangle2D;
+import java.text.Bidi;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of the measurements and layouts of strings, keyed by the
+ * string, the font and the font render context.  Charts draw the same tick
+ * labels, item labels and titles frame after frame, and {@link TextUtils}
+ * looks them up here rather than measuring and laying them out each time.
+ * <P>
+ * The least recently used strings are dropped once the cache holds
+ * {@link #getMaximumSize()} of them.  The cache is safe for use by several
+ * threads, and counts its hits and misses so that its effect can be
+ * checked.
+ */
+public class TextCache {
+	/** The default maximum number of strings held. */
+	public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+	/** The entries, least recently used first. */
+	private final LinkedHashMap<Key, Entry> entries;
+
+	/** The maximum number of entries (0 disables the cache). */
+	private int maximumSize;
+
+	private long hitCount;
+	private long missCount;
+
+	/**
+	 * Creates a new cache holding up to {@link #DEFAULT_MAXIMUM_SIZE}
+	 * strings.
+	 */
+	public TextCache() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param maximumSize  the maximum number of strings held (0 disables
+	 *     the cache).
+	 */
+	public TextCache(int maximumSize) {
+		if(maximumSize < 0) throw new IllegalArgumentException("Negative 'maximumSize' argument.");
+
+		this.maximumSize = maximumSize;
+		entries = new LinkedHashMap<Key, Entry>(64, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size() > TextCache.this.maximumSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the maximum number of strings held.
+	 *
+	 * @return The maximum size.
+	 */
+	public synchronized int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Sets the maximum number of strings held, dropping the least recently
+	 * used ones if there are more.
+	 *
+	 * @param maximumSize  the maximum size (0 disables the cache).
+	 */
+	public synchronized void setMaximumSize(int maximumSize) {
+		if(maximumSize < 0) throw new IllegalArgumentException("Negative 'maximumSize' argument.");
+
+		this.maximumSize = maximumSize;
+		if(entries.size() > maximumSize) {
+			int excess = entries.size() - maximumSize;
+			Iterator<Key> iterator = entries.keySet().iterator();
+			while(excess-- > 0) {
+				iterator.next();
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of strings held.
+	 *
+	 * @return The size.
+	 */
+	public synchronized int getSize() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of lookups that found their string in the cache.
+	 *
+	 * @return The hit count.
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of lookups that did not find their string in the
+	 * cache.
+	 *
+	 * @return The miss count.
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Returns the share of lookups that found their string in the cache.
+	 *
+	 * @return The hit ratio (in the range 0.0 to 1.0, and 0.0 before the
+	 *     first lookup).
+	 */
+	public synchronized double getHitRatio() {
+		long lookups = hitCount + missCount;
+
+		return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+	}
+
+	/**
+	 * Resets the hit and miss counts to zero.
+	 */
+	public synchronized void resetCounts() {
+		hitCount 	= 0;
+		missCount 	= 0;
+	}
+
+	/**
+	 * Drops all strings from the cache.  The hit and miss counts are kept.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Returns the entry for a string, creating it if need be.  The entry
+	 * fills in its measurements as they are asked for.
+	 *
+	 * @param text  the string ({@code null} not permitted).
+	 * @param font  the font ({@code null} not permitted).
+	 * @param frc  the font render context ({@code null} not permitted).
+	 *
+	 * @return The entry (never {@code null}).
+	 */
+	synchronized Entry get(String text, Font font, FontRenderContext frc) {
+		Key key = new Key(text, font, frc);
+		Entry result = entries.get(key);
+		if(result != null) {
+			hitCount++;
+
+			return result;
+		}
+
+		missCount++;
+		result = new Entry(text, font, frc);
+		if(maximumSize > 0) entries.put(key, result);
+
+		return result;
+	}
+
+	/**
+	 * The key of an entry.
+	 */
+	private static final class Key {
+		private final String text;
+		private final Font font;
+		private final FontRenderContext frc;
+		private final int hash;
+
+		Key(String text, Font font, FontRenderContext frc) {
+			this.text 	= text;
+			this.font 	= font;
+			this.frc 	= frc;
+			hash 		= (text.hashCode() * 31 + font.hashCode()) * 31 + frc.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(obj == this) return true;
+
+			if(!(obj instanceof Key)) return false;
+
+			Key that = (Key) obj;
+
+			return hash == that.hash && text.equals(that.text) && font.equals(that.font) && frc.equals(that.frc);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * The measurements and layouts of one string in one font and font render
+	 * context.  Each is worked out the first time it is asked for; two
+	 * threads may both work one out, which does no harm.  Glyph vectors and
+	 * text layouts are not documented as safe for concurrent use, so they
+	 * are drawn holding their lock.
+	 */
+	static final class Entry {
+		private final String text;
+		private final Font font;
+		private final FontRenderContext frc;
+
+		private volatile Rectangle2D bounds;
+		private volatile LineMetrics lineMetrics;
+		private volatile GlyphVector glyphVector;
+		private volatile TextLayout textLayout;
+
+		/** Whether the string can be drawn as a glyph vector. */
+		private final boolean simple;
+
+		Entry(String text, Font font, FontRenderContext frc) {
+			this.text 	= text;
+			this.font 	= font;
+			this.frc 	= frc;
+			simple 		= !font.hasLayoutAttributes() && !Bidi.requiresBidi(text.toCharArray(), 0, text.length());
+		}
+
+		String getText() {
+			return text;
+		}
+
+		Font getFont() {
+			return font;
+		}
+
+		/**
+		 * Returns a copy of the string bounds, as measured by the font
+		 * metrics of the graphics device for the entry's font.
+		 */
+		Rectangle2D getBounds(Graphics2D g2) {
+			if(bounds == null) return getBounds(g2.getFontMetrics(font));
+
+			return (Rectangle2D) bounds.clone();
+		}
+
+		/**
+		 * Returns a copy of the string bounds, as measured by the given font
+		 * metrics (which must be for the entry's font and font render
+		 * context).
+		 */
+		Rectangle2D getBounds(FontMetrics fm) {
+			Rectangle2D result = bounds;
+			if(result == null) {
+				result = new Rectangle2D.Double(0.0, -fm.getAscent(), fm.stringWidth(text), fm.getHeight());
+				bounds = result;
+			}
+
+			return (Rectangle2D) result.clone();
+		}
+
+		LineMetrics getLineMetrics() {
+			LineMetrics result = lineMetrics;
+			if(result == null) {
+				result = font.getLineMetrics(text, frc);
+				lineMetrics = result;
+			}
+
+			return result;
+		}
+
+		/**
+		 * Returns the laid out glyphs of the string, or {@code null} if the
+		 * string needs bidirectional layout or the font has layout
+		 * attributes, in which case it must be drawn as a string.
+		 */
+		GlyphVector getGlyphVector() {
+			if(!simple) return null;
+
+			GlyphVector result = glyphVector;
+			if(result == null) {
+				char[] chars = text.toCharArray();
+				result = font.layoutGlyphVector(frc, chars, 0, chars.length, Font.LAYOUT_LEFT_TO_RIGHT);
+				glyphVector = result;
+			}
+
+			return result;
+		}
+
+		TextLayout getTextLayout() {
+			TextLayout result = textLayout;
+			if(result == null) {
+				result = new TextLayout(text, font, frc);
+				textLayout = result;
+			}
+
+			return result;
+		}
+	}
+}
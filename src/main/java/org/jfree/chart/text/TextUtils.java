@@ -6,10 +6,12 @@ import java.awt.Graphics2D;
 import java.awt.Paint;
 import java.awt.Shape;
 import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
 import java.awt.font.LineMetrics;
 import java.awt.font.TextLayout;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.text.AttributedString;
 import java.text.BreakIterator;
 import org.jfree.chart.ui.TextAnchor;
@@ -41,6 +43,16 @@ public class TextUtils {
      */
     private static boolean useFontMetricsGetStringBounds = false;
 
+    /** The measurements and layouts of the strings drawn, shared by all charts. */
+    private static final TextCache textCache = new TextCache();
+
+    /**
+     * The class of the graphics devices for screens and images.  For these,
+     * drawing a laid out glyph vector is what drawing the string does, while
+     * other devices (printers, vector formats) may treat strings specially.
+     */
+    private static final Class<?> RASTER_GRAPHICS_CLASS = getRasterGraphicsClass();
+
     /**
      * Private constructor prevents object creation.
      */
@@ -236,6 +248,7 @@ public class TextUtils {
             LineMetrics lm = fm.getFont().getLineMetrics(text, g2.getFontRenderContext());
             bounds.setRect(bounds.getX(), bounds.getY(), bounds.getWidth(), lm.getHeight());
         }
+        else if(text != null) bounds = textCache.get(text, fm.getFont(), fm.getFontRenderContext()).getBounds(fm);
         else {
             double width = fm.stringWidth(text);
             double height = fm.getHeight();
@@ -246,6 +259,28 @@ public class TextUtils {
         return bounds;
     }
 
+    /**
+     * Returns the bounds for the text of a text cache entry.
+     *
+     * @param entry  the entry.
+     * @param g2  the graphics context.
+     *
+     * @return The text bounds.
+     */
+    private static Rectangle2D getTextBounds(TextCache.Entry entry, Graphics2D g2) {
+        if(useFontMetricsGetStringBounds) return getTextBounds(entry.getText(), g2, g2.getFontMetrics(entry.getFont()));
+
+        return entry.getBounds(g2);
+    }
+
+    /**
+     * Returns the text cache entry for a string in the current font of a
+     * graphics context.
+     */
+    private static TextCache.Entry getTextCacheEntry(String text, Graphics2D g2) {
+        return textCache.get(text, g2.getFont(), g2.getFontRenderContext());
+    }
+
 
     /**
      * Returns the bounds of an aligned string.
@@ -263,7 +298,7 @@ public class TextUtils {
      */
     public static Rectangle2D calcAlignedStringBounds(String text, Graphics2D g2, float x, float y, TextAnchor anchor) {
         Rectangle2D textBounds = new Rectangle2D.Double();
-        float[] adjust = deriveTextBoundsAnchorOffsets(g2, text, anchor, textBounds);
+        float[] adjust = deriveTextBoundsAnchorOffsets(g2, getTextCacheEntry(text, g2), anchor, textBounds);
         // adjust text bounds to match string position
         textBounds.setRect(x + adjust[0], y + adjust[1] + adjust[2], textBounds.getWidth(), textBounds.getHeight());
         
@@ -284,11 +319,20 @@ public class TextUtils {
      */
     public static Rectangle2D drawAlignedString(String text, Graphics2D g2, float x, float y, TextAnchor anchor) {
         Rectangle2D textBounds = new Rectangle2D.Double();
-        float[] adjust = deriveTextBoundsAnchorOffsets(g2, text, anchor, textBounds);
+        TextCache.Entry entry = getTextCacheEntry(text, g2);
+        float[] adjust = deriveTextBoundsAnchorOffsets(g2, entry, anchor, textBounds);
         
         // adjust text bounds to match string position
         textBounds.setRect(x + adjust[0], y + adjust[1] + adjust[2], textBounds.getWidth(), textBounds.getHeight());
-        if(!drawStringsWithFontAttributes) g2.drawString(text, x + adjust[0], y + adjust[1]);
+        if(!drawStringsWithFontAttributes) {
+            GlyphVector gv = g2.getClass() == RASTER_GRAPHICS_CLASS ? entry.getGlyphVector() : null;
+            if(gv != null) {
+                synchronized(gv) {
+                    g2.drawGlyphVector(gv, x + adjust[0], y + adjust[1]);
+                }
+            }
+            else g2.drawString(text, x + adjust[0], y + adjust[1]);
+        }
         else {
             AttributedString as = new AttributedString(text, g2.getFont().getAttributes());
             g2.drawString(as.getIterator(), x + adjust[0], y + adjust[1]);
@@ -305,7 +349,7 @@ public class TextUtils {
      * the (x, y) point.
      *
      * @param g2  the graphics device (not {@code null}).
-     * @param text  the text.
+     * @param entry  the text cache entry for the text.
      * @param anchor  the anchor point.
      * @param textBounds  the text bounds (if not {@code null}, this
      *                    object will be updated by this method to match the
@@ -313,14 +357,11 @@ public class TextUtils {
      *
      * @return  The offsets.
      */
-    private static float[] deriveTextBoundsAnchorOffsets(Graphics2D g2, String text, TextAnchor anchor, Rectangle2D textBounds) {
+    private static float[] deriveTextBoundsAnchorOffsets(Graphics2D g2, TextCache.Entry entry, TextAnchor anchor, Rectangle2D textBounds) {
         float[] result = new float[3];
         
-        FontRenderContext frc = g2.getFontRenderContext();
-        Font f = g2.getFont();
-        FontMetrics fm = g2.getFontMetrics(f);
-        Rectangle2D bounds = TextUtils.getTextBounds(text, g2, fm);
-        LineMetrics metrics = f.getLineMetrics(text, frc);
+        Rectangle2D bounds = getTextBounds(entry, g2);
+        LineMetrics metrics = entry.getLineMetrics();
         float ascent = metrics.getAscent();
         result[2] = -ascent;
         float halfAscent = ascent / 2.0f;
@@ -391,8 +432,10 @@ public class TextUtils {
 
         if(useDrawRotatedStringWorkaround) {
             // workaround for JDC bug ID 4312117 and others...
-            TextLayout tl = new TextLayout(text, g2.getFont(), g2.getFontRenderContext());
-            tl.draw(g2, textX, textY);
+            TextLayout tl = getTextCacheEntry(text, g2).getTextLayout();
+            synchronized(tl) {
+                tl.draw(g2, textX, textY);
+            }
         }
         else {
         	if(!drawStringsWithFontAttributes) g2.drawString(text, textX, textY);
@@ -423,7 +466,7 @@ public class TextUtils {
 
         if(angle == 0.0) drawAlignedString(text, g2, x, y, textAnchor);
         else {
-            float[] textAdj = deriveTextBoundsAnchorOffsets(g2, text, textAnchor);
+            float[] textAdj = deriveTextBoundsAnchorOffsets(g2, getTextCacheEntry(text, g2), textAnchor);
             drawRotatedString(text, g2, x + textAdj[0], y + textAdj[1], angle, rotationX, rotationY);
         }
     }
@@ -450,9 +493,10 @@ public class TextUtils {
         if (angle == 0.0) {
             drawAlignedString(text, g2, x, y, textAnchor);
         } else {
-            float[] textAdj = deriveTextBoundsAnchorOffsets(g2, text, 
+            TextCache.Entry entry = getTextCacheEntry(text, g2);
+            float[] textAdj = deriveTextBoundsAnchorOffsets(g2, entry, 
                     textAnchor);
-            float[] rotateAdj = deriveRotationAnchorOffsets(g2, text, 
+            float[] rotateAdj = deriveRotationAnchorOffsets(g2, entry, 
                     rotationAnchor);
             drawRotatedString(text, g2, x + textAdj[0], y + textAdj[1],
                     angle, x + textAdj[0] + rotateAdj[0],
@@ -481,8 +525,9 @@ public class TextUtils {
         if (text == null || text.equals("")) {
             return null;
         }
-        float[] textAdj = deriveTextBoundsAnchorOffsets(g2, text, textAnchor);
-        float[] rotateAdj = deriveRotationAnchorOffsets(g2, text, 
+        TextCache.Entry entry = getTextCacheEntry(text, g2);
+        float[] textAdj = deriveTextBoundsAnchorOffsets(g2, entry, textAnchor);
+        float[] rotateAdj = deriveRotationAnchorOffsets(g2, entry, 
                 rotationAnchor);
         Shape result = calculateRotatedStringBounds(text, g2,
                 x + textAdj[0], y + textAdj[1], angle,
@@ -499,20 +544,17 @@ public class TextUtils {
      * the (x, y) point.
      *
      * @param g2  the graphics device (not {@code null}).
-     * @param text  the text.
+     * @param entry  the text cache entry for the text.
      * @param anchor  the anchor point.
      *
      * @return  The offsets.
      */
     private static float[] deriveTextBoundsAnchorOffsets(Graphics2D g2,
-            String text, TextAnchor anchor) {
+            TextCache.Entry entry, TextAnchor anchor) {
 
         float[] result = new float[2];
-        FontRenderContext frc = g2.getFontRenderContext();
-        Font f = g2.getFont();
-        FontMetrics fm = g2.getFontMetrics(f);
-        Rectangle2D bounds = getTextBounds(text, g2, fm);
-        LineMetrics metrics = f.getLineMetrics(text, frc);
+        Rectangle2D bounds = getTextBounds(entry, g2);
+        LineMetrics metrics = entry.getLineMetrics();
         float ascent = metrics.getAscent();
         float halfAscent = ascent / 2.0f;
         float descent = metrics.getDescent();
@@ -554,19 +596,17 @@ public class TextUtils {
      * ({@code BASELINE_LEFT}).
      *
      * @param g2  the graphics device.
-     * @param text  the text.
+     * @param entry  the text cache entry for the text.
      * @param anchor  the anchor point.
      *
      * @return The offsets.
      */
     private static float[] deriveRotationAnchorOffsets(Graphics2D g2,
-            String text, TextAnchor anchor) {
+            TextCache.Entry entry, TextAnchor anchor) {
 
         float[] result = new float[2];
-        FontRenderContext frc = g2.getFontRenderContext();
-        LineMetrics metrics = g2.getFont().getLineMetrics(text, frc);
-        FontMetrics fm = g2.getFontMetrics();
-        Rectangle2D bounds = TextUtils.getTextBounds(text, g2, fm);
+        LineMetrics metrics = entry.getLineMetrics();
+        Rectangle2D bounds = getTextBounds(entry, g2);
         float ascent = metrics.getAscent();
         float halfAscent = ascent / 2.0f;
         float descent = metrics.getDescent();
@@ -627,8 +667,7 @@ public class TextUtils {
         if ((text == null) || (text.equals(""))) {
             return null;
         }
-        FontMetrics fm = g2.getFontMetrics();
-        Rectangle2D bounds = TextUtils.getTextBounds(text, g2, fm);
+        Rectangle2D bounds = getTextBounds(getTextCacheEntry(text, g2), g2);
         AffineTransform translate = AffineTransform.getTranslateInstance(
                 textX, textY);
         Shape translatedBounds = translate.createTransformedShape(bounds);
@@ -661,6 +700,25 @@ public class TextUtils {
         useFontMetricsGetStringBounds = use;
     }
 
+    /**
+     * Returns the cache of string measurements and layouts that the methods
+     * of this class share, for example to check its hit ratio or to change
+     * its size.
+     *
+     * @return The text cache (never {@code null}).
+     */
+    public static TextCache getTextCache() {
+        return textCache;
+    }
+
+    private static Class<?> getRasterGraphicsClass() {
+        Graphics2D g2 = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        Class<?> result = g2.getClass();
+        g2.dispose();
+
+        return result;
+    }
+
     /**
      * Returns the flag that controls whether or not a workaround is used for
      * drawing rotated strings.
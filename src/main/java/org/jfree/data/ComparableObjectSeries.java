@@ -18,7 +18,10 @@ import org.jfree.data.general.SeriesException;
 public class ComparableObjectSeries extends Series implements Cloneable, Serializable {
 	private static final long serialVersionUID = 7328575189460421654L;
 
-	/** Storage for the data items in the series. */
+	/**
+	 * Storage for the data items in the series (a {@link SnapshotList}, so
+	 * the items must not be changed in place).
+	 */
     protected List data;
 
     /** The maximum number of items for the series. */
@@ -54,7 +57,7 @@ public class ComparableObjectSeries extends Series implements Cloneable, Seriali
     public ComparableObjectSeries(Comparable key, boolean autoSort, boolean allowDuplicateXValues) {
         super(key);
         
-        data 						= new java.util.ArrayList();
+        data 						= new SnapshotList();
         this.autoSort 				= autoSort;
         this.allowDuplicateXValues 	= allowDuplicateXValues;
     }
@@ -283,7 +286,7 @@ public class ComparableObjectSeries extends Series implements Cloneable, Seriali
         int index = indexOf(x);
         if(index < 0) throw new SeriesException("No observation for x = " + x);
         else {
-            ComparableObjectItem item = getDataItem(index);
+            ComparableObjectItem item = copyItem(index);
             item.setObject(y);
             
             fireSeriesChanged();
@@ -298,12 +301,33 @@ public class ComparableObjectSeries extends Series implements Cloneable, Seriali
      * @param y  the new value ({@code null} permitted).
      */
     protected void updateByIndex(int index, Object y) {
-        ComparableObjectItem item = getDataItem(index);
+        ComparableObjectItem item = copyItem(index);
         item.setObject(y);
         
         fireSeriesChanged();
     }
 
+    /**
+     * Replaces the item at the specified index with a copy and returns the
+     * copy, so that a change to it is not seen by threads reading a snapshot
+     * of the series (see {@link SnapshotList}).  No event is sent.
+     *
+     * @param index  the item index.
+     *
+     * @return The copy, now in the series.
+     */
+    protected ComparableObjectItem copyItem(int index) {
+        try {
+            ComparableObjectItem copy = (ComparableObjectItem) getDataItem(index).clone();
+            data.set(index, copy);
+
+            return copy;
+        }
+        catch(CloneNotSupportedException e) {
+            throw new SeriesException("Item " + index + " cannot be copied.");
+        }
+    }
+
     /**
      * Return the data item with the specified index.
      *
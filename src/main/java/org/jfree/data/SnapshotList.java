@@ -0,0 +1,313 @@
+package org.jfree.data;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A list for the items of a series that lets one thread read a fixed
+ * snapshot of the items while another thread goes on changing them.
+ * <P>
+ * A thread starts a snapshot read with {@link #beginRead()}.  From then on,
+ * the first time the thread reads a list, the list's current items are
+ * pinned for that thread, in constant time, and every later read by the
+ * thread sees those items, until the matching {@link #endRead()} releases
+ * the pins.  Threads outside a snapshot read see the list as it is.
+ * <P>
+ * Writers are never blocked by readers.  An append writes to a free slot
+ * beyond the pinned item count.  A change to an existing slot while the
+ * slot array is pinned first copies the array.  Pinned arrays are reclaimed
+ * by the garbage collector once the readers release them, and an array
+ * that is no longer pinned is written in place again.  The items must be
+ * treated as immutable: to change an item, {@link #set(int, Object)} a
+ * changed copy.
+ * <P>
+ * Changes are expected to come from one thread at a time (for a chart, the
+ * event dispatch thread), and not from inside a snapshot read, where the
+ * writer would see its own pinned items.  The list never throws
+ * {@code ConcurrentModificationException}.
+ */
+public class SnapshotList extends AbstractList implements RandomAccess, Cloneable, Serializable {
+	private static final long serialVersionUID = -3391827384762534618L;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** The snapshot read of each thread (null outside a snapshot read). */
+	private static final ThreadLocal<Reader> READER = new ThreadLocal<Reader>();
+
+	/** The number of threads in a snapshot read. */
+	private static volatile int readers;
+
+	/** The slot array that writers change (guarded by this). */
+	private transient Object[] items;
+
+	/** The number of pins on {@code items} (guarded by this). */
+	private transient int arrayPins;
+
+	/** The items as last published to readers. */
+	private transient volatile Version current;
+
+	/**
+	 * Creates a new empty list.
+	 */
+	public SnapshotList() {
+		items 	= new Object[INITIAL_CAPACITY];
+		current = new Version(items, 0);
+	}
+
+	/**
+	 * Starts a snapshot read on the calling thread.  Reads may be nested;
+	 * the pins are released by the outermost {@link #endRead()}.
+	 */
+	public static void beginRead() {
+		Reader reader = READER.get();
+		if(reader == null) {
+			reader = new Reader();
+			READER.set(reader);
+			synchronized(SnapshotList.class) {
+				readers++;
+			}
+		}
+		reader.depth++;
+	}
+
+	/**
+	 * Ends a snapshot read on the calling thread.
+	 *
+	 * @throws IllegalStateException if the thread is not in a snapshot read.
+	 */
+	public static void endRead() {
+		Reader reader = READER.get();
+		if(reader == null) throw new IllegalStateException("No snapshot read in progress.");
+
+		if(--reader.depth > 0) return;
+
+		READER.remove();
+		synchronized(SnapshotList.class) {
+			readers--;
+		}
+		for(Map.Entry<SnapshotList, Version> entry : reader.pinned.entrySet()) {
+			entry.getKey().unpin(entry.getValue());
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the calling thread is in a snapshot read.
+	 *
+	 * @return A boolean.
+	 */
+	public static boolean isReading() {
+		return readers > 0 && READER.get() != null;
+	}
+
+	@Override
+	public Object get(int index) {
+		Version v = version();
+		if(index < 0 || index >= v.size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + v.size);
+
+		return v.items[index];
+	}
+
+	@Override
+	public int size() {
+		return version().size;
+	}
+
+	@Override
+	public synchronized boolean add(Object element) {
+		int size = current.size;
+		if(size == items.length) replaceItems(Arrays.copyOf(items, size + (size >> 1) + 1));
+
+		// the slot is beyond the size of every published version
+		items[size] = element;
+		current = new Version(items, size + 1);
+
+		return true;
+	}
+
+	@Override
+	public synchronized void add(int index, Object element) {
+		int size = current.size;
+		if(index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+		if(index == size) {
+			add(element);
+
+			return;
+		}
+
+		if(size == items.length || arrayPins > 0) {
+			Object[] copy = new Object[Math.max(items.length, size + (size >> 1) + 1)];
+			System.arraycopy(items, 0, copy, 0, index);
+			System.arraycopy(items, index, copy, index + 1, size - index);
+			replaceItems(copy);
+		}
+		else System.arraycopy(items, index, items, index + 1, size - index);
+
+		items[index] = element;
+		current = new Version(items, size + 1);
+	}
+
+	@Override
+	public synchronized Object set(int index, Object element) {
+		int size = current.size;
+		if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+		writable();
+		Object result = items[index];
+		items[index] = element;
+		current = new Version(items, size);
+
+		return result;
+	}
+
+	@Override
+	public synchronized Object remove(int index) {
+		int size = current.size;
+		if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+		Object result = items[index];
+		removeSlots(index, index + 1);
+
+		return result;
+	}
+
+	@Override
+	public synchronized void clear() {
+		replaceItems(new Object[INITIAL_CAPACITY]);
+		current = new Version(items, 0);
+	}
+
+	@Override
+	protected synchronized void removeRange(int fromIndex, int toIndex) {
+		if(fromIndex < 0 || toIndex > current.size || fromIndex > toIndex) throw new IndexOutOfBoundsException("Range: " + fromIndex + " to " + toIndex);
+
+		if(fromIndex < toIndex) removeSlots(fromIndex, toIndex);
+	}
+
+	/**
+	 * Returns a copy of the list with the same items (the copy has no pins).
+	 *
+	 * @return A copy.
+	 */
+	@Override
+	public synchronized Object clone() {
+		try {
+			SnapshotList clone = (SnapshotList) super.clone();
+			Version v = current;
+			clone.items 	= Arrays.copyOf(v.items, Math.max(v.size, INITIAL_CAPACITY));
+			clone.arrayPins = 0;
+			clone.current 	= new Version(clone.items, v.size);
+
+			return clone;
+		}
+		catch(CloneNotSupportedException e) {
+			throw new InternalError(e.toString());
+		}
+	}
+
+	/**
+	 * Returns the version the calling thread reads, pinning the current
+	 * version if the thread is in a snapshot read and has not read this
+	 * list yet.
+	 */
+	private Version version() {
+		if(readers == 0) return current;
+
+		Reader reader = READER.get();
+		if(reader == null) return current;
+
+		Version v = reader.pinned.get(this);
+		if(v == null) {
+			v = pin();
+			reader.pinned.put(this, v);
+		}
+
+		return v;
+	}
+
+	private synchronized Version pin() {
+		Version v = current;
+		if(v.items == items) arrayPins++;
+
+		return v;
+	}
+
+	private synchronized void unpin(Version v) {
+		// pins on an array that writers have already replaced do not matter
+		if(v.items == items) arrayPins--;
+	}
+
+	/**
+	 * Makes sure that the slot array can be changed in place, copying it if
+	 * it is pinned.
+	 */
+	private void writable() {
+		if(arrayPins > 0) replaceItems(items.clone());
+	}
+
+	private void replaceItems(Object[] replacement) {
+		items 		= replacement;
+		arrayPins 	= 0;
+	}
+
+	private void removeSlots(int from, int to) {
+		int size = current.size;
+		int removed = to - from;
+
+		writable();
+		System.arraycopy(items, to, items, from, size - to);
+		Arrays.fill(items, size - removed, size, null);
+		current = new Version(items, size - removed);
+	}
+
+	private void writeObject(ObjectOutputStream stream) throws IOException {
+		stream.defaultWriteObject();
+
+		Version v = current;
+		stream.writeInt(v.size);
+		for(int i = 0; i < v.size; i++) {
+			stream.writeObject(v.items[i]);
+		}
+	}
+
+	private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+		stream.defaultReadObject();
+
+		int size = stream.readInt();
+		items = new Object[Math.max(size, INITIAL_CAPACITY)];
+		for(int i = 0; i < size; i++) {
+			items[i] = stream.readObject();
+		}
+		current = new Version(items, size);
+	}
+
+	/**
+	 * The items of a list at one moment: an array and the number of slots in
+	 * use.  The slots below {@code size} are never changed while the array
+	 * is pinned.
+	 */
+	private static final class Version {
+		final Object[] items;
+		final int size;
+
+		Version(Object[] items, int size) {
+			this.items 	= items;
+			this.size 	= size;
+		}
+	}
+
+	/** The state of a snapshot read on one thread. */
+	private static final class Reader {
+		int depth;
+
+		/** The version pinned for each list read so far. */
+		final Map<SnapshotList, Version> pinned = new IdentityHashMap<SnapshotList, Version>();
+	}
+}
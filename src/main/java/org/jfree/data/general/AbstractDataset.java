@@ -24,6 +24,18 @@ public abstract class AbstractDataset implements Dataset, Cloneable, Serializabl
      */
     private boolean notify;
 
+    /** The number of update batches currently open (see {@link #beginUpdate()}). */
+    private transient int updateDepth;
+
+    /** A flag that records a change notified while a batch was open. */
+    private transient boolean changePending;
+
+    /**
+     * The event to send when the batch is committed, if every change in the
+     * batch was to the same item, otherwise {@code null}.
+     */
+    private transient DatasetChangeEvent pendingEvent;
+
     /**
      * Constructs a dataset. By default, the dataset is assigned to its own
      * group.
@@ -90,6 +102,51 @@ public abstract class AbstractDataset implements Dataset, Cloneable, Serializabl
         if(notify) fireDatasetChanged();    
     }
     
+    /**
+     * Opens an update batch.  Until the matching call to
+     * {@link #commitUpdate()}, change notifications are held back, and when
+     * the outermost batch is committed a single {@link DatasetChangeEvent} is
+     * sent if anything changed.  Batches may be nested.  Use this to apply
+     * many mutations (for example every tick received during one display
+     * frame) at the cost of one chart redraw.
+     *
+     * @see #commitUpdate()
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    /**
+     * Closes an update batch opened by {@link #beginUpdate()}.  When the
+     * outermost batch is closed and a change was notified while it was open,
+     * one {@link DatasetChangeEvent} is sent to all registered listeners.
+     *
+     * @throws IllegalStateException if no batch is open.
+     */
+    public void commitUpdate() {
+        if(updateDepth == 0) throw new IllegalStateException("No update in progress.");
+
+        updateDepth--;
+        if(updateDepth == 0 && changePending) {
+            DatasetChangeEvent event = pendingEvent != null ? pendingEvent : new DatasetChangeEvent(this, this);
+            changePending = false;
+            pendingEvent = null;
+
+            notifyListeners(event);
+        }
+    }
+
+    /**
+     * Returns {@code true} if an update batch is open.
+     *
+     * @return A boolean.
+     *
+     * @see #beginUpdate()
+     */
+    public boolean isUpdating() {
+        return updateDepth > 0;
+    }
+
     /**
      * Registers an object to receive notification of changes to the dataset.
      *
@@ -152,6 +209,15 @@ public abstract class AbstractDataset implements Dataset, Cloneable, Serializabl
      * @see #removeChangeListener(DatasetChangeListener)
      */
     protected void notifyListeners(DatasetChangeEvent event) {
+        if(updateDepth > 0) {
+            // revisions of a single item (e.g. the newest bar) stay fine-grained
+            if(!changePending) pendingEvent = event instanceof DatasetItemChangeEvent ? event : null;
+            else if(pendingEvent != null) pendingEvent = ((DatasetItemChangeEvent) pendingEvent).merge(event);
+            changePending = true;
+
+            return;
+        }
+
         Object[] listeners = listenerList.getListenerList();
 
         for(int i = listeners.length-2; i >= 0; i -= 2) {
@@ -213,6 +279,9 @@ public abstract class AbstractDataset implements Dataset, Cloneable, Serializabl
     public Object clone() throws CloneNotSupportedException {
         AbstractDataset clone = (AbstractDataset) super.clone();
         clone.listenerList = new EventListenerList();
+        clone.updateDepth = 0;
+        clone.changePending = false;
+        clone.pendingEvent = null;
         
         return clone;
     }
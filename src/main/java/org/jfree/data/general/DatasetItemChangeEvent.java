@@ -0,0 +1,118 @@
+package org.jfree.data.general;
+
+/**
+ * A {@link DatasetChangeEvent} for a change to the values of a single item,
+ * carrying the series and item indices and the range of y-values the item
+ * covered before and after the change.  See {@link SeriesItemChangeEvent}.
+ */
+public class DatasetItemChangeEvent extends DatasetChangeEvent {
+	private static final long serialVersionUID = -3392512316807335462L;
+
+	/** The series index. */
+	private final int series;
+
+	/** The item index. */
+	private final int item;
+
+	/** The y-range of the item before the change. */
+	private final double oldMinimum, oldMaximum;
+
+	/** The y-range of the item after the change. */
+	private final double newMinimum, newMaximum;
+
+	/**
+	 * Creates a new event.
+	 *
+	 * @param source  the source of the event.
+	 * @param dataset  the dataset.
+	 * @param series  the index of the series (-1 for every series).
+	 * @param item  the index of the item that changed.
+	 * @param oldMinimum  the smallest y-value of the item before the change.
+	 * @param oldMaximum  the largest y-value of the item before the change.
+	 * @param newMinimum  the smallest y-value of the item after the change.
+	 * @param newMaximum  the largest y-value of the item after the change.
+	 */
+	public DatasetItemChangeEvent(Object source, Dataset dataset, int series, int item, double oldMinimum, double oldMaximum, double newMinimum, double newMaximum) {
+		super(source, dataset);
+
+		this.series 	= series;
+		this.item 		= item;
+		this.oldMinimum = oldMinimum;
+		this.oldMaximum = oldMaximum;
+		this.newMinimum = newMinimum;
+		this.newMaximum = newMaximum;
+	}
+
+	/**
+	 * Returns the index of the series.
+	 *
+	 * @return The series index, or -1 if the item changed in every series
+	 *     (for datasets whose series share their x-values).
+	 */
+	public int getSeries() {
+		return series;
+	}
+
+	/**
+	 * Returns the index of the item that changed.
+	 *
+	 * @return The item index.
+	 */
+	public int getItem() {
+		return item;
+	}
+
+	/**
+	 * Returns the smallest y-value of the item before the change.
+	 *
+	 * @return The value.
+	 */
+	public double getOldMinimum() {
+		return oldMinimum;
+	}
+
+	/**
+	 * Returns the largest y-value of the item before the change.
+	 *
+	 * @return The value.
+	 */
+	public double getOldMaximum() {
+		return oldMaximum;
+	}
+
+	/**
+	 * Returns the smallest y-value of the item after the change.
+	 *
+	 * @return The value.
+	 */
+	public double getNewMinimum() {
+		return newMinimum;
+	}
+
+	/**
+	 * Returns the largest y-value of the item after the change.
+	 *
+	 * @return The value.
+	 */
+	public double getNewMaximum() {
+		return newMaximum;
+	}
+
+	/**
+	 * Combines this event with one that followed it, if both describe the
+	 * same item of the same dataset.
+	 *
+	 * @param later  the later event.
+	 *
+	 * @return An event spanning both changes, or {@code null} if they can't
+	 *     be combined.
+	 */
+	public DatasetItemChangeEvent merge(DatasetChangeEvent later) {
+		if(!(later instanceof DatasetItemChangeEvent) || later.getDataset() != getDataset()) return null;
+
+		DatasetItemChangeEvent e = (DatasetItemChangeEvent) later;
+		if(e.series != series || e.item != item) return null;
+
+		return new DatasetItemChangeEvent(getSource(), getDataset(), series, item, oldMinimum, oldMaximum, e.newMinimum, e.newMaximum);
+	}
+}
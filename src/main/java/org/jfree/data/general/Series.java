@@ -44,6 +44,18 @@ public abstract class Series implements Cloneable, Serializable {
     /** A flag that controls whether or not changes are notified. */
     private boolean notify;
 
+    /** The number of update batches currently open (see {@link #beginUpdate()}). */
+    private transient int updateDepth;
+
+    /** A flag that records a change notified while a batch was open. */
+    private transient boolean changePending;
+
+    /**
+     * The event to send when the batch is committed, if every change in the
+     * batch was to the same item, otherwise {@code null}.
+     */
+    private transient SeriesChangeEvent pendingEvent;
+
     /**
      * Creates a new series with the specified key.
      *
@@ -166,6 +178,49 @@ public abstract class Series implements Cloneable, Serializable {
         }
     }
 
+    /**
+     * Opens an update batch.  Until the matching call to
+     * {@link #commitUpdate()}, change notifications are held back, and when
+     * the outermost batch is committed a single {@link SeriesChangeEvent} is
+     * sent if anything changed.  Batches may be nested.
+     *
+     * @see #commitUpdate()
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    /**
+     * Closes an update batch opened by {@link #beginUpdate()}.  When the
+     * outermost batch is closed and a change was notified while it was open,
+     * one {@link SeriesChangeEvent} is sent to all registered listeners.
+     *
+     * @throws IllegalStateException if no batch is open.
+     */
+    public void commitUpdate() {
+        if(updateDepth == 0) throw new IllegalStateException("No update in progress.");
+
+        updateDepth--;
+        if(updateDepth == 0 && changePending) {
+            SeriesChangeEvent event = pendingEvent != null ? pendingEvent : new SeriesChangeEvent(this);
+            changePending = false;
+            pendingEvent = null;
+
+            notifyListeners(event);
+        }
+    }
+
+    /**
+     * Returns {@code true} if an update batch is open.
+     *
+     * @return A boolean.
+     *
+     * @see #beginUpdate()
+     */
+    public boolean isUpdating() {
+        return updateDepth > 0;
+    }
+
     /**
      * Returns {@code true} if the series contains no data items, and
      * {@code false} otherwise.
@@ -208,6 +263,9 @@ public abstract class Series implements Cloneable, Serializable {
         clone.listeners = new EventListenerList();
         clone.propertyChangeSupport = new PropertyChangeSupport(clone);
         clone.vetoableChangeSupport = new VetoableChangeSupport(clone);
+        clone.updateDepth = 0;
+        clone.changePending = false;
+        clone.pendingEvent = null;
         
         return clone;
     }
@@ -304,6 +362,15 @@ public abstract class Series implements Cloneable, Serializable {
      *               notification.
      */
     protected void notifyListeners(SeriesChangeEvent event) {
+        if(updateDepth > 0) {
+            // revisions of a single item (e.g. the newest bar) stay fine-grained
+            if(!changePending) pendingEvent = event instanceof SeriesItemChangeEvent ? event : null;
+            else if(pendingEvent != null) pendingEvent = ((SeriesItemChangeEvent) pendingEvent).merge(event);
+            changePending = true;
+
+            return;
+        }
+
         Object[] listenerList = listeners.getListenerList();
         for(int i = listenerList.length - 2; i >= 0; i -= 2) {
             if(listenerList[i] == SeriesChangeListener.class) {
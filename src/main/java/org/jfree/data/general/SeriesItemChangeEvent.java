@@ -0,0 +1,105 @@
+package org.jfree.data.general;
+
+/**
+ * A {@link SeriesChangeEvent} for a change to the values of a single item,
+ * carrying the item index and the range of y-values the item covered before
+ * and after the change (for an OHLC item, its low and high).  Listeners that
+ * keep derived state (value ranges, indicators, dirty regions) can use it to
+ * update in constant time instead of rescanning the series; listeners that
+ * don't care can treat it as a plain {@link SeriesChangeEvent}.
+ */
+public class SeriesItemChangeEvent extends SeriesChangeEvent {
+	private static final long serialVersionUID = 4629530721312519036L;
+
+	/** The item index. */
+	private final int item;
+
+	/** The y-range of the item before the change. */
+	private final double oldMinimum, oldMaximum;
+
+	/** The y-range of the item after the change. */
+	private final double newMinimum, newMaximum;
+
+	/**
+	 * Creates a new event.
+	 *
+	 * @param source  the series.
+	 * @param item  the index of the item that changed.
+	 * @param oldMinimum  the smallest y-value of the item before the change.
+	 * @param oldMaximum  the largest y-value of the item before the change.
+	 * @param newMinimum  the smallest y-value of the item after the change.
+	 * @param newMaximum  the largest y-value of the item after the change.
+	 */
+	public SeriesItemChangeEvent(Object source, int item, double oldMinimum, double oldMaximum, double newMinimum, double newMaximum) {
+		super(source);
+
+		this.item 		= item;
+		this.oldMinimum = oldMinimum;
+		this.oldMaximum = oldMaximum;
+		this.newMinimum = newMinimum;
+		this.newMaximum = newMaximum;
+	}
+
+	/**
+	 * Returns the index of the item that changed.
+	 *
+	 * @return The item index.
+	 */
+	public int getItem() {
+		return item;
+	}
+
+	/**
+	 * Returns the smallest y-value of the item before the change.
+	 *
+	 * @return The value.
+	 */
+	public double getOldMinimum() {
+		return oldMinimum;
+	}
+
+	/**
+	 * Returns the largest y-value of the item before the change.
+	 *
+	 * @return The value.
+	 */
+	public double getOldMaximum() {
+		return oldMaximum;
+	}
+
+	/**
+	 * Returns the smallest y-value of the item after the change.
+	 *
+	 * @return The value.
+	 */
+	public double getNewMinimum() {
+		return newMinimum;
+	}
+
+	/**
+	 * Returns the largest y-value of the item after the change.
+	 *
+	 * @return The value.
+	 */
+	public double getNewMaximum() {
+		return newMaximum;
+	}
+
+	/**
+	 * Combines this event with one that followed it, if both describe the
+	 * same item of the same series.
+	 *
+	 * @param later  the later event.
+	 *
+	 * @return An event spanning both changes, or {@code null} if they can't
+	 *     be combined.
+	 */
+	public SeriesItemChangeEvent merge(SeriesChangeEvent later) {
+		if(!(later instanceof SeriesItemChangeEvent) || later.getSource() != getSource()) return null;
+
+		SeriesItemChangeEvent e = (SeriesItemChangeEvent) later;
+		if(e.item != item) return null;
+
+		return new SeriesItemChangeEvent(getSource(), item, oldMinimum, oldMaximum, e.newMinimum, e.newMaximum);
+	}
+}
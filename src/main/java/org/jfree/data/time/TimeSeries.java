@@ -15,9 +15,11 @@ import org.jfree.chart.util.ObjectUtils;
 
 import org.jfree.chart.util.Args;
 import org.jfree.data.Range;
+import org.jfree.data.SnapshotList;
 import org.jfree.data.general.Series;
 import org.jfree.data.general.SeriesChangeEvent;
 import org.jfree.data.general.SeriesException;
+import org.jfree.data.general.SeriesItemChangeEvent;
 
 /**
  * Represents a sequence of zero or more data items in the form (period, value)
@@ -44,7 +46,10 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
     /** The type of period for the data. */
     protected Class timePeriodClass;
 
-    /** The list of data items in the series. */
+    /**
+     * The list of data items in the series (a {@link SnapshotList}, so the
+     * items must not be changed in place).
+     */
     protected List data;
 
     /** The maximum number of items for the series. */
@@ -100,7 +105,7 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         this.domain 		= domain;
         this.range 			= range;
         timePeriodClass 	= null;
-        data 				= new java.util.ArrayList();
+        data 				= new SnapshotList();
         maximumItemCount 	= Integer.MAX_VALUE;
         maximumItemAge 		= Long.MAX_VALUE;
         minY 				= Double.NaN;
@@ -718,7 +723,8 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
     }
 
     /**
-     * Updates (changes) the value of a data item.
+     * Updates (changes) the value of a data item and sends a
+     * {@link SeriesItemChangeEvent} to all registered listeners.
      *
      * @param index  the index of the data item.
      * @param value  the new value ({@code null} permitted).
@@ -727,21 +733,20 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         TimeSeriesDataItem item = (TimeSeriesDataItem)data.get(index);
         boolean iterate = false;
         Number oldYN = item.getValue();
+        double oldY = oldYN != null ? oldYN.doubleValue() : Double.NaN;
         
-        if(oldYN != null) {
-            double oldY = oldYN.doubleValue();
-            if(!Double.isNaN(oldY)) iterate = oldY <= minY || oldY >= maxY;
-        }
-        item.setValue(value);
+        if(!Double.isNaN(oldY)) iterate = oldY <= minY || oldY >= maxY;
+        // a new item, so that snapshot readers keep the old one
+        data.set(index, new TimeSeriesDataItem(item.getPeriod(), value));
         
+        double yy = value != null ? value.doubleValue() : Double.NaN;
         if(iterate) updateMinMaxYByIteration();
         else if(value != null) {
-            double yy = value.doubleValue();
             minY = minIgnoreNaN(minY, yy);
             maxY = maxIgnoreNaN(maxY, yy);
         }
         
-        fireSeriesChanged();
+        if(getNotify()) notifyListeners(new SeriesItemChangeEvent(this, index, oldY, oldY, yy, yy));
     }
 
     /**
@@ -829,7 +834,7 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
             
             if(!Double.isNaN(oldY)) iterate = oldY <= this.minY || oldY >= maxY;
             
-            existing.setValue(item.getValue());
+            data.set(index, new TimeSeriesDataItem(existing.getPeriod(), item.getValue()));
             if(iterate) updateMinMaxYByIteration();
             else if(item.getValue() != null) {
                 double yy = item.getValue().doubleValue();
@@ -1040,7 +1045,7 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         TimeSeries copy = (TimeSeries) super.clone();
         copy.minY = Double.NaN;
         copy.maxY = Double.NaN;
-        copy.data = new java.util.ArrayList();
+        copy.data = new SnapshotList();
         
         if(data.size() > 0) {
             for(int index = start; index <= end; index++) {
@@ -1098,7 +1103,7 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         }
         if (emptyRange) {
             TimeSeries copy = (TimeSeries) super.clone();
-            copy.data = new java.util.ArrayList();
+            copy.data = new SnapshotList();
             return copy;
         }
         return createCopy(startIndex, endIndex);
@@ -105,7 +105,10 @@ import org.jfree.data.DomainInfo;
 import org.jfree.data.DomainOrder;
 import org.jfree.data.Range;
 import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetItemChangeEvent;
 import org.jfree.data.general.Series;
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesItemChangeEvent;
 import org.jfree.data.xy.AbstractIntervalXYDataset;
 import org.jfree.data.xy.IntervalXYDataset;
 import org.jfree.data.xy.XYDataset;
@@ -241,6 +244,28 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset implements X
         return data.size();
     }
 
+    /**
+     * Called when a series in the collection changes.  A change to a single
+     * item is passed on as a {@link DatasetItemChangeEvent}.
+     *
+     * @param event  information about the change.
+     */
+    @Override
+    public void seriesChanged(SeriesChangeEvent event) {
+        if(event instanceof SeriesItemChangeEvent && getNotify()) {
+            int series = data.indexOf(event.getSource());
+            if(series >= 0) {
+                SeriesItemChangeEvent e = (SeriesItemChangeEvent) event;
+
+                notifyListeners(new DatasetItemChangeEvent(this, this, series, e.getItem(), e.getOldMinimum(), e.getOldMaximum(), e.getNewMinimum(), e.getNewMaximum()));
+
+                return;
+            }
+        }
+
+        super.seriesChanged(event);
+    }
+
     /**
      * Returns the index of the specified series, or -1 if that series is not
      * present in the dataset.
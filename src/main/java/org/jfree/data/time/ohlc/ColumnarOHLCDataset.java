@@ -0,0 +1,1069 @@
+package org.jfree.data.time.ohlc;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jfree.chart.util.Args;
+import org.jfree.chart.util.PublicCloneable;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetItemChangeEvent;
+import org.jfree.data.general.SeriesException;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.XYRangeInfo;
+
+/**
+ * A single series of (time, open, high, low, close, volume) items held in
+ * parallel primitive arrays rather than one {@link OHLCItem} object per bar.
+ * Items must be added in strictly ascending time order.  When a maximum item
+ * count is set, the arrays are used as a ring buffer so that appending to a
+ * full series overwrites the oldest bar without shifting any data.
+ * <P>
+ * The x-value for each item is the time passed to
+ * {@link #add(long, double, double, double, double, double)}, in
+ * milliseconds.
+ *
+ * @see OHLCSeries
+ */
+public class ColumnarOHLCDataset extends AbstractXYDataset implements OHLCDataset, DomainInfo, RangeInfo, XYRangeInfo, PublicCloneable, Serializable {
+	private static final long serialVersionUID = -4125296315066402951L;
+
+	/** The default initial capacity. */
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	/** The series key. */
+	private Comparable key;
+
+	/** The item times (x-values). */
+	private long[] time;
+
+	/** The open values. */
+	private double[] open;
+
+	/** The high values. */
+	private double[] high;
+
+	/** The low values. */
+	private double[] low;
+
+	/** The close values. */
+	private double[] close;
+
+	/** The volume values. */
+	private double[] volume;
+
+	/** The array slot holding item zero. */
+	private int start;
+
+	/** The number of items in the series. */
+	private int count;
+
+	/** The maximum number of items for the series. */
+	private int maximumItemCount = Integer.MAX_VALUE;
+
+	/** A flag that indicates whether the cached bounds below are valid. */
+	private transient boolean boundsValid;
+
+	/** The lowest low value (valid only when {@code boundsValid}). */
+	private transient double minLow;
+
+	/** The highest high value (valid only when {@code boundsValid}). */
+	private transient double maxHigh;
+
+	/** The lowest close value (valid only when {@code boundsValid}). */
+	private transient double minClose;
+
+	/** The highest close value (valid only when {@code boundsValid}). */
+	private transient double maxClose;
+
+	/**
+	 * Min/max indexes over the low, high, close and volume arrays, built on
+	 * first use and maintained as items are written ({@code null} until then,
+	 * and whenever the arrays are reallocated).
+	 */
+	private transient MinMaxIndex lowIndex;
+	private transient MinMaxIndex highIndex;
+	private transient MinMaxIndex closeIndex;
+	private transient MinMaxIndex volumeIndex;
+
+	/**
+	 * Creates a new empty dataset with the default initial capacity.
+	 *
+	 * @param key  the series key ({@code null} not permitted).
+	 */
+	public ColumnarOHLCDataset(Comparable key) {
+		this(key, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new empty dataset.
+	 *
+	 * @param key  the series key ({@code null} not permitted).
+	 * @param initialCapacity  the number of items to allocate space for.
+	 */
+	public ColumnarOHLCDataset(Comparable key, int initialCapacity) {
+		Args.nullNotPermitted(key, "key");
+		Args.requireNonNegative(initialCapacity, "initialCapacity");
+
+		this.key 	= key;
+		int capacity = Math.max(initialCapacity, 1);
+		time 		= new long[capacity];
+		open 		= new double[capacity];
+		high 		= new double[capacity];
+		low 		= new double[capacity];
+		close 		= new double[capacity];
+		volume 		= new double[capacity];
+		start 		= 0;
+		count 		= 0;
+		boundsValid = false;
+	}
+
+	/**
+	 * Returns the series key.
+	 *
+	 * @return The series key (never {@code null}).
+	 */
+	public Comparable getKey() {
+		return key;
+	}
+
+	/**
+	 * Returns the maximum number of items that will be retained in the
+	 * series.  The default value is {@code Integer.MAX_VALUE}.
+	 *
+	 * @return The maximum item count.
+	 *
+	 * @see #setMaximumItemCount(int)
+	 */
+	public int getMaximumItemCount() {
+		return maximumItemCount;
+	}
+
+	/**
+	 * Sets the maximum number of items that will be retained in the series.
+	 * Once the series is full, each new item overwrites the oldest one.  If
+	 * the series currently holds more items than the new maximum, the oldest
+	 * items are discarded and a {@link DatasetChangeEvent} is sent to all
+	 * registered listeners.
+	 *
+	 * @param maximum  the maximum number of items (must be positive).
+	 */
+	public void setMaximumItemCount(int maximum) {
+		if(maximum <= 0) throw new IllegalArgumentException("Requires 'maximum' > 0.");
+
+		maximumItemCount = maximum;
+
+		boolean dataRemoved = count > maximum;
+		if(dataRemoved) {
+			start = slot(count - maximum);
+			count = maximum;
+			boundsValid = false;
+		}
+
+		// a bounded series never needs more than 'maximum' slots
+		if(maximum < time.length) reallocate(Math.max(maximum, count));
+
+		if(dataRemoved) fireDatasetChanged();
+	}
+
+	/**
+	 * Returns the number of items the series can hold before its storage is
+	 * grown.
+	 *
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+		return time.length;
+	}
+
+	/**
+	 * Ensures that the series can hold at least {@code minCapacity} items
+	 * without growing its storage again.
+	 *
+	 * @param minCapacity  the required capacity.
+	 */
+	public void ensureCapacity(int minCapacity) {
+		int target = Math.min(minCapacity, maximumItemCount);
+		if(target > time.length) reallocate(target);
+	}
+
+	/**
+	 * Adds a bar to the end of the series and sends a
+	 * {@link DatasetChangeEvent} to all registered listeners.
+	 *
+	 * @param time  the bar time in milliseconds (must be greater than the
+	 *     time of the last bar in the series).
+	 * @param open  the open value.
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 */
+	public void add(long time, double open, double high, double low, double close, double volume) {
+		add(time, open, high, low, close, volume, true);
+	}
+
+	/**
+	 * Adds a bar to the end of the series and, if requested, sends a
+	 * {@link DatasetChangeEvent} to all registered listeners.  If the series
+	 * already holds the maximum number of items, the oldest bar is
+	 * overwritten.
+	 *
+	 * @param time  the bar time in milliseconds (must be greater than the
+	 *     time of the last bar in the series).
+	 * @param open  the open value.
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 * @param notify  notify listeners?
+	 *
+	 * @throws SeriesException if {@code time} is not after the last bar.
+	 */
+	public void add(long time, double open, double high, double low, double close, double volume, boolean notify) {
+		if(count > 0 && time <= this.time[slot(count - 1)]) {
+			throw new SeriesException("Time must be after the last item in the series.");
+		}
+
+		int index;
+		if(count == maximumItemCount) {
+			// full ring - overwrite the oldest slot
+			index = start;
+			start = slot(1);
+			boundsValid = false;
+		}
+		else {
+			if(count == this.time.length) reallocate(Math.min(grow(count), maximumItemCount));
+
+			index = slot(count);
+			count++;
+		}
+
+		this.time[index] 	= time;
+		this.open[index] 	= open;
+		this.high[index] 	= high;
+		this.low[index] 	= low;
+		this.close[index] 	= close;
+		this.volume[index] 	= volume;
+
+		if(lowIndex != null) updateIndexes(index);
+		if(boundsValid) include(high, low, close);
+
+		if(notify) fireDatasetChanged();
+	}
+
+	/**
+	 * Replaces the values of an existing bar (the time is unchanged) and
+	 * sends a {@link DatasetItemChangeEvent} to all registered listeners.
+	 *
+	 * @param item  the item index (zero-based).
+	 * @param open  the open value.
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 */
+	public void update(int item, double open, double high, double low, double close, double volume) {
+		int index = checkedSlot(item);
+
+		// the cached bounds only need a rescan if this item held an extreme
+		// value and is moving inwards
+		boolean narrowed = boundsValid && (
+			(this.high[index] == maxHigh && high < maxHigh) ||
+			(this.low[index] == minLow && low > minLow) ||
+			(this.close[index] == maxClose && close < maxClose) ||
+			(this.close[index] == minClose && close > minClose)
+		);
+
+		double oldLow = this.low[index];
+		double oldHigh = this.high[index];
+
+		this.open[index] 	= open;
+		this.high[index] 	= high;
+		this.low[index] 	= low;
+		this.close[index] 	= close;
+		this.volume[index] 	= volume;
+
+		if(lowIndex != null) updateIndexes(index);
+		if(narrowed) boundsValid = false;
+		else if(boundsValid) include(high, low, close);
+
+		if(getNotify()) notifyListeners(new DatasetItemChangeEvent(this, this, 0, item, oldLow, oldHigh, low, high));
+	}
+
+	/**
+	 * Removes all items from the series and, unless the series is already
+	 * empty, sends a {@link DatasetChangeEvent} to all registered listeners.
+	 * The storage is retained for reuse.
+	 */
+	public void clear() {
+		if(count > 0) {
+			start = 0;
+			count = 0;
+			boundsValid = false;
+
+			fireDatasetChanged();
+		}
+	}
+
+	/**
+	 * Returns the index of the item with the specified time, or a negative
+	 * value (as for {@link Arrays#binarySearch(long[], long)}) if there is no
+	 * such item.
+	 *
+	 * @param time  the time in milliseconds.
+	 *
+	 * @return The item index.
+	 */
+	public int indexOf(long time) {
+		int lo = 0;
+		int hi = count - 1;
+
+		while(lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			long t = this.time[slot(mid)];
+
+			if(t < time) lo = mid + 1;
+			else if(t > time) hi = mid - 1;
+			else return mid;
+		}
+
+		return -(lo + 1);
+	}
+
+	/**
+	 * Returns the number of items in the series.
+	 *
+	 * @return The item count.
+	 */
+	public int getItemCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the time for an item.
+	 *
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The time in milliseconds.
+	 */
+	public long getTime(int item) {
+		return time[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the open value for an item.
+	 *
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The open value.
+	 */
+	public double getOpenValue(int item) {
+		return open[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the high value for an item.
+	 *
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The high value.
+	 */
+	public double getHighValue(int item) {
+		return high[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the low value for an item.
+	 *
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The low value.
+	 */
+	public double getLowValue(int item) {
+		return low[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the close value for an item.
+	 *
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The close value.
+	 */
+	public double getCloseValue(int item) {
+		return close[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the volume for an item.
+	 *
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The volume.
+	 */
+	public double getVolumeValue(int item) {
+		return volume[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the number of series in the dataset (always 1).
+	 *
+	 * @return The series count.
+	 */
+	@Override
+	public int getSeriesCount() {
+		return 1;
+	}
+
+	/**
+	 * Returns the key for the series.
+	 *
+	 * @param series  the series index (ignored).
+	 *
+	 * @return The series key.
+	 */
+	@Override
+	public Comparable getSeriesKey(int series) {
+		return key;
+	}
+
+	/**
+	 * Returns the number of items in the series.
+	 *
+	 * @param series  the series index (ignored).
+	 *
+	 * @return The item count.
+	 */
+	@Override
+	public int getItemCount(int series) {
+		return count;
+	}
+
+	/**
+	 * Returns {@link DomainOrder#ASCENDING}, since items are always held in
+	 * time order.
+	 *
+	 * @return The domain order.
+	 */
+	@Override
+	public DomainOrder getDomainOrder() {
+		return DomainOrder.ASCENDING;
+	}
+
+	/**
+	 * Returns the x-value for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The x-value.
+	 */
+	@Override
+	public double getXValue(int series, int item) {
+		return time[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the x-value for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The x-value.
+	 */
+	@Override
+	public Number getX(int series, int item) {
+		return Double.valueOf(getXValue(series, item));
+	}
+
+	/**
+	 * Returns the y-value (the close value) for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The y-value.
+	 */
+	@Override
+	public double getYValue(int series, int item) {
+		return close[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the y-value (the close value) for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The y-value.
+	 */
+	@Override
+	public Number getY(int series, int item) {
+		return Double.valueOf(getYValue(series, item));
+	}
+
+	/**
+	 * Returns the open-value for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The open-value.
+	 */
+	@Override
+	public double getOpenValue(int series, int item) {
+		return open[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the open-value for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The open-value.
+	 */
+	@Override
+	public Number getOpen(int series, int item) {
+		return Double.valueOf(getOpenValue(series, item));
+	}
+
+	/**
+	 * Returns the high-value for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The high-value.
+	 */
+	@Override
+	public double getHighValue(int series, int item) {
+		return high[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the high-value for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The high-value.
+	 */
+	@Override
+	public Number getHigh(int series, int item) {
+		return Double.valueOf(getHighValue(series, item));
+	}
+
+	/**
+	 * Returns the low-value for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The low-value.
+	 */
+	@Override
+	public double getLowValue(int series, int item) {
+		return low[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the low-value for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The low-value.
+	 */
+	@Override
+	public Number getLow(int series, int item) {
+		return Double.valueOf(getLowValue(series, item));
+	}
+
+	/**
+	 * Returns the close-value for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The close-value.
+	 */
+	@Override
+	public double getCloseValue(int series, int item) {
+		return close[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the close-value for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The close-value.
+	 */
+	@Override
+	public Number getClose(int series, int item) {
+		return Double.valueOf(getCloseValue(series, item));
+	}
+
+	/**
+	 * Returns the volume for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The volume.
+	 */
+	@Override
+	public double getVolumeValue(int series, int item) {
+		return volume[checkedSlot(item)];
+	}
+
+	/**
+	 * Returns the volume for an item.
+	 *
+	 * @param series  the series index (ignored).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The volume.
+	 */
+	@Override
+	public Number getVolume(int series, int item) {
+		return Double.valueOf(getVolumeValue(series, item));
+	}
+
+	/**
+	 * Returns the minimum x-value in the dataset.
+	 *
+	 * @param includeInterval  ignored, the items carry no x-interval.
+	 *
+	 * @return The minimum value, or {@code Double.NaN} if the series is
+	 *     empty.
+	 */
+	@Override
+	public double getDomainLowerBound(boolean includeInterval) {
+		return count > 0 ? time[start] : Double.NaN;
+	}
+
+	/**
+	 * Returns the maximum x-value in the dataset.
+	 *
+	 * @param includeInterval  ignored, the items carry no x-interval.
+	 *
+	 * @return The maximum value, or {@code Double.NaN} if the series is
+	 *     empty.
+	 */
+	@Override
+	public double getDomainUpperBound(boolean includeInterval) {
+		return count > 0 ? time[slot(count - 1)] : Double.NaN;
+	}
+
+	/**
+	 * Returns the range of x-values in the dataset.
+	 *
+	 * @param includeInterval  ignored, the items carry no x-interval.
+	 *
+	 * @return The range ({@code null} if the series is empty).
+	 */
+	@Override
+	public Range getDomainBounds(boolean includeInterval) {
+		if(count == 0) return null;
+
+		return new Range(time[start], time[slot(count - 1)]);
+	}
+
+	/**
+	 * Returns the minimum y-value in the dataset.
+	 *
+	 * @param includeInterval  if {@code true} the low values are used,
+	 *     otherwise the close values.
+	 *
+	 * @return The minimum value, or {@code Double.NaN} if the series is
+	 *     empty.
+	 */
+	@Override
+	public double getRangeLowerBound(boolean includeInterval) {
+		if(count == 0) return Double.NaN;
+
+		validateBounds();
+
+		return includeInterval ? minLow : minClose;
+	}
+
+	/**
+	 * Returns the maximum y-value in the dataset.
+	 *
+	 * @param includeInterval  if {@code true} the high values are used,
+	 *     otherwise the close values.
+	 *
+	 * @return The maximum value, or {@code Double.NaN} if the series is
+	 *     empty.
+	 */
+	@Override
+	public double getRangeUpperBound(boolean includeInterval) {
+		if(count == 0) return Double.NaN;
+
+		validateBounds();
+
+		return includeInterval ? maxHigh : maxClose;
+	}
+
+	/**
+	 * Returns the range of y-values in the dataset.  The bounds are
+	 * maintained as items are appended, so this is normally a constant time
+	 * operation.
+	 *
+	 * @param includeInterval  if {@code true} the low and high values are
+	 *     used, otherwise the close values.
+	 *
+	 * @return The range ({@code null} if the series is empty or contains
+	 *     only {@code NaN} values).
+	 */
+	@Override
+	public Range getRangeBounds(boolean includeInterval) {
+		if(count == 0) return null;
+
+		validateBounds();
+
+		double lower = includeInterval ? minLow : minClose;
+		double upper = includeInterval ? maxHigh : maxClose;
+		if(lower > upper) return null;
+
+		return new Range(lower, upper);
+	}
+
+	/**
+	 * Returns the range of y-values for the items whose x-value falls within
+	 * {@code xRange}.  The first and last items in the window are located by
+	 * binary search, and the extremes between them are read from a min/max
+	 * index, so this is an O(log n) operation.
+	 *
+	 * @param visibleSeriesKeys  the visible series keys ({@code null} not
+	 *     permitted).
+	 * @param xRange  the x-range ({@code null} not permitted).
+	 * @param includeInterval  if {@code true} the low and high values are
+	 *     used, otherwise the close values.
+	 *
+	 * @return The range (possibly {@code null}).
+	 */
+	@Override
+	public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+		Args.nullNotPermitted(visibleSeriesKeys, "visibleSeriesKeys");
+		Args.nullNotPermitted(xRange, "xRange");
+
+		if(!visibleSeriesKeys.contains(key)) return null;
+
+		int first = firstIndexAtOrAfter(xRange.getLowerBound());
+		int last = lastIndexAtOrBefore(xRange.getUpperBound());
+		if(first > last) return null;
+
+		validateIndexes();
+
+		double minimum = min(includeInterval ? lowIndex : closeIndex, first, last);
+		double maximum = max(includeInterval ? highIndex : closeIndex, first, last);
+		if(minimum > maximum) return null;
+
+		return new Range(minimum, maximum);
+	}
+
+	/**
+	 * Returns the range of volume values for the items whose x-value falls
+	 * within {@code xRange}, in O(log n) time.
+	 *
+	 * @param xRange  the x-range ({@code null} not permitted).
+	 *
+	 * @return The range ({@code null} if there are no items in the window).
+	 */
+	public Range getVolumeBounds(Range xRange) {
+		Args.nullNotPermitted(xRange, "xRange");
+
+		int first = firstIndexAtOrAfter(xRange.getLowerBound());
+		int last = lastIndexAtOrBefore(xRange.getUpperBound());
+		if(first > last) return null;
+
+		validateIndexes();
+
+		double minimum = min(volumeIndex, first, last);
+		double maximum = max(volumeIndex, first, last);
+		if(minimum > maximum) return null;
+
+		return new Range(minimum, maximum);
+	}
+
+	/**
+	 * Returns the index of the first item with a time greater than or equal
+	 * to {@code x} (or the item count if there is no such item).
+	 *
+	 * @param x  the x-value.
+	 *
+	 * @return The item index.
+	 */
+	public int firstIndexAtOrAfter(double x) {
+		int lo = 0;
+		int hi = count;
+
+		while(lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if(time[slot(mid)] < x) lo = mid + 1;
+			else hi = mid;
+		}
+
+		return lo;
+	}
+
+	/**
+	 * Returns the index of the last item with a time less than or equal to
+	 * {@code x} (or -1 if there is no such item).
+	 *
+	 * @param x  the x-value.
+	 *
+	 * @return The item index.
+	 */
+	public int lastIndexAtOrBefore(double x) {
+		int lo = 0;
+		int hi = count;
+
+		while(lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if(time[slot(mid)] <= x) lo = mid + 1;
+			else hi = mid;
+		}
+
+		return lo - 1;
+	}
+
+	/**
+	 * Maps an item index to its array slot.
+	 *
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The array slot.
+	 */
+	private int slot(int item) {
+		int index = start + item;
+
+		return index < time.length ? index : index - time.length;
+	}
+
+	/**
+	 * Maps an item index to its array slot, after checking the index.
+	 *
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The array slot.
+	 */
+	private int checkedSlot(int item) {
+		if(item < 0 || item >= count) {
+			throw new IndexOutOfBoundsException("Index: " + item + ", Size: " + count);
+		}
+
+		return slot(item);
+	}
+
+	/**
+	 * Returns the new capacity to use when a full series is grown.
+	 *
+	 * @param current  the current capacity.
+	 *
+	 * @return The new capacity.
+	 */
+	private static int grow(int current) {
+		int result = current + (current >> 1) + 1;
+
+		return result < 0 ? Integer.MAX_VALUE : result;
+	}
+
+	/**
+	 * Moves the items into new arrays of the given capacity, unwrapping the
+	 * ring so that item zero is in slot zero.
+	 *
+	 * @param capacity  the new capacity (at least {@code count}).
+	 */
+	private void reallocate(int capacity) {
+		time 	= copy(time, capacity);
+		open 	= copy(open, capacity);
+		high 	= copy(high, capacity);
+		low 	= copy(low, capacity);
+		close 	= copy(close, capacity);
+		volume 	= copy(volume, capacity);
+		start 	= 0;
+
+		// the indexes refer to the old arrays
+		lowIndex 	= null;
+		highIndex 	= null;
+		closeIndex 	= null;
+		volumeIndex = null;
+	}
+
+	private long[] copy(long[] source, int capacity) {
+		long[] result = new long[capacity];
+		int head = Math.min(count, source.length - start);
+		System.arraycopy(source, start, result, 0, head);
+		System.arraycopy(source, 0, result, head, count - head);
+
+		return result;
+	}
+
+	private double[] copy(double[] source, int capacity) {
+		double[] result = new double[capacity];
+		int head = Math.min(count, source.length - start);
+		System.arraycopy(source, start, result, 0, head);
+		System.arraycopy(source, 0, result, head, count - head);
+
+		return result;
+	}
+
+	/**
+	 * Widens the cached bounds to include the given values.
+	 */
+	private void include(double high, double low, double close) {
+		if(low < minLow) minLow = low;
+		if(high > maxHigh) maxHigh = high;
+		if(close < minClose) minClose = close;
+		if(close > maxClose) maxClose = close;
+	}
+
+	/**
+	 * Recalculates the cached bounds if they have been invalidated.
+	 */
+	private void validateBounds() {
+		if(boundsValid) return;
+
+		validateIndexes();
+
+		minLow 		= min(lowIndex, 0, count - 1);
+		maxHigh 	= max(highIndex, 0, count - 1);
+		minClose 	= min(closeIndex, 0, count - 1);
+		maxClose 	= max(closeIndex, 0, count - 1);
+
+		boundsValid = true;
+	}
+
+	/**
+	 * Builds the min/max indexes if they do not exist.
+	 */
+	private void validateIndexes() {
+		if(lowIndex != null) return;
+
+		lowIndex 	= new MinMaxIndex(low);
+		highIndex 	= new MinMaxIndex(high);
+		closeIndex 	= new MinMaxIndex(close);
+		volumeIndex = new MinMaxIndex(volume);
+	}
+
+	/**
+	 * Updates the min/max indexes after the given array slot was written.
+	 */
+	private void updateIndexes(int index) {
+		lowIndex.update(index);
+		highIndex.update(index);
+		closeIndex.update(index);
+		volumeIndex.update(index);
+	}
+
+	/**
+	 * Returns the minimum indexed value for the items {@code first} to
+	 * {@code last}, which may wrap around the end of the arrays.
+	 */
+	private double min(MinMaxIndex index, int first, int last) {
+		int from = slot(first);
+		int to = slot(last);
+		if(from <= to) return index.min(from, to);
+
+		return Math.min(index.min(from, time.length - 1), index.min(0, to));
+	}
+
+	/**
+	 * Returns the maximum indexed value for the items {@code first} to
+	 * {@code last}, which may wrap around the end of the arrays.
+	 */
+	private double max(MinMaxIndex index, int first, int last) {
+		int from = slot(first);
+		int to = slot(last);
+		if(from <= to) return index.max(from, to);
+
+		return Math.max(index.max(from, time.length - 1), index.max(0, to));
+	}
+
+	/**
+	 * Tests this instance for equality with an arbitrary object.
+	 *
+	 * @param obj  the object ({@code null} permitted).
+	 *
+	 * @return A boolean.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(obj == this) return true;
+
+		if(!(obj instanceof ColumnarOHLCDataset)) return false;
+
+		ColumnarOHLCDataset that = (ColumnarOHLCDataset) obj;
+		if(!key.equals(that.key)) return false;
+		if(maximumItemCount != that.maximumItemCount) return false;
+		if(count != that.count) return false;
+
+		for(int item = 0; item < count; item++) {
+			int i = slot(item);
+			int j = that.slot(item);
+
+			if(time[i] != that.time[j]) return false;
+			if(Double.compare(open[i], that.open[j]) != 0) return false;
+			if(Double.compare(high[i], that.high[j]) != 0) return false;
+			if(Double.compare(low[i], that.low[j]) != 0) return false;
+			if(Double.compare(close[i], that.close[j]) != 0) return false;
+			if(Double.compare(volume[i], that.volume[j]) != 0) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns a hash code for this instance.
+	 *
+	 * @return A hash code.
+	 */
+	@Override
+	public int hashCode() {
+		int result = key.hashCode();
+		result = 29 * result + count;
+		if(count > 0) {
+			result = 29 * result + (int) (time[start] ^ (time[start] >>> 32));
+
+			long last = time[slot(count - 1)];
+			result = 29 * result + (int) (last ^ (last >>> 32));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns an independent copy of this dataset.
+	 *
+	 * @return A clone.
+	 *
+	 * @throws CloneNotSupportedException if there is a problem.
+	 */
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		ColumnarOHLCDataset clone = (ColumnarOHLCDataset) super.clone();
+		clone.time 		= time.clone();
+		clone.open 		= open.clone();
+		clone.high 		= high.clone();
+		clone.low 		= low.clone();
+		clone.close 	= close.clone();
+		clone.volume 	= volume.clone();
+		clone.lowIndex 		= null;
+		clone.highIndex 	= null;
+		clone.closeIndex 	= null;
+		clone.volumeIndex 	= null;
+
+		return clone;
+	}
+}
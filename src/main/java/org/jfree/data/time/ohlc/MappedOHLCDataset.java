@@ -0,0 +1,578 @@
+package org.jfree.data.time.ohlc;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jfree.chart.util.Args;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.SeriesException;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.XYRangeInfo;
+
+/**
+ * A single OHLC series read directly from a candle archive file through
+ * memory-mapped buffers.  Opening a file only maps it, so it is fast
+ * whatever the file size, and the operating system reads pages in as items
+ * are accessed - normally just the visible window.  A dataset opened for
+ * writing appends bars straight into the file.
+ * <P>
+ * The file holds one symbol at one bar size.  It starts with a
+ * {@value #HEADER_SIZE}-byte header (big-endian):
+ * <pre>
+ *  0  int    magic ('OHLC')
+ *  4  int    format version (1)
+ *  8  long   bar size in milliseconds
+ * 16  long   number of bars
+ * </pre>
+ * followed by fixed {@value #RECORD_SIZE}-byte records in ascending time
+ * order: time (long, milliseconds), then open, high, low, close and volume
+ * (double).
+ *
+ * @see ColumnarOHLCDataset
+ */
+public class MappedOHLCDataset extends AbstractXYDataset implements OHLCDataset, DomainInfo, XYRangeInfo, Closeable {
+	private static final long serialVersionUID = -2214856170284317164L;
+
+	/** The file magic number. */
+	private static final int MAGIC = 0x4F484C43;
+
+	/** The file format version. */
+	private static final int VERSION = 1;
+
+	/** The header size in bytes. */
+	public static final int HEADER_SIZE = 64;
+
+	/** The record size in bytes. */
+	public static final int RECORD_SIZE = 48;
+
+	private static final int COUNT_OFFSET = 16;
+
+	private static final int OPEN = 8, HIGH = 16, LOW = 24, CLOSE = 32, VOLUME = 40;
+
+	/** Records are mapped in segments of 2^20 (48 MB). */
+	private static final int SEGMENT_SHIFT = 20;
+	private static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+	private static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+
+	/** The series key. */
+	private final Comparable key;
+
+	/** The file. */
+	private transient RandomAccessFile file;
+
+	/** Is the file open for appending? */
+	private final boolean writable;
+
+	/** The mapped header. */
+	private transient MappedByteBuffer header;
+
+	/**
+	 * The mapped record segments.  The array is never changed once
+	 * published; mapping a segment publishes a new copy, so readers on other
+	 * threads see either the old array or the whole new one.
+	 */
+	private transient volatile MappedByteBuffer[] segments;
+
+	/** The bar size in milliseconds. */
+	private final long interval;
+
+	/**
+	 * The number of bars.  It is written after the bar it counts, so a
+	 * thread that reads it sees the bars it covers.
+	 */
+	private volatile int count;
+
+	/** Is the cached result of the last y-range query valid? */
+	private transient boolean boundsValid;
+
+	/** The window and value type of the last y-range query. */
+	private transient int boundsFirst, boundsLast;
+	private transient boolean boundsInterval;
+
+	/** The y-range found by the last query. */
+	private transient double boundsMinimum, boundsMaximum;
+
+	/**
+	 * Creates a new, empty archive file (replacing any existing file) and
+	 * opens it for appending.
+	 *
+	 * @param file  the file ({@code null} not permitted).
+	 * @param key  the series key ({@code null} not permitted).
+	 * @param interval  the bar size in milliseconds.
+	 *
+	 * @return The dataset.
+	 *
+	 * @throws IOException if the file cannot be created.
+	 */
+	public static MappedOHLCDataset create(File file, Comparable key, long interval) throws IOException {
+		Args.nullNotPermitted(file, "file");
+
+		try(RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(0);
+			raf.writeInt(MAGIC);
+			raf.writeInt(VERSION);
+			raf.writeLong(interval);
+			raf.writeLong(0);
+			raf.setLength(HEADER_SIZE);
+		}
+
+		return open(file, key, true);
+	}
+
+	/**
+	 * Opens an existing archive file.
+	 *
+	 * @param file  the file ({@code null} not permitted).
+	 * @param key  the series key ({@code null} not permitted).
+	 * @param writable  open the file for appending?
+	 *
+	 * @return The dataset.
+	 *
+	 * @throws IOException if the file cannot be read or is not an archive.
+	 */
+	public static MappedOHLCDataset open(File file, Comparable key, boolean writable) throws IOException {
+		Args.nullNotPermitted(file, "file");
+		Args.nullNotPermitted(key, "key");
+
+		RandomAccessFile raf = new RandomAccessFile(file, writable ? "rw" : "r");
+		try {
+			return new MappedOHLCDataset(raf, key, writable);
+		}
+		catch(IOException | RuntimeException e) {
+			raf.close();
+
+			throw e;
+		}
+	}
+
+	private MappedOHLCDataset(RandomAccessFile file, Comparable key, boolean writable) throws IOException {
+		this.file 		= file;
+		this.key 		= key;
+		this.writable 	= writable;
+
+		FileChannel channel = file.getChannel();
+		if(channel.size() < HEADER_SIZE) throw new IOException("Not a candle archive (file too short).");
+
+		header = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+		if(header.getInt(0) != MAGIC) throw new IOException("Not a candle archive (bad magic number).");
+		if(header.getInt(4) != VERSION) throw new IOException("Unsupported candle archive version: " + header.getInt(4));
+
+		interval = header.getLong(8);
+
+		long records = header.getLong(COUNT_OFFSET);
+		long available = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+		if(records < 0 || records > available || records > Integer.MAX_VALUE) {
+			throw new IOException("Corrupt candle archive (bar count " + records + ").");
+		}
+		count = (int) records;
+
+		segments = new MappedByteBuffer[Math.max((count + SEGMENT_MASK) >> SEGMENT_SHIFT, 1)];
+	}
+
+	/**
+	 * Returns the buffer for the segment holding {@code item}, mapping it if
+	 * necessary.
+	 */
+	private MappedByteBuffer segment(int item) {
+		int index = item >> SEGMENT_SHIFT;
+		MappedByteBuffer[] current = segments;
+		if(index < current.length && current[index] != null) return current[index];
+
+		return mapSegment(index);
+	}
+
+	/**
+	 * Maps a segment that the current array does not hold yet, and
+	 * publishes a copy of the array that does.
+	 */
+	private synchronized MappedByteBuffer mapSegment(int index) {
+		MappedByteBuffer[] current = segments;
+		MappedByteBuffer result = index < current.length ? current[index] : null;
+		if(result == null) {
+			try {
+				long position = HEADER_SIZE + (long) index * SEGMENT_RECORDS * RECORD_SIZE;
+				long size;
+				if(writable) {
+					// map the whole segment; this grows the file as needed
+					size = (long) SEGMENT_RECORDS * RECORD_SIZE;
+					result = file.getChannel().map(FileChannel.MapMode.READ_WRITE, position, size);
+				}
+				else {
+					size = Math.min((long) SEGMENT_RECORDS * RECORD_SIZE, file.getChannel().size() - position);
+					result = file.getChannel().map(FileChannel.MapMode.READ_ONLY, position, size);
+				}
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			MappedByteBuffer[] grown = Arrays.copyOf(current, Math.max(current.length, index + 1));
+			grown[index] = result;
+			segments = grown;
+		}
+
+		return result;
+	}
+
+	private static int offset(int item) {
+		return (item & SEGMENT_MASK) * RECORD_SIZE;
+	}
+
+	private int checkItem(int item) {
+		if(item < 0 || item >= count) throw new IndexOutOfBoundsException("Index: " + item + ", Size: " + count);
+
+		return item;
+	}
+
+	/**
+	 * Returns the bar size.
+	 *
+	 * @return The bar size in milliseconds.
+	 */
+	public long getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Returns {@code true} if bars can be appended to the file.
+	 *
+	 * @return A boolean.
+	 */
+	public boolean isWritable() {
+		return writable;
+	}
+
+	/**
+	 * Appends a bar to the file, or replaces the last bar if it has the same
+	 * time, and sends a {@link DatasetChangeEvent} to all registered
+	 * listeners.  The bar count is a volatile field written after the
+	 * record, so a reader on another thread never sees a partly written new
+	 * bar.  A replaced last bar is overwritten in place, so a reader on
+	 * another thread may see it part-way through the update.
+	 *
+	 * @param time  the bar time in milliseconds (must not be before the
+	 *     last bar).
+	 * @param open  the open value.
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 *
+	 * @throws SeriesException if {@code time} is before the last bar.
+	 * @throws UncheckedIOException if the file cannot be extended.
+	 */
+	public void add(long time, double open, double high, double low, double close, double volume) {
+		if(!writable) throw new IllegalStateException("The archive is open read-only.");
+
+		int item = count;
+		if(count > 0) {
+			long last = getTime(count - 1);
+			if(time < last) throw new SeriesException("Bars must be added in ascending time order.");
+			if(time == last) item = count - 1;
+		}
+
+		MappedByteBuffer buffer = segment(item);
+		int offset = offset(item);
+		buffer.putLong(offset, time);
+		buffer.putDouble(offset + OPEN, open);
+		buffer.putDouble(offset + HIGH, high);
+		buffer.putDouble(offset + LOW, low);
+		buffer.putDouble(offset + CLOSE, close);
+		buffer.putDouble(offset + VOLUME, volume);
+
+		if(item == count) {
+			header.putLong(COUNT_OFFSET, item + 1);
+			count = item + 1;
+		}
+		else {
+			synchronized(this) {
+				if(item <= boundsLast) boundsValid = false;
+			}
+		}
+
+		fireDatasetChanged();
+	}
+
+	/**
+	 * Writes any changes through to the storage device.
+	 */
+	public void flush() {
+		if(!writable) return;
+
+		for(MappedByteBuffer segment : segments) {
+			if(segment != null) segment.force();
+		}
+		header.force();
+	}
+
+	/**
+	 * Flushes any changes and closes the file.  The dataset must not be used
+	 * afterwards.  A file that has been written to may be longer than its
+	 * bars need (up to one segment); the header holds the true bar count.
+	 *
+	 * @throws IOException if there is an I/O error.
+	 */
+	@Override
+	public void close() throws IOException {
+		flush();
+		file.close();
+	}
+
+	/**
+	 * Returns the number of bars.
+	 *
+	 * @return The number of bars.
+	 */
+	public int getItemCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the time of a bar.
+	 *
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The time in milliseconds.
+	 */
+	public long getTime(int item) {
+		return segment(checkItem(item)).getLong(offset(item));
+	}
+
+	private double value(int item, int field) {
+		return segment(checkItem(item)).getDouble(offset(item) + field);
+	}
+
+	/**
+	 * Returns the index of the first bar with a time greater than or equal
+	 * to {@code x} (or the item count if there is no such bar).
+	 *
+	 * @param x  the x-value.
+	 *
+	 * @return The item index.
+	 */
+	public int firstIndexAtOrAfter(double x) {
+		int lo = 0;
+		int hi = count;
+
+		while(lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if(getTime(mid) < x) lo = mid + 1;
+			else hi = mid;
+		}
+
+		return lo;
+	}
+
+	/**
+	 * Returns the index of the last bar with a time less than or equal to
+	 * {@code x} (or -1 if there is no such bar).
+	 *
+	 * @param x  the x-value.
+	 *
+	 * @return The item index.
+	 */
+	public int lastIndexAtOrBefore(double x) {
+		int lo = 0;
+		int hi = count;
+
+		while(lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if(getTime(mid) <= x) lo = mid + 1;
+			else hi = mid;
+		}
+
+		return lo - 1;
+	}
+
+	@Override
+	public int getSeriesCount() {
+		return 1;
+	}
+
+	@Override
+	public Comparable getSeriesKey(int series) {
+		if(series != 0) throw new IllegalArgumentException("Invalid series index: " + series);
+
+		return key;
+	}
+
+	@Override
+	public int getItemCount(int series) {
+		return count;
+	}
+
+	@Override
+	public DomainOrder getDomainOrder() {
+		return DomainOrder.ASCENDING;
+	}
+
+	@Override
+	public double getXValue(int series, int item) {
+		return getTime(item);
+	}
+
+	@Override
+	public Number getX(int series, int item) {
+		return Long.valueOf(getTime(item));
+	}
+
+	@Override
+	public double getYValue(int series, int item) {
+		return value(item, CLOSE);
+	}
+
+	@Override
+	public Number getY(int series, int item) {
+		return Double.valueOf(value(item, CLOSE));
+	}
+
+	@Override
+	public double getOpenValue(int series, int item) {
+		return value(item, OPEN);
+	}
+
+	@Override
+	public Number getOpen(int series, int item) {
+		return Double.valueOf(value(item, OPEN));
+	}
+
+	@Override
+	public double getHighValue(int series, int item) {
+		return value(item, HIGH);
+	}
+
+	@Override
+	public Number getHigh(int series, int item) {
+		return Double.valueOf(value(item, HIGH));
+	}
+
+	@Override
+	public double getLowValue(int series, int item) {
+		return value(item, LOW);
+	}
+
+	@Override
+	public Number getLow(int series, int item) {
+		return Double.valueOf(value(item, LOW));
+	}
+
+	@Override
+	public double getCloseValue(int series, int item) {
+		return value(item, CLOSE);
+	}
+
+	@Override
+	public Number getClose(int series, int item) {
+		return Double.valueOf(value(item, CLOSE));
+	}
+
+	@Override
+	public double getVolumeValue(int series, int item) {
+		return value(item, VOLUME);
+	}
+
+	@Override
+	public Number getVolume(int series, int item) {
+		return Double.valueOf(value(item, VOLUME));
+	}
+
+	/**
+	 * Returns the time of the first bar, without touching the rest of the
+	 * file.
+	 *
+	 * @param includeInterval  ignored.
+	 *
+	 * @return The minimum x-value, or {@code Double.NaN} if there are no bars.
+	 */
+	@Override
+	public double getDomainLowerBound(boolean includeInterval) {
+		return count > 0 ? getTime(0) : Double.NaN;
+	}
+
+	/**
+	 * Returns the time of the last bar, without touching the rest of the
+	 * file.
+	 *
+	 * @param includeInterval  ignored.
+	 *
+	 * @return The maximum x-value, or {@code Double.NaN} if there are no bars.
+	 */
+	@Override
+	public double getDomainUpperBound(boolean includeInterval) {
+		return count > 0 ? getTime(count - 1) : Double.NaN;
+	}
+
+	@Override
+	public Range getDomainBounds(boolean includeInterval) {
+		if(count == 0) return null;
+
+		return new Range(getTime(0), getTime(count - 1));
+	}
+
+	/**
+	 * Returns the range of y-values for the bars whose time falls within
+	 * {@code xRange}.  Only the pages holding those bars are read.  The
+	 * result for the last window is kept: asking again for the same window,
+	 * or for the same window extended by bars appended since, only reads
+	 * the new bars, but any other window is scanned in full, in time
+	 * proportional to the number of bars in it.
+	 *
+	 * @param visibleSeriesKeys  the visible series keys ({@code null} not
+	 *     permitted).
+	 * @param xRange  the x-range ({@code null} not permitted).
+	 * @param includeInterval  if {@code true} the low and high values are
+	 *     used, otherwise the close values.
+	 *
+	 * @return The range (possibly {@code null}).
+	 */
+	@Override
+	public synchronized Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+		Args.nullNotPermitted(visibleSeriesKeys, "visibleSeriesKeys");
+		Args.nullNotPermitted(xRange, "xRange");
+
+		if(!visibleSeriesKeys.contains(key)) return null;
+
+		int first = firstIndexAtOrAfter(xRange.getLowerBound());
+		int last = lastIndexAtOrBefore(xRange.getUpperBound());
+
+		double minimum = Double.POSITIVE_INFINITY;
+		double maximum = Double.NEGATIVE_INFINITY;
+		int from = first;
+
+		// the same window as last time, perhaps with bars appended since
+		if(boundsValid && first == boundsFirst && includeInterval == boundsInterval && last >= boundsLast) {
+			minimum = boundsMinimum;
+			maximum = boundsMaximum;
+			from = boundsLast + 1;
+		}
+
+		for(int item = from; item <= last; item++) {
+			double lower = value(item, includeInterval ? LOW : CLOSE);
+			double upper = value(item, includeInterval ? HIGH : CLOSE);
+			if(lower < minimum) minimum = lower;
+			if(upper > maximum) maximum = upper;
+		}
+
+		boundsValid 	= true;
+		boundsFirst 	= first;
+		boundsLast 		= last;
+		boundsInterval 	= includeInterval;
+		boundsMinimum 	= minimum;
+		boundsMaximum 	= maximum;
+
+		if(minimum > maximum) return null;
+
+		return new Range(minimum, maximum);
+	}
+}
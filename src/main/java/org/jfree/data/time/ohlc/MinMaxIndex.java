@@ -0,0 +1,143 @@
+package org.jfree.data.time.ohlc;
+
+/**
+ * A min/max index over a {@code double[]}, answering the minimum or maximum
+ * of any slot range in O(log n).
+ * <P>
+ * The slots are grouped into blocks of {@link #BLOCK_SIZE}, and a segment
+ * tree holds the minimum and maximum of each block, so the index needs only a
+ * small fraction of the memory of the array itself.  A query scans the
+ * partial blocks at either end of the range directly, which also means that
+ * slots outside the queried range never affect the result, even if they hold
+ * stale values.  {@code NaN} values are ignored.
+ */
+class MinMaxIndex {
+	private static final int BLOCK_SHIFT = 6;
+
+	/** The number of slots summarized by each leaf of the tree. */
+	static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+	/** The indexed values (shared with the owner, not copied). */
+	private final double[] values;
+
+	/** The number of leaves (a power of two). */
+	private final int leaves;
+
+	/** The tree of block minimums, with the root in slot 1. */
+	private final double[] min;
+
+	/** The tree of block maximums, with the root in slot 1. */
+	private final double[] max;
+
+	/**
+	 * Builds an index over all slots of {@code values}.
+	 *
+	 * @param values  the values.
+	 */
+	MinMaxIndex(double[] values) {
+		this.values = values;
+
+		int blocks = Math.max((values.length + BLOCK_SIZE - 1) >> BLOCK_SHIFT, 1);
+		leaves = Integer.highestOneBit(blocks) == blocks ? blocks : Integer.highestOneBit(blocks) << 1;
+		min = new double[leaves << 1];
+		max = new double[leaves << 1];
+
+		for(int block = 0; block < leaves; block++) {
+			summarize(block);
+		}
+		for(int node = leaves - 1; node > 0; node--) {
+			pull(node);
+		}
+	}
+
+	/**
+	 * Updates the index after the value in {@code slot} has changed.
+	 *
+	 * @param slot  the slot.
+	 */
+	void update(int slot) {
+		int block = slot >> BLOCK_SHIFT;
+		summarize(block);
+
+		for(int node = (block + leaves) >> 1; node > 0; node >>= 1) {
+			pull(node);
+		}
+	}
+
+	/**
+	 * Returns the minimum value in the slots {@code from} to {@code to}
+	 * (inclusive), or positive infinity if there are none.
+	 */
+	double min(int from, int to) {
+		return query(from, to, true);
+	}
+
+	/**
+	 * Returns the maximum value in the slots {@code from} to {@code to}
+	 * (inclusive), or negative infinity if there are none.
+	 */
+	double max(int from, int to) {
+		return query(from, to, false);
+	}
+
+	private double query(int from, int to, boolean minimum) {
+		double result = minimum ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+		if(from > to) return result;
+
+		int firstBlock = from >> BLOCK_SHIFT;
+		int lastBlock = to >> BLOCK_SHIFT;
+
+		if(firstBlock == lastBlock) return scan(from, to + 1, minimum, result);
+
+		result = scan(from, (firstBlock + 1) << BLOCK_SHIFT, minimum, result);
+		result = scan(lastBlock << BLOCK_SHIFT, to + 1, minimum, result);
+
+		// whole blocks in between
+		double[] tree = minimum ? min : max;
+		int lo = firstBlock + 1 + leaves;
+		int hi = lastBlock + leaves;
+		while(lo < hi) {
+			if((lo & 1) == 1) result = combine(result, tree[lo++], minimum);
+			if((hi & 1) == 1) result = combine(result, tree[--hi], minimum);
+			lo >>= 1;
+			hi >>= 1;
+		}
+
+		return result;
+	}
+
+	private double scan(int from, int end, boolean minimum, double result) {
+		for(int slot = from; slot < end; slot++) {
+			result = combine(result, values[slot], minimum);
+		}
+
+		return result;
+	}
+
+	private static double combine(double a, double b, boolean minimum) {
+		// written so that a NaN 'b' leaves 'a' unchanged
+		if(minimum) return b < a ? b : a;
+
+		return b > a ? b : a;
+	}
+
+	private void summarize(int block) {
+		double lo = Double.POSITIVE_INFINITY;
+		double hi = Double.NEGATIVE_INFINITY;
+
+		int end = Math.min((block + 1) << BLOCK_SHIFT, values.length);
+		for(int slot = block << BLOCK_SHIFT; slot < end; slot++) {
+			double value = values[slot];
+			if(value < lo) lo = value;
+			if(value > hi) hi = value;
+		}
+
+		min[block + leaves] = lo;
+		max[block + leaves] = hi;
+	}
+
+	private void pull(int node) {
+		min[node] = Math.min(min[node << 1], min[(node << 1) + 1]);
+		max[node] = Math.max(max[node << 1], max[(node << 1) + 1]);
+	}
+}
@@ -100,6 +100,41 @@ public class OHLCItem extends ComparableObjectItem {
 		setObject(ohlc);
 	}
 
+	/**
+	 * Revises the item in place: the high and low are widened to include
+	 * {@code high} and {@code low}, and the close and volume are replaced.
+	 *
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 */
+	public void revise(double high, double low, double close, double volume) {
+		OHLC ohlc = (OHLC) getObject();
+
+		if(high > ohlc.getHigh()) ohlc.setHigh(high);
+		if(low < ohlc.getLow()) ohlc.setLow(low);
+		ohlc.setClose(close);
+		ohlc.setVolume(volume);
+	}
+
+	/**
+	 * Returns a clone of the item with its own copy of the values, which the
+	 * update methods change in place.
+	 *
+	 * @return A clone.
+	 *
+	 * @throws CloneNotSupportedException not thrown by this class.
+	 */
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		OHLCItem clone = (OHLCItem) super.clone();
+		OHLC ohlc = (OHLC) getObject();
+		if(ohlc != null) clone.setObject(new OHLC(ohlc.getOpen(), ohlc.getHigh(), ohlc.getLow(), ohlc.getClose(), ohlc.getVolume()));
+
+		return clone;
+	}
+
 	public double getVolume() {
 		OHLC ohlc = (OHLC) getObject();
 
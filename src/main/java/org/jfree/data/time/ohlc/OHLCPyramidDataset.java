@@ -0,0 +1,492 @@
+package org.jfree.data.time.ohlc;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.event.AxisChangeEvent;
+import org.jfree.chart.event.AxisChangeListener;
+import org.jfree.chart.util.Args;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.SeriesException;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.MultiResolutionOHLCDataset;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.XYRangeInfo;
+
+/**
+ * A single OHLC series held at several bar sizes at once.  Bars are added at
+ * the base (shortest) bar size, and each coarser level is rolled up from the
+ * level below it as they arrive, so every level is always complete.
+ * <P>
+ * The dataset presents one level at a time to the plot.  Register it as a
+ * listener on the domain axis (see {@link #axisChanged(AxisChangeEvent)}) and
+ * the level is chosen from the visible span so that at most
+ * {@link #getMaximumVisibleBars()} bars are on screen; or call
+ * {@link #setLevel(int)} directly.  Bars of every level are aligned to the
+ * UTC epoch, and the x-value of each bar is its start time in milliseconds.
+ *
+ * @see ColumnarOHLCDataset
+ */
+public class OHLCPyramidDataset extends AbstractXYDataset implements MultiResolutionOHLCDataset, DomainInfo, RangeInfo, XYRangeInfo, AxisChangeListener, Serializable {
+	private static final long serialVersionUID = 6262563391706302458L;
+
+	private static final long MINUTE = 60000L;
+	private static final long HOUR = 60 * MINUTE;
+
+	/** The default bar sizes: 1m, 5m, 15m, 1h, 4h and 1d. */
+	private static final long[] DEFAULT_INTERVALS = {
+		MINUTE, 5 * MINUTE, 15 * MINUTE, HOUR, 4 * HOUR, 24 * HOUR
+	};
+
+	/** The default for the maximum number of visible bars. */
+	private static final int DEFAULT_MAXIMUM_VISIBLE_BARS = 1500;
+
+	/** The series key. */
+	private Comparable key;
+
+	/** The bar size of each level, in milliseconds. */
+	private long[] intervals;
+
+	/** The bars of each level. */
+	private ColumnarOHLCDataset[] levels;
+
+	/** The level presented to the plot. */
+	private int level;
+
+	/** The maximum number of bars to show when choosing a level. */
+	private int maximumVisibleBars = DEFAULT_MAXIMUM_VISIBLE_BARS;
+
+	/**
+	 * Creates a new empty dataset with 1m base bars and 5m, 15m, 1h, 4h and
+	 * 1d levels.
+	 *
+	 * @param key  the series key ({@code null} not permitted).
+	 */
+	public OHLCPyramidDataset(Comparable key) {
+		this(key, DEFAULT_INTERVALS);
+	}
+
+	/**
+	 * Creates a new empty dataset.
+	 *
+	 * @param key  the series key ({@code null} not permitted).
+	 * @param intervals  the bar size of each level in milliseconds, base
+	 *     level first.  Each must be a multiple of the one before.
+	 */
+	public OHLCPyramidDataset(Comparable key, long... intervals) {
+		Args.nullNotPermitted(key, "key");
+		Args.nullNotPermitted(intervals, "intervals");
+		if(intervals.length == 0) throw new IllegalArgumentException("At least one interval is required.");
+
+		for(int i = 0; i < intervals.length; i++) {
+			if(intervals[i] <= 0) throw new IllegalArgumentException("Intervals must be positive.");
+			if(i > 0 && (intervals[i] <= intervals[i - 1] || intervals[i] % intervals[i - 1] != 0)) {
+				throw new IllegalArgumentException("Each interval must be a larger multiple of the one before.");
+			}
+		}
+
+		this.key 		= key;
+		this.intervals 	= intervals.clone();
+		levels 			= new ColumnarOHLCDataset[intervals.length];
+		for(int i = 0; i < levels.length; i++) {
+			levels[i] = new ColumnarOHLCDataset(key);
+		}
+	}
+
+	/**
+	 * Returns the series key.
+	 *
+	 * @return The series key (never {@code null}).
+	 */
+	public Comparable getKey() {
+		return key;
+	}
+
+	/**
+	 * Returns the level presented to the plot.
+	 *
+	 * @return The level index (0 is the base level).
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Sets the level presented to the plot and, if it changes, sends a
+	 * {@link DatasetChangeEvent} to all registered listeners.
+	 *
+	 * @param level  the level index (0 is the base level).
+	 */
+	public void setLevel(int level) {
+		if(level < 0 || level >= levels.length) throw new IllegalArgumentException("Invalid 'level': " + level);
+
+		if(this.level != level) {
+			this.level = level;
+
+			fireDatasetChanged();
+		}
+	}
+
+	/**
+	 * Returns the maximum number of bars the level selection aims to show.
+	 *
+	 * @return The maximum.
+	 *
+	 * @see #setMaximumVisibleBars(int)
+	 */
+	public int getMaximumVisibleBars() {
+		return maximumVisibleBars;
+	}
+
+	/**
+	 * Sets the maximum number of bars the level selection aims to show.  The
+	 * current level is not changed until the next selection.
+	 *
+	 * @param maximum  the maximum (must be positive).
+	 */
+	public void setMaximumVisibleBars(int maximum) {
+		if(maximum <= 0) throw new IllegalArgumentException("Requires 'maximum' > 0.");
+
+		maximumVisibleBars = maximum;
+	}
+
+	/**
+	 * Selects the finest level that shows at most
+	 * {@link #getMaximumVisibleBars()} bars over the given span (or the
+	 * coarsest level, if none does).
+	 *
+	 * @param span  the visible span in milliseconds.
+	 */
+	public void selectLevel(double span) {
+		int selected = levels.length - 1;
+		for(int i = 0; i < levels.length; i++) {
+			if(span / intervals[i] <= maximumVisibleBars) {
+				selected = i;
+				break;
+			}
+		}
+
+		setLevel(selected);
+	}
+
+	/**
+	 * Selects the level from the range of the axis that sent the event.
+	 * Register the dataset with the plot's domain axis to switch levels
+	 * automatically as the user zooms.
+	 *
+	 * @param event  the event.
+	 */
+	@Override
+	public void axisChanged(AxisChangeEvent event) {
+		if(event.getAxis() instanceof ValueAxis) {
+			selectLevel(((ValueAxis) event.getAxis()).getRange().getLength());
+		}
+	}
+
+	/**
+	 * Adds a base bar, or replaces the last base bar if it has the same
+	 * time, updates the coarser levels and sends a {@link DatasetChangeEvent}
+	 * to all registered listeners.
+	 *
+	 * @param time  the bar start time in milliseconds (must not be before
+	 *     the last bar).
+	 * @param open  the open value.
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 *
+	 * @throws SeriesException if {@code time} is before the last bar.
+	 */
+	public void add(long time, double open, double high, double low, double close, double volume) {
+		add(time, open, high, low, close, volume, true);
+	}
+
+	/**
+	 * Adds a base bar, or replaces the last base bar if it has the same
+	 * time, updates the coarser levels and, if requested, sends a
+	 * {@link DatasetChangeEvent} to all registered listeners.
+	 *
+	 * @param time  the bar start time in milliseconds (must not be before
+	 *     the last bar).
+	 * @param open  the open value.
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 * @param notify  notify listeners?
+	 *
+	 * @throws SeriesException if {@code time} is before the last bar.
+	 */
+	public void add(long time, double open, double high, double low, double close, double volume, boolean notify) {
+		long start = bucket(time, 0);
+		put(levels[0], start, open, high, low, close, volume);
+
+		// roll the changed bar up through the coarser levels; only the last
+		// bar of each level can be affected
+		for(int i = 1; i < levels.length; i++) {
+			rollUp(i, bucket(time, i));
+		}
+
+		if(notify) fireDatasetChanged();
+	}
+
+	/**
+	 * Removes all bars from every level and sends a
+	 * {@link DatasetChangeEvent} to all registered listeners.
+	 */
+	public void clear() {
+		for(ColumnarOHLCDataset data : levels) {
+			data.clear();
+		}
+
+		fireDatasetChanged();
+	}
+
+	/**
+	 * Recalculates the bar starting at {@code start} in level {@code i} from
+	 * the bars in the level below.
+	 */
+	private void rollUp(int i, long start) {
+		ColumnarOHLCDataset source = levels[i - 1];
+		int first = source.firstIndexAtOrAfter(start);
+		int count = source.getItemCount();
+
+		double open 	= source.getOpenValue(first);
+		double high 	= Double.NEGATIVE_INFINITY;
+		double low 		= Double.POSITIVE_INFINITY;
+		double close 	= source.getCloseValue(count - 1);
+		double volume 	= 0;
+
+		for(int item = first; item < count; item++) {
+			high = Math.max(high, source.getHighValue(item));
+			low = Math.min(low, source.getLowValue(item));
+			volume += source.getVolumeValue(item);
+		}
+
+		put(levels[i], start, open, high, low, close, volume);
+	}
+
+	/**
+	 * Appends a bar to a level, or updates its last bar if the times match.
+	 */
+	private static void put(ColumnarOHLCDataset data, long start, double open, double high, double low, double close, double volume) {
+		int count = data.getItemCount();
+		if(count > 0 && data.getTime(count - 1) == start) {
+			data.update(count - 1, open, high, low, close, volume);
+		}
+		else {
+			if(count > 0 && start < data.getTime(count - 1)) {
+				throw new SeriesException("Bars must be added in ascending time order.");
+			}
+
+			data.add(start, open, high, low, close, volume, false);
+		}
+	}
+
+	/**
+	 * Returns the start of the level {@code i} bar containing {@code time}.
+	 */
+	private long bucket(long time, int i) {
+		return time - Math.floorMod(time, intervals[i]);
+	}
+
+	/**
+	 * Returns the number of levels, including the presented one, from the
+	 * presented level upwards.
+	 *
+	 * @return The level count.
+	 */
+	@Override
+	public int getLevelCount() {
+		return levels.length - level;
+	}
+
+	/**
+	 * Returns the bars for a level, counted from the presented level
+	 * (so level 0 holds the items of this dataset).
+	 *
+	 * @param level  the level (zero-based index).
+	 *
+	 * @return The bars.
+	 */
+	@Override
+	public OHLCDataset getLevel(int level) {
+		return levels[this.level + level];
+	}
+
+	/**
+	 * Returns the bar size for a level, counted from the presented level.
+	 *
+	 * @param level  the level (zero-based index).
+	 *
+	 * @return The bar size in milliseconds.
+	 */
+	@Override
+	public double getLevelInterval(int level) {
+		return intervals[this.level + level];
+	}
+
+	/**
+	 * Returns the bar size of the presented level.
+	 *
+	 * @return The bar size in milliseconds.
+	 */
+	public long getInterval() {
+		return intervals[level];
+	}
+
+	private ColumnarOHLCDataset current() {
+		return levels[level];
+	}
+
+	@Override
+	public int getSeriesCount() {
+		return 1;
+	}
+
+	@Override
+	public Comparable getSeriesKey(int series) {
+		if(series != 0) throw new IllegalArgumentException("Invalid series index: " + series);
+
+		return key;
+	}
+
+	@Override
+	public int getItemCount(int series) {
+		return current().getItemCount(series);
+	}
+
+	@Override
+	public DomainOrder getDomainOrder() {
+		return DomainOrder.ASCENDING;
+	}
+
+	@Override
+	public double getXValue(int series, int item) {
+		return current().getXValue(series, item);
+	}
+
+	@Override
+	public Number getX(int series, int item) {
+		return current().getX(series, item);
+	}
+
+	@Override
+	public double getYValue(int series, int item) {
+		return current().getYValue(series, item);
+	}
+
+	@Override
+	public Number getY(int series, int item) {
+		return current().getY(series, item);
+	}
+
+	@Override
+	public double getOpenValue(int series, int item) {
+		return current().getOpenValue(series, item);
+	}
+
+	@Override
+	public Number getOpen(int series, int item) {
+		return current().getOpen(series, item);
+	}
+
+	@Override
+	public double getHighValue(int series, int item) {
+		return current().getHighValue(series, item);
+	}
+
+	@Override
+	public Number getHigh(int series, int item) {
+		return current().getHigh(series, item);
+	}
+
+	@Override
+	public double getLowValue(int series, int item) {
+		return current().getLowValue(series, item);
+	}
+
+	@Override
+	public Number getLow(int series, int item) {
+		return current().getLow(series, item);
+	}
+
+	@Override
+	public double getCloseValue(int series, int item) {
+		return current().getCloseValue(series, item);
+	}
+
+	@Override
+	public Number getClose(int series, int item) {
+		return current().getClose(series, item);
+	}
+
+	@Override
+	public double getVolumeValue(int series, int item) {
+		return current().getVolumeValue(series, item);
+	}
+
+	@Override
+	public Number getVolume(int series, int item) {
+		return current().getVolume(series, item);
+	}
+
+	@Override
+	public double getDomainLowerBound(boolean includeInterval) {
+		return current().getDomainLowerBound(includeInterval);
+	}
+
+	@Override
+	public double getDomainUpperBound(boolean includeInterval) {
+		return current().getDomainUpperBound(includeInterval);
+	}
+
+	@Override
+	public Range getDomainBounds(boolean includeInterval) {
+		return current().getDomainBounds(includeInterval);
+	}
+
+	@Override
+	public double getRangeLowerBound(boolean includeInterval) {
+		return current().getRangeLowerBound(includeInterval);
+	}
+
+	@Override
+	public double getRangeUpperBound(boolean includeInterval) {
+		return current().getRangeUpperBound(includeInterval);
+	}
+
+	@Override
+	public Range getRangeBounds(boolean includeInterval) {
+		return current().getRangeBounds(includeInterval);
+	}
+
+	@Override
+	public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+		return current().getRangeBounds(visibleSeriesKeys, xRange, includeInterval);
+	}
+
+	/**
+	 * Returns an independent copy of this dataset.
+	 *
+	 * @return A clone.
+	 *
+	 * @throws CloneNotSupportedException if there is a problem.
+	 */
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		OHLCPyramidDataset clone = (OHLCPyramidDataset) super.clone();
+		clone.levels = new ColumnarOHLCDataset[levels.length];
+		for(int i = 0; i < levels.length; i++) {
+			clone.levels[i] = (ColumnarOHLCDataset) levels[i].clone();
+		}
+
+		return clone;
+	}
+}
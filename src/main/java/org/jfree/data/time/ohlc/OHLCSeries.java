@@ -2,6 +2,7 @@ package org.jfree.data.time.ohlc;
 
 import org.jfree.chart.util.Args;
 import org.jfree.data.*;
+import org.jfree.data.general.SeriesItemChangeEvent;
 import org.jfree.data.time.RegularTimePeriod;
 
 /**
@@ -128,15 +129,23 @@ public class OHLCSeries extends ComparableObjectSeries {
 
     /*
      * update last candle close price (same as last price)
+     *
+     * The update methods change a copy of the item, which replaces it, and
+     * send a SeriesItemChangeEvent, so listeners can update in constant time
+     * and snapshot readers keep the old item.
      */
 	public void updatePrice(double newPrice) {
 		updatePrice(newPrice, getItemCount()-1);
 	}
 
 	public void updatePrice(double newPrice, int index) {
-		((OHLCItem)getDataItem(index)).updatePrice(newPrice);
+		OHLCItem item = (OHLCItem) copyItem(index);
+		double oldLow = item.getLowValue();
+		double oldHigh = item.getHighValue();
+
+		item.updatePrice(newPrice);
 
-		fireSeriesChanged();
+		fireItemChanged(index, oldLow, oldHigh);
 	}
 
 	public void updataVolume(double newVolume) {
@@ -144,9 +153,11 @@ public class OHLCSeries extends ComparableObjectSeries {
 	}
 
 	public void updateVolume(double newVolume, int index) {
-		((OHLCItem)getDataItem(index)).setVolume(newVolume);
+		OHLCItem item = (OHLCItem) copyItem(index);
+
+		item.setVolume(newVolume);
 
-		fireSeriesChanged();
+		fireItemChanged(index, item.getLowValue(), item.getHighValue());
 	}
 
 	public void updatePriceVolume(double newPrice, double newVolume) {
@@ -154,10 +165,53 @@ public class OHLCSeries extends ComparableObjectSeries {
 	}
 
 	public void updatePriceVolume(double newPrice, double newVolume, int index) {
-		((OHLCItem)getDataItem(index)).updatePrice(newPrice);
-		((OHLCItem)getDataItem(index)).setVolume(newVolume);
+		OHLCItem item = (OHLCItem) copyItem(index);
+		double oldLow = item.getLowValue();
+		double oldHigh = item.getHighValue();
+
+		item.updatePrice(newPrice);
+		item.setVolume(newVolume);
+
+		fireItemChanged(index, oldLow, oldHigh);
+	}
 
-		fireSeriesChanged();
+	/**
+	 * Revises the newest item in place, e.g. from a candle snapshot sent by
+	 * an exchange while the candle is still open, and sends a
+	 * {@link SeriesItemChangeEvent} to all registered listeners.  The high
+	 * and low are widened to include {@code high} and {@code low} (a
+	 * candle's range never shrinks); the close and volume are replaced.
+	 *
+	 * @param high  the high value.
+	 * @param low  the low value.
+	 * @param close  the close value.
+	 * @param volume  the volume.
+	 *
+	 * @throws IllegalStateException if the series is empty.
+	 */
+	public void reviseLast(double high, double low, double close, double volume) {
+		if(getItemCount() == 0) throw new IllegalStateException("The series is empty.");
+
+		int index = getItemCount() - 1;
+		OHLCItem item = (OHLCItem) copyItem(index);
+		double oldLow = item.getLowValue();
+		double oldHigh = item.getHighValue();
+
+		item.revise(high, low, close, volume);
+
+		fireItemChanged(index, oldLow, oldHigh);
+	}
+
+	/**
+	 * Sends a {@link SeriesItemChangeEvent} for an item whose values were
+	 * changed in place, provided that the {@code notify} flag is set.
+	 */
+	private void fireItemChanged(int index, double oldLow, double oldHigh) {
+		if(getNotify()) {
+			OHLCItem item = (OHLCItem) getDataItem(index);
+
+			notifyListeners(new SeriesItemChangeEvent(this, index, oldLow, oldHigh, item.getLowValue(), item.getHighValue()));
+		}
 	}
 	
     /**
@@ -7,6 +7,9 @@ import org.jfree.chart.HashUtils;
 import org.jfree.chart.util.ObjectUtils;
 import org.jfree.chart.util.Args;
 import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetItemChangeEvent;
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesItemChangeEvent;
 import org.jfree.data.time.RegularTimePeriod;
 import org.jfree.data.time.TimePeriodAnchor;
 import org.jfree.data.xy.AbstractXYDataset;
@@ -80,6 +83,28 @@ public class OHLCSeriesCollection extends AbstractXYDataset implements OHLCDatas
         fireDatasetChanged();
     }
 
+    /**
+     * Called when a series in the collection changes.  A change to a single
+     * item is passed on as a {@link DatasetItemChangeEvent}.
+     *
+     * @param event  information about the change.
+     */
+    @Override
+    public void seriesChanged(SeriesChangeEvent event) {
+    	if(event instanceof SeriesItemChangeEvent && getNotify()) {
+    		int series = data.indexOf(event.getSource());
+    		if(series >= 0) {
+    			SeriesItemChangeEvent e = (SeriesItemChangeEvent) event;
+
+    			notifyListeners(new DatasetItemChangeEvent(this, this, series, e.getItem(), e.getOldMinimum(), e.getOldMaximum(), e.getNewMinimum(), e.getNewMaximum()));
+
+    			return;
+    		}
+    	}
+
+    	super.seriesChanged(event);
+    }
+
     /**
      * Returns the number of series in the collection.
      *
@@ -0,0 +1,501 @@
+package org.jfree.data.xy;
+
+import java.util.Collections;
+import java.util.List;
+import org.jfree.chart.util.Args;
+import org.jfree.chart.util.PublicCloneable;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.general.DatasetItemChangeEvent;
+import org.jfree.data.general.DatasetUtils;
+
+/**
+ * A dataset wrapper that plots the items of a time-ordered {@link XYDataset}
+ * by their position rather than their time: the x-value of an item is its
+ * index, so bars are evenly spaced and there are no gaps for weekends,
+ * halts or overnight sessions.  The times stay available through
+ * {@link #getBarTime(int)}, which is how {@link
+ * org.jfree.chart.axis.BarIndexAxis} labels its ticks.
+ * <P>
+ * The y-values are passed through.  If the underlying dataset is an
+ * {@link OHLCDataset} its open, high, low, close and volume values are passed
+ * through too, and the low and high values serve as the y-interval; for other
+ * datasets every OHLC value is the y-value.  Each item has an x-interval of
+ * {@link #getBarWidth()} centred on its index, for bar renderers.
+ * <P>
+ * The series of the underlying dataset are assumed to hold one item per bar,
+ * in the same order, so that item {@code i} of every series falls at the
+ * same time; the bar times are taken from the first series.
+ */
+public class BarIndexDataset extends AbstractIntervalXYDataset implements OHLCDataset, DomainInfo, RangeInfo, XYRangeInfo, DatasetChangeListener, PublicCloneable {
+	private static final long serialVersionUID = -2716473395804410526L;
+
+	/** The default bar width. */
+	public static final double DEFAULT_BAR_WIDTH = 0.8;
+
+	/** The underlying dataset. */
+	private XYDataset underlying;
+
+	/** The bar width, as a fraction of the distance between bars. */
+	private double barWidth;
+
+	/**
+	 * Creates a new dataset with the default bar width.
+	 *
+	 * @param underlying  the underlying dataset, with x-values in ascending
+	 *     time order ({@code null} not permitted).
+	 */
+	public BarIndexDataset(XYDataset underlying) {
+		this(underlying, DEFAULT_BAR_WIDTH);
+	}
+
+	/**
+	 * Creates a new dataset.
+	 *
+	 * @param underlying  the underlying dataset, with x-values in ascending
+	 *     time order ({@code null} not permitted).
+	 * @param barWidth  the bar width, as a fraction of the distance between
+	 *     bars.
+	 */
+	public BarIndexDataset(XYDataset underlying, double barWidth) {
+		Args.nullNotPermitted(underlying, "underlying");
+
+		this.underlying = underlying;
+		this.barWidth 	= barWidth;
+		underlying.addChangeListener(this);
+	}
+
+	/**
+	 * Returns the underlying dataset.
+	 *
+	 * @return The underlying dataset (never {@code null}).
+	 */
+	public XYDataset getUnderlyingDataset() {
+		return underlying;
+	}
+
+	/**
+	 * Returns the bar width.
+	 *
+	 * @return The bar width.
+	 *
+	 * @see #setBarWidth(double)
+	 */
+	public double getBarWidth() {
+		return barWidth;
+	}
+
+	/**
+	 * Sets the bar width and sends a {@link DatasetChangeEvent} to all
+	 * registered listeners.
+	 *
+	 * @param barWidth  the bar width, as a fraction of the distance between
+	 *     bars.
+	 *
+	 * @see #getBarWidth()
+	 */
+	public void setBarWidth(double barWidth) {
+		this.barWidth = barWidth;
+
+		fireDatasetChanged();
+	}
+
+	/**
+	 * Returns the number of bars (the item count of the first series).
+	 *
+	 * @return The bar count.
+	 */
+	public int getBarCount() {
+		return underlying.getSeriesCount() > 0 ? underlying.getItemCount(0) : 0;
+	}
+
+	/**
+	 * Returns the time of a bar, that is the x-value of the item in the first
+	 * series of the underlying dataset.  Before the first bar and after the
+	 * last, the time is extrapolated from the spacing of the two nearest
+	 * bars, so that positions in the axis margins can be labelled too.
+	 *
+	 * @param index  the bar index (any value).
+	 *
+	 * @return The time in milliseconds, or {@code Double.NaN} if there are
+	 *     no bars.
+	 */
+	public double getBarTime(int index) {
+		int count = getBarCount();
+		if(count == 0) return Double.NaN;
+
+		if(index >= 0 && index < count) return underlying.getXValue(0, index);
+		if(count == 1) return underlying.getXValue(0, 0);
+
+		if(index < 0) {
+			double first = underlying.getXValue(0, 0);
+
+			return first + index * (underlying.getXValue(0, 1) - first);
+		}
+
+		double last = underlying.getXValue(0, count - 1);
+
+		return last + (index - count + 1) * (last - underlying.getXValue(0, count - 2));
+	}
+
+	@Override
+	public int getSeriesCount() {
+		return underlying.getSeriesCount();
+	}
+
+	@Override
+	public Comparable getSeriesKey(int series) {
+		return underlying.getSeriesKey(series);
+	}
+
+	@Override
+	public int getItemCount(int series) {
+		return underlying.getItemCount(series);
+	}
+
+	/**
+	 * Returns {@link DomainOrder#ASCENDING}, since the x-values are the item
+	 * indices.
+	 *
+	 * @return The domain order.
+	 */
+	@Override
+	public DomainOrder getDomainOrder() {
+		return DomainOrder.ASCENDING;
+	}
+
+	/**
+	 * Returns the x-value for an item, which is the item index.
+	 *
+	 * @param series  the series index (zero-based).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The x-value.
+	 */
+	@Override
+	public Number getX(int series, int item) {
+		return Double.valueOf(item);
+	}
+
+	/**
+	 * Returns the x-value for an item, which is the item index.
+	 *
+	 * @param series  the series index (zero-based).
+	 * @param item  the item index (zero-based).
+	 *
+	 * @return The x-value.
+	 */
+	@Override
+	public double getXValue(int series, int item) {
+		return item;
+	}
+
+	@Override
+	public Number getY(int series, int item) {
+		return underlying.getY(series, item);
+	}
+
+	@Override
+	public double getYValue(int series, int item) {
+		return underlying.getYValue(series, item);
+	}
+
+	@Override
+	public Number getStartX(int series, int item) {
+		return Double.valueOf(getStartXValue(series, item));
+	}
+
+	@Override
+	public double getStartXValue(int series, int item) {
+		return item - barWidth / 2.0;
+	}
+
+	@Override
+	public Number getEndX(int series, int item) {
+		return Double.valueOf(getEndXValue(series, item));
+	}
+
+	@Override
+	public double getEndXValue(int series, int item) {
+		return item + barWidth / 2.0;
+	}
+
+	@Override
+	public Number getStartY(int series, int item) {
+		if(underlying instanceof OHLCDataset) return ((OHLCDataset) underlying).getLow(series, item);
+		if(underlying instanceof IntervalXYDataset) return ((IntervalXYDataset) underlying).getStartY(series, item);
+
+		return underlying.getY(series, item);
+	}
+
+	@Override
+	public double getStartYValue(int series, int item) {
+		if(underlying instanceof OHLCDataset) return ((OHLCDataset) underlying).getLowValue(series, item);
+		if(underlying instanceof IntervalXYDataset) return ((IntervalXYDataset) underlying).getStartYValue(series, item);
+
+		return underlying.getYValue(series, item);
+	}
+
+	@Override
+	public Number getEndY(int series, int item) {
+		if(underlying instanceof OHLCDataset) return ((OHLCDataset) underlying).getHigh(series, item);
+		if(underlying instanceof IntervalXYDataset) return ((IntervalXYDataset) underlying).getEndY(series, item);
+
+		return underlying.getY(series, item);
+	}
+
+	@Override
+	public double getEndYValue(int series, int item) {
+		if(underlying instanceof OHLCDataset) return ((OHLCDataset) underlying).getHighValue(series, item);
+		if(underlying instanceof IntervalXYDataset) return ((IntervalXYDataset) underlying).getEndYValue(series, item);
+
+		return underlying.getYValue(series, item);
+	}
+
+	@Override
+	public Number getHigh(int series, int item) {
+		return underlying instanceof OHLCDataset ? ((OHLCDataset) underlying).getHigh(series, item) : underlying.getY(series, item);
+	}
+
+	@Override
+	public double getHighValue(int series, int item) {
+		return underlying instanceof OHLCDataset ? ((OHLCDataset) underlying).getHighValue(series, item) : underlying.getYValue(series, item);
+	}
+
+	@Override
+	public Number getLow(int series, int item) {
+		return underlying instanceof OHLCDataset ? ((OHLCDataset) underlying).getLow(series, item) : underlying.getY(series, item);
+	}
+
+	@Override
+	public double getLowValue(int series, int item) {
+		return underlying instanceof OHLCDataset ? ((OHLCDataset) underlying).getLowValue(series, item) : underlying.getYValue(series, item);
+	}
+
+	@Override
+	public Number getOpen(int series, int item) {
+		return underlying instanceof OHLCDataset ? ((OHLCDataset) underlying).getOpen(series, item) : underlying.getY(series, item);
+	}
+
+	@Override
+	public double getOpenValue(int series, int item) {
+		return underlying instanceof OHLCDataset ? ((OHLCDataset) underlying).getOpenValue(series, item) : underlying.getYValue(series, item);
+	}
+
+	@Override
+	public Number getClose(int series, int item) {
+		return underlying instanceof OHLCDataset ? ((OHLCDataset) underlying).getClose(series, item) : underlying.getY(series, item);
+	}
+
+	@Override
+	public double getCloseValue(int series, int item) {
+		return underlying instanceof OHLCDataset ? ((OHLCDataset) underlying).getCloseValue(series, item) : underlying.getYValue(series, item);
+	}
+
+	@Override
+	public Number getVolume(int series, int item) {
+		return underlying instanceof OHLCDataset ? ((OHLCDataset) underlying).getVolume(series, item) : null;
+	}
+
+	@Override
+	public double getVolumeValue(int series, int item) {
+		return underlying instanceof OHLCDataset ? ((OHLCDataset) underlying).getVolumeValue(series, item) : Double.NaN;
+	}
+
+	/**
+	 * Returns the lowest x-value: zero, less half a bar if the interval is
+	 * included.
+	 *
+	 * @param includeInterval  include the x-interval?
+	 *
+	 * @return The lower bound, or {@code Double.NaN} if the dataset is empty.
+	 */
+	@Override
+	public double getDomainLowerBound(boolean includeInterval) {
+		Range bounds = getDomainBounds(includeInterval);
+
+		return bounds != null ? bounds.getLowerBound() : Double.NaN;
+	}
+
+	/**
+	 * Returns the highest x-value: the index of the last item in the longest
+	 * series, plus half a bar if the interval is included.
+	 *
+	 * @param includeInterval  include the x-interval?
+	 *
+	 * @return The upper bound, or {@code Double.NaN} if the dataset is empty.
+	 */
+	@Override
+	public double getDomainUpperBound(boolean includeInterval) {
+		Range bounds = getDomainBounds(includeInterval);
+
+		return bounds != null ? bounds.getUpperBound() : Double.NaN;
+	}
+
+	/**
+	 * Returns the range of the x-values, found without looking at the items.
+	 *
+	 * @param includeInterval  include the x-interval?
+	 *
+	 * @return The range ({@code null} if the dataset is empty).
+	 */
+	@Override
+	public Range getDomainBounds(boolean includeInterval) {
+		int count = 0;
+		for(int series = 0; series < underlying.getSeriesCount(); series++) {
+			count = Math.max(count, underlying.getItemCount(series));
+		}
+		if(count == 0) return null;
+
+		double margin = includeInterval ? barWidth / 2.0 : 0.0;
+
+		return new Range(-margin, count - 1 + margin);
+	}
+
+	@Override
+	public double getRangeLowerBound(boolean includeInterval) {
+		Range bounds = getRangeBounds(includeInterval);
+
+		return bounds != null ? bounds.getLowerBound() : Double.NaN;
+	}
+
+	@Override
+	public double getRangeUpperBound(boolean includeInterval) {
+		Range bounds = getRangeBounds(includeInterval);
+
+		return bounds != null ? bounds.getUpperBound() : Double.NaN;
+	}
+
+	/**
+	 * Returns the range of the y-values, which is that of the underlying
+	 * dataset.
+	 *
+	 * @param includeInterval  include the y-interval?
+	 *
+	 * @return The range ({@code null} if the dataset is empty).
+	 */
+	@Override
+	public Range getRangeBounds(boolean includeInterval) {
+		return DatasetUtils.findRangeBounds(underlying, includeInterval);
+	}
+
+	/**
+	 * Returns the range of the y-values of the items of the visible series
+	 * whose index falls within {@code xRange}.  The index range is turned
+	 * into a time range directly and handed to the underlying dataset, so an
+	 * underlying dataset that answers window queries quickly is not
+	 * iterated.
+	 *
+	 * @param visibleSeriesKeys  the keys of the visible series
+	 *     ({@code null} not permitted).
+	 * @param xRange  the range of item indices ({@code null} not permitted).
+	 * @param includeInterval  include the y-interval?
+	 *
+	 * @return The range ({@code null} if there are no items in the window).
+	 */
+	@Override
+	public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+		Args.nullNotPermitted(visibleSeriesKeys, "visibleSeriesKeys");
+		Args.nullNotPermitted(xRange, "xRange");
+
+		Range result = null;
+		for(int series = 0; series < underlying.getSeriesCount(); series++) {
+			Comparable key = underlying.getSeriesKey(series);
+			if(!visibleSeriesKeys.contains(key)) continue;
+
+			int[] items = findItems(series, xRange.getLowerBound(), xRange.getUpperBound());
+			if(items == null) continue;
+
+			Range times = new Range(underlying.getXValue(series, items[0]), underlying.getXValue(series, items[1]));
+			result = Range.combine(result, DatasetUtils.findRangeBounds(underlying, Collections.singletonList(key), times, includeInterval));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the first and last item indices of a series within a range of
+	 * x-values, or {@code null} if no item falls in the range.  This takes
+	 * constant time.
+	 *
+	 * @param series  the series index (zero-based).
+	 * @param xLow  the lowest x-value.
+	 * @param xHigh  the highest x-value.
+	 *
+	 * @return The indices (possibly {@code null}).
+	 */
+	public int[] findItems(int series, double xLow, double xHigh) {
+		int count = underlying.getItemCount(series);
+		double first = Math.max(Math.ceil(xLow), 0);
+		double last = Math.min(Math.floor(xHigh), count - 1);
+		if(!(first <= last)) return null;
+
+		return new int[] {(int) first, (int) last};
+	}
+
+	/**
+	 * Receives notification of a change to the underlying dataset and passes
+	 * it on, keeping the series and item of a single-item change.
+	 *
+	 * @param event  information about the change.
+	 */
+	@Override
+	public void datasetChanged(DatasetChangeEvent event) {
+		if(!getNotify()) return;
+
+		if(event instanceof DatasetItemChangeEvent) {
+			DatasetItemChangeEvent e = (DatasetItemChangeEvent) event;
+			notifyListeners(new DatasetItemChangeEvent(this, this, e.getSeries(), e.getItem(), e.getOldMinimum(), e.getOldMaximum(), e.getNewMinimum(), e.getNewMaximum()));
+		}
+		else notifyListeners(new DatasetChangeEvent(this, this));
+	}
+
+	/**
+	 * Tests this dataset for equality with an arbitrary object.
+	 *
+	 * @param obj  the object ({@code null} permitted).
+	 *
+	 * @return A boolean.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(obj == this) return true;
+
+		if(!(obj instanceof BarIndexDataset)) return false;
+
+		BarIndexDataset that = (BarIndexDataset) obj;
+		if(!underlying.equals(that.underlying)) return false;
+
+		return barWidth == that.barWidth;
+	}
+
+	@Override
+	public int hashCode() {
+		return underlying.hashCode() * 31 + Double.valueOf(barWidth).hashCode();
+	}
+
+	/**
+	 * Returns an independent copy of the dataset.  The underlying dataset is
+	 * only cloned if it implements {@link PublicCloneable}, and the listeners
+	 * are not carried over.
+	 *
+	 * @return An independent copy of the dataset.
+	 *
+	 * @throws CloneNotSupportedException if the dataset cannot be cloned.
+	 */
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		BarIndexDataset clone = (BarIndexDataset) super.clone();
+
+		if(underlying instanceof PublicCloneable) {
+			clone.underlying = (XYDataset) ((PublicCloneable) underlying).clone();
+			clone.underlying.addChangeListener(clone);
+		}
+
+		return clone;
+	}
+}
@@ -0,0 +1,35 @@
+package org.jfree.data.xy;
+
+/**
+ * An {@link OHLCDataset} that can also supply its data pre-aggregated into
+ * coarser bars.  Renderers can use a coarser level when many bars would
+ * otherwise be drawn into each pixel.
+ */
+public interface MultiResolutionOHLCDataset extends OHLCDataset {
+    /**
+     * Returns the number of levels, including the base level.
+     *
+     * @return The level count (at least 1).
+     */
+    public int getLevelCount();
+
+    /**
+     * Returns the data for a level.  Level 0 is the base data (the items of
+     * this dataset), and each following level has longer bars.  The series
+     * in each level correspond to the series of this dataset.
+     *
+     * @param level  the level (zero-based index).
+     *
+     * @return The data for the level.
+     */
+    public OHLCDataset getLevel(int level);
+
+    /**
+     * Returns the length of one bar at a level, in x-value units.
+     *
+     * @param level  the level (zero-based index).
+     *
+     * @return The bar length.
+     */
+    public double getLevelInterval(int level);
+}
@@ -0,0 +1,80 @@
+package com.fx.jfree.chart.feed;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link CoinbaseDecoder} class.
+ */
+public class CoinbaseDecoderTest {
+	/** One trade as sent on the ticker channel. */
+	private static final String TICKER = "{\"type\":\"ticker\",\"sequence\":2,\"product_id\":\"BTC-USD\",\"price\":\"3500.01\","
+		+ "\"side\":\"buy\",\"time\":\"2019-01-05T10:12:13.123456Z\",\"trade_id\":7,\"last_size\":\"0.25\"}";
+
+	/** The same trade as sent on the matches channel. */
+	private static final String MATCH = "{\"type\":\"match\",\"trade_id\":7,\"sequence\":1,\"maker_order_id\":\"a\","
+		+ "\"taker_order_id\":\"b\",\"time\":\"2019-01-05T10:12:13.123456Z\",\"product_id\":\"BTC-USD\",\"size\":\"0.25\","
+		+ "\"price\":\"3500.01\",\"side\":\"sell\"}";
+
+	/** The last trade, sent on the matches channel when subscribing. */
+	private static final String LAST_MATCH = MATCH.replace("\"match\"", "\"last_match\"");
+
+	private static final long TIME = 1546683133123L;
+
+	/**
+	 * A client subscribed to both channels receives every trade twice; the
+	 * ticker decoder must only count the ticker message.
+	 */
+	@Test
+	public void testTickerIgnoresMatches() {
+		List<double[]> trades = decode(new CoinbaseDecoder(), TICKER, MATCH, LAST_MATCH);
+
+		assertEquals(1, trades.size());
+		assertTrade(trades.get(0));
+	}
+
+	/**
+	 * The matches decoder must only count the match messages.
+	 */
+	@Test
+	public void testMatchesIgnoresTicker() {
+		List<double[]> trades = decode(new CoinbaseDecoder(CoinbaseDecoder.MATCHES), LAST_MATCH, TICKER, MATCH);
+
+		assertEquals(2, trades.size());
+		assertTrade(trades.get(0));
+		assertTrade(trades.get(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsupportedChannel() {
+		new CoinbaseDecoder("level2");
+	}
+
+	private static void assertTrade(double[] trade) {
+		assertEquals(TIME, (long) trade[0]);
+		assertEquals(3500.01, trade[1], 0.0);
+		assertEquals(0.25, trade[2], 0.0);
+	}
+
+	private static List<double[]> decode(CoinbaseDecoder decoder, String... messages) {
+		final List<double[]> trades = new ArrayList<>();
+		IngestHandler handler = new IngestHandler() {
+			@Override
+			public void onTrade(int symbol, long time, double price, double size) {
+				trades.add(new double[] {time, price, size});
+			}
+
+			@Override
+			public void onCandle(int symbol, long time, double open, double high, double low, double close, double volume) {
+			}
+		};
+
+		for(String message : messages) decoder.decode(message, handler);
+
+		return trades;
+	}
+}